@@ -0,0 +1,165 @@
+package com.cabinet.dentaire.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.cabinet.dentaire.enums.AdmissionLane;
+import com.cabinet.dentaire.service.admission.AdmissionControl;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Admission control in front of the /api controllers (see AdmissionControl): the
+// request is classified in a lane by method + path, the client is its API key when it
+// is one of the configured keys (anyone can send a header, unknown keys would be a
+// fresh bucket each) and its address otherwise. Refused requests get a 429 with
+// Retry-After. The permit is held until the response is complete, async ones included.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "dentaire.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // "GET /api/patients" or "/api/waiting-queue/**" (any method)
+    private record Route(String method, String pattern) {
+
+        static Route parse(String entry) {
+            String[] parts = entry.strip().split("\\s+", 2);
+            return parts.length == 2
+                ? new Route(parts[0].toUpperCase(Locale.ROOT), parts[1])
+                : new Route(null, parts[0]);
+        }
+    }
+
+    private final AdmissionControl admissionControl;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Route> priorityRoutes;
+    private final List<Route> heavyRoutes;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+
+    public AdmissionControlFilter(
+            AdmissionControl admissionControl,
+            @Value("${dentaire.admission.priority-paths:/api/waiting-queue/**,/api/reactive/waiting-queue}") List<String> priorityPaths,
+            @Value("${dentaire.admission.heavy-paths:GET /api/appointments,GET /api/appointments/grouped-by-status}") List<String> heavyPaths,
+            @Value("${dentaire.admission.api-key-header:X-Api-Key}") String apiKeyHeader,
+            @Value("${dentaire.admission.api-keys:}") Set<String> apiKeys) {
+        this.admissionControl = admissionControl;
+        this.priorityRoutes = routes(priorityPaths);
+        this.heavyRoutes = routes(heavyPaths);
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys.stream().map(String::strip).filter(key -> !key.isEmpty()).toList());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.Decision decision = admissionControl.admit(client(request), lane(request));
+        if (!decision.admitted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            response.sendError(429, "Too many requests (" + decision.reason() + "), retry after "
+                + decision.retryAfterSeconds() + " s");
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(decision));
+            }
+        } finally {
+            if (!async) {
+                admissionControl.release(decision);
+            }
+        }
+    }
+
+    private AdmissionLane lane(HttpServletRequest request) {
+        if (matches(priorityRoutes, request)) {
+            return AdmissionLane.PRIORITY;
+        }
+        return matches(heavyRoutes, request) ? AdmissionLane.HEAVY : AdmissionLane.STANDARD;
+    }
+
+    private boolean matches(List<Route> routes, HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (Route route : routes) {
+            if ((route.method() == null || route.method().equals(request.getMethod()))
+                    && matcher.match(route.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(apiKeyHeader);
+        if (key != null && apiKeys.contains(key.strip())) {
+            return "key:" + key.strip();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static List<Route> routes(List<String> entries) {
+        return entries.stream().filter(entry -> !entry.isBlank()).map(Route::parse).toList();
+    }
+
+    // Complete, error and timeout may all fire for one request: release once
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdmissionControl.Decision decision;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdmissionControl.Decision decision) {
+            this.decision = decision;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-dispatched: the listener has to be added again to the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                admissionControl.release(decision);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.cabinet.dentaire.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import com.cabinet.dentaire.DentaireApplication;
+
+// ============== AOT Condition Check ==============
+// The prod build (mvn -Pprod package) evaluates every @ConditionalOnProperty at build
+// time: the generated context only holds the beans that matched then, and the runtime
+// value of the property is no longer looked at. Started with AOT, each of our
+// conditional classes is checked against the runtime environment before any bean is
+// created; a bean that should be there and is not (or the reverse) fails the startup
+// instead of silently running the build-time choice. The properties concerned are
+// listed in application-prod.properties.
+@Component
+public class AotConditionCheck implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> mismatches = new ArrayList<>();
+        for (Class<?> type : conditionalClasses(beanFactory.getBeanClassLoader())) {
+            boolean expected = matches(type, environment);
+            boolean present = beanFactory.getBeanNamesForType(type, true, false).length > 0;
+            if (expected != present) {
+                mismatches.add(type.getSimpleName() + " is " + (present ? "included" : "excluded")
+                    + " but " + describe(type, environment) + " asks for the opposite");
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("The AOT build was made with other property values than this run: "
+                + String.join("; ", mismatches)
+                + ". Rebuild with them (-Dspring-boot.aot.jvmArguments=\"-D<property>=<value>\") "
+                + "or start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    static boolean matches(Class<?> type, PropertyResolver properties) {
+        return MergedAnnotations.from(type).stream(ConditionalOnProperty.class)
+            .allMatch(condition -> matches(condition.asAnnotationAttributes(), properties));
+    }
+
+    // Same rules as OnPropertyCondition
+    static boolean matches(AnnotationAttributes condition, PropertyResolver properties) {
+        String havingValue = condition.getString("havingValue");
+        for (String name : names(condition)) {
+            String value = properties.getProperty(name);
+            if (value == null) {
+                if (!condition.getBoolean("matchIfMissing")) {
+                    return false;
+                }
+            } else if (StringUtils.hasLength(havingValue)
+                    ? !value.equalsIgnoreCase(havingValue)
+                    : value.equalsIgnoreCase("false")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> names(AnnotationAttributes condition) {
+        String prefix = condition.getString("prefix").trim();
+        if (StringUtils.hasText(prefix) && !prefix.endsWith(".")) {
+            prefix = prefix + ".";
+        }
+        String[] names = condition.getStringArray("value");
+        if (names.length == 0) {
+            names = condition.getStringArray("name");
+        }
+        List<String> qualified = new ArrayList<>();
+        for (String name : names) {
+            qualified.add(prefix + name);
+        }
+        return qualified;
+    }
+
+    private static String describe(Class<?> type, PropertyResolver properties) {
+        List<String> values = new ArrayList<>();
+        MergedAnnotations.from(type).stream(ConditionalOnProperty.class)
+            .map(MergedAnnotation::asAnnotationAttributes)
+            .forEach(condition -> names(condition)
+                .forEach(name -> values.add(name + "=" + properties.getProperty(name, "(unset)"))));
+        return String.join(", ", values);
+    }
+
+    // Read with ASM: a component scan would already drop the classes whose condition fails
+    private static List<Class<?>> conditionalClasses(ClassLoader classLoader) {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+        String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+            + ClassUtils.convertClassNameToResourcePath(DentaireApplication.class.getPackageName()) + "/**/*.class";
+        List<Class<?>> types = new ArrayList<>();
+        try {
+            for (Resource resource : resolver.getResources(pattern)) {
+                MetadataReader reader = readerFactory.getMetadataReader(resource);
+                if (reader.getAnnotationMetadata().isAnnotated(ConditionalOnProperty.class.getName())) {
+                    types.add(ClassUtils.resolveClassName(reader.getClassMetadata().getClassName(), classLoader));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the conditional classes", e);
+        }
+        return types;
+    }
+}
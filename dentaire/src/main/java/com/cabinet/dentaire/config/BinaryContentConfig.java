@@ -0,0 +1,61 @@
+package com.cabinet.dentaire.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+// ============== Binary Content Negotiation ==============
+// CBOR and Smile encodings of the exact JSON model, chosen with the Accept header on
+// every endpoint (and accepted as request bodies):
+//   application/cbor                 application/vnd.dentaire.v1+cbor
+//   application/x-jackson-smile      application/vnd.dentaire.v1+smile
+// Both mappers come from Boot's builder, so dates, naming and inclusion rules are
+// the ones of the JSON responses. The schema is the JSON one; v1 in the vendor types
+// is its version: fields are only ever added to v1, anything else gets a v2 type and
+// v1 clients keep receiving v1 (an unknown version is a 406). Clients ignore unknown
+// fields. Smile shares repeated names and short string values (status, names of the
+// embedded patient) inside a document, which is what makes long arrays small.
+@Configuration(proxyBeanMethods = false)
+public class BinaryContentConfig {
+
+    public static final MediaType CBOR_V1 = MediaType.parseMediaType("application/vnd.dentaire.v1+cbor");
+    public static final MediaType SMILE_V1 = MediaType.parseMediaType("application/vnd.dentaire.v1+smile");
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // Replace the converters Spring MVC would register with a default mapper
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2CborHttpMessageConverter converter =
+            new MappingJackson2CborHttpMessageConverter(builder.factory(cborFactory()).build());
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_CBOR, CBOR_V1));
+        return converter;
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2SmileHttpMessageConverter converter =
+            new MappingJackson2SmileHttpMessageConverter(builder.factory(smileFactory()).build());
+        converter.setSupportedMediaTypes(List.of(SMILE, SMILE_V1));
+        return converter;
+    }
+
+    public static CBORFactory cborFactory() {
+        return new CBORFactory();
+    }
+
+    public static SmileFactory smileFactory() {
+        return SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.cabinet.dentaire.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.cabinet.dentaire.service.tenant.TenantSchemaProvisioner;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Full-Text Search Columns ==============
+// Stored generated tsvector columns + GIN indexes for the note search. PostgreSQL
+// maintains the columns on every write (no trigger, no application code), the
+// entities do not map them and Hibernate's schema update leaves them alone.
+// Managed schemas get them from V6__full_text_search: the public schema under Flyway
+// (prod) and every clinic schema (TenantSchemaProvisioner). Only a schema left to
+// ddl-auto=update (dev, no tenancy) has them created here, idempotently, after
+// Hibernate created / updated the tables; a failure stops the startup. Adding a
+// column rewrites the table once; changing the text search config later needs the
+// columns dropped so they are recreated with the new one.
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class FullTextSearchSchema {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final String textSearchConfig;
+    private final boolean flywayEnabled;
+
+    // The provisioner is only a dependency: its schemas must exist first
+    public FullTextSearchSchema(
+            JdbcTemplate jdbcTemplate,
+            TenantRegistry tenantRegistry,
+            TenantSchemaProvisioner tenantSchemaProvisioner,
+            @Value("${dentaire.search.text-config:french}") String textSearchConfig,
+            @Value("${spring.flyway.enabled:true}") boolean flywayEnabled) {
+        if (!textSearchConfig.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Invalid text search config: " + textSearchConfig);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantRegistry = tenantRegistry;
+        this.textSearchConfig = textSearchConfig;
+        this.flywayEnabled = flywayEnabled;
+    }
+
+    @PostConstruct
+    public void createSearchColumns() {
+        if (flywayEnabled || tenantRegistry.isEnabled()) {
+            log.info("Full-text search columns managed by migrations (config {})", textSearchConfig);
+            return;
+        }
+        String config = "'" + textSearchConfig + "'::regconfig";
+        List<String> statements = List.of(
+            "ALTER TABLE appointments ADD COLUMN IF NOT EXISTS notes_tsv tsvector "
+                + "GENERATED ALWAYS AS (to_tsvector(" + config + ", coalesce(notes, ''))) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_appointments_notes_tsv ON appointments USING gin (notes_tsv)",
+
+            "ALTER TABLE appointment_treatments ADD COLUMN IF NOT EXISTS notes_tsv tsvector "
+                + "GENERATED ALWAYS AS (to_tsvector(" + config + ", coalesce(notes, ''))) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_appointment_treatments_notes_tsv ON appointment_treatments USING gin (notes_tsv)",
+
+            // Name weighs more than the description in the ranking
+            "ALTER TABLE treatments ADD COLUMN IF NOT EXISTS search_tsv tsvector "
+                + "GENERATED ALWAYS AS (setweight(to_tsvector(" + config + ", coalesce(name, '')), 'A') "
+                + "|| setweight(to_tsvector(" + config + ", coalesce(description, '')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_treatments_search_tsv ON treatments USING gin (search_tsv)");
+        statements.forEach(jdbcTemplate::execute);
+        log.info("Full-text search columns ready (config {})", textSearchConfig);
+    }
+
+    public String getTextSearchConfig() {
+        return textSearchConfig;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cabinet.dentaire.config;
+
+import java.lang.reflect.Method;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.annotation.PostConstruct;
+
+// With spring.main.lazy-initialization (prod profile) a bean nobody injects is never
+// created, so a @Scheduled job would never be scheduled and a @PostConstruct never
+// run. Those beans (and lifecycle beans) are kept eager; everything else, controllers
+// and services included, is created on first use.
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    // static: read by a bean factory post-processor, before this class is a bean
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupWork() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasStartupWork(beanType);
+    }
+
+    static boolean hasStartupWork(Class<?> beanType) {
+        if (SmartLifecycle.class.isAssignableFrom(beanType)) {
+            return true;
+        }
+        ReflectionUtils.MethodFilter startupMethod = (Method method) ->
+            AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class)
+                || method.isAnnotationPresent(PostConstruct.class);
+        return !MethodIntrospector.selectMethods(beanType, startupMethod).isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package com.cabinet.dentaire.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (@Scheduled): outbox relay, reminders, ...
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // Time source of the jobs that plan ahead (reminders), replaced by a fixed clock in tests
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,66 @@
+package com.cabinet.dentaire.config;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Startup Timings ==============
+// Measured on every boot, from JVM start (so class loading, CDS and AOT count):
+//   dentaire.startup.ready          until ApplicationReadyEvent
+//   dentaire.startup.first-request  until the first request has been served
+// Lazy beans are created by the first request, so the second number is the one a
+// rolling restart waits for. Both are logged and exposed on /actuator/metrics.
+@Slf4j
+@Component
+public class StartupTimings extends OncePerRequestFilter {
+
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+    private volatile long readyMs = -1;
+    private volatile long firstRequestMs = -1;
+
+    public StartupTimings(MeterRegistry meterRegistry) {
+        TimeGauge.builder("dentaire.startup.ready", this, TimeUnit.MILLISECONDS, timings -> timings.readyMs)
+            .description("JVM start to application ready")
+            .register(meterRegistry);
+        TimeGauge.builder("dentaire.startup.first-request", this, TimeUnit.MILLISECONDS, timings -> timings.firstRequestMs)
+            .description("JVM start to the first request served")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyMs = uptimeMs();
+        log.info("Ready {} ms after JVM start (AOT {}, {})",
+            readyMs, AotDetector.useGeneratedArtifacts() ? "on" : "off", System.getProperty("java.vm.info"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        if (!firstRequestServed.get() && firstRequestServed.compareAndSet(false, true)) {
+            firstRequestMs = uptimeMs();
+            log.info("First request ({} {}) served {} ms after JVM start, {} ms after ready",
+                request.getMethod(), request.getRequestURI(), firstRequestMs, firstRequestMs - readyMs);
+        }
+    }
+
+    private static long uptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,50 @@
+package com.cabinet.dentaire.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Schema-per-tenant wiring, only with dentaire.tenancy.enabled: the pool is wrapped
+// in TenantRoutingDataSource (everything that injects the DataSource routes, the
+// transaction managers included) and Hibernate is switched to multi-tenant sessions
+// on top of it. Disabled, nothing here exists and connections stay on public.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "dentaire.tenancy.enabled", havingValue = "true")
+public class TenancyConfig {
+
+    // static: a post-processor is created before the other beans of this class
+    @Bean
+    static BeanPostProcessor tenantRoutingDataSourcePostProcessor(ObjectProvider<TenantRegistry> tenantRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TenantRoutingDataSource)) {
+                    // The clinics' shares are derived from the real pool size
+                    if (!(bean instanceof HikariDataSource hikari)) {
+                        throw new IllegalStateException("Tenancy needs the Hikari pool, got " + bean.getClass().getName());
+                    }
+                    return new TenantRoutingDataSource(dataSource, tenantRegistry.getObject(), hikari.getMaximumPoolSize());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer tenantHibernateProperties(DataSource dataSource) {
+        TenantConnectionProvider provider = new TenantConnectionProvider((TenantRoutingDataSource) dataSource);
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, provider);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, provider);
+        };
+    }
+}
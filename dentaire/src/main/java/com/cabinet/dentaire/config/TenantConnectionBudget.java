@@ -0,0 +1,104 @@
+package com.cabinet.dentaire.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ============== Tenant Connection Budget ==============
+// Shares the pool between the clinics, derived from its real size:
+//   - one connection is kept out of the budget for the nested transactions (a
+//     REQUIRES_NEW listener opens a second connection while the request still holds
+//     its first, see TenantRoutingDataSource) and for the default tenant, so a full
+//     budget can never leave every request waiting on the pool for its nested one;
+//   - each clinic has reserved connections nobody else may take;
+//   - the rest is a common share any clinic may draw from, up to its cap
+//     (min of max-connections-per-tenant and reserved + common).
+// A permit is one connection slot; past the wait the caller gets false.
+public class TenantConnectionBudget {
+
+    static final int NESTED_HEADROOM = 1;
+
+    private final int reserved;
+    private final int cap;
+    private final int common;
+    private final Map<String, Integer> held = new HashMap<>();
+    private int commonInUse;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    public TenantConnectionBudget(int poolSize, Collection<String> tenants, int reservedPerTenant, int maxPerTenant) {
+        int budgeted = poolSize - NESTED_HEADROOM;
+        if (reservedPerTenant < 1 || (long) reservedPerTenant * tenants.size() > budgeted) {
+            throw new IllegalArgumentException("A pool of " + poolSize + " connections cannot reserve "
+                + reservedPerTenant + " for each of " + tenants.size() + " clinics (" + NESTED_HEADROOM
+                + " kept for nested transactions): raise spring.datasource.hikari.maximum-pool-size"
+                + " or lower dentaire.tenancy.reserved-connections-per-tenant");
+        }
+        this.reserved = reservedPerTenant;
+        this.common = budgeted - reservedPerTenant * tenants.size();
+        this.cap = Math.max(reservedPerTenant, Math.min(maxPerTenant, reservedPerTenant + common));
+        for (String tenant : tenants) {
+            held.put(tenant, 0);
+        }
+    }
+
+    public boolean tryAcquire(String tenant, Duration wait) throws InterruptedException {
+        long remaining = wait.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (!available(tenant)) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            int count = held.merge(tenant, 1, Integer::sum);
+            if (count > reserved) {
+                commonInUse++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(String tenant) {
+        lock.lock();
+        try {
+            int count = held.merge(tenant, -1, Integer::sum);
+            if (count >= reserved) {
+                commonInUse--;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Own reserved connection free, or room under the cap and in the common share
+    private boolean available(String tenant) {
+        int count = held.getOrDefault(tenant, 0);
+        return count < reserved || (count < cap && commonInUse < common);
+    }
+
+    public int inUse(String tenant) {
+        lock.lock();
+        try {
+            return held.getOrDefault(tenant, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int cap() {
+        return cap;
+    }
+
+    public int common() {
+        return common;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cabinet.dentaire.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import com.cabinet.dentaire.service.tenant.TenantContext;
+
+// Hibernate's schema-per-tenant hooks: a session is opened for the tenant of the
+// current thread and gets its connections from TenantRoutingDataSource for that
+// tenant (same routing and budget as plain JDBC). Schema tooling (ddl-auto,
+// validate) uses "any" connection, the public schema.
+public class TenantConnectionProvider implements MultiTenantConnectionProvider<String>, CurrentTenantIdentifierResolver<String> {
+
+    private final TenantRoutingDataSource dataSource;
+
+    public TenantConnectionProvider(TenantRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    // A session bound to one clinic must not be picked up by another clinic's request
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        return dataSource.getConnection(tenantIdentifier);
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+}
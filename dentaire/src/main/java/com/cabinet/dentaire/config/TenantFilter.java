@@ -0,0 +1,82 @@
+package com.cabinet.dentaire.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Resolves the clinic of an /api request from the tenant header (X-Tenant-Id by
+// default) before anything touches the database: missing is a 400, unknown a 404.
+// Also set on async dispatches (reactive endpoints write their result there).
+// Responses vary by the header, a shared cache must not mix clinics.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "dentaire.tenancy.enabled", havingValue = "true")
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final TenantRegistry tenantRegistry;
+
+    public TenantFilter(TenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(tenantRegistry.header());
+        if (tenant == null || tenant.isBlank()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, tenantRegistry.header() + " header is required");
+            return;
+        }
+        if (!tenantRegistry.isKnown(tenant.strip())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown tenant: " + tenant.strip());
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, tenantRegistry.header());
+
+        // The chain's checked exceptions cross the Supplier wrapped, and leave unwrapped
+        try {
+            TenantContext.callAs(tenant.strip(), () -> {
+                try {
+                    chain.doFilter(request, response);
+                    return null;
+                } catch (IOException | ServletException e) {
+                    throw new TenantFilterException(e);
+                }
+            });
+        } catch (TenantFilterException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw (ServletException) e.getCause();
+        }
+    }
+
+    private static final class TenantFilterException extends RuntimeException {
+        TenantFilterException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cabinet.dentaire.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+// ============== Tenant Connection Routing ==============
+// Wraps the pool: every connection handed out is switched to the schema of the
+// current clinic (search_path, reset by Hikari when it comes back), for JPA through
+// TenantConnectionProvider and for JdbcTemplate directly.
+// Fair share: a clinic draws its connections from TenantConnectionBudget (reserved
+// plus a common share of the pool, derived from its size). The permit belongs to the
+// thread: a connection opened while the same thread already holds one of the clinic
+// (the REQUIRES_NEW listeners, under the open-in-view connection of the request) rides
+// on that permit instead of waiting on the clinic's budget for a second one. The
+// budget keeps a connection of the pool aside for those. The permit goes back when
+// the last connection of the thread closes. Past connection-wait the request fails
+// with a transient error rather than queueing for ever. The default tenant (startup,
+// migrations) is not capped.
+public class TenantRoutingDataSource extends DelegatingDataSource {
+
+    private final TenantRegistry tenantRegistry;
+    private final TenantConnectionBudget budget;
+    // Per thread and clinic: the permit held and how many connections share it
+    private final ThreadLocal<Map<String, Lease>> leases = ThreadLocal.withInitial(HashMap::new);
+
+    public TenantRoutingDataSource(DataSource target, TenantRegistry tenantRegistry, int poolSize) {
+        super(target);
+        this.tenantRegistry = tenantRegistry;
+        this.budget = new TenantConnectionBudget(poolSize, tenantRegistry.tenants(),
+            tenantRegistry.reservedConnectionsPerTenant(), tenantRegistry.maxConnectionsPerTenant());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(TenantContext.current());
+    }
+
+    public Connection getConnection(String tenant) throws SQLException {
+        String schema = tenantRegistry.schemaOf(tenant);
+        Lease lease = TenantContext.DEFAULT_TENANT.equals(tenant) ? null : lease(tenant);
+        try {
+            Connection connection = obtainTargetDataSource().getConnection();
+            try {
+                connection.setSchema(schema);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            return lease != null ? releasingOnClose(connection, lease) : connection;
+        } catch (SQLException | RuntimeException e) {
+            if (lease != null) {
+                lease.close();
+            }
+            throw e;
+        }
+    }
+
+    // Connections of the clinic currently handed out, nested ones not counted
+    public int inUse(String tenant) {
+        return budget.inUse(tenant);
+    }
+
+    TenantConnectionBudget budget() {
+        return budget;
+    }
+
+    // Joins the permit this thread holds for the clinic, or waits for a new one
+    private Lease lease(String tenant) throws SQLException {
+        Lease held = leases.get().get(tenant);
+        if (held != null && held.join()) {
+            return held;
+        }
+        acquire(tenant);
+        Lease lease = new Lease(tenant);
+        leases.get().put(tenant, lease);
+        return lease;
+    }
+
+    private void acquire(String tenant) throws SQLException {
+        try {
+            if (!budget.tryAcquire(tenant, tenantRegistry.connectionWait())) {
+                throw new SQLTransientConnectionException("Connection budget of tenant " + tenant + " exhausted ("
+                    + budget.inUse(tenant) + " in use, common share of " + budget.common() + " taken, for "
+                    + tenantRegistry.connectionWait().toMillis() + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection of tenant " + tenant, e);
+        }
+    }
+
+    // One permit shared by the connections a thread opened for a clinic. Closed from
+    // another thread it still counts down; once at zero it cannot be joined again
+    private final class Lease {
+
+        private final String tenant;
+        private int open = 1;
+
+        Lease(String tenant) {
+            this.tenant = tenant;
+        }
+
+        synchronized boolean join() {
+            if (open == 0) {
+                return false;
+            }
+            open++;
+            return true;
+        }
+
+        void close() {
+            synchronized (this) {
+                if (--open > 0) {
+                    return;
+                }
+            }
+            budget.release(tenant);
+        }
+    }
+
+    // The lease is closed with the first close(), whoever closes it
+    private static Connection releasingOnClose(Connection connection, Lease lease) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            lease.close();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+}
@@ -0,0 +1,20 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.exception.InvalidRequestException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Services reject invalid input (too many ids, bad range, unknown field or token...)
+// with InvalidRequestException: that is the caller's mistake, answer 400 with the
+// reason instead of a 500. Everything else keeps the default error handling.
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ProblemDetail handleInvalidRequest(InvalidRequestException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -1,18 +1,32 @@
 package com.cabinet.dentaire.controller;
 
+import com.cabinet.dentaire.dto.AppointmentCommand;
+import com.cabinet.dentaire.dto.AppointmentHistogram;
+import com.cabinet.dentaire.dto.AppointmentView;
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkStatusReport;
+import com.cabinet.dentaire.dto.BulkStatusRequest;
 import com.cabinet.dentaire.entity.Appointment;
 import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.HistogramBucket;
 import com.cabinet.dentaire.service.interfaces.IAppointmentService;
+import com.cabinet.dentaire.service.interfaces.IAppointmentStatsService;
+import com.cabinet.dentaire.service.interfaces.IResourceVersionService;
+import com.cabinet.dentaire.service.projection.FieldSelection;
+import com.cabinet.dentaire.service.projection.ProjectedResource;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,30 +36,73 @@ import java.util.Map;
 public class AppointmentController {
 
     private final IAppointmentService appointmentService;
+    private final IAppointmentStatsService appointmentStatsService;
+    private final IResourceVersionService versionService;
 
-    public AppointmentController(IAppointmentService appointmentService) {
+    public AppointmentController(
+            IAppointmentService appointmentService,
+            IAppointmentStatsService appointmentStatsService,
+            IResourceVersionService versionService) {
         this.appointmentService = appointmentService;
+        this.appointmentStatsService = appointmentStatsService;
+        this.versionService = versionService;
     }
 
     // ============== CRUD Endpoints ==============
 
     // POST /api/appointments
     @PostMapping
-    public ResponseEntity<Appointment> createAppointment(@Valid @RequestBody Appointment appointment) {
-        Appointment savedAppointment = appointmentService.save(appointment);
+    // {"patientId": 1, "dateTime": "2026-01-15T10:30:00", "treatments": [{"code": "DET", "quantity": 1}]}
+    public ResponseEntity<AppointmentView> createAppointment(@Valid @RequestBody AppointmentCommand command) {
+        AppointmentView savedAppointment = appointmentService.create(command);
         return new ResponseEntity<>(savedAppointment, HttpStatus.CREATED);
     }
 
-    // GET /api/appointments
+    // GET /api/appointments (?view=summary|detail or ?fields=id,dateTime,patient.lastName on every list below)
+    // Reads answer If-None-Match (and If-Modified-Since on single appointments) with a 304
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointments(FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findAll(selection));
+        }
         List<Appointment> appointments = appointmentService.findAll();
         return ResponseEntity.ok(appointments);
     }
 
+    // GET /api/appointments/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<Appointment>> getAppointmentsByIds(@RequestParam List<Long> ids, ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.appointmentsByIds(ids, true), null)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.findAllByIds(ids));
+    }
+
     // GET /api/appointments/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<?> getAppointmentById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.notModified(request,
+                versionService.appointment(id, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return appointmentService.findById(id, selection)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
         return appointmentService.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -53,10 +110,10 @@ public class AppointmentController {
 
     // PUT /api/appointments/{id}
     @PutMapping("/{id}")
-    public ResponseEntity<Appointment> updateAppointment(
+    public ResponseEntity<AppointmentView> updateAppointment(
             @PathVariable Long id, 
-            @Valid @RequestBody Appointment appointment) {
-        Appointment updatedAppointment = appointmentService.update(id, appointment);
+            @Valid @RequestBody AppointmentCommand command) {
+        AppointmentView updatedAppointment = appointmentService.update(id, command);
         return ResponseEntity.ok(updatedAppointment);
     }
 
@@ -78,10 +135,28 @@ public class AppointmentController {
         return ResponseEntity.ok(updatedAppointment);
     }
 
+    // POST /api/appointments/bulk-status
+    // {"start": "...", "end": "...", "fromStatuses": ["SCHEDULED"], "targetStatus": "NO_SHOW"}
+    @PostMapping("/bulk-status")
+    public ResponseEntity<BulkStatusReport> bulkUpdateAppointmentStatus(@Valid @RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(appointmentService.bulkUpdateStatus(request));
+    }
+
     // GET /api/appointments/status/{status}
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByStatus(
-            @PathVariable AppointmentEnums status) {
+    public ResponseEntity<?> getAppointmentsByStatus(
+            @PathVariable AppointmentEnums status,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointmentsByStatus(status, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findByStatus(status, selection));
+        }
         List<Appointment> appointments = appointmentService.findByStatus(status);
         return ResponseEntity.ok(appointments);
     }
@@ -90,14 +165,43 @@ public class AppointmentController {
 
     // GET /api/appointments/patient/{patientId}
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByPatient(@PathVariable Long patientId) {
-        List<Appointment> appointments = appointmentService.findByPatientId(patientId);
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<?> getAppointmentsByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointmentsByPatient(patientId, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findByPatientId(patientId, selection));
+        }
+        if (!ConditionalRequests.prefersJson(request)) {
+            return ResponseEntity.ok(appointmentService.findByPatientId(patientId));
+        }
+        // Pre-serialized: past closed appointments come from the JSON cache
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(appointmentService.findByPatientIdAsJson(patientId));
     }
 
     // GET /api/appointments/patient/{patientId}/upcoming
     @GetMapping("/patient/{patientId}/upcoming")
-    public ResponseEntity<List<Appointment>> getUpcomingAppointmentsByPatient(@PathVariable Long patientId) {
+    public ResponseEntity<?> getUpcomingAppointmentsByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.upcomingAppointmentsByPatient(patientId, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findUpcomingByPatientId(patientId, selection));
+        }
         List<Appointment> appointments = appointmentService.findUpcomingByPatientId(patientId);
         return ResponseEntity.ok(appointments);
     }
@@ -106,40 +210,92 @@ public class AppointmentController {
 
     // GET /api/appointments/today
     @GetMapping("/today")
-    public ResponseEntity<List<Appointment>> getTodaysAppointments() {
+    public ResponseEntity<?> getTodaysAppointments(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointmentsOn(LocalDate.now(), FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            LocalDate today = LocalDate.now();
+            return ResponseEntity.ok(appointmentService.findByDateRange(
+                today.atStartOfDay(), today.atTime(LocalTime.MAX), selection));
+        }
         List<Appointment> appointments = appointmentService.findTodaysAppointments();
         return ResponseEntity.ok(appointments);
     }
 
     // GET /api/appointments/date/2024-01-15
     @GetMapping("/date/{date}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    public ResponseEntity<?> getAppointmentsByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointmentsOn(date, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findByDateRange(
+                date.atStartOfDay(), date.atTime(LocalTime.MAX), selection));
+        }
         List<Appointment> appointments = appointmentService.findByDate(date);
         return ResponseEntity.ok(appointments);
     }
 
     // GET /api/appointments/range?start=2024-01-01T00:00:00&end=2024-01-31T23:59:59
     @GetMapping("/range")
-    public ResponseEntity<List<Appointment>> getAppointmentsByDateRange(
+    public ResponseEntity<?> getAppointmentsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.APPOINTMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request,
+                versionService.appointmentsBetween(start, end, FieldSelection.includesTreatments(selection)), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(appointmentService.findByDateRange(start, end, selection));
+        }
         List<Appointment> appointments = appointmentService.findByDateRange(start, end);
         return ResponseEntity.ok(appointments);
     }
 
+    // GET /api/appointments/histogram?start=2026-01-01T00:00:00&end=2027-01-01T00:00:00&bucket=DAY&statuses=COMPLETED,NO_SHOW
+    @GetMapping("/histogram")
+    public ResponseEntity<AppointmentHistogram> getAppointmentHistogram(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "HOUR") HistogramBucket bucket,
+            @RequestParam(required = false) List<AppointmentEnums> statuses) {
+        return ResponseEntity.ok(appointmentStatsService.getHistogram(start, end, bucket, statuses));
+    }
+
     // ============== HashMap Endpoints (Academic Requirement) ==============
 
     // GET /api/appointments/grouped-by-status
     @GetMapping("/grouped-by-status")
-    public ResponseEntity<Map<AppointmentEnums, List<Appointment>>> getAppointmentsGroupedByStatus() {
+    public ResponseEntity<Map<AppointmentEnums, List<Appointment>>> getAppointmentsGroupedByStatus(ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.appointments(true), null)) {
+            return null;
+        }
         Map<AppointmentEnums, List<Appointment>> grouped = appointmentService.getAppointmentsGroupedByStatus();
         return ResponseEntity.ok(grouped);
     }
 
     // GET /api/appointments/today/by-hour
     @GetMapping("/today/by-hour")
-    public ResponseEntity<Map<Integer, List<Appointment>>> getTodaysAppointmentsByHour() {
+    public ResponseEntity<Map<Integer, List<Appointment>>> getTodaysAppointmentsByHour(ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.appointmentsOn(LocalDate.now(), true), null)) {
+            return null;
+        }
         Map<Integer, List<Appointment>> schedule = appointmentService.getTodaysAppointmentsByHour();
         return ResponseEntity.ok(schedule);
     }
@@ -0,0 +1,56 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.dto.AppointmentLineRequest;
+import com.cabinet.dentaire.dto.AppointmentLines;
+import com.cabinet.dentaire.service.interfaces.IAppointmentTreatmentService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/{appointmentId}/treatments")
+@CrossOrigin(origins = "*")
+public class AppointmentTreatmentController {
+
+    private final IAppointmentTreatmentService appointmentTreatmentService;
+
+    public AppointmentTreatmentController(IAppointmentTreatmentService appointmentTreatmentService) {
+        this.appointmentTreatmentService = appointmentTreatmentService;
+    }
+
+    // GET /api/appointments/{appointmentId}/treatments
+    @GetMapping
+    public ResponseEntity<AppointmentLines> getLines(@PathVariable Long appointmentId) {
+        return ResponseEntity.ok(appointmentTreatmentService.findLines(appointmentId));
+    }
+
+    // POST /api/appointments/{appointmentId}/treatments
+    // [{"treatmentId": 1, "quantity": 2}, {"treatmentId": 3, "priceCharged": 150.00}]
+    @PostMapping
+    public ResponseEntity<AppointmentLines> addLines(
+            @PathVariable Long appointmentId,
+            @RequestBody List<@Valid AppointmentLineRequest> lines) {
+        return new ResponseEntity<>(appointmentTreatmentService.addLines(appointmentId, lines), HttpStatus.CREATED);
+    }
+
+    // PUT /api/appointments/{appointmentId}/treatments
+    @PutMapping
+    public ResponseEntity<AppointmentLines> replaceLines(
+            @PathVariable Long appointmentId,
+            @RequestBody List<@Valid AppointmentLineRequest> lines) {
+        return ResponseEntity.ok(appointmentTreatmentService.replaceLines(appointmentId, lines));
+    }
+
+    // DELETE /api/appointments/{appointmentId}/treatments?ids=4,5
+    @DeleteMapping
+    public ResponseEntity<AppointmentLines> removeLines(
+            @PathVariable Long appointmentId,
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(appointmentTreatmentService.removeLines(appointmentId, ids));
+    }
+}
@@ -0,0 +1,42 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.entity.AuditEntry;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.cabinet.dentaire.service.interfaces.IAuditService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+    private final IAuditService auditService;
+
+    public AuditController(IAuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    // ============== Change History ==============
+
+    // GET /api/audit/patient/12
+    // GET /api/audit/appointment/40?limit=100
+    // GET /api/audit/appointment-treatment/7
+    @GetMapping("/{entityType}/{entityId}")
+    public ResponseEntity<List<AuditEntry>> getHistory(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @RequestParam(defaultValue = "500") int limit) {
+        AuditEntityType type;
+        try {
+            type = AuditEntityType.valueOf(entityType.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(auditService.findHistory(type, entityId, Math.max(1, Math.min(limit, 5000))));
+    }
+}
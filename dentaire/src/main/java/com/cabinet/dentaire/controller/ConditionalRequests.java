@@ -0,0 +1,84 @@
+package com.cabinet.dentaire.controller;
+
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.cabinet.dentaire.dto.ResourceVersion;
+import com.cabinet.dentaire.service.projection.FieldSelection;
+
+// Conditional GETs: the version is read before the data, a matching If-None-Match /
+// If-Modified-Since ends the request with a 304 (the handler returns null, nothing
+// else is queried or serialized). Responses are stored by clients but always
+// revalidated (Cache-Control: no-cache). Binary encodings (BinaryContentConfig) are
+// other representations of the same version, with their own ETag (Vary: Accept).
+final class ConditionalRequests {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    private ConditionalRequests() {
+    }
+
+    // Single resource: ETag + Last-Modified. A missing one falls through to the 404
+    static boolean notModified(ServletWebRequest request, ResourceVersion version, FieldSelection selection) {
+        if (version.getCount() == 0) {
+            return false;
+        }
+        noCache(request);
+        return request.checkNotModified(version.etag(variant(request, selection)), version.lastModifiedMillis());
+    }
+
+    // Lists: ETag only. A row leaving the list (deleted, status changed) lowers the
+    // count but not the newest updated_at, so Last-Modified alone could wrongly match
+    static boolean listNotModified(ServletWebRequest request, ResourceVersion version, FieldSelection selection) {
+        noCache(request);
+        return request.checkNotModified(version.etag(variant(request, selection)));
+    }
+
+    // False when the client prefers a binary encoding to JSON (a missing or
+    // unparseable Accept counts as JSON, the converters report bad ones)
+    static boolean prefersJson(ServletWebRequest request) {
+        MediaType preferred = preferredType(request);
+        return preferred == null || preferred.isCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    private static String variant(ServletWebRequest request, FieldSelection selection) {
+        String variant = FieldSelection.variant(selection);
+        return prefersJson(request) ? variant : variant + ";" + preferredType(request).getSubtype();
+    }
+
+    // Highest quality, a concrete type before a wildcard of the same quality
+    private static MediaType preferredType(ServletWebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType preferred = null;
+        for (MediaType type : accepted) {
+            if (preferred == null
+                    || type.getQualityValue() > preferred.getQualityValue()
+                    || (type.getQualityValue() == preferred.getQualityValue()
+                        && preferred.isWildcardSubtype() && !type.isWildcardSubtype())) {
+                preferred = type;
+            }
+        }
+        return preferred;
+    }
+
+    private static void noCache(ServletWebRequest request) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+}
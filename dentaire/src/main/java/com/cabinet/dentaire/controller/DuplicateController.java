@@ -0,0 +1,56 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.dto.DuplicateScanReport;
+import com.cabinet.dentaire.entity.DuplicateSuggestion;
+import com.cabinet.dentaire.enums.DuplicateStatus;
+import com.cabinet.dentaire.service.interfaces.IDuplicateService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients/duplicates")
+@CrossOrigin(origins = "*")
+public class DuplicateController {
+
+    private final IDuplicateService duplicateService;
+
+    public DuplicateController(IDuplicateService duplicateService) {
+        this.duplicateService = duplicateService;
+    }
+
+    // GET /api/patients/duplicates?status=PENDING&limit=100
+    // GET /api/patients/duplicates?patientId=12
+    @GetMapping
+    public ResponseEntity<List<DuplicateSuggestion>> getSuggestions(
+            @RequestParam(defaultValue = "PENDING") DuplicateStatus status,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (patientId != null) {
+            return ResponseEntity.ok(duplicateService.findSuggestionsOf(patientId, status));
+        }
+        return ResponseEntity.ok(duplicateService.findSuggestions(status, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    // POST /api/patients/duplicates/scan
+    @PostMapping("/scan")
+    public ResponseEntity<DuplicateScanReport> scan() {
+        return ResponseEntity.ok(duplicateService.scan());
+    }
+
+    // POST /api/patients/duplicates/check?ids=12,13
+    @PostMapping("/check")
+    public ResponseEntity<List<DuplicateSuggestion>> check(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(duplicateService.check(ids));
+    }
+
+    // PUT /api/patients/duplicates/{id}/status?status=DISMISSED
+    @PutMapping("/{id}/status")
+    public ResponseEntity<DuplicateSuggestion> updateStatus(
+            @PathVariable Long id,
+            @RequestParam DuplicateStatus status) {
+        return ResponseEntity.ok(duplicateService.updateStatus(id, status));
+    }
+}
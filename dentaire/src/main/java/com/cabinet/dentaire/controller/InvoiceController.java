@@ -0,0 +1,68 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.entity.Invoice;
+import com.cabinet.dentaire.entity.InvoiceRun;
+import com.cabinet.dentaire.service.interfaces.IInvoiceService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/invoices")
+@CrossOrigin(origins = "*")
+public class InvoiceController {
+
+    private final IInvoiceService invoiceService;
+
+    public InvoiceController(IInvoiceService invoiceService) {
+        this.invoiceService = invoiceService;
+    }
+
+    // ============== Runs ==============
+
+    // POST /api/invoices/runs?start=2026-09-01&end=2026-09-30
+    // 202 while it runs in the background (poll the run for its progress), 200 once completed
+    @PostMapping("/runs")
+    public ResponseEntity<InvoiceRun> startRun(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        InvoiceRun run = invoiceService.startRun(start, end);
+        return new ResponseEntity<>(run, run.getFinishedAt() != null ? HttpStatus.OK : HttpStatus.ACCEPTED);
+    }
+
+    // GET /api/invoices/runs
+    @GetMapping("/runs")
+    public ResponseEntity<List<InvoiceRun>> getRuns() {
+        return ResponseEntity.ok(invoiceService.findRuns());
+    }
+
+    // GET /api/invoices/runs/{id}
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<InvoiceRun> getRun(@PathVariable Long id) {
+        return invoiceService.findRun(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ============== Invoices ==============
+
+    // GET /api/invoices/runs/{id}/invoices?after=0&limit=500 (next page: after = last patientId)
+    @GetMapping("/runs/{id}/invoices")
+    public ResponseEntity<List<Invoice>> getInvoices(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(invoiceService.findInvoices(id, after, Math.max(1, Math.min(limit, 5000))));
+    }
+
+    // GET /api/invoices/patient/{patientId}
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<List<Invoice>> getInvoicesOfPatient(@PathVariable Long patientId) {
+        return ResponseEntity.ok(invoiceService.findInvoicesOfPatient(patientId));
+    }
+}
@@ -1,11 +1,17 @@
 package com.cabinet.dentaire.controller;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkPatientReport;
 import com.cabinet.dentaire.entity.Patient;
 import com.cabinet.dentaire.service.interfaces.IPatientService;
+import com.cabinet.dentaire.service.interfaces.IResourceVersionService;
+import com.cabinet.dentaire.service.projection.FieldSelection;
+import com.cabinet.dentaire.service.projection.ProjectedResource;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
@@ -17,9 +23,11 @@ import java.util.List;
 public class PatientController {
 
     private final IPatientService patientService;
+    private final IResourceVersionService versionService;
 
-    public PatientController(IPatientService patientService) {
+    public PatientController(IPatientService patientService, IResourceVersionService versionService) {
         this.patientService = patientService;
+        this.versionService = versionService;
     }
 
     // ============== CRUD Endpoints ==============
@@ -31,16 +39,56 @@ public class PatientController {
         return new ResponseEntity<>(savedPatient, HttpStatus.CREATED);
     }
 
-    // GET /api/patients
+    // POST /api/patients/bulk
+    // Rows with a taken (or repeated) email / phone are reported, the others created
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkPatientReport> createPatients(@RequestBody List<@Valid Patient> patients) {
+        return new ResponseEntity<>(patientService.saveAll(patients), HttpStatus.CREATED);
+    }
+
+    // GET /api/patients (?view=summary|detail or ?fields=id,lastName,phone on every read below)
+    // Reads answer If-None-Match (and If-Modified-Since on single patients) with a 304
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
+    public ResponseEntity<?> getAllPatients(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.PATIENT, fields, view);
+        if (ConditionalRequests.listNotModified(request, versionService.patients(), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(patientService.findAll(selection));
+        }
         List<Patient> patients = patientService.findAll();
         return ResponseEntity.ok(patients);
     }
 
+    // GET /api/patients/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<Patient>> getPatientsByIds(@RequestParam List<Long> ids, ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.patientsByIds(ids), null)) {
+            return null;
+        }
+        return ResponseEntity.ok(patientService.findAllByIds(ids));
+    }
+
     // GET /api/patients/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<?> getPatientById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.PATIENT, fields, view);
+        if (ConditionalRequests.notModified(request, versionService.patient(id), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return patientService.findById(id, selection)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
         return patientService.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -66,14 +114,28 @@ public class PatientController {
 
     // GET /api/patients/search?name=John
     @GetMapping("/search")
-    public ResponseEntity<List<Patient>> searchPatients(@RequestParam String name) {
+    public ResponseEntity<?> searchPatients(
+            @RequestParam String name,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.PATIENT, fields, view);
+        if (ConditionalRequests.listNotModified(request, versionService.patientsByName(name), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(patientService.searchByName(name, selection));
+        }
         List<Patient> patients = patientService.searchByName(name);
         return ResponseEntity.ok(patients);
     }
 
     // GET /api/patients/email/{email}
     @GetMapping("/email/{email}")
-    public ResponseEntity<Patient> getPatientByEmail(@PathVariable String email) {
+    public ResponseEntity<Patient> getPatientByEmail(@PathVariable String email, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, versionService.patientByEmail(email), null)) {
+            return null;
+        }
         return patientService.findByEmail(email)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -81,7 +143,10 @@ public class PatientController {
 
     // GET /api/patients/phone/{phone}
     @GetMapping("/phone/{phone}")
-    public ResponseEntity<Patient> getPatientByPhone(@PathVariable String phone) {
+    public ResponseEntity<Patient> getPatientByPhone(@PathVariable String phone, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, versionService.patientByPhone(phone), null)) {
+            return null;
+        }
         return patientService.findByPhone(phone)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -0,0 +1,51 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.service.interfaces.IReactiveReadService;
+
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+
+// Non-blocking read variants, served by Spring MVC's reactive return values: the
+// request thread is released while the query runs. Accept: application/x-ndjson
+// streams one JSON document per line as rows arrive (each written before the next
+// is requested); any other type gets the usual array once the Flux completes.
+// Writes stay on the MVC endpoints.
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveReadController {
+
+    private final IReactiveReadService reactiveReadService;
+
+    public ReactiveReadController(IReactiveReadService reactiveReadService) {
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    // GET /api/reactive/appointments/today
+    @GetMapping("/appointments/today")
+    public Flux<Appointment> getTodaysAppointments() {
+        return reactiveReadService.findTodaysAppointments();
+    }
+
+    // GET /api/reactive/appointments/patient/{patientId}
+    @GetMapping("/appointments/patient/{patientId}")
+    public Flux<Appointment> getAppointmentsByPatient(@PathVariable Long patientId) {
+        return reactiveReadService.findByPatientId(patientId);
+    }
+
+    // GET /api/reactive/treatments
+    @GetMapping("/treatments")
+    public Flux<Treatment> getAllTreatments() {
+        return reactiveReadService.findAllTreatments();
+    }
+
+    // GET /api/reactive/waiting-queue
+    @GetMapping("/waiting-queue")
+    public Flux<Patient> getWaitingList() {
+        return reactiveReadService.getWaitingList();
+    }
+}
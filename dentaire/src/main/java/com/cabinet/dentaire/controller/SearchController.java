@@ -0,0 +1,38 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.dto.SearchPage;
+import com.cabinet.dentaire.enums.SearchHitType;
+import com.cabinet.dentaire.service.interfaces.ISearchService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final ISearchService searchService;
+
+    public SearchController(ISearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // GET /api/search?q=douleur molaire -extraction&patientId=1&from=2026-01-01T00:00:00&to=2026-02-01T00:00:00
+    // q uses web search syntax: "exact phrase", or, -excluded. Next page: &cursor=<nextCursor>
+    @GetMapping
+    public ResponseEntity<SearchPage> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<SearchHitType> types,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, types, patientId, from, to, cursor, limit));
+    }
+}
@@ -0,0 +1,30 @@
+package com.cabinet.dentaire.controller;
+
+import com.cabinet.dentaire.dto.SyncChanges;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final ISyncService syncService;
+
+    public SyncController(ISyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // ============== Delta Sync ==============
+
+    // GET /api/sync/changes                 (first sync: everything)
+    // GET /api/sync/changes?since=<token>   (token = nextToken of the previous response)
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChanges> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(syncService.findChangesSince(since, limit));
+    }
+}
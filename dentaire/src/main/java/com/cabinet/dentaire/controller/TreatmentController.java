@@ -1,15 +1,26 @@
 package com.cabinet.dentaire.controller;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.TreatmentUsage;
+import com.cabinet.dentaire.dto.TreatmentUsageEstimate;
 import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.entity.TreatmentPrice;
+import com.cabinet.dentaire.service.interfaces.IResourceVersionService;
 import com.cabinet.dentaire.service.interfaces.ITreatmentService;
+import com.cabinet.dentaire.service.projection.FieldSelection;
+import com.cabinet.dentaire.service.projection.ProjectedResource;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.validation.Valid;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,9 +30,11 @@ import java.util.Map;
 public class TreatmentController {
 
     private final ITreatmentService treatmentService;
+    private final IResourceVersionService versionService;
 
-    public TreatmentController(ITreatmentService treatmentService) {
+    public TreatmentController(ITreatmentService treatmentService, IResourceVersionService versionService) {
         this.treatmentService = treatmentService;
+        this.versionService = versionService;
     }
 
     // ============== CRUD Endpoints ==============
@@ -33,16 +46,49 @@ public class TreatmentController {
         return new ResponseEntity<>(savedTreatment, HttpStatus.CREATED);
     }
 
-    // GET /api/treatments
+    // GET /api/treatments (?view=summary|detail or ?fields=id,code,price on every read below)
+    // Reads answer If-None-Match (and If-Modified-Since on single treatments) with a 304
     @GetMapping
-    public ResponseEntity<List<Treatment>> getAllTreatments() {
+    public ResponseEntity<?> getAllTreatments(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.TREATMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request, versionService.treatments(), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(treatmentService.findAll(selection));
+        }
         List<Treatment> treatments = treatmentService.findAll();
         return ResponseEntity.ok(treatments);
     }
 
+    // GET /api/treatments/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<Treatment>> getTreatmentsByIds(@RequestParam List<Long> ids, ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.treatmentsByIds(ids), null)) {
+            return null;
+        }
+        return ResponseEntity.ok(treatmentService.findAllByIds(ids));
+    }
+
     // GET /api/treatments/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<Treatment> getTreatmentById(@PathVariable Long id) {
+    public ResponseEntity<?> getTreatmentById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.TREATMENT, fields, view);
+        if (ConditionalRequests.notModified(request, versionService.treatment(id), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return treatmentService.findById(id, selection)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
         return treatmentService.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -68,7 +114,10 @@ public class TreatmentController {
 
     // GET /api/treatments/code/{code}
     @GetMapping("/code/{code}")
-    public ResponseEntity<Treatment> getTreatmentByCode(@PathVariable String code) {
+    public ResponseEntity<Treatment> getTreatmentByCode(@PathVariable String code, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, versionService.treatmentByCode(code), null)) {
+            return null;
+        }
         return treatmentService.findByCode(code)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -76,7 +125,18 @@ public class TreatmentController {
 
     // GET /api/treatments/search?name=cleaning
     @GetMapping("/search")
-    public ResponseEntity<List<Treatment>> searchTreatments(@RequestParam String name) {
+    public ResponseEntity<?> searchTreatments(
+            @RequestParam String name,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            ServletWebRequest request) {
+        FieldSelection selection = FieldSelection.parse(ProjectedResource.TREATMENT, fields, view);
+        if (ConditionalRequests.listNotModified(request, versionService.treatmentsByName(name), selection)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(treatmentService.searchByName(name, selection));
+        }
         List<Treatment> treatments = treatmentService.searchByName(name);
         return ResponseEntity.ok(treatments);
     }
@@ -85,7 +145,11 @@ public class TreatmentController {
     @GetMapping("/price-range")
     public ResponseEntity<List<Treatment>> getTreatmentsByPriceRange(
             @RequestParam BigDecimal min, 
-            @RequestParam BigDecimal max) {
+            @RequestParam BigDecimal max,
+            ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.treatmentsByPriceRange(min, max), null)) {
+            return null;
+        }
         List<Treatment> treatments = treatmentService.findByPriceRange(min, max);
         return ResponseEntity.ok(treatments);
     }
@@ -94,18 +158,69 @@ public class TreatmentController {
 
     // GET /api/treatments/map
     @GetMapping("/map")
-    public ResponseEntity<Map<String, Treatment>> getTreatmentsAsMap() {
+    public ResponseEntity<Map<String, Treatment>> getTreatmentsAsMap(ServletWebRequest request) {
+        if (ConditionalRequests.listNotModified(request, versionService.treatments(), null)) {
+            return null;
+        }
         Map<String, Treatment> treatmentMap = treatmentService.getAllTreatmentsAsMap();
         return ResponseEntity.ok(treatmentMap);
     }
 
-    // GET /api/treatments/prices
+    // GET /api/treatments/prices (current) or ?asOf=2026-01-14T10:00 (in effect at that time)
+    // Only current prices answer conditional GETs: the version does not cover scheduled changes
     @GetMapping("/prices")
-    public ResponseEntity<Map<String, BigDecimal>> getTreatmentPrices() {
-        Map<String, BigDecimal> priceMap = treatmentService.getTreatmentPriceMap();
+    public ResponseEntity<Map<String, BigDecimal>> getTreatmentPrices(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            ServletWebRequest request) {
+        if (asOf == null && ConditionalRequests.listNotModified(request, versionService.treatments(), null)) {
+            return null;
+        }
+        Map<String, BigDecimal> priceMap = treatmentService.getTreatmentPriceMap(asOf);
         return ResponseEntity.ok(priceMap);
     }
 
+    // ============== Price History ==============
+
+    // GET /api/treatments/{id}/prices
+    @GetMapping("/{id}/prices")
+    public ResponseEntity<List<TreatmentPrice>> getPriceHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(treatmentService.getPriceHistory(id));
+    }
+
+    // POST /api/treatments/{id}/prices {"price": 350.00, "effectiveFrom": "2027-01-01T00:00"}
+    @PostMapping("/{id}/prices")
+    public ResponseEntity<TreatmentPrice> schedulePrice(
+            @PathVariable Long id,
+            @Valid @RequestBody TreatmentPrice price) {
+        TreatmentPrice scheduled = treatmentService.schedulePrice(id, price.getPrice(), price.getEffectiveFrom());
+        return new ResponseEntity<>(scheduled, HttpStatus.CREATED);
+    }
+
+    // DELETE /api/treatments/{id}/prices/{priceId} (a change not yet in effect)
+    @DeleteMapping("/{id}/prices/{priceId}")
+    public ResponseEntity<Void> cancelScheduledPrice(@PathVariable Long id, @PathVariable Long priceId) {
+        treatmentService.cancelScheduledPrice(id, priceId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ============== Usage Analytics ==============
+
+    // GET /api/treatments/usage?from=2026-01-01&to=2026-01-31
+    @GetMapping("/usage")
+    public ResponseEntity<List<TreatmentUsage>> getTreatmentUsage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(treatmentService.getUsage(from, to));
+    }
+
+    // GET /api/treatments/usage/top?k=10 (this week) or &week=2026-01-14 (week of that day)
+    @GetMapping("/usage/top")
+    public ResponseEntity<List<TreatmentUsageEstimate>> getTopTreatmentUsage(
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week) {
+        return ResponseEntity.ok(treatmentService.getTopUsage(week != null ? week : LocalDate.now(), k));
+    }
+
     // ============== Statistics ==============
 
     // GET /api/treatments/count
@@ -1,9 +1,11 @@
 package com.cabinet.dentaire.controller;
 
 import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.QueuePriority;
 import com.cabinet.dentaire.service.interfaces.IPatientService;
 import com.cabinet.dentaire.service.interfaces.IWaitingQueueService;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,13 +29,32 @@ public class WaitingQueueController {
     // ============== Queue Operations ==============
 
     // POST /api/waiting-queue/add/{patientId}
+    // POST /api/waiting-queue/add/{patientId}?priority=EMERGENCY
     @PostMapping("/add/{patientId}")
-    public ResponseEntity<String> addPatientToQueue(@PathVariable Long patientId) {
+    public ResponseEntity<String> addPatientToQueue(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) QueuePriority priority) {
         Patient patient = patientService.findById(patientId)
             .orElseThrow(() -> new RuntimeException("Patient not found with id: " + patientId));
         
-        waitingQueueService.addToQueue(patient);
-        return ResponseEntity.ok("Patient added to queue. Position: " + waitingQueueService.getQueueSize());
+        waitingQueueService.addToQueue(patient, priority);
+        return ResponseEntity.ok("Patient added to queue. Position: " + waitingQueueService.getPatientPosition(patientId));
+    }
+
+    // PATCH /api/waiting-queue/priority/{patientId}?priority=EMERGENCY
+    @PatchMapping("/priority/{patientId}")
+    public ResponseEntity<String> updatePatientPriority(
+            @PathVariable Long patientId,
+            @RequestParam QueuePriority priority) {
+        if (!waitingQueueService.supportsPriorities()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Queue priorities require dentaire.queue.mode=triage");
+        }
+        boolean updated = waitingQueueService.updatePriority(patientId, priority);
+        if (!updated) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok("Priority updated. Position: " + waitingQueueService.getPatientPosition(patientId));
     }
 
     // POST /api/waiting-queue/call-next
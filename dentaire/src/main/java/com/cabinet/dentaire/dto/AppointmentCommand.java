@@ -0,0 +1,64 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST / PUT /api/appointments: references by id / code instead of nested entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentCommand {
+
+    @NotNull(message = "Patient is required")
+    private Long patientId;
+
+    @NotNull(message = "Appointment date and time is required")
+    private LocalDateTime dateTime;
+
+    // null = SCHEDULED on create, unchanged on update
+    private AppointmentEnums status;
+
+    @Size(max = 1000, message = "Notes cannot exceed 1000 characters")
+    private String notes;
+
+    // null = no lines on create, lines unchanged on update; on update a list replaces the lines
+    @Valid
+    @Size(max = 1000, message = "Too many treatment lines")
+    private List<Line> treatments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+
+        @NotBlank(message = "Treatment code is required")
+        private String code;
+
+        @Positive(message = "Quantity must be at least 1")
+        @Builder.Default
+        private Integer quantity = 1;
+
+        // null = current catalog price
+        @PositiveOrZero(message = "Price cannot be negative")
+        private BigDecimal priceCharged;
+
+        @Size(max = 500, message = "Notes cannot exceed 500 characters")
+        private String notes;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.HistogramBucket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Appointment counts per bucket: counts[i] covers [start + i * width, start + (i + 1) * width)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentHistogram {
+
+    private HistogramBucket bucket;
+
+    // Start of the first bucket (the requested start rounded down to the bucket)
+    private LocalDateTime start;
+
+    // Exclusive
+    private LocalDateTime end;
+
+    // Empty = all statuses
+    private List<AppointmentEnums> statuses;
+
+    private int[] counts;
+
+    private long total;
+}
@@ -0,0 +1,30 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Treatment line of an appointment, lineTotal = quantity x price charged
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentLine {
+
+    private Long id;
+
+    private Long treatmentId;
+
+    private String treatmentCode;
+
+    private String treatmentName;
+
+    private Integer quantity;
+
+    private BigDecimal priceCharged;
+
+    private BigDecimal lineTotal;
+
+    private String notes;
+}
@@ -0,0 +1,33 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One treatment line to add to an appointment. priceCharged null = current catalog price.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentLineRequest {
+
+    @NotNull(message = "Treatment is required")
+    private Long treatmentId;
+
+    @Positive(message = "Quantity must be at least 1")
+    @Builder.Default
+    private Integer quantity = 1;
+
+    @PositiveOrZero(message = "Price cannot be negative")
+    private BigDecimal priceCharged;
+
+    @Size(max = 500, message = "Notes cannot exceed 500 characters")
+    private String notes;
+}
@@ -0,0 +1,21 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// All lines of an appointment after a change, with the appointment total
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentLines {
+
+    private Long appointmentId;
+
+    private List<AppointmentLine> lines;
+
+    private BigDecimal total;
+}
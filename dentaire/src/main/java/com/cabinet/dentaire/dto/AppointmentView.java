@@ -0,0 +1,34 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Appointment as returned by create / update: the patient is a reference, not a nested entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentView {
+
+    private Long id;
+
+    private Long patientId;
+
+    private LocalDateTime dateTime;
+
+    private AppointmentEnums status;
+
+    private String notes;
+
+    private List<AppointmentLine> treatments;
+
+    private BigDecimal total;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+
+// A captured change on its way to audit_log (also the journal line format).
+// changes is already JSON: field -> {"old": ..., "new": ...}
+public record AuditRecord(
+    String eventId,
+    String tenant,
+    AuditEntityType entityType,
+    Long entityId,
+    AuditAction action,
+    String actor,
+    LocalDateTime changedAt,
+    String changes) {
+}
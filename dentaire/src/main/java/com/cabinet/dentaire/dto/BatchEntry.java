@@ -0,0 +1,18 @@
+package com.cabinet.dentaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One requested id of a batch lookup: found=false (and value=null) is an explicit miss
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEntry<T> {
+
+    private Long id;
+
+    private boolean found;
+
+    private T value;
+}
@@ -0,0 +1,18 @@
+package com.cabinet.dentaire.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Result of a multi-get: one entry per requested id, in request order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult<T> {
+
+    private List<BatchEntry<T>> results;
+
+    private List<Long> missing;
+}
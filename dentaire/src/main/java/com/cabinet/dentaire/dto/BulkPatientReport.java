@@ -0,0 +1,33 @@
+package com.cabinet.dentaire.dto;
+
+import java.util.List;
+
+import com.cabinet.dentaire.entity.Patient;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk patient create: created rows, rejected rows by request index, and
+// how many contacts needed an exact check after the Bloom pre-screen
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPatientReport {
+
+    private List<Patient> created;
+
+    private List<Rejection> rejected;
+
+    private int exactChecks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+
+        private int index;
+
+        private String reason;
+    }
+}
@@ -0,0 +1,30 @@
+package com.cabinet.dentaire.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a bulk transition changed. Rows locked by another transaction at the time are
+// skipped, running the same request again picks them up.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusReport {
+
+    private AppointmentEnums targetStatus;
+
+    private int changed;
+
+    private Map<AppointmentEnums, Integer> changedByPreviousStatus;
+
+    private List<Long> appointmentIds;
+
+    private int chunks;
+
+    private long durationMs;
+}
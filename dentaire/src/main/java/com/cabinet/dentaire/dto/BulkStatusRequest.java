@@ -0,0 +1,51 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Which appointments to move (dateTime in [start, end], current status, patient) and where
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusRequest {
+
+    @NotNull(message = "Start is required")
+    private LocalDateTime start;
+
+    @NotNull(message = "End is required")
+    private LocalDateTime end;
+
+    // Empty = any status
+    private List<AppointmentEnums> fromStatuses;
+
+    // null = every patient
+    private Long patientId;
+
+    @NotNull(message = "Target status is required")
+    private AppointmentEnums targetStatus;
+
+    // null = dentaire.appointments.bulk.chunk-size
+    @Min(1)
+    @Max(5000)
+    private Integer chunkSize;
+
+    // A reversed range would silently match nothing
+    @JsonIgnore
+    @AssertTrue(message = "Start must not be after end")
+    public boolean isRangeValid() {
+        return start == null || end == null || !start.isAfter(end);
+    }
+}
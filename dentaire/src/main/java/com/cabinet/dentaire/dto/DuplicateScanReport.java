@@ -0,0 +1,28 @@
+package com.cabinet.dentaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a full duplicate scan looked at and found
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateScanReport {
+
+    private int patients;
+
+    // Blocks with at least two patients, and how many of them were too large to compare exhaustively
+    private int blocks;
+
+    private int windowedBlocks;
+
+    private long comparisons;
+
+    private int suggestions;
+
+    // Rows whose stored blocking keys were missing or outdated
+    private int keysUpdated;
+
+    private long durationMs;
+}
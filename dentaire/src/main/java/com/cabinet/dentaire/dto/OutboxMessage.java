@@ -0,0 +1,49 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.cabinet.dentaire.enums.OutboxEventType;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Wire format of an outbox event. Delivery is at-least-once: consumers dedupe on
+// (tenant, id), ids are only unique within a clinic.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    private Long id;
+
+    // Clinic the event belongs to ("default" without tenancy)
+    private String tenant;
+
+    private OutboxEventType eventType;
+
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    private LocalDateTime createdAt;
+
+    private JsonNode payload;
+
+    public static OutboxMessage from(OutboxEvent event, ObjectMapper objectMapper) throws JsonProcessingException {
+        return new OutboxMessage(
+            event.getId(),
+            TenantContext.current(),
+            event.getEventType(),
+            event.getAggregateType(),
+            event.getAggregateId(),
+            event.getCeatedAt(),
+            objectMapper.readTree(event.getPayload())
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Version of a resource or list for conditional GETs: row count + newest updated_at (null when empty)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+
+    private long count;
+
+    private LocalDateTime lastModified;
+
+    // Weak: the same rows have several representations (variant = fields selection)
+    public String etag(String variant) {
+        long micros = 0;
+        if (lastModified != null) {
+            micros = lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1000;
+        }
+        return "W/\"" + Integer.toHexString(variant.hashCode()) + "-" + Long.toHexString(count)
+            + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    // updated_at is written in the JVM's time zone (@UpdateTimestamp); -1 when empty
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
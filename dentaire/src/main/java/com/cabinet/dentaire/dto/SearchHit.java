@@ -0,0 +1,34 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.SearchHitType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One ranked match of the note search. appointmentId / patientId / dateTime are null
+// for treatments, treatmentId is null for appointment notes. The snippet marks the
+// matched words with <mark></mark>.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    private SearchHitType type;
+
+    private Long id;
+
+    private Long appointmentId;
+
+    private Long patientId;
+
+    private Long treatmentId;
+
+    private LocalDateTime dateTime;
+
+    private float rank;
+
+    private String snippet;
+}
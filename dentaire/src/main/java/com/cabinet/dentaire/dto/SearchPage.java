@@ -0,0 +1,18 @@
+package com.cabinet.dentaire.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A page of search hits, best first; nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage {
+
+    private List<SearchHit> hits;
+
+    private String nextCursor;
+}
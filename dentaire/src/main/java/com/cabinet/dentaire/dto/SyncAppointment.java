@@ -0,0 +1,28 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Appointment as sent to sync clients: the patient is a reference, it syncs on its own
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncAppointment {
+
+    private Long id;
+
+    private Long patientId;
+
+    private LocalDateTime dateTime;
+
+    private AppointmentEnums status;
+
+    private String notes;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Appointment treatment line as sent to sync clients
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncAppointmentLine {
+
+    private Long id;
+
+    private Long appointmentId;
+
+    private Long treatmentId;
+
+    private Integer quantity;
+
+    private BigDecimal priceCharged;
+
+    private String notes;
+
+    private LocalDateTime updatedAt;
+}
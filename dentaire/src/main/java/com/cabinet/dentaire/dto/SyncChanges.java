@@ -0,0 +1,31 @@
+package com.cabinet.dentaire.dto;
+
+import java.util.List;
+
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One page of changes. Pass nextToken as ?since= to continue, keep paging while hasMore.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChanges {
+
+    private List<Patient> patients;
+
+    private List<Treatment> treatments;
+
+    private List<SyncAppointment> appointments;
+
+    private List<SyncAppointmentLine> appointmentTreatments;
+
+    private List<SyncDeletion> deletions;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
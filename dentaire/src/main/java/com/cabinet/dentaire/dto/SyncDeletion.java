@@ -0,0 +1,21 @@
+package com.cabinet.dentaire.dto;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.SyncEntityType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDeletion {
+
+    private SyncEntityType entityType;
+
+    private Long entityId;
+
+    private LocalDateTime deletedAt;
+}
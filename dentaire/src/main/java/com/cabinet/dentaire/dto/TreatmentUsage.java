@@ -0,0 +1,27 @@
+package com.cabinet.dentaire.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Usage of one treatment over a date range: lines, units (sum of quantity) and
+// revenue (sum of quantity x price charged, catalog price when none was charged)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreatmentUsage {
+
+    private Long treatmentId;
+
+    private String code;
+
+    private String name;
+
+    private long usageCount;
+
+    private long quantity;
+
+    private BigDecimal revenue;
+}
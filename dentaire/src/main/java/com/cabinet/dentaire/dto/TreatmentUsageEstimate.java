@@ -0,0 +1,22 @@
+package com.cabinet.dentaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Live top-K entry: the true quantity is between quantity - maxError and quantity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreatmentUsageEstimate {
+
+    private Long treatmentId;
+
+    private String code;
+
+    private String name;
+
+    private long quantity;
+
+    private long maxError;
+}
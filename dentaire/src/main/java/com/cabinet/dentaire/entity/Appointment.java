@@ -13,6 +13,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -27,7 +29,12 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_appointments_status_date_time", columnList = "status, date_time"),
+    @Index(name = "idx_appointments_date_time", columnList = "date_time"),
+    @Index(name = "idx_appointments_patient_id_date_time", columnList = "patient_id, date_time")
+})
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"patient", "appointmentTreatments"})
 @ToString(exclude = {"patient", "appointmentTreatments"})
@@ -38,7 +45,7 @@ public class Appointment extends BaseEntity {
 
     @NotNull(message = "Patient is required")
     @ManyToOne(fetch = FetchType.EAGER) 
-    @JoinColumn(name = "patient_id", nullable = false)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointments_patient"))
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) 
     private Patient patient;
 
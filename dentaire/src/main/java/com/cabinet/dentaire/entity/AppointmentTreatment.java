@@ -1,6 +1,8 @@
 package com.cabinet.dentaire.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
@@ -20,8 +22,15 @@ import lombok.ToString;
 
 import java.math.BigDecimal;
 
+import com.cabinet.dentaire.service.analytics.AppointmentTreatmentUsageListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 @Entity
-@Table(name = "appointment_treatments")
+@EntityListeners(AppointmentTreatmentUsageListener.class)
+@Table(name = "appointment_treatments", indexes = {
+    @Index(name = "idx_appointment_treatments_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_appointment_treatments_appointment_id", columnList = "appointment_id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"appointment", "treatment"})
 @ToString(exclude = {"appointment", "treatment"})
@@ -38,6 +47,7 @@ public class AppointmentTreatment extends BaseEntity {
     @NotNull(message = "Treatment is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "treatment_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Treatment treatment;
 
     @Positive(message = "Quantity must be at least 1")
@@ -0,0 +1,70 @@
+package com.cabinet.dentaire.entity;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// One committed change of an audited record, written by AuditTrail (ceatedAt = time
+// written, changedAt = time of the commit). Never updated nor deleted by the application.
+@Entity
+@Table(name = "audit_log",
+    uniqueConstraints = @UniqueConstraint(name = "uk_audit_log_event_id", columnNames = "event_id"),
+    indexes = @Index(name = "idx_audit_log_entity", columnList = "entity_type, entity_id, changed_at"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditEntry extends BaseEntity {
+
+    // Set when the change is captured: the journal replay inserts an event at most once
+    @JsonIgnore
+    @NotNull
+    @Column(nullable = false, length = 36)
+    private String eventId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AuditEntityType entityType;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AuditAction action;
+
+    @NotNull
+    @Column(nullable = false, length = 100)
+    private String actor;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // JSON object: field -> {"old": ..., "new": ...}
+    @JsonRawValue
+    @NotNull
+    @Column(nullable = false, columnDefinition = "text")
+    private String changes;
+}
@@ -0,0 +1,56 @@
+package com.cabinet.dentaire.entity;
+
+import com.cabinet.dentaire.enums.DuplicateStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Two patients that look like the same person, to be merged or dismissed at the front
+// desk. One row per pair, patientId < duplicateId; written by the duplicate detection
+// (scan job and on-create check), re-scoring only touches PENDING rows.
+@Entity
+@Table(name = "duplicate_suggestions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_duplicate_suggestions_pair", columnNames = {"patient_id", "duplicate_id"}),
+    indexes = {
+        @Index(name = "idx_duplicate_suggestions_duplicate_id", columnList = "duplicate_id"),
+        @Index(name = "idx_duplicate_suggestions_status_score", columnList = "status, score")
+    })
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateSuggestion extends BaseEntity {
+
+    @NotNull
+    @Column(nullable = false)
+    private Long patientId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long duplicateId;
+
+    // 0..1, see PatientMatching
+    @NotNull
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(length = 200)
+    private String reasons;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DuplicateStatus status;
+}
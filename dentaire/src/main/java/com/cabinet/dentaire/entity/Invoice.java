@@ -0,0 +1,68 @@
+package com.cabinet.dentaire.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// A patient's invoice for a billing period: completed appointments of the period, each
+// line at quantity x price charged. The lines are kept as billed (JSON), later edits
+// of the appointments do not change an issued invoice. Written by the invoice runs.
+@Entity
+@Table(name = "invoices",
+    uniqueConstraints = @UniqueConstraint(name = "uk_invoices_patient_period",
+        columnNames = {"patient_id", "period_start", "period_end"}),
+    indexes = @Index(name = "idx_invoices_run_id_patient_id", columnList = "run_id, patient_id"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Invoice extends BaseEntity {
+
+    @NotNull
+    @Column(nullable = false)
+    private Long runId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long patientId;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate periodEnd;
+
+    @NotNull
+    @Column(nullable = false)
+    private Integer appointmentCount;
+
+    @NotNull
+    @Column(nullable = false)
+    private Integer lineCount;
+
+    @NotNull
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal total;
+
+    // JSON array of the billed lines
+    @NotNull
+    @JsonRawValue
+    @Column(nullable = false, columnDefinition = "text")
+    private String lines;
+}
@@ -0,0 +1,72 @@
+package com.cabinet.dentaire.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.InvoiceRunStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Invoice generation for one billing period (one run per period). Patients are billed
+// in id order and the progress is committed with each batch of invoices:
+// lastPatientId is the checkpoint a resumed run starts after.
+@Entity
+@Table(name = "invoice_runs",
+    uniqueConstraints = @UniqueConstraint(name = "uk_invoice_runs_period", columnNames = {"period_start", "period_end"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceRun extends BaseEntity {
+
+    // Inclusive
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate periodEnd;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InvoiceRunStatus status;
+
+    // Patients with billable lines in the period, counted when the run (re)starts
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer patientsTotal = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer patientsDone = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long lastPatientId = 0L;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,57 @@
+package com.cabinet.dentaire.entity;
+
+import java.time.LocalDateTime;
+
+import com.cabinet.dentaire.enums.OutboxEventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Change event written in the same transaction as the change, relayed later by OutboxRelay
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_published_at", columnList = "published_at, id"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent extends BaseEntity {
+
+    @NotNull
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    // JSON document
+    @NotNull
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    // null until the relay delivered it
+    private LocalDateTime publishedAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -2,8 +2,13 @@ package com.cabinet.dentaire.entity;
 
 import java.time.LocalDate;
 
+import com.cabinet.dentaire.service.dedup.PatientMatchKeyListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint ;
 import jakarta.validation.constraints.Email;
@@ -17,7 +22,18 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "patients", uniqueConstraints= @UniqueConstraint(columnNames= {"email"}))
+@Table(name = "patients", uniqueConstraints= {
+        @UniqueConstraint(columnNames= {"email"}),
+        @UniqueConstraint(name = "uk_patients_phone", columnNames = {"phone"})
+    },
+    indexes = {
+        @Index(name = "idx_patients_updated_at", columnList = "updated_at, id"),
+        // Blocking keys of the duplicate check
+        @Index(name = "idx_patients_phone_key", columnList = "phone_key"),
+        @Index(name = "idx_patients_name_key", columnList = "name_key"),
+        @Index(name = "idx_patients_birth_date", columnList = "birth_date")
+    })
+@EntityListeners(PatientMatchKeyListener.class)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -48,4 +64,13 @@ public class Patient extends BaseEntity {
 
     @Size(max = 255 , message= "Max characters of the adress must be < 255 ")
     private String address ;
+
+    // Duplicate detection keys, derived from phone and names (see PatientMatching)
+    @JsonIgnore
+    @Column(length = 20)
+    private String phoneKey ;
+
+    @JsonIgnore
+    @Column(length = 60)
+    private String nameKey ;
 }
@@ -0,0 +1,36 @@
+package com.cabinet.dentaire.entity;
+
+import com.cabinet.dentaire.enums.SyncEntityType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Marker left behind by a delete so sync clients learn about it (updatedAt = deletion time)
+@Entity
+@Table(name = "sync_tombstones", indexes = @Index(name = "idx_sync_tombstones_updated_at", columnList = "updated_at, id"))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncTombstone extends BaseEntity {
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private SyncEntityType entityType;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long entityId;
+}
@@ -1,7 +1,9 @@
 package com.cabinet.dentaire.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Column;
 
 import jakarta.validation.constraints.NotBlank;
@@ -18,7 +20,9 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "treatments")
+@Table(name = "treatments",
+    uniqueConstraints = @UniqueConstraint(name = "uk_treatments_code", columnNames = "code"),
+    indexes = @Index(name = "idx_treatments_updated_at", columnList = "updated_at, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
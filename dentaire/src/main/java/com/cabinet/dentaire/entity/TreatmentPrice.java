@@ -0,0 +1,44 @@
+package com.cabinet.dentaire.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Price history of a treatment: each row is the price from effectiveFrom until the
+// next row of the same treatment. Rows in the future are scheduled changes, they
+// apply on their own once their time comes (see TreatmentPriceSnapshot).
+@Entity
+@Table(name = "treatment_prices",
+    uniqueConstraints = @UniqueConstraint(name = "uk_treatment_prices_treatment_effective",
+        columnNames = {"treatment_id", "effective_from"}))
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TreatmentPrice extends BaseEntity {
+
+    // Set from the path on writes
+    @Column(nullable = false)
+    private Long treatmentId;
+
+    @NotNull(message = "price is required ! ")
+    @Positive(message = "Price cannot be negative")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @NotNull(message = "effectiveFrom is required")
+    @Column(nullable = false)
+    private LocalDateTime effectiveFrom;
+}
@@ -0,0 +1,10 @@
+package com.cabinet.dentaire.enums;
+
+// Admission class of an /api request: its token cost and the concurrency limit it counts against
+public enum AdmissionLane {
+    // Front desk (waiting queue): own concurrency reserve, never behind reports
+    PRIORITY,
+    STANDARD,
+    // Full scans and bulk work
+    HEAVY
+}
@@ -0,0 +1,7 @@
+package com.cabinet.dentaire.enums;
+
+public enum AuditAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// Entity kinds recorded in the audit trail
+public enum AuditEntityType {
+    PATIENT,
+    APPOINTMENT,
+    APPOINTMENT_TREATMENT
+}
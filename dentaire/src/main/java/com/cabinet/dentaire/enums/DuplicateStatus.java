@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// Review state of a duplicate patient suggestion
+public enum DuplicateStatus {
+    PENDING,
+    DISMISSED,
+    MERGED
+}
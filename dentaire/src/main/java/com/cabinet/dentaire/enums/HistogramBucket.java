@@ -0,0 +1,36 @@
+package com.cabinet.dentaire.enums;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+// Bucket size of the schedule histogram. Buckets are aligned on the clock
+// (quarter hours, hours, midnight, Monday midnight) and have a fixed width.
+public enum HistogramBucket {
+    FIFTEEN_MINUTES(Duration.ofMinutes(15)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration width;
+
+    HistogramBucket(Duration width) {
+        this.width = width;
+    }
+
+    public Duration getWidth() {
+        return width;
+    }
+
+    // Start of the bucket containing time
+    public LocalDateTime floor(LocalDateTime time) {
+        return switch (this) {
+            case FIFTEEN_MINUTES -> time.truncatedTo(ChronoUnit.HOURS).plusMinutes(time.getMinute() / 15 * 15L);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+}
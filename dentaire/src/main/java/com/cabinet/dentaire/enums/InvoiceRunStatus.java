@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// State of a billing run; RUNNING after a crash is resumed at startup
+public enum InvoiceRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
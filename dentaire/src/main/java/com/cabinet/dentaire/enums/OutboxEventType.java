@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// Change events published to downstream systems (billing, reminders, reporting)
+public enum OutboxEventType {
+    APPOINTMENT_CREATED,
+    APPOINTMENT_UPDATED,
+    APPOINTMENT_STATUS_CHANGED
+}
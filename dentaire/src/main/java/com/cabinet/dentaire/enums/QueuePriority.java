@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// Triage level of a patient in the waiting queue (lower ordinal = seen first)
+public enum QueuePriority {
+    EMERGENCY,
+    APPOINTMENT,
+    WALK_IN
+}
@@ -0,0 +1,6 @@
+package com.cabinet.dentaire.enums;
+
+public enum ReminderChannel {
+    SMS,
+    EMAIL
+}
@@ -0,0 +1,8 @@
+package com.cabinet.dentaire.enums;
+
+// What a note search hit points at (the order is the tie-break order of equal ranks)
+public enum SearchHitType {
+    APPOINTMENT,
+    APPOINTMENT_TREATMENT,
+    TREATMENT
+}
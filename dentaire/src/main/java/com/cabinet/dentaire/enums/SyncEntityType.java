@@ -0,0 +1,9 @@
+package com.cabinet.dentaire.enums;
+
+// Entity kinds exposed by the delta sync API
+public enum SyncEntityType {
+    PATIENT,
+    TREATMENT,
+    APPOINTMENT,
+    APPOINTMENT_TREATMENT
+}
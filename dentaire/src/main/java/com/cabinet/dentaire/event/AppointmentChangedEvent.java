@@ -0,0 +1,12 @@
+package com.cabinet.dentaire.event;
+
+import java.util.List;
+
+// Published by the appointment service when appointments are created, changed or
+// deleted. Carries ids only: listeners run after commit and reload what they need.
+public record AppointmentChangedEvent(List<Long> appointmentIds) {
+
+    public AppointmentChangedEvent(Long appointmentId) {
+        this(List.of(appointmentId));
+    }
+}
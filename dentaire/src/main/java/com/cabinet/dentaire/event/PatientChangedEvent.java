@@ -0,0 +1,12 @@
+package com.cabinet.dentaire.event;
+
+import java.util.List;
+
+// Published by the patient service when patients are created, changed or deleted.
+// Carries ids only: listeners run after commit and reload what they need.
+public record PatientChangedEvent(List<Long> patientIds) {
+
+    public PatientChangedEvent(Long patientId) {
+        this(List.of(patientId));
+    }
+}
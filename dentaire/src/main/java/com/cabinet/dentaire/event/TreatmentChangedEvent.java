@@ -0,0 +1,5 @@
+package com.cabinet.dentaire.event;
+
+// Published by the treatment service when a catalog entry is created, changed or deleted
+public record TreatmentChangedEvent(Long treatmentId) {
+}
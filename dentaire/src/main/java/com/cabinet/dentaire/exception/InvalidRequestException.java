@@ -0,0 +1,15 @@
+package com.cabinet.dentaire.exception;
+
+// A request the caller got wrong (too many ids, bad range, unknown field or token...).
+// Answered 400 with the message as detail by ApiExceptionHandler, so the message is
+// written for the client; anything else thrown keeps the default 500 handling.
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
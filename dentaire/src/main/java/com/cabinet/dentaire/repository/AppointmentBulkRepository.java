@@ -0,0 +1,22 @@
+package com.cabinet.dentaire.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+// Set-based writes on appointments, mixed into AppointmentRepository
+public interface AppointmentBulkRepository {
+
+    // One row changed by a bulk transition, with the status it had before
+    record StatusTransition(Long appointmentId, Long patientId, LocalDateTime dateTime, AppointmentEnums previousStatus) {
+    }
+
+    // Moves at most limit matching appointments (dateTime in [start, end], status in
+    // fromStatuses, of patientId when not null) to targetStatus in one UPDATE ... RETURNING.
+    // Rows locked by other transactions are skipped, not waited for.
+    List<StatusTransition> transitionStatus(LocalDateTime start, LocalDateTime end,
+                                            Collection<AppointmentEnums> fromStatuses, Long patientId,
+                                            AppointmentEnums targetStatus, LocalDateTime updatedAt, int limit);
+}
@@ -0,0 +1,66 @@
+package com.cabinet.dentaire.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+class AppointmentBulkRepositoryImpl implements AppointmentBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StatusTransition> transitionStatus(LocalDateTime start, LocalDateTime end,
+                                                   Collection<AppointmentEnums> fromStatuses, Long patientId,
+                                                   AppointmentEnums targetStatus, LocalDateTime updatedAt, int limit) {
+        // The CTE picks and locks the chunk (index on status, date_time), the UPDATE
+        // reports each row with the status it had, read under the lock
+        String sql = "WITH picked AS ("
+            + " SELECT id, status FROM appointments"
+            + " WHERE date_time BETWEEN :start AND :end AND status IN (:fromStatuses) AND status <> :targetStatus"
+            + (patientId != null ? " AND patient_id = :patientId" : "")
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)"
+            + " UPDATE appointments a SET status = :targetStatus, updated_at = :updatedAt"
+            + " FROM picked WHERE a.id = picked.id"
+            + " RETURNING a.id, a.patient_id, a.date_time, picked.status";
+
+        List<String> statusNames = new ArrayList<>(fromStatuses.size());
+        for (AppointmentEnums status : fromStatuses) {
+            statusNames.add(status.name());
+        }
+        Query query = entityManager.createNativeQuery(sql)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .setParameter("fromStatuses", statusNames)
+            .setParameter("targetStatus", targetStatus.name())
+            .setParameter("updatedAt", updatedAt)
+            .setParameter("limit", limit);
+        if (patientId != null) {
+            query.setParameter("patientId", patientId);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<StatusTransition> transitions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            transitions.add(new StatusTransition(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                toLocalDateTime(row[2]),
+                AppointmentEnums.valueOf((String) row[3])));
+        }
+        return transitions;
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.cabinet.dentaire.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.dto.AppointmentLine;
+import com.cabinet.dentaire.dto.AppointmentLines;
+
+// Line items written with plain JDBC: appointment_treatments ids are IDENTITY, which
+// turns off Hibernate insert batching. Runs in the caller's (JPA) transaction.
+@Repository
+public class AppointmentLineJdbcRepository {
+
+    // One line to insert, the price already resolved
+    public record NewLine(Long treatmentId, int quantity, BigDecimal priceCharged, String notes) {
+    }
+
+    // A deleted line as it was
+    public record RemovedLine(Long id, Long treatmentId, int quantity, BigDecimal priceCharged, String notes) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public AppointmentLineJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // Locks the appointment row (line changes of one appointment are serialized) and bumps its
+    // updated_at: the lines are part of the appointment's version (ETags, sync). Empty if missing
+    public Optional<LocalDateTime> lockAppointment(Long appointmentId) {
+        List<LocalDateTime> dateTimes = jdbcTemplate.query(
+            "UPDATE appointments SET updated_at = ? WHERE id = ? RETURNING date_time",
+            (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(),
+            Timestamp.valueOf(LocalDateTime.now()), appointmentId);
+        return dateTimes.stream().findFirst();
+    }
+
+    public Optional<LocalDateTime> findUpdatedAt(Long appointmentId) {
+        return jdbcTemplate.query("SELECT updated_at FROM appointments WHERE id = ?",
+            (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(), appointmentId).stream().findFirst();
+    }
+
+    public boolean appointmentExists(Long appointmentId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM appointments WHERE id = ?)", Boolean.class, appointmentId));
+    }
+
+    // Ids of the new lines, in the order of lines
+    public List<Long> insertAll(Long appointmentId, List<NewLine> lines) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO appointment_treatments "
+            + "(appointment_id, treatment_id, quantity, price_charged, notes, ceated_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(sql, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    NewLine line = lines.get(i);
+                    ps.setLong(1, appointmentId);
+                    ps.setLong(2, line.treatmentId());
+                    ps.setInt(3, line.quantity());
+                    ps.setBigDecimal(4, line.priceCharged());
+                    if (line.notes() != null) {
+                        ps.setString(5, line.notes());
+                    } else {
+                        ps.setNull(5, Types.VARCHAR);
+                    }
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return lines.size();
+                }
+            },
+            keyHolder);
+        List<Long> ids = new ArrayList<>(lines.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    // Deletes the given lines of the appointment (all of them when lineIds is null), returns the deleted lines
+    public List<RemovedLine> delete(Long appointmentId, Collection<Long> lineIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("appointmentId", appointmentId);
+        String sql = "DELETE FROM appointment_treatments WHERE appointment_id = :appointmentId";
+        if (lineIds != null) {
+            sql += " AND id IN (:lineIds)";
+            params.addValue("lineIds", lineIds);
+        }
+        return namedJdbcTemplate.query(sql + " RETURNING id, treatment_id, quantity, price_charged, notes", params,
+            (rs, rowNum) -> new RemovedLine(
+                rs.getLong("id"),
+                rs.getLong("treatment_id"),
+                rs.getInt("quantity"),
+                rs.getBigDecimal("price_charged"),
+                rs.getString("notes")));
+    }
+
+    // Lines and total in one query (the total is a window sum over the same rows)
+    public AppointmentLines findLines(Long appointmentId) {
+        List<AppointmentLine> lines = new ArrayList<>();
+        BigDecimal[] total = {BigDecimal.ZERO};
+        jdbcTemplate.query(
+            "SELECT at.id, at.treatment_id, t.code, t.name, at.quantity, "
+                + "COALESCE(at.price_charged, t.price) AS price, at.notes, "
+                + "SUM(COALESCE(at.price_charged, t.price) * at.quantity) OVER () AS total "
+                + "FROM appointment_treatments at JOIN treatments t ON t.id = at.treatment_id "
+                + "WHERE at.appointment_id = ? ORDER BY at.id",
+            rs -> {
+                BigDecimal price = rs.getBigDecimal("price");
+                int quantity = rs.getInt("quantity");
+                lines.add(new AppointmentLine(
+                    rs.getLong("id"),
+                    rs.getLong("treatment_id"),
+                    rs.getString("code"),
+                    rs.getString("name"),
+                    quantity,
+                    price,
+                    price.multiply(BigDecimal.valueOf(quantity)),
+                    rs.getString("notes")));
+                total[0] = rs.getBigDecimal("total");
+            },
+            appointmentId);
+        return new AppointmentLines(appointmentId, lines, total[0]);
+    }
+
+    // Lines of several appointments in one query, by appointment id (no entry when an appointment has none)
+    public Map<Long, List<AppointmentLine>> findLinesByAppointmentIds(Collection<Long> appointmentIds) {
+        Map<Long, List<AppointmentLine>> linesByAppointment = new HashMap<>();
+        if (appointmentIds.isEmpty()) {
+            return linesByAppointment;
+        }
+        namedJdbcTemplate.query(
+            "SELECT at.appointment_id, at.id, at.treatment_id, t.code, t.name, at.quantity, "
+                + "COALESCE(at.price_charged, t.price) AS price, at.notes "
+                + "FROM appointment_treatments at JOIN treatments t ON t.id = at.treatment_id "
+                + "WHERE at.appointment_id IN (:ids) ORDER BY at.appointment_id, at.id",
+            new MapSqlParameterSource("ids", appointmentIds),
+            rs -> {
+                BigDecimal price = rs.getBigDecimal("price");
+                int quantity = rs.getInt("quantity");
+                linesByAppointment.computeIfAbsent(rs.getLong("appointment_id"), id -> new ArrayList<>())
+                    .add(new AppointmentLine(
+                        rs.getLong("id"),
+                        rs.getLong("treatment_id"),
+                        rs.getString("code"),
+                        rs.getString("name"),
+                        quantity,
+                        price,
+                        price.multiply(BigDecimal.valueOf(quantity)),
+                        rs.getString("notes")));
+            });
+        return linesByAppointment;
+    }
+}
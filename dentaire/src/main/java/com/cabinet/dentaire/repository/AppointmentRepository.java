@@ -1,9 +1,13 @@
 package com.cabinet.dentaire.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,8 +16,17 @@ import com.cabinet.dentaire.entity.Appointment;
 import com.cabinet.dentaire.entity.Patient;
 import com.cabinet.dentaire.enums.AppointmentEnums;
 
+import jakarta.persistence.LockModeType;
+
 @Repository 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentBulkRepository {
+
+    // SELECT ... FOR UPDATE: a change and its outbox events are written under the row
+    // lock, so concurrent changes of one appointment get event ids in commit order and
+    // read the status the previous change committed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.id = :id")
+    Optional<Appointment> findByIdForUpdate(@Param("id") Long id);
 
     List<Appointment> findByPatient(Patient patient);
     
@@ -25,15 +38,60 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findByPatientIdAndDateTimeAfter(Long patientId, LocalDateTime dateTime);
 
+    List<Appointment> findByPatientIdAndDateTimeBetween(Long patientId, LocalDateTime start, LocalDateTime end);
+
     List<Appointment> findByStatusOrderByDateTimeAsc(AppointmentEnums status);
 
     // Fixed: Using native query for PostgreSQL
     @Query(value = "SELECT * FROM appointments a WHERE DATE(a.date_time) = CURRENT_DATE ORDER BY a.date_time", nativeQuery = true)
     List<Appointment> findTodaysAppointments();
 
+    // Loads the treatment lines in the same query, the result is usable outside the session
+    @Query("SELECT DISTINCT a FROM Appointment a "
+        + "LEFT JOIN FETCH a.appointmentTreatments at LEFT JOIN FETCH at.treatment "
+        + "WHERE a.dateTime BETWEEN :start AND :end ORDER BY a.dateTime")
+    List<Appointment> findWithTreatmentsByDateTimeBetween(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    // Reminder window: one range scan on (status, date_time), patients in the same query
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient "
+        + "WHERE a.status = :status AND a.dateTime BETWEEN :start AND :end ORDER BY a.dateTime")
+    List<Appointment> findWithPatientByStatusAndDateTimeBetween(
+        @Param("status") AppointmentEnums status,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient WHERE a.id IN :ids")
+    List<Appointment> findWithPatientByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Histogram: [bucket index, count] of the non-empty buckets of width bucketSeconds from origin
+    @Query(value = "SELECT CAST(floor(EXTRACT(EPOCH FROM (a.date_time - :origin)) / :bucketSeconds) AS integer) AS bucket, "
+        + "COUNT(*) FROM appointments a "
+        + "WHERE a.date_time >= :origin AND a.date_time < :end AND a.status IN (:statuses) "
+        + "GROUP BY 1", nativeQuery = true)
+    List<Object[]> countPerBucket(
+        @Param("origin") LocalDateTime origin,
+        @Param("end") LocalDateTime end,
+        @Param("bucketSeconds") long bucketSeconds,
+        @Param("statuses") Collection<String> statuses
+    );
+
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = :status")
     List<Appointment> findByPatientAndStatus(
         @Param("patientId") Long patientId, 
         @Param("status") AppointmentEnums status
     );
-}
\ No newline at end of file
+
+    // Delta sync: rows changed after the (updatedAt, id) cursor, oldest first
+    @Query("SELECT a FROM Appointment a WHERE (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :afterId)) "
+        + "AND a.updatedAt <= :until ORDER BY a.updatedAt, a.id")
+    List<Appointment> findChangedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+}
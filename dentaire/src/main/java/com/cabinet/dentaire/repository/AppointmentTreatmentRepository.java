@@ -1,12 +1,15 @@
 package com.cabinet.dentaire.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cabinet.dentaire.dto.TreatmentUsage;
 import com.cabinet.dentaire.entity.Appointment;
 import com.cabinet.dentaire.entity.AppointmentTreatment;
 import com.cabinet.dentaire.entity.Treatment;
@@ -28,4 +31,38 @@ public interface AppointmentTreatmentRepository extends JpaRepository<Appointmen
     Double getTotalRevenueByTreatment(@Param("treatmentId") Long treatmentId);
     
     Long countByTreatmentId(Long treatmentId);
-}
\ No newline at end of file
+
+    // Usage of every treatment in one grouped query: lines of the range joined to
+    // their appointment first, then right-joined so unused treatments get zeros
+    @Query("SELECT new com.cabinet.dentaire.dto.TreatmentUsage(t.id, t.code, t.name, COUNT(at.id), "
+        + "COALESCE(SUM(at.quantity), 0L), COALESCE(SUM(COALESCE(at.priceCharged, t.price) * at.quantity), 0.00BD)) "
+        + "FROM AppointmentTreatment at JOIN at.appointment a ON a.dateTime BETWEEN :start AND :end "
+        + "RIGHT JOIN at.treatment t "
+        + "GROUP BY t.id, t.code, t.name")
+    List<TreatmentUsage> summarizeUsageBetween(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    // [week start (date), treatment id, quantity] for the weeks of [start, end)
+    @Query(value = "SELECT CAST(date_trunc('week', a.date_time) AS date), at.treatment_id, SUM(at.quantity) "
+        + "FROM appointment_treatments at JOIN appointments a ON a.id = at.appointment_id "
+        + "WHERE a.date_time >= :start AND a.date_time < :end GROUP BY 1, 2", nativeQuery = true)
+    List<Object[]> sumQuantityByWeekAndTreatment(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT at.id FROM AppointmentTreatment at WHERE at.appointment.id = :appointmentId")
+    List<Long> findIdsByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    // Delta sync: rows changed after the (updatedAt, id) cursor, oldest first
+    @Query("SELECT at FROM AppointmentTreatment at WHERE (at.updatedAt > :since OR (at.updatedAt = :since AND at.id > :afterId)) "
+        + "AND at.updatedAt <= :until ORDER BY at.updatedAt, at.id")
+    List<AppointmentTreatment> findChangedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,17 @@
+package com.cabinet.dentaire.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.AuditEntry;
+import com.cabinet.dentaire.enums.AuditEntityType;
+
+@Repository
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    List<AuditEntry> findByEntityTypeAndEntityIdOrderByChangedAtAscIdAsc(
+        AuditEntityType entityType, Long entityId, Pageable pageable);
+}
@@ -0,0 +1,65 @@
+package com.cabinet.dentaire.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.dto.AuditRecord;
+
+// Audit rows written in JDBC batches. An event already stored (journal replayed after
+// a crash, batch retried after a timeout that did commit) is skipped, not duplicated.
+// Also the transaction ids the journal uses to tell whether its changes committed.
+@Repository
+public class AuditJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Id of the current database transaction (assigned now if it had none), kept in the
+    // journal with the changes it writes ahead
+    public long currentTransactionId() {
+        return jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+    }
+
+    // committed, aborted, in progress, or null once too old for PostgreSQL to tell
+    public String transactionStatus(long transactionId) {
+        return jdbcTemplate.queryForObject("SELECT txid_status(?)", String.class, transactionId);
+    }
+
+    public void insertAll(List<AuditRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO audit_log "
+                + "(event_id, entity_type, entity_id, action, actor, changed_at, changes, ceated_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    AuditRecord record = records.get(i);
+                    ps.setString(1, record.eventId());
+                    ps.setString(2, record.entityType().name());
+                    ps.setLong(3, record.entityId());
+                    ps.setString(4, record.action().name());
+                    ps.setString(5, record.actor());
+                    ps.setTimestamp(6, Timestamp.valueOf(record.changedAt()));
+                    ps.setString(7, record.changes());
+                    ps.setTimestamp(8, now);
+                    ps.setTimestamp(9, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return records.size();
+                }
+            });
+    }
+}
@@ -0,0 +1,23 @@
+package com.cabinet.dentaire.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.DuplicateSuggestion;
+import com.cabinet.dentaire.enums.DuplicateStatus;
+
+@Repository
+public interface DuplicateSuggestionRepository extends JpaRepository<DuplicateSuggestion, Long> {
+
+    // Best matches first
+    List<DuplicateSuggestion> findByStatusOrderByScoreDescIdAsc(DuplicateStatus status, Pageable pageable);
+
+    @Query("SELECT s FROM DuplicateSuggestion s WHERE (s.patientId = :patientId OR s.duplicateId = :patientId) "
+        + "AND s.status = :status ORDER BY s.score DESC, s.id")
+    List<DuplicateSuggestion> findByPatient(@Param("patientId") Long patientId, @Param("status") DuplicateStatus status);
+}
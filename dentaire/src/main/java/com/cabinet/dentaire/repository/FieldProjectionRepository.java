@@ -0,0 +1,96 @@
+package com.cabinet.dentaire.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.service.projection.FieldSelection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Sparse reads: a tuple query selecting only the requested columns, no entity is
+// loaded (nothing managed, no eager association, no lazy collection touched).
+// "patient.id" is read from the foreign key; the patients table is only joined
+// when another patient field is asked for. Rows come back as ordered maps, dotted
+// fields nested ("patient.firstName" -> {"patient": {"firstName": ...}}).
+@Repository
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @SuppressWarnings("unchecked")
+    public <T> List<Map<String, Object>> find(FieldSelection selection, Specification<T> filter, String orderBy) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = (Root<T>) query.from(selection.resource().getEntityClass());
+
+        Map<String, Join<T, ?>> joins = new LinkedHashMap<>();
+        List<String> columns = selection.columns();
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            selections.add(path(root, joins, column).alias(column));
+        }
+        query.multiselect(selections);
+
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+        query.orderBy(cb.asc(root.get(orderBy)), cb.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                put(row, column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Case-insensitive "contains" on a string attribute, % and _ in text matched literally
+    public static <T> Specification<T> containsIgnoreCase(String attribute, String text) {
+        String pattern = "%" + text.toLowerCase()
+            .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, '\\');
+    }
+
+    private static <T> Path<?> path(Root<T> root, Map<String, Join<T, ?>> joins, String column) {
+        int dot = column.indexOf('.');
+        if (dot < 0) {
+            return root.get(column);
+        }
+        String association = column.substring(0, dot);
+        String attribute = column.substring(dot + 1);
+        if (attribute.equals("id")) {
+            return root.get(association).get("id");
+        }
+        return joins.computeIfAbsent(association, name -> root.join(name, JoinType.INNER)).get(attribute);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String column, Object value) {
+        int dot = column.indexOf('.');
+        if (dot < 0) {
+            row.put(column, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) row.computeIfAbsent(
+            column.substring(0, dot), key -> new LinkedHashMap<String, Object>());
+        nested.put(column.substring(dot + 1), value);
+    }
+}
@@ -0,0 +1,131 @@
+package com.cabinet.dentaire.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.PatientInvoice;
+
+// Invoice runs read and write with plain JDBC: the billable lines of a whole period
+// come from one streaming query ordered by patient (no entities, no persistence
+// context) and invoices are inserted in batches. Runs in the caller's transaction.
+@Repository
+public class InvoiceJdbcRepository {
+
+    // A line of a completed appointment, price charged null when none was recorded
+    public record BillableRow(Long patientId, Long appointmentId, LocalDateTime dateTime, Long lineId,
+                              Long treatmentId, String code, String name, int quantity, BigDecimal priceCharged) {
+    }
+
+    // Completed appointments in [start, end) of patients after the checkpoint
+    private static final String BILLABLE_FROM =
+        "FROM appointments a JOIN appointment_treatments l ON l.appointment_id = a.id "
+        + "JOIN treatments t ON t.id = l.treatment_id "
+        + "WHERE a.status = 'COMPLETED' AND a.date_time >= ? AND a.date_time < ? AND a.patient_id > ? ";
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    // Same data source, rows fetched FETCH_SIZE at a time instead of all at once
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public InvoiceJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // Held until the caller's transaction ends: a run executes on one instance at a time
+    public boolean tryLock(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+
+    public int countPatients(LocalDate periodStart, LocalDate periodEnd, long afterPatientId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(DISTINCT a.patient_id) " + BILLABLE_FROM,
+            Integer.class, start(periodStart), end(periodEnd), afterPatientId);
+        return count != null ? count : 0;
+    }
+
+    // Streams every billable line by patient, appointment date, appointment, line
+    // (the cursor only streams inside a transaction)
+    public void forEachBillableRow(LocalDate periodStart, LocalDate periodEnd, long afterPatientId,
+                                   Consumer<BillableRow> consumer) {
+        streamingJdbcTemplate.query(
+            "SELECT a.patient_id, a.id, a.date_time, l.id AS line_id, l.treatment_id, t.code, t.name, "
+                + "l.quantity, l.price_charged " + BILLABLE_FROM
+                + "ORDER BY a.patient_id, a.date_time, a.id, l.id",
+            (ResultSet rs) -> consumer.accept(new BillableRow(
+                rs.getLong("patient_id"),
+                rs.getLong("id"),
+                rs.getTimestamp("date_time").toLocalDateTime(),
+                rs.getLong("line_id"),
+                rs.getLong("treatment_id"),
+                rs.getString("code"),
+                rs.getString("name"),
+                rs.getInt("quantity"),
+                rs.getBigDecimal("price_charged"))),
+            start(periodStart), end(periodEnd), afterPatientId);
+    }
+
+    // An invoice already issued for the patient and period is kept as it is
+    public int insertAll(Long runId, LocalDate periodStart, LocalDate periodEnd, List<PatientInvoice> invoices) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = jdbcTemplate.batchUpdate(
+            "INSERT INTO invoices (run_id, patient_id, period_start, period_end, appointment_count, line_count, "
+                + "total, lines, ceated_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                + "ON CONFLICT (patient_id, period_start, period_end) DO NOTHING",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PatientInvoice invoice = invoices.get(i);
+                    ps.setLong(1, runId);
+                    ps.setLong(2, invoice.patientId());
+                    ps.setObject(3, periodStart);
+                    ps.setObject(4, periodEnd);
+                    ps.setInt(5, invoice.appointmentCount());
+                    ps.setInt(6, invoice.lineCount());
+                    ps.setBigDecimal(7, invoice.total());
+                    ps.setString(8, invoice.lines());
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return invoices.size();
+                }
+            });
+        int inserted = 0;
+        for (int count : counts) {
+            inserted += Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    // Checkpoint: committed with the batch of invoices it covers
+    public void advance(Long runId, long lastPatientId, int patients, BigDecimal amount) {
+        jdbcTemplate.update(
+            "UPDATE invoice_runs SET last_patient_id = ?, patients_done = patients_done + ?, "
+                + "total_amount = total_amount + ?, updated_at = ? WHERE id = ?",
+            lastPatientId, patients, amount, Timestamp.valueOf(LocalDateTime.now()), runId);
+    }
+
+    private static Timestamp start(LocalDate periodStart) {
+        return Timestamp.valueOf(periodStart.atStartOfDay());
+    }
+
+    // Exclusive: the day after the (inclusive) last day
+    private static Timestamp end(LocalDate periodEnd) {
+        return Timestamp.valueOf(periodEnd.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,18 @@
+package com.cabinet.dentaire.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.Invoice;
+
+@Repository
+public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+
+    // Keyset page of a run, by patient id
+    List<Invoice> findByRunIdAndPatientIdGreaterThanOrderByPatientIdAsc(Long runId, Long afterPatientId, Pageable pageable);
+
+    List<Invoice> findByPatientIdOrderByPeriodStartDesc(Long patientId);
+}
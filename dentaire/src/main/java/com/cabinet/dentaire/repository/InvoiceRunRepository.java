@@ -0,0 +1,21 @@
+package com.cabinet.dentaire.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.InvoiceRun;
+import com.cabinet.dentaire.enums.InvoiceRunStatus;
+
+@Repository
+public interface InvoiceRunRepository extends JpaRepository<InvoiceRun, Long> {
+
+    Optional<InvoiceRun> findByPeriodStartAndPeriodEnd(LocalDate periodStart, LocalDate periodEnd);
+
+    List<InvoiceRun> findByStatus(InvoiceRunStatus status);
+
+    List<InvoiceRun> findAllByOrderByPeriodStartDescIdDesc();
+}
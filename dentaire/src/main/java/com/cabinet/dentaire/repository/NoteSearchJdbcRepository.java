@@ -0,0 +1,118 @@
+package com.cabinet.dentaire.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.dto.SearchHit;
+import com.cabinet.dentaire.enums.SearchHitType;
+
+// Note search over the tsvector columns of FullTextSearchSchema. Every source is
+// matched through its GIN index and ranked with ts_rank; the union is ordered by
+// (rank desc, type, id) and paged with a keyset on that same tuple, so a page costs
+// the same wherever it is. Snippets (ts_headline, which re-parses the text) are only
+// computed for the rows of the page.
+@Repository
+public class NoteSearchJdbcRepository {
+
+    // Where the previous page stopped: the last hit's sort key
+    public record Position(float rank, SearchHitType type, long id) {
+    }
+
+    private static final String HEADLINE_OPTIONS =
+        "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String textSearchConfig;
+
+    public NoteSearchJdbcRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${dentaire.search.text-config:french}") String textSearchConfig) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    public List<SearchHit> search(String query, Set<SearchHitType> types, Long patientId,
+                                  LocalDateTime from, LocalDateTime to, Position after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("config", textSearchConfig)
+            .addValue("query", query)
+            .addValue("limit", limit);
+
+        // Patient / date filters apply to appointment notes and their lines
+        StringBuilder appointmentFilter = new StringBuilder();
+        if (patientId != null) {
+            appointmentFilter.append(" AND a.patient_id = :patientId");
+            params.addValue("patientId", patientId);
+        }
+        if (from != null) {
+            appointmentFilter.append(" AND a.date_time >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            appointmentFilter.append(" AND a.date_time < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+
+        List<String> sources = new ArrayList<>(3);
+        if (types.contains(SearchHitType.APPOINTMENT)) {
+            sources.add("SELECT " + SearchHitType.APPOINTMENT.ordinal() + " AS kind, a.id, a.id AS appointment_id, "
+                + "a.patient_id, CAST(NULL AS bigint) AS treatment_id, a.date_time, ts_rank(a.notes_tsv, q.query) AS rank "
+                + "FROM appointments a, q WHERE a.notes_tsv @@ q.query" + appointmentFilter);
+        }
+        if (types.contains(SearchHitType.APPOINTMENT_TREATMENT)) {
+            sources.add("SELECT " + SearchHitType.APPOINTMENT_TREATMENT.ordinal() + ", l.id, a.id, a.patient_id, "
+                + "l.treatment_id, a.date_time, ts_rank(l.notes_tsv, q.query) "
+                + "FROM appointment_treatments l JOIN appointments a ON a.id = l.appointment_id, q "
+                + "WHERE l.notes_tsv @@ q.query" + appointmentFilter);
+        }
+        // Treatments have no patient or date, they only show up in unfiltered searches
+        if (types.contains(SearchHitType.TREATMENT) && appointmentFilter.isEmpty()) {
+            sources.add("SELECT " + SearchHitType.TREATMENT.ordinal() + ", t.id, NULL, NULL, t.id, NULL, "
+                + "ts_rank(t.search_tsv, q.query) FROM treatments t, q WHERE t.search_tsv @@ q.query");
+        }
+        if (sources.isEmpty()) {
+            return List.of();
+        }
+
+        String keyset = "";
+        if (after != null) {
+            keyset = "WHERE rank < :afterRank OR (rank = :afterRank AND (kind, id) > (:afterKind, :afterId)) ";
+            params.addValue("afterRank", after.rank())
+                .addValue("afterKind", after.type().ordinal())
+                .addValue("afterId", after.id());
+        }
+
+        String sql = "WITH q AS (SELECT websearch_to_tsquery(CAST(:config AS regconfig), :query) AS query), "
+            + "hits AS (" + String.join(" UNION ALL ", sources) + "), "
+            + "page AS (SELECT * FROM hits " + keyset + "ORDER BY rank DESC, kind, id LIMIT :limit) "
+            + "SELECT page.*, ts_headline(CAST(:config AS regconfig), "
+            + "CASE page.kind "
+            + "WHEN " + SearchHitType.APPOINTMENT.ordinal() + " THEN (SELECT notes FROM appointments WHERE id = page.id) "
+            + "WHEN " + SearchHitType.APPOINTMENT_TREATMENT.ordinal() + " THEN (SELECT notes FROM appointment_treatments WHERE id = page.id) "
+            + "ELSE (SELECT name || ': ' || coalesce(description, '') FROM treatments WHERE id = page.id) END, "
+            + "q.query, '" + HEADLINE_OPTIONS + "') AS snippet "
+            + "FROM page, q ORDER BY page.rank DESC, page.kind, page.id";
+
+        return namedJdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Timestamp dateTime = rs.getTimestamp("date_time");
+            return new SearchHit(
+                SearchHitType.values()[rs.getInt("kind")],
+                rs.getLong("id"),
+                rs.getObject("appointment_id", Long.class),
+                rs.getObject("patient_id", Long.class),
+                rs.getObject("treatment_id", Long.class),
+                dateTime != null ? dateTime.toLocalDateTime() : null,
+                rs.getFloat("rank"),
+                rs.getString("snippet"));
+        });
+    }
+}
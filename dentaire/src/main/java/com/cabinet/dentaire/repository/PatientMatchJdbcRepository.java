@@ -0,0 +1,165 @@
+package com.cabinet.dentaire.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.service.dedup.DuplicateScanner.Suggestion;
+import com.cabinet.dentaire.service.dedup.PatientMatching.Candidate;
+
+// Duplicate detection reads and writes with plain JDBC: the scan streams every
+// patient as a compact Candidate (no entities, no persistence context) and
+// suggestions are upserted in batches. Runs in the caller's transaction.
+@Repository
+public class PatientMatchJdbcRepository {
+
+    // A patient as loaded by the scan, with the keys currently stored on the row
+    public record StoredCandidate(Candidate candidate, String storedPhoneKey, String storedNameKey) {
+
+        public boolean keysStale() {
+            return !Objects.equals(candidate.phoneKey(), storedPhoneKey)
+                || !Objects.equals(candidate.nameKey(), storedNameKey);
+        }
+    }
+
+    private static final String CANDIDATE_COLUMNS =
+        "id, first_name, last_name, phone, email, birth_date, phone_key, name_key";
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    // Same data source, rows fetched FETCH_SIZE at a time instead of all at once
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public PatientMatchJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // Streams the whole table (the cursor only streams inside a transaction)
+    public void forEachCandidate(Consumer<StoredCandidate> consumer) {
+        streamingJdbcTemplate.query("SELECT " + CANDIDATE_COLUMNS + " FROM patients",
+            (ResultSet rs) -> consumer.accept(mapRow(rs)));
+    }
+
+    public List<StoredCandidate> findByIds(Collection<Long> ids) {
+        return namedJdbcTemplate.query(
+            "SELECT " + CANDIDATE_COLUMNS + " FROM patients WHERE id IN (:ids)",
+            new MapSqlParameterSource("ids", ids),
+            (rs, rowNum) -> mapRow(rs));
+    }
+
+    // Patients sharing a blocking key with one of the given candidates (indexed columns)
+    public List<StoredCandidate> findSharingKeys(
+            Collection<String> phoneKeys, Collection<String> nameKeys, Collection<LocalDate> birthDates, int limit) {
+        List<String> conditions = new ArrayList<>(3);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (!phoneKeys.isEmpty()) {
+            conditions.add("phone_key IN (:phoneKeys)");
+            params.addValue("phoneKeys", phoneKeys);
+        }
+        if (!nameKeys.isEmpty()) {
+            conditions.add("name_key IN (:nameKeys)");
+            params.addValue("nameKeys", nameKeys);
+        }
+        if (!birthDates.isEmpty()) {
+            conditions.add("birth_date IN (:birthDates)");
+            params.addValue("birthDates", birthDates.stream().map(Date::valueOf).toList());
+        }
+        if (conditions.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(
+            "SELECT " + CANDIDATE_COLUMNS + " FROM patients WHERE " + String.join(" OR ", conditions)
+                + " ORDER BY id LIMIT :limit",
+            params,
+            (rs, rowNum) -> mapRow(rs));
+    }
+
+    // Fills in the blocking keys of rows written before they existed (updated_at untouched)
+    public void updateKeys(List<Candidate> candidates) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE patients SET phone_key = ?, name_key = ? WHERE id = ?",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Candidate candidate = candidates.get(i);
+                    ps.setString(1, candidate.phoneKey());
+                    ps.setString(2, candidate.nameKey());
+                    ps.setLong(3, candidate.id());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return candidates.size();
+                }
+            });
+    }
+
+    // New pairs are inserted PENDING; known pairs are re-scored only while still PENDING
+    public void upsertSuggestions(List<Suggestion> suggestions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO duplicate_suggestions "
+                + "(patient_id, duplicate_id, score, reasons, status, ceated_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, 'PENDING', ?, ?) "
+                + "ON CONFLICT (patient_id, duplicate_id) DO UPDATE "
+                + "SET score = EXCLUDED.score, reasons = EXCLUDED.reasons, updated_at = EXCLUDED.updated_at "
+                + "WHERE duplicate_suggestions.status = 'PENDING' "
+                + "AND (duplicate_suggestions.score <> EXCLUDED.score OR duplicate_suggestions.reasons <> EXCLUDED.reasons)",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Suggestion suggestion = suggestions.get(i);
+                    ps.setLong(1, suggestion.patientId());
+                    ps.setLong(2, suggestion.duplicateId());
+                    ps.setDouble(3, suggestion.score());
+                    ps.setString(4, suggestion.reasons());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return suggestions.size();
+                }
+            });
+    }
+
+    // Suggestions of deleted patients
+    public int deleteSuggestionsOf(Collection<Long> patientIds) {
+        return namedJdbcTemplate.update(
+            "DELETE FROM duplicate_suggestions WHERE patient_id IN (:ids) OR duplicate_id IN (:ids)",
+            new MapSqlParameterSource("ids", patientIds));
+    }
+
+    private static StoredCandidate mapRow(ResultSet rs) throws SQLException {
+        Date birthDate = rs.getDate("birth_date");
+        Candidate candidate = Candidate.of(
+            rs.getLong("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("phone"),
+            rs.getString("email"),
+            birthDate != null ? birthDate.toLocalDate() : null);
+        return new StoredCandidate(candidate, rs.getString("phone_key"), rs.getString("name_key"));
+    }
+}
@@ -1,9 +1,14 @@
 package com.cabinet.dentaire.repository;
 
 import com.cabinet.dentaire.entity.Patient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +26,25 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByPhone(String phone);
-}
\ No newline at end of file
+
+    // Bulk create: which of these contacts are taken (exact check after the Bloom pre-screen)
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT p.phone FROM Patient p WHERE p.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    // Email and phone of every patient, for the contact filter
+    @Query("SELECT p.email, p.phone FROM Patient p")
+    List<Object[]> findAllContacts();
+
+    // Delta sync: rows changed after the (updatedAt, id) cursor, oldest first
+    @Query("SELECT p FROM Patient p WHERE (p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :afterId)) "
+        + "AND p.updatedAt <= :until ORDER BY p.updatedAt, p.id")
+    List<Patient> findChangedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+}
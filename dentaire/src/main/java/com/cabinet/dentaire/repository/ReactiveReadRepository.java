@@ -0,0 +1,188 @@
+package com.cabinet.dentaire.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.AppointmentTreatment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+
+// Non-blocking reads over R2DBC, next to the JPA / JDBC path that owns every write.
+// Rows are mapped to detached entities (same JSON as the MVC endpoints) and emitted
+// as the driver reads them: the statement fetch size turns the query into a portal
+// read fetch-size rows at a time, as fast as the subscriber requests them.
+// The pool is deliberately not a bean: a ConnectionFactory bean makes Boot back off
+// from the JDBC DataSource (R2dbcAutoConfiguration is excluded for the same reason).
+// Read-only, no transactions: each query is one statement. Tables are qualified with
+// the schema of the caller's clinic, resolved when the query is built (on the
+// request thread, the rows arrive on driver threads).
+@Repository
+public class ReactiveReadRepository implements DisposableBean {
+
+    // %1$s = schema
+    private static final String APPOINTMENT_COLUMNS =
+        "a.id, a.ceated_at, a.updated_at, a.date_time, a.status, a.notes, "
+        + "p.id AS p_id, p.ceated_at AS p_ceated_at, p.updated_at AS p_updated_at, p.first_name, p.last_name, "
+        + "p.email, p.phone, p.birth_date, p.address, "
+        + "l.id AS l_id, l.ceated_at AS l_ceated_at, l.updated_at AS l_updated_at, l.quantity, l.price_charged, "
+        + "l.notes AS l_notes, t.id AS t_id, t.ceated_at AS t_ceated_at, t.updated_at AS t_updated_at, "
+        + "t.name, t.description, t.price, t.code "
+        + "FROM %1$s.appointments a JOIN %1$s.patients p ON p.id = a.patient_id "
+        + "LEFT JOIN %1$s.appointment_treatments l ON l.appointment_id = a.id "
+        + "LEFT JOIN %1$s.treatments t ON t.id = l.treatment_id ";
+
+    // One appointment x line row, line null for an appointment without lines
+    private record AppointmentRow(Appointment appointment, AppointmentTreatment line) {
+    }
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final TenantRegistry tenantRegistry;
+    private final int fetchSize;
+
+    public ReactiveReadRepository(
+            TenantRegistry tenantRegistry,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${dentaire.reactive.pool.max-size:20}") int maxSize,
+            @Value("${dentaire.reactive.pool.max-acquire-time-ms:30000}") long maxAcquireTimeMs,
+            @Value("${dentaire.reactive.fetch-size:100}") int fetchSize) {
+        if (!jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalArgumentException("Reactive reads need a PostgreSQL datasource: " + jdbcUrl);
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse("r2dbc:" + jdbcUrl.substring("jdbc:".length()))
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("dentaire-reactive")
+            .initialSize(0)
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+            .build());
+        this.client = DatabaseClient.create(pool);
+        this.tenantRegistry = tenantRegistry;
+        this.fetchSize = fetchSize;
+    }
+
+    // [start, end], by date then id, lines included
+    public Flux<Appointment> findAppointmentsBetween(LocalDateTime start, LocalDateTime end) {
+        return appointments(client.sql("SELECT " + APPOINTMENT_COLUMNS.formatted(schema())
+                + "WHERE a.date_time BETWEEN :start AND :end ORDER BY a.date_time, a.id, l.id")
+            .bind("start", start)
+            .bind("end", end));
+    }
+
+    public Flux<Appointment> findAppointmentsByPatientId(Long patientId) {
+        return appointments(client.sql("SELECT " + APPOINTMENT_COLUMNS.formatted(schema())
+                + "WHERE a.patient_id = :patientId ORDER BY a.date_time, a.id, l.id")
+            .bind("patientId", patientId));
+    }
+
+    public Flux<Treatment> findTreatments() {
+        return client.sql("SELECT id AS t_id, ceated_at AS t_ceated_at, updated_at AS t_updated_at, "
+                + "name, description, price, code FROM " + schema() + ".treatments ORDER BY id")
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map((row, metadata) -> treatment(row))
+            .all();
+    }
+
+    // Validated by the registry ([a-z0-9_]), safe to inline
+    private String schema() {
+        return tenantRegistry.schemaOf(TenantContext.current());
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    // Rows of one appointment are adjacent (ordered by appointment id within a date)
+    private Flux<Appointment> appointments(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+            .map((row, metadata) -> appointmentRow(row))
+            .all()
+            .bufferUntilChanged(row -> row.appointment().getId())
+            .map(rows -> {
+                Appointment appointment = rows.get(0).appointment();
+                for (AppointmentRow row : rows) {
+                    if (row.line() != null) {
+                        appointment.getAppointmentTreatments().add(row.line());
+                    }
+                }
+                return appointment;
+            });
+    }
+
+    private static AppointmentRow appointmentRow(Row row) {
+        Patient patient = Patient.builder()
+            .firstName(row.get("first_name", String.class))
+            .lastName(row.get("last_name", String.class))
+            .email(row.get("email", String.class))
+            .phone(row.get("phone", String.class))
+            .birthDate(row.get("birth_date", LocalDate.class))
+            .address(row.get("address", String.class))
+            .build();
+        patient.setId(row.get("p_id", Long.class));
+        patient.setCeatedAt(row.get("p_ceated_at", LocalDateTime.class));
+        patient.setUpdatedAt(row.get("p_updated_at", LocalDateTime.class));
+
+        Appointment appointment = Appointment.builder()
+            .patient(patient)
+            .dateTime(row.get("date_time", LocalDateTime.class))
+            .status(AppointmentEnums.valueOf(row.get("status", String.class)))
+            .notes(row.get("notes", String.class))
+            .build();
+        appointment.setId(row.get("id", Long.class));
+        appointment.setCeatedAt(row.get("ceated_at", LocalDateTime.class));
+        appointment.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+
+        Long lineId = row.get("l_id", Long.class);
+        if (lineId == null) {
+            return new AppointmentRow(appointment, null);
+        }
+        AppointmentTreatment line = AppointmentTreatment.builder()
+            .treatment(treatment(row))
+            .quantity(row.get("quantity", Integer.class))
+            .priceCharged(row.get("price_charged", BigDecimal.class))
+            .notes(row.get("l_notes", String.class))
+            .build();
+        line.setId(lineId);
+        line.setCeatedAt(row.get("l_ceated_at", LocalDateTime.class));
+        line.setUpdatedAt(row.get("l_updated_at", LocalDateTime.class));
+        return new AppointmentRow(appointment, line);
+    }
+
+    private static Treatment treatment(Row row) {
+        Treatment treatment = Treatment.builder()
+            .name(row.get("name", String.class))
+            .description(row.get("description", String.class))
+            .price(row.get("price", BigDecimal.class))
+            .code(row.get("code", String.class))
+            .build();
+        treatment.setId(row.get("t_id", Long.class));
+        treatment.setCeatedAt(row.get("t_ceated_at", LocalDateTime.class));
+        treatment.setUpdatedAt(row.get("t_updated_at", LocalDateTime.class));
+        return treatment;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cabinet.dentaire.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.dto.ResourceVersion;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+// Validators of the conditional GETs: count + newest updated_at of the rows a read
+// would return, one aggregate query with the read's own filter (no entity, no
+// serialization). Appointments embed their patient, so its updated_at counts too;
+// line changes bump the appointment's updated_at (AppointmentLineJdbcRepository).
+// Full responses (and the "treatments" field) also embed the lines' treatments: the
+// newest updated_at of those counts as well, so a catalog edit or a price activation
+// changes the version.
+@Repository
+public class ResourceVersionJdbcRepository {
+
+    private static final String PATIENTS =
+        "SELECT count(*) AS n, max(p.updated_at) AS last_modified FROM patients p";
+
+    private static final String TREATMENTS =
+        "SELECT count(*) AS n, max(t.updated_at) AS last_modified FROM treatments t";
+
+    private static final String APPOINTMENTS =
+        "SELECT count(*) AS n, max(greatest(a.updated_at, p.updated_at)) AS last_modified "
+            + "FROM appointments a JOIN patients p ON p.id = a.patient_id";
+
+    // greatest() skips the NULL of an appointment without lines
+    private static final String APPOINTMENTS_WITH_TREATMENTS =
+        "SELECT count(*) AS n, max(greatest(a.updated_at, p.updated_at, "
+            + "(SELECT max(t.updated_at) FROM appointment_treatments l JOIN treatments t ON t.id = l.treatment_id "
+            + "WHERE l.appointment_id = a.id))) AS last_modified "
+            + "FROM appointments a JOIN patients p ON p.id = a.patient_id";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ResourceVersionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // ============== Patients ==============
+
+    public ResourceVersion patients() {
+        return version(PATIENTS, new MapSqlParameterSource());
+    }
+
+    public ResourceVersion patient(Long id) {
+        return version(PATIENTS + " WHERE p.id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    public ResourceVersion patientsByIds(Collection<Long> ids) {
+        return version(PATIENTS + " WHERE p.id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public ResourceVersion patientByEmail(String email) {
+        return version(PATIENTS + " WHERE p.email = :email", new MapSqlParameterSource("email", email));
+    }
+
+    public ResourceVersion patientByPhone(String phone) {
+        return version(PATIENTS + " WHERE p.phone = :phone", new MapSqlParameterSource("phone", phone));
+    }
+
+    public ResourceVersion patientsByName(String name) {
+        return version(PATIENTS + " WHERE lower(p.first_name) LIKE :pattern ESCAPE '\\' "
+                + "OR lower(p.last_name) LIKE :pattern ESCAPE '\\'",
+            new MapSqlParameterSource("pattern", containsPattern(name)));
+    }
+
+    // ============== Treatments ==============
+
+    public ResourceVersion treatments() {
+        return version(TREATMENTS, new MapSqlParameterSource());
+    }
+
+    public ResourceVersion treatment(Long id) {
+        return version(TREATMENTS + " WHERE t.id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    public ResourceVersion treatmentsByIds(Collection<Long> ids) {
+        return version(TREATMENTS + " WHERE t.id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public ResourceVersion treatmentByCode(String code) {
+        return version(TREATMENTS + " WHERE t.code = :code", new MapSqlParameterSource("code", code));
+    }
+
+    public ResourceVersion treatmentsByName(String name) {
+        return version(TREATMENTS + " WHERE lower(t.name) LIKE :pattern ESCAPE '\\'",
+            new MapSqlParameterSource("pattern", containsPattern(name)));
+    }
+
+    public ResourceVersion treatmentsByPriceRange(BigDecimal min, BigDecimal max) {
+        return version(TREATMENTS + " WHERE t.price BETWEEN :min AND :max",
+            new MapSqlParameterSource("min", min).addValue("max", max));
+    }
+
+    // ============== Appointments ==============
+
+    public ResourceVersion appointments(boolean withTreatments) {
+        return version(appointmentsQuery(withTreatments), new MapSqlParameterSource());
+    }
+
+    public ResourceVersion appointment(Long id, boolean withTreatments) {
+        return version(appointmentsQuery(withTreatments) + " WHERE a.id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    public ResourceVersion appointmentsByIds(Collection<Long> ids, boolean withTreatments) {
+        return version(appointmentsQuery(withTreatments) + " WHERE a.id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public ResourceVersion appointmentsByStatus(AppointmentEnums status, boolean withTreatments) {
+        return version(appointmentsQuery(withTreatments) + " WHERE a.status = :status",
+            new MapSqlParameterSource("status", status.name()));
+    }
+
+    // after: only appointments later than that (upcoming), null for all of them
+    public ResourceVersion appointmentsByPatient(Long patientId, LocalDateTime after, boolean withTreatments) {
+        MapSqlParameterSource params = new MapSqlParameterSource("patientId", patientId);
+        String sql = appointmentsQuery(withTreatments) + " WHERE a.patient_id = :patientId";
+        if (after != null) {
+            sql += " AND a.date_time > :after";
+            params.addValue("after", Timestamp.valueOf(after));
+        }
+        return version(sql, params);
+    }
+
+    public ResourceVersion appointmentsBetween(LocalDateTime start, LocalDateTime end, boolean withTreatments) {
+        return version(appointmentsQuery(withTreatments) + " WHERE a.date_time BETWEEN :start AND :end",
+            new MapSqlParameterSource("start", Timestamp.valueOf(start)).addValue("end", Timestamp.valueOf(end)));
+    }
+
+    private static String appointmentsQuery(boolean withTreatments) {
+        return withTreatments ? APPOINTMENTS_WITH_TREATMENTS : APPOINTMENTS;
+    }
+
+    private ResourceVersion version(String sql, MapSqlParameterSource params) {
+        return namedJdbcTemplate.queryForObject(sql, params, (rs, rowNum) -> {
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            return new ResourceVersion(rs.getLong("n"), lastModified != null ? lastModified.toLocalDateTime() : null);
+        });
+    }
+
+    // Same matching as the "containing, ignore case" reads: % and _ taken literally
+    private static String containsPattern(String text) {
+        return "%" + text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
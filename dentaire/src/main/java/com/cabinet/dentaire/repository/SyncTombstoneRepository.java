@@ -0,0 +1,25 @@
+package com.cabinet.dentaire.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.SyncTombstone;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("SELECT t FROM SyncTombstone t WHERE (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :afterId)) "
+        + "AND t.updatedAt <= :until ORDER BY t.updatedAt, t.id")
+    List<SyncTombstone> findChangedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,26 @@
+package com.cabinet.dentaire.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cabinet.dentaire.entity.TreatmentPrice;
+
+@Repository
+public interface TreatmentPriceRepository extends JpaRepository<TreatmentPrice, Long> {
+
+    List<TreatmentPrice> findByTreatmentIdOrderByEffectiveFromAsc(Long treatmentId);
+
+    // Whole history, grouped by treatment and in effect order (the snapshot index)
+    List<TreatmentPrice> findAllByOrderByTreatmentIdAscEffectiveFromAsc();
+
+    boolean existsByTreatmentId(Long treatmentId);
+
+    @Modifying
+    @Query("DELETE FROM TreatmentPrice p WHERE p.treatmentId = :treatmentId")
+    int deleteByTreatmentId(@Param("treatmentId") Long treatmentId);
+}
@@ -1,10 +1,14 @@
 package com.cabinet.dentaire.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cabinet.dentaire.entity.Treatment;
@@ -23,4 +27,14 @@ public interface TreatmentRepository extends JpaRepository<Treatment, Long> {
     List<Treatment> findByPriceBetween(BigDecimal min, BigDecimal max);
 
     boolean existsByCode(String code);
-}
\ No newline at end of file
+
+    // Delta sync: rows changed after the (updatedAt, id) cursor, oldest first
+    @Query("SELECT t FROM Treatment t WHERE (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :afterId)) "
+        + "AND t.updatedAt <= :until ORDER BY t.updatedAt, t.id")
+    List<Treatment> findChangedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,125 @@
+package com.cabinet.dentaire.service.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.enums.AdmissionLane;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// ============== Admission Control ==============
+// Decides, before a request reaches a controller (AdmissionControlFilter), whether it
+// may run now. Two checks, both non-blocking so an overloaded instance refuses in
+// microseconds instead of queueing on the connection pool:
+// - concurrency per lane: at most N requests of the lane in flight. PRIORITY (the
+//   front desk) has its own reserve and borrows STANDARD permits when it is used up;
+//   HEAVY (full scans, bulk work) cannot take more than its few permits;
+// - rate per client: a token bucket per client (API key or address), a request
+//   costs its lane's weight, so one full scan takes as much as ten lookups.
+// Refused: the caller answers 429 with Retry-After. A concurrency refusal costs no
+// tokens. Buckets of idle clients are dropped once full again (a new one starts full).
+@Component
+public class AdmissionControl {
+
+    // Admitted: holds a permit of heldLane until release; refused: heldLane null
+    public record Decision(AdmissionLane heldLane, String reason, long retryAfterSeconds) {
+
+        public boolean admitted() {
+            return heldLane != null;
+        }
+    }
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<AdmissionLane, Semaphore> permits = new EnumMap<>(AdmissionLane.class);
+    private final Map<AdmissionLane, Double> costs = new EnumMap<>(AdmissionLane.class);
+    private final double burst;
+    private final double ratePerSecond;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControl(
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.admission.rate-per-second:20}") double ratePerSecond,
+            @Value("${dentaire.admission.burst:60}") double burst,
+            @Value("${dentaire.admission.cost.priority:1}") double priorityCost,
+            @Value("${dentaire.admission.cost.standard:1}") double standardCost,
+            @Value("${dentaire.admission.cost.heavy:10}") double heavyCost,
+            @Value("${dentaire.admission.concurrency.priority:4}") int priorityConcurrency,
+            @Value("${dentaire.admission.concurrency.standard:16}") int standardConcurrency,
+            @Value("${dentaire.admission.concurrency.heavy:2}") int heavyConcurrency) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Admission rate and burst must be positive");
+        }
+        this.meterRegistry = meterRegistry;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        // A request costing more than the burst could never be admitted
+        costs.put(AdmissionLane.PRIORITY, Math.min(priorityCost, burst));
+        costs.put(AdmissionLane.STANDARD, Math.min(standardCost, burst));
+        costs.put(AdmissionLane.HEAVY, Math.min(heavyCost, burst));
+        Map<AdmissionLane, Integer> limits = Map.of(
+            AdmissionLane.PRIORITY, priorityConcurrency,
+            AdmissionLane.STANDARD, standardConcurrency,
+            AdmissionLane.HEAVY, heavyConcurrency);
+        limits.forEach((lane, limit) -> {
+            Semaphore semaphore = new Semaphore(limit);
+            permits.put(lane, semaphore);
+            Gauge.builder("dentaire.admission.in-flight", semaphore, s -> limit - s.availablePermits())
+                .tag("lane", lane.name())
+                .register(meterRegistry);
+        });
+        Gauge.builder("dentaire.admission.clients", buckets, Map::size).register(meterRegistry);
+    }
+
+    public Decision admit(String client, AdmissionLane lane) {
+        AdmissionLane held = acquire(lane);
+        if (held == null) {
+            return reject(lane, "concurrency", 1);
+        }
+        long now = System.nanoTime();
+        long waitNanos = buckets.computeIfAbsent(client, c -> new TokenBucket(burst, ratePerSecond, now))
+            .tryTake(costs.get(lane), now);
+        if (waitNanos > 0) {
+            permits.get(held).release();
+            return reject(lane, "rate-limit", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        meterRegistry.counter("dentaire.admission.admitted", "lane", lane.name()).increment();
+        return new Decision(held, null, 0);
+    }
+
+    public void release(Decision decision) {
+        if (decision.admitted()) {
+            permits.get(decision.heldLane()).release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dentaire.admission.cleanup-interval-ms:60000}")
+    public void forgetIdleClients() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Lane whose permit was taken, null when none is free
+    private AdmissionLane acquire(AdmissionLane lane) {
+        if (permits.get(lane).tryAcquire()) {
+            return lane;
+        }
+        if (lane == AdmissionLane.PRIORITY && permits.get(AdmissionLane.STANDARD).tryAcquire()) {
+            return AdmissionLane.STANDARD;
+        }
+        return null;
+    }
+
+    private Decision reject(AdmissionLane lane, String reason, long retryAfterSeconds) {
+        meterRegistry.counter("dentaire.admission.rejected", "lane", lane.name(), "reason", reason).increment();
+        meterRegistry.counter("dentaire.admission.shed-cost", "lane", lane.name()).increment(costs.get(lane));
+        return new Decision(null, reason, retryAfterSeconds);
+    }
+}
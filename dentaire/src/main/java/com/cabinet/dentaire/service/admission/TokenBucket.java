@@ -0,0 +1,44 @@
+package com.cabinet.dentaire.service.admission;
+
+// Holds at most capacity tokens, refilled continuously at ratePerSecond; a request
+// takes its cost in tokens or is refused with the wait until it could. Time is passed
+// in (System.nanoTime) so the refill is lazy: no timer, a few arithmetic operations.
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    // Guarded by this
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double capacity, double ratePerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    // 0 when taken, else nanoseconds until cost tokens are available (cost <= capacity)
+    synchronized long tryTake(double cost, long now) {
+        refill(now);
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((cost - tokens) / tokensPerNano));
+    }
+
+    // Full again: forgetting the bucket loses nothing, a new one starts full
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
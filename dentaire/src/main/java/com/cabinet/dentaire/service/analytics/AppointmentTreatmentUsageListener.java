@@ -0,0 +1,35 @@
+package com.cabinet.dentaire.service.analytics;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.entity.AppointmentTreatment;
+
+import jakarta.persistence.PostPersist;
+
+// JPA listener of AppointmentTreatment (a Spring bean, Hibernate gets it from the
+// context): counts each inserted line in the live usage summary once committed.
+// The tracker is looked up lazily, it needs repositories built on the same
+// EntityManagerFactory that creates this listener.
+@Component
+public class AppointmentTreatmentUsageListener {
+
+    private final ObjectProvider<TreatmentUsageTracker> tracker;
+
+    public AppointmentTreatmentUsageListener(ObjectProvider<TreatmentUsageTracker> tracker) {
+        this.tracker = tracker;
+    }
+
+    @PostPersist
+    public void onInsert(AppointmentTreatment line) {
+        if (line.getAppointment() == null || line.getAppointment().getDateTime() == null || line.getTreatment() == null) {
+            return;
+        }
+        LocalDateTime appointmentTime = line.getAppointment().getDateTime();
+        Long treatmentId = line.getTreatment().getId();
+        int quantity = line.getQuantity() != null ? line.getQuantity() : 1;
+        tracker.getObject().recordOnCommit(appointmentTime, treatmentId, quantity);
+    }
+}
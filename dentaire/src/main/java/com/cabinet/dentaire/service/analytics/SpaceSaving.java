@@ -0,0 +1,124 @@
+package com.cabinet.dentaire.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ============== Space-Saving (weighted heavy hitters) ==============
+// Keeps at most `capacity` counters. A new key takes over the smallest counter and
+// inherits its count as error, so for every monitored key:
+//   true weight <= count <= true weight + error
+// and any key whose true weight exceeds total / capacity is monitored. With fewer
+// distinct keys than counters the counts are exact.
+// Counters sit in a min-heap by count: offer is O(log capacity), top(k) is
+// O(capacity log capacity). Not thread-safe, callers synchronize.
+public class SpaceSaving<K> {
+
+    public record Estimate<K>(K key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final Map<K, Counter<K>> countersByKey = new HashMap<>();
+    private final Counter<K>[] heap;
+    private int size;
+    private long totalWeight;
+
+    @SuppressWarnings("unchecked")
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.heap = new Counter[capacity];
+    }
+
+    public void offer(K key, long weight) {
+        totalWeight += weight;
+        Counter<K> counter = countersByKey.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.index);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter<>(key, weight, 0);
+            countersByKey.put(key, counter);
+            counter.index = size;
+            heap[size++] = counter;
+            siftUp(counter.index);
+            return;
+        }
+        Counter<K> smallest = heap[0];
+        countersByKey.remove(smallest.key);
+        smallest.key = key;
+        smallest.error = smallest.count;
+        smallest.count += weight;
+        countersByKey.put(key, smallest);
+        siftDown(0);
+    }
+
+    // Highest counts first
+    public List<Estimate<K>> top(int k) {
+        Counter<K>[] counters = Arrays.copyOf(heap, size);
+        Arrays.sort(counters, Comparator.comparingLong((Counter<K> c) -> c.count).reversed());
+        int n = Math.max(0, Math.min(k, size));
+        List<Estimate<K>> top = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            top.add(new Estimate<>(counters[i].key, counters[i].count, counters[i].error));
+        }
+        return top;
+    }
+
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    private void siftUp(int index) {
+        Counter<K> counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter<K> counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter<K> counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static final class Counter<K> {
+        K key;
+        long count;
+        long error;
+        int index;
+
+        Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cabinet.dentaire.service.analytics;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cabinet.dentaire.repository.AppointmentTreatmentRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
+
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Live Treatment Usage (top-K per week) ==============
+// One Space-Saving summary of treatment quantities per week (Monday start, by
+// appointment date), for the last weeks and the next ones. New lines are counted
+// after their transaction commits (AppointmentTreatmentUsageListener for JPA inserts,
+// the line service for JDBC ones). Changed and
+// deleted lines are not subtracted: the summaries are rebuilt from the database at
+// startup and every hour, which also bounds that drift. Summaries are per clinic.
+@Slf4j
+@Component
+public class TreatmentUsageTracker {
+
+    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int capacity;
+    private final int pastWeeks;
+    private final int futureWeeks;
+
+    private final TenantScoped<Map<LocalDate, SpaceSaving<Long>>> summariesByWeek =
+        new TenantScoped<>(ConcurrentHashMap::new);
+
+    public TreatmentUsageTracker(
+            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            TenantRegistry tenantRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${dentaire.treatments.usage.capacity:64}") int capacity,
+            @Value("${dentaire.treatments.usage.past-weeks:8}") int pastWeeks,
+            @Value("${dentaire.treatments.usage.future-weeks:4}") int futureWeeks) {
+        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.capacity = capacity;
+        this.pastWeeks = pastWeeks;
+        this.futureWeeks = futureWeeks;
+    }
+
+    // Counts the line once the current transaction commits (right away without one)
+    public void recordOnCommit(LocalDateTime appointmentTime, Long treatmentId, int quantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(appointmentTime, treatmentId, quantity);
+                }
+            });
+        } else {
+            record(appointmentTime, treatmentId, quantity);
+        }
+    }
+
+    public void record(LocalDateTime appointmentTime, Long treatmentId, int quantity) {
+        LocalDate week = weekOf(appointmentTime.toLocalDate());
+        if (!isTracked(week)) {
+            return;
+        }
+        SpaceSaving<Long> summary = summariesByWeek.get().computeIfAbsent(week, w -> new SpaceSaving<>(capacity));
+        synchronized (summary) {
+            summary.offer(treatmentId, quantity);
+        }
+    }
+
+    // null when the week of day is not tracked (too far back or ahead)
+    public List<SpaceSaving.Estimate<Long>> top(LocalDate day, int k) {
+        LocalDate week = weekOf(day);
+        if (!isTracked(week)) {
+            return null;
+        }
+        SpaceSaving<Long> summary = summariesByWeek.get().get(week);
+        if (summary == null) {
+            return List.of();
+        }
+        synchronized (summary) {
+            return summary.top(k);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${dentaire.treatments.usage.rebuild-cron:0 15 * * * *}")
+    public void rebuild() {
+        tenantRegistry.forEachTenant(() -> readOnlyTransactionTemplate.executeWithoutResult(status -> rebuildTenant()));
+    }
+
+    private void rebuildTenant() {
+        LocalDate currentWeek = weekOf(LocalDate.now());
+        LocalDate from = currentWeek.minusWeeks(pastWeeks - 1L);
+        LocalDate to = currentWeek.plusWeeks(futureWeeks + 1L);
+
+        Map<LocalDate, SpaceSaving<Long>> rebuilt = new ConcurrentHashMap<>();
+        List<Object[]> rows = appointmentTreatmentRepository.sumQuantityByWeekAndTreatment(
+            from.atStartOfDay(), to.atStartOfDay());
+        for (Object[] row : rows) {
+            LocalDate week = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+            rebuilt.computeIfAbsent(week, w -> new SpaceSaving<>(capacity))
+                .offer(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        }
+        summariesByWeek.set(rebuilt);
+        log.info("Treatment usage summaries of {} rebuilt for {} weeks ({} week/treatment rows)",
+            TenantContext.current(), rebuilt.size(), rows.size());
+    }
+
+    private boolean isTracked(LocalDate week) {
+        LocalDate currentWeek = weekOf(LocalDate.now());
+        return !week.isBefore(currentWeek.minusWeeks(pastWeeks - 1L))
+            && !week.isAfter(currentWeek.plusWeeks(futureWeeks));
+    }
+
+    private static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,172 @@
+package com.cabinet.dentaire.service.audit;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.AppointmentTreatment;
+import com.cabinet.dentaire.entity.BaseEntity;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Hibernate flush listener: every insert, update and delete of an audited entity that
+// Hibernate flushed is handed to the AuditTrail with the session, which writes it ahead
+// of the transaction's commit (and drops it on rollback). Field-level: an update only lists the fields
+// whose value changed, from the state Hibernate compared when flushing. Associations
+// are recorded by id, collections and bookkeeping fields (timestamps, derived keys)
+// are left out.
+@Component
+public class AuditEntityListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<String> IGNORED_FIELDS = Set.of("ceatedAt", "updatedAt", "phoneKey", "nameKey");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditTrail auditTrail;
+
+    public AuditEntityListener(EntityManagerFactory entityManagerFactory, AuditTrail auditTrail) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditTrail = auditTrail;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        AuditEntityType type = typeOf(event.getEntity().getClass());
+        if (type == null) {
+            return;
+        }
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        for (int i = 0; i < names.length; i++) {
+            Object value = normalize(state[i]);
+            if (isAudited(names[i], state[i]) && value != null) {
+                changes.put(names[i], new FieldChange(null, value));
+            }
+        }
+        auditTrail.recordInTransaction(event.getSession(), type, (Long) event.getId(), AuditAction.CREATED, changes);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        AuditEntityType type = typeOf(event.getEntity().getClass());
+        if (type == null) {
+            return;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        Object[] oldState = event.getOldState();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            dirty = new int[names.length];
+            for (int i = 0; i < dirty.length; i++) {
+                dirty[i] = i;
+            }
+        }
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        for (int i : dirty) {
+            if (!isAudited(names[i], state[i])) {
+                continue;
+            }
+            Object oldValue = oldState != null ? normalize(oldState[i]) : null;
+            Object newValue = normalize(state[i]);
+            if (!sameValue(oldValue, newValue)) {
+                changes.put(names[i], new FieldChange(oldValue, newValue));
+            }
+        }
+        // Only bookkeeping fields changed (e.g. a line change bumping updatedAt)
+        if (!changes.isEmpty()) {
+            auditTrail.recordInTransaction(event.getSession(), type, (Long) event.getId(), AuditAction.UPDATED, changes);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        AuditEntityType type = typeOf(event.getEntity().getClass());
+        if (type == null) {
+            return;
+        }
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] deletedState = event.getDeletedState();
+        for (int i = 0; deletedState != null && i < names.length; i++) {
+            Object value = normalize(deletedState[i]);
+            if (isAudited(names[i], deletedState[i]) && value != null) {
+                changes.put(names[i], new FieldChange(value, null));
+            }
+        }
+        auditTrail.recordInTransaction(event.getSession(), type, (Long) event.getId(), AuditAction.DELETED, changes);
+    }
+
+    // The commit is followed through the session's transaction completion instead
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    static AuditEntityType typeOf(Class<?> entityClass) {
+        if (Patient.class.isAssignableFrom(entityClass)) {
+            return AuditEntityType.PATIENT;
+        }
+        if (Appointment.class.isAssignableFrom(entityClass)) {
+            return AuditEntityType.APPOINTMENT;
+        }
+        if (AppointmentTreatment.class.isAssignableFrom(entityClass)) {
+            return AuditEntityType.APPOINTMENT_TREATMENT;
+        }
+        return null;
+    }
+
+    private static boolean isAudited(String name, Object value) {
+        return !IGNORED_FIELDS.contains(name) && !(value instanceof Collection<?>) && !(value instanceof Map<?, ?>);
+    }
+
+    // Entities by id (a lazy proxy answers getId without loading), enums by name
+    private static Object normalize(Object value) {
+        if (value instanceof BaseEntity entity) {
+            return entity.getId();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value;
+    }
+
+    // 150.00 and 150 are the same price
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
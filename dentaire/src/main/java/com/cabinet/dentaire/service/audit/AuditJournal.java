@@ -0,0 +1,146 @@
+package com.cabinet.dentaire.service.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Append-only file of the captured changes not yet known to be in audit_log, one JSON
+// line per change or transaction outcome. An append is one write() into the page cache
+// (it survives the JVM dying, not the machine); forceUpTo() makes what was appended up to
+// a position survive a power loss too. Group commit: the sync runs outside the append
+// lock, so the threads appending meanwhile are covered by the next single sync instead
+// of one each. The file is emptied once everything in it has been stored, and read back
+// entirely (replayed) when it may hold changes that are not. Locked: one process per file.
+class AuditJournal implements AutoCloseable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final Object forceLock = new Object();
+    // Guarded by forceLock: everything before this position is on the disk
+    private long forcedUpTo;
+
+    AuditJournal(Path file) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            this.lock = lockOrClose(channel);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit journal " + file, e);
+        }
+    }
+
+    private FileLock lockOrClose(FileChannel channel) throws IOException {
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("Audit journal " + file + " is used by another process");
+        }
+        return fileLock;
+    }
+
+    // Returns the position after the line, for forceUpTo
+    synchronized long append(byte[] line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to audit journal " + file, e);
+        }
+    }
+
+    synchronized long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Flushes everything appended to the disk (no-op when nothing was appended since)
+    void force() {
+        forceUpTo(size());
+    }
+
+    // Returns once the journal is on the disk up to position. Never takes the append
+    // lock: a thread finding its position already covered by another's sync returns
+    void forceUpTo(long position) {
+        synchronized (forceLock) {
+            if (forcedUpTo >= position) {
+                return;
+            }
+            try {
+                long target = channel.size();
+                channel.force(false);
+                forcedUpTo = target;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync audit journal " + file, e);
+            }
+        }
+    }
+
+    // Complete lines of the first length bytes (a torn last line, from a crash during
+    // a write, is left out)
+    List<String> readLines(long length) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, Integer.MAX_VALUE));
+        try {
+            // Positional reads: the append position is untouched
+            int read;
+            do {
+                read = channel.read(buffer, buffer.position());
+            } while (read > 0 && buffer.hasRemaining());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audit journal " + file, e);
+        }
+        String content = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            if (end > start) {
+                lines.add(content.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    synchronized void truncate() {
+        try {
+            if (channel.size() > 0) {
+                channel.truncate(0);
+                channel.position(0);
+                synchronized (forceLock) {
+                    forcedUpTo = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not truncate audit journal " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        lock.release();
+        channel.close();
+    }
+}
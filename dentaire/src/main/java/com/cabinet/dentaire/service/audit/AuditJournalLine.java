@@ -0,0 +1,20 @@
+package com.cabinet.dentaire.service.audit;
+
+import com.cabinet.dentaire.dto.AuditRecord;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One line of the audit journal: a change written ahead of its transaction's commit
+// (record set), or the outcome of that transaction once known (committed set). xid is
+// the PostgreSQL transaction id; a change recorded outside of a transaction has none
+// and is already committed.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+record AuditJournalLine(Long xid, AuditRecord record, Boolean committed) {
+
+    static AuditJournalLine change(Long xid, AuditRecord record) {
+        return new AuditJournalLine(xid, record, null);
+    }
+
+    static AuditJournalLine outcome(long xid, boolean committed) {
+        return new AuditJournalLine(xid, null, committed);
+    }
+}
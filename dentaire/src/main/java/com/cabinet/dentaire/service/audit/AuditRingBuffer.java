@@ -0,0 +1,52 @@
+package com.cabinet.dentaire.service.audit;
+
+import java.util.List;
+
+// Bounded FIFO of captured changes between the request threads (many producers) and
+// the audit writer (one consumer). A fixed array used as a ring: offering and
+// draining copy references only, nothing is allocated per record, and a full buffer
+// refuses instead of growing. The lock is held for a few array writes at most.
+class AuditRingBuffer<T> {
+
+    private final Object[] slots;
+    private int head;
+    private int size;
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.slots = new Object[capacity];
+    }
+
+    // false when full
+    synchronized boolean offer(T value) {
+        if (size == slots.length) {
+            return false;
+        }
+        slots[(head + size) % slots.length] = value;
+        size++;
+        return true;
+    }
+
+    // Moves up to max values, oldest first, into target; returns how many
+    @SuppressWarnings("unchecked")
+    synchronized int drainTo(List<T> target, int max) {
+        int count = Math.min(max, size);
+        for (int i = 0; i < count; i++) {
+            target.add((T) slots[head]);
+            slots[head] = null;
+            head = (head + 1) % slots.length;
+        }
+        size -= count;
+        return count;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,432 @@
+package com.cabinet.dentaire.service.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.cabinet.dentaire.dto.AuditRecord;
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.cabinet.dentaire.repository.AuditJdbcRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Audit Trail ==============
+// Changes of patients, appointments and their lines (AuditEntityListener for JPA
+// writes, the services for JDBC ones) are recorded with the transaction that makes
+// them, durably, without a database write on the request path:
+// - right before the database commit (after Hibernate's last flush), the changes of the
+//   transaction are appended to the journal with its PostgreSQL transaction id and the
+//   journal is synced to the disk (group commit: concurrent transactions share a sync).
+//   A journal that cannot be written fails the commit: no change without its entry;
+// - after the commit, the outcome of the transaction is appended (no sync) and the
+//   changes are put in the ring buffer. The writer drains the ring every flush
+//   interval and inserts the changes in JDBC batches, per clinic.
+// Once written ahead, a change survives the process and the machine:
+// - a full ring (writer behind or database down) does not block the request, the
+//   change is only in the journal and the next flush replays the journal;
+// - the journal is only emptied once the ring is empty, no transaction is between
+//   its sync and its outcome, and everything drained is stored;
+// - a journal left non-empty by a crash is replayed by the first flush after startup.
+//   Changes of committed transactions are inserted, those of rolled back ones dropped;
+//   a transaction whose outcome line is missing (the process died during its commit)
+//   is looked up in the database (txid_status).
+// Replays may offer a change twice, audit_log keeps one row per event id.
+// Who: the actor header of the request, "system" for background jobs.
+@Slf4j
+@Component
+public class AuditTrail {
+
+    private static final int MAX_ACTOR_LENGTH = 100;
+
+    private final AuditJdbcRepository auditJdbcRepository;
+    private final TenantRegistry tenantRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final String actorHeader;
+    private final AuditRingBuffer<AuditRecord> ring;
+    private final AuditJournal journal;
+    private final AtomicLong written = new AtomicLong();
+    // Changes of the transactions under way, by Hibernate session
+    private final Map<SessionImplementor, TransactionChanges> open = new ConcurrentHashMap<>();
+
+    // Guarded by journal: journal size up to which lines may be missing from the ring (0 = none)
+    private long replayUpTo;
+    // Guarded by journal: transactions written ahead whose outcome is not appended yet
+    private int inFlight;
+
+    // Writer state (flush is synchronized)
+    private final List<AuditRecord> pending = new ArrayList<>();
+    private int consecutiveFailures;
+    private long nextAttemptAtMillis;
+
+    public AuditTrail(
+            AuditJdbcRepository auditJdbcRepository,
+            TenantRegistry tenantRegistry,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.audit.enabled:true}") boolean enabled,
+            @Value("${dentaire.audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${dentaire.audit.batch-size:500}") int batchSize,
+            @Value("${dentaire.audit.journal-dir:audit-journal}") String journalDir,
+            @Value("${dentaire.audit.actor-header:X-User-Id}") String actorHeader) {
+        this.auditJdbcRepository = auditJdbcRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.actorHeader = actorHeader;
+        this.ring = new AuditRingBuffer<>(bufferCapacity);
+        this.journal = enabled ? new AuditJournal(Path.of(journalDir, "audit.journal")) : null;
+        if (enabled) {
+            replayUpTo = journal.size();
+            if (replayUpTo > 0) {
+                log.info("Audit journal holds {} bytes from a previous run, replayed on the first flush", replayUpTo);
+            }
+            Gauge.builder("dentaire.audit.queued", ring, AuditRingBuffer::size).register(meterRegistry);
+            FunctionCounter.builder("dentaire.audit.written", written, AtomicLong::get).register(meterRegistry);
+        }
+    }
+
+    // Records a change made through JDBC with the current transaction (right away
+    // without one: the change is already committed)
+    public void recordOnCommit(AuditEntityType entityType, Long entityId, AuditAction action,
+                               Map<String, FieldChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            record(capture(entityType, entityId, action, changes));
+            return;
+        }
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            throw new IllegalStateException("Audited changes must be made in a JPA transaction");
+        }
+        recordInTransaction(entityManager.unwrap(SessionImplementor.class), entityType, entityId, action, changes);
+    }
+
+    // Records a change of the session's transaction: written ahead before its commit,
+    // queued after it
+    public void recordInTransaction(SessionImplementor session, AuditEntityType entityType, Long entityId,
+                                    AuditAction action, Map<String, FieldChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        AuditRecord record = capture(entityType, entityId, action, changes);
+        TransactionChanges transaction = open.get(session);
+        if (transaction == null) {
+            TransactionChanges registered = new TransactionChanges();
+            open.put(session, registered);
+            session.getActionQueue().registerProcess(
+                (BeforeTransactionCompletionProcess) completing -> writeAhead(registered));
+            session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> complete(session, registered, success));
+            transaction = registered;
+        }
+        transaction.records.add(record);
+        if (transaction.xid != null) {
+            // Flushed after the transaction was written ahead: written ahead on its own
+            writeAhead(transaction.xid, List.of(record));
+        }
+    }
+
+    // Before the database commit, after the last flush. Counted in flight with its
+    // lines appended, so the journal cannot be emptied before the outcome is known
+    private void writeAhead(TransactionChanges transaction) {
+        long xid = auditJdbcRepository.currentTransactionId();
+        writeAhead(xid, transaction.records, () -> {
+            transaction.xid = xid;
+            inFlight++;
+        });
+    }
+
+    private void writeAhead(long xid, List<AuditRecord> records) {
+        writeAhead(xid, records, () -> { });
+    }
+
+    private void writeAhead(long xid, List<AuditRecord> records, Runnable appended) {
+        try {
+            long end = 0;
+            synchronized (journal) {
+                for (AuditRecord record : records) {
+                    end = journal.append(journalLine(AuditJournalLine.change(xid, record)));
+                }
+                appended.run();
+            }
+            journal.forceUpTo(end);
+        } catch (UncheckedIOException e) {
+            // Lines already appended get no outcome: the replay finds the transaction rolled back
+            meterRegistry.counter("dentaire.audit.journal-failures").increment();
+            throw new IllegalStateException("Audit journal unavailable, the change is not committed", e);
+        }
+    }
+
+    // After the database commit or rollback
+    private void complete(SessionImplementor session, TransactionChanges transaction, boolean committed) {
+        open.remove(session);
+        if (transaction.xid == null) {
+            // Never written ahead: rolled back before its commit
+            return;
+        }
+        synchronized (journal) {
+            inFlight--;
+            try {
+                journal.append(journalLine(AuditJournalLine.outcome(transaction.xid, committed)));
+            } catch (UncheckedIOException e) {
+                // The replay asks the database instead
+                meterRegistry.counter("dentaire.audit.journal-failures").increment();
+                log.error("Audit journal append failed for the outcome of transaction {}", transaction.xid, e);
+            }
+            if (committed) {
+                for (AuditRecord record : transaction.records) {
+                    offer(record);
+                }
+            }
+        }
+    }
+
+    // A change already committed: journal line + ring slot, no database access
+    private void record(AuditRecord record) {
+        byte[] line = journalLine(AuditJournalLine.change(null, record));
+        synchronized (journal) {
+            try {
+                journal.append(line);
+            } catch (UncheckedIOException e) {
+                // The change is committed, failing the caller would not undo it: keep it in memory only
+                meterRegistry.counter("dentaire.audit.journal-failures").increment();
+                log.error("Audit journal append failed for {} {}", record.entityType(), record.entityId(), e);
+            }
+            offer(record);
+        }
+    }
+
+    // Under the journal lock: a full ring leaves the change to the journal replay
+    private void offer(AuditRecord record) {
+        if (!ring.offer(record)) {
+            replayUpTo = journal.size();
+            meterRegistry.counter("dentaire.audit.overflows").increment();
+        }
+    }
+
+    private AuditRecord capture(AuditEntityType entityType, Long entityId, AuditAction action,
+                                Map<String, FieldChange> changes) {
+        return new AuditRecord(UUID.randomUUID().toString(), TenantContext.current(), entityType,
+            entityId, action, actor(), LocalDateTime.now(), toJson(changes));
+    }
+
+    @Scheduled(fixedDelayString = "${dentaire.audit.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (!enabled || System.currentTimeMillis() < nextAttemptAtMillis) {
+            return;
+        }
+        try {
+            journal.force();
+            while (true) {
+                if (pending.isEmpty() && ring.drainTo(pending, batchSize) == 0) {
+                    break;
+                }
+                write(pending);
+                written.addAndGet(pending.size());
+                pending.clear();
+            }
+            long replayed;
+            synchronized (journal) {
+                replayed = replayUpTo;
+            }
+            if (replayed > 0) {
+                replay(replayed);
+            }
+            synchronized (journal) {
+                if (replayUpTo == 0 && inFlight == 0 && ring.size() == 0) {
+                    journal.truncate();
+                }
+            }
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            // Kept in pending / the journal, retried (1s, 2s, 4s ... 30s)
+            meterRegistry.counter("dentaire.audit.failures").increment();
+            consecutiveFailures++;
+            long backoffMillis = Math.min(30_000L, 1000L << Math.min(consecutiveFailures - 1, 5));
+            nextAttemptAtMillis = System.currentTimeMillis() + backoffMillis;
+            log.warn("Audit flush failed ({} changes waiting), retrying in {} ms: {}",
+                pending.size() + ring.size(), backoffMillis, e.toString());
+        }
+    }
+
+    // Last chance on a clean shutdown; anything not written stays in the journal
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        nextAttemptAtMillis = 0;
+        flush();
+        journal.close();
+    }
+
+    // Re-inserts the committed changes of the journal up to length (already stored ones
+    // are skipped). A transaction still in progress keeps the journal for the next replay
+    private void replay(long length) {
+        List<String> lines = journal.readLines(length);
+        List<AuditJournalLine> changes = new ArrayList<>(lines.size());
+        Map<Long, Boolean> outcomes = new HashMap<>();
+        int skipped = 0;
+        for (String line : lines) {
+            try {
+                AuditJournalLine entry = objectMapper.readValue(line, AuditJournalLine.class);
+                if (entry.committed() != null) {
+                    outcomes.put(entry.xid(), entry.committed());
+                } else if (entry.record() != null) {
+                    changes.add(entry);
+                } else {
+                    skipped++;
+                }
+            } catch (JsonProcessingException e) {
+                skipped++;
+            }
+        }
+        List<AuditRecord> records = new ArrayList<>(Math.min(changes.size(), batchSize));
+        int replayed = 0;
+        int rolledBack = 0;
+        boolean inProgress = false;
+        for (AuditJournalLine change : changes) {
+            Boolean committed = change.xid() == null
+                ? Boolean.TRUE
+                : outcomes.computeIfAbsent(change.xid(), this::outcomeInDatabase);
+            if (committed == null) {
+                inProgress = true;
+                continue;
+            }
+            if (!committed) {
+                rolledBack++;
+                continue;
+            }
+            records.add(change.record());
+            replayed++;
+            if (records.size() == batchSize) {
+                write(records);
+                records.clear();
+            }
+        }
+        write(records);
+        synchronized (journal) {
+            // Lines that overflowed after length are replayed next time
+            if (!inProgress && replayUpTo <= length) {
+                replayUpTo = 0;
+            }
+        }
+        log.info("Audit journal replayed: {} changes{}{}", replayed,
+            rolledBack > 0 ? ", " + rolledBack + " of rolled back transactions dropped" : "",
+            skipped > 0 ? ", " + skipped + " unreadable lines skipped" : "");
+    }
+
+    // Outcome of a transaction the journal has none for: committed, rolled back, or null
+    // while still in progress
+    private Boolean outcomeInDatabase(Long xid) {
+        String status = auditJdbcRepository.transactionStatus(xid);
+        if ("in progress".equals(status)) {
+            return null;
+        }
+        if (status == null) {
+            log.error("Outcome of transaction {} is no longer known to the database, its audit changes are dropped", xid);
+        }
+        return "committed".equals(status);
+    }
+
+    // One transaction per clinic, in the clinic's schema
+    private void write(List<AuditRecord> records) {
+        Map<String, List<AuditRecord>> byTenant = new LinkedHashMap<>();
+        for (AuditRecord record : records) {
+            byTenant.computeIfAbsent(record.tenant(), tenant -> new ArrayList<>()).add(record);
+        }
+        byTenant.forEach((tenant, tenantRecords) -> {
+            if (!TenantContext.DEFAULT_TENANT.equals(tenant) && !tenantRegistry.isKnown(tenant)) {
+                log.error("Dropping {} audit changes of unknown tenant {}", tenantRecords.size(), tenant);
+                return;
+            }
+            TenantContext.runAs(tenant, () ->
+                transactionTemplate.executeWithoutResult(status -> auditJdbcRepository.insertAll(tenantRecords)));
+        });
+    }
+
+    private String actor() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String actor = attributes.getRequest().getHeader(actorHeader);
+            if (actor == null || actor.isBlank()) {
+                return "anonymous";
+            }
+            actor = actor.strip();
+            return actor.length() <= MAX_ACTOR_LENGTH ? actor : actor.substring(0, MAX_ACTOR_LENGTH);
+        }
+        return "system";
+    }
+
+    private String toJson(Map<String, FieldChange> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit changes", e);
+        }
+    }
+
+    private byte[] journalLine(AuditJournalLine entry) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entry);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit record", e);
+        }
+    }
+
+    // Changes of one transaction; xid is set once they are written ahead
+    private static final class TransactionChanges {
+
+        private final List<AuditRecord> records = new ArrayList<>();
+        private Long xid;
+    }
+}
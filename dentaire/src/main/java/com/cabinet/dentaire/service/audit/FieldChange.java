@@ -0,0 +1,7 @@
+package com.cabinet.dentaire.service.audit;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Value of one field before and after a change (old is null on creation, new on deletion)
+public record FieldChange(Object old, @JsonProperty("new") Object newValue) {
+}
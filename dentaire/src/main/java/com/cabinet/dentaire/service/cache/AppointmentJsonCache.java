@@ -0,0 +1,151 @@
+package com.cabinet.dentaire.service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.event.AppointmentChangedEvent;
+import com.cabinet.dentaire.event.TreatmentChangedEvent;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// ============== Appointment JSON Cache ==============
+// Pre-serialized JSON of closed appointments (COMPLETED, CANCELLED, NO_SHOW) whose
+// date is older than min-age: those are practically never written again, so their
+// bytes can be reused as they are. A fragment is exactly what the MVC converter
+// writes for the entity (same ObjectMapper), lines and embedded patient included.
+// Keyed by clinic and appointment id, versioned by the newest of appointment.updatedAt and
+// patient.updatedAt: any write to the appointment, its lines (they bump the
+// appointment, see AppointmentLineJdbcRepository.lockAppointment) or its patient
+// makes the stored fragment a miss. Lines embed the full treatment, so a catalog
+// change drops the clinic's entries. Open appointments are always serialized live.
+@Component
+public class AppointmentJsonCache {
+
+    private static final Set<AppointmentEnums> CLOSED =
+        EnumSet.of(AppointmentEnums.COMPLETED, AppointmentEnums.CANCELLED, AppointmentEnums.NO_SHOW);
+
+    // Ids are per clinic schema, the slab is shared by all clinics
+    private record Key(String tenant, long id) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final OffHeapLruCache<Key> cache;
+    private final boolean enabled;
+    private final Duration minAge;
+
+    public AppointmentJsonCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.appointments.json-cache.enabled:true}") boolean enabled,
+            @Value("${dentaire.appointments.json-cache.capacity-mb:32}") int capacityMb,
+            @Value("${dentaire.appointments.json-cache.chunk-size:256}") int chunkSize,
+            @Value("${dentaire.appointments.json-cache.min-age-hours:24}") long minAgeHours) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minAge = Duration.ofHours(minAgeHours);
+        this.cache = enabled ? new OffHeapLruCache<>(capacityMb * 1024L * 1024L, chunkSize) : null;
+        if (enabled) {
+            Gauge.builder("dentaire.appointments.json-cache.entries", cache, OffHeapLruCache::size)
+                .register(meterRegistry);
+            Gauge.builder("dentaire.appointments.json-cache.used", cache, OffHeapLruCache::usedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+            FunctionCounter.builder("dentaire.appointments.json-cache.hits", cache, OffHeapLruCache::hits)
+                .register(meterRegistry);
+            FunctionCounter.builder("dentaire.appointments.json-cache.misses", cache, OffHeapLruCache::misses)
+                .register(meterRegistry);
+            FunctionCounter.builder("dentaire.appointments.json-cache.evictions", cache, OffHeapLruCache::evictions)
+                .register(meterRegistry);
+        }
+    }
+
+    // JSON array of the appointments, in order. Cached fragments are copied as they
+    // are, only the others go through Jackson (and only those load their lines).
+    public byte[] writeList(List<Appointment> appointments) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + appointments.size() * 512);
+        out.write('[');
+        LocalDateTime closedBefore = LocalDateTime.now().minus(minAge);
+        for (int i = 0; i < appointments.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(fragment(appointments.get(i), closedBefore));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private byte[] fragment(Appointment appointment, LocalDateTime closedBefore) {
+        long version = cacheable(appointment, closedBefore) ? version(appointment) : -1;
+        if (version < 0) {
+            return serialize(appointment);
+        }
+        Key key = new Key(TenantContext.current(), appointment.getId());
+        byte[] json = cache.get(key, version);
+        if (json == null) {
+            json = serialize(appointment);
+            cache.put(key, version, json);
+        }
+        return json;
+    }
+
+    private boolean cacheable(Appointment appointment, LocalDateTime closedBefore) {
+        return enabled
+            && appointment.getId() != null
+            && CLOSED.contains(appointment.getStatus())
+            && appointment.getDateTime() != null
+            && appointment.getDateTime().isBefore(closedBefore);
+    }
+
+    // Micros of the newest write (read as UTC, only compared), -1 when a timestamp is missing
+    private static long version(Appointment appointment) {
+        LocalDateTime appointmentUpdated = appointment.getUpdatedAt();
+        LocalDateTime patientUpdated = appointment.getPatient() != null ? appointment.getPatient().getUpdatedAt() : null;
+        if (appointmentUpdated == null || patientUpdated == null) {
+            return -1;
+        }
+        LocalDateTime newest = appointmentUpdated.isAfter(patientUpdated) ? appointmentUpdated : patientUpdated;
+        return newest.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + newest.getNano() / 1_000;
+    }
+
+    private byte[] serialize(Appointment appointment) {
+        try {
+            return objectMapper.writeValueAsBytes(appointment);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize appointment " + appointment.getId(), e);
+        }
+    }
+
+    // Versions already catch updates, this frees deleted appointments early
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (enabled) {
+            String tenant = TenantContext.current();
+            event.appointmentIds().forEach(id -> cache.remove(new Key(tenant, id)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTreatmentChanged(TreatmentChangedEvent event) {
+        if (enabled) {
+            String tenant = TenantContext.current();
+            cache.removeIf(key -> key.tenant().equals(tenant));
+        }
+    }
+}
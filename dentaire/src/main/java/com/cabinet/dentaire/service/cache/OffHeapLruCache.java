@@ -0,0 +1,159 @@
+package com.cabinet.dentaire.service.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// ============== Off-Heap LRU Byte Cache ==============
+// Values live in one direct ByteBuffer cut into fixed-size chunks, so cached bytes
+// are neither copied by the young collector nor counted in the heap. A value takes
+// ceil(length / chunkSize) chunks, not necessarily contiguous; the on-heap index
+// only keeps (version, length, chunk numbers) per key, in access order.
+// A put evicts least recently used entries until enough chunks are free; values
+// larger than a quarter of the slab are not cached. A get with another version than
+// the stored one is a miss (the stale entry is dropped).
+// All operations are synchronized: they are short copies between the slab and a
+// byte[], and a lock is cheaper than anything finer at this size.
+public class OffHeapLruCache<K> {
+
+    private record Entry(long version, int length, int[] chunks) {
+    }
+
+    private final ByteBuffer slab;
+    private final int chunkSize;
+    private final int maxEntryChunks;
+    private final int[] freeChunks;
+    private int freeCount;
+    private final LinkedHashMap<K, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public OffHeapLruCache(long capacityBytes, int chunkSize) {
+        if (chunkSize < 16) {
+            throw new IllegalArgumentException("Chunk size must be at least 16 bytes");
+        }
+        long chunks = Math.min(capacityBytes, Integer.MAX_VALUE - 8L) / chunkSize;
+        if (chunks < 4) {
+            throw new IllegalArgumentException("Capacity must hold at least 4 chunks");
+        }
+        this.chunkSize = chunkSize;
+        this.slab = ByteBuffer.allocateDirect((int) (chunks * chunkSize));
+        this.maxEntryChunks = (int) (chunks / 4);
+        this.freeChunks = new int[(int) chunks];
+        // Hand out low chunks first
+        for (int i = 0; i < chunks; i++) {
+            freeChunks[i] = (int) chunks - 1 - i;
+        }
+        this.freeCount = (int) chunks;
+    }
+
+    // null when absent or stored under another version
+    public synchronized byte[] get(K key, long version) {
+        Entry entry = index.get(key);
+        if (entry == null || entry.version() != version) {
+            if (entry != null) {
+                release(index.remove(key));
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        byte[] value = new byte[entry.length()];
+        int offset = 0;
+        for (int chunk : entry.chunks()) {
+            int length = Math.min(chunkSize, value.length - offset);
+            slab.get(chunk * chunkSize, value, offset, length);
+            offset += length;
+        }
+        return value;
+    }
+
+    // false when the value is too large to be cached
+    public synchronized boolean put(K key, long version, byte[] value) {
+        int needed = Math.max(1, (value.length + chunkSize - 1) / chunkSize);
+        if (needed > maxEntryChunks) {
+            return false;
+        }
+        Entry previous = index.remove(key);
+        if (previous != null) {
+            release(previous);
+        }
+        Iterator<Map.Entry<K, Entry>> eldest = index.entrySet().iterator();
+        while (freeCount < needed && eldest.hasNext()) {
+            release(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+
+        int[] chunks = new int[needed];
+        int offset = 0;
+        for (int i = 0; i < needed; i++) {
+            chunks[i] = freeChunks[--freeCount];
+            int length = Math.min(chunkSize, value.length - offset);
+            slab.put(chunks[i] * chunkSize, value, offset, length);
+            offset += length;
+        }
+        index.put(key, new Entry(version, value.length, chunks));
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        Entry entry = index.remove(key);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    public synchronized void removeIf(Predicate<? super K> filter) {
+        Iterator<Map.Entry<K, Entry>> entries = index.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<K, Entry> entry = entries.next();
+            if (filter.test(entry.getKey())) {
+                release(entry.getValue());
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : index.values()) {
+            release(entry);
+        }
+        index.clear();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    // Bytes held by chunks in use (values round up to whole chunks)
+    public synchronized long usedBytes() {
+        return (long) (freeChunks.length - freeCount) * chunkSize;
+    }
+
+    public long capacityBytes() {
+        return slab.capacity();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    private void release(Entry entry) {
+        for (int chunk : entry.chunks()) {
+            freeChunks[freeCount++] = chunk;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.cabinet.dentaire.service.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a read-only service method whose concurrent identical calls (same method,
+// same arguments) share one execution. The result is shared between callers and
+// must be treated as read-only; lists and maps are returned unmodifiable.
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
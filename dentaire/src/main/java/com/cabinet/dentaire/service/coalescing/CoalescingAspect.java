@@ -0,0 +1,93 @@
+package com.cabinet.dentaire.service.coalescing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cabinet.dentaire.event.AppointmentChangedEvent;
+import com.cabinet.dentaire.event.TreatmentChangedEvent;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Applies single-flight to @Coalesced methods. Ordered before the transaction
+// interceptor (LOWEST_PRECEDENCE) so that waiting callers do not hold a database connection.
+@Aspect
+@Component
+@Order(0)
+public class CoalescingAspect {
+
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public CoalescingAspect(
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.coalescing.enabled:true}") boolean enabled,
+            @Value("${dentaire.coalescing.staleness-ms:250}") long stalenessMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.singleFlight = new SingleFlight(TimeUnit.MILLISECONDS.toNanos(stalenessMs));
+    }
+
+    @Around("@annotation(com.cabinet.dentaire.service.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside a caller's transaction a shared result could miss that transaction's own writes
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+            + "." + joinPoint.getSignature().getName();
+        // Same arguments in two clinics are two different reads
+        List<Object> key = List.of(TenantContext.current(), method, Arrays.asList(joinPoint.getArgs()));
+
+        SingleFlight.Result result = singleFlight.execute(key, () -> readOnly(proceed(joinPoint)));
+        meterRegistry.counter("dentaire.coalescing.calls",
+            "method", method,
+            "outcome", result.outcome().name().toLowerCase()).increment();
+        return result.value();
+    }
+
+    // A result computed before a committed change must not be reused after it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        singleFlight.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTreatmentChanged(TreatmentChangedEvent event) {
+        singleFlight.invalidateAll();
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private Object readOnly(Object value) {
+        if (value instanceof List<?> list) {
+            return Collections.unmodifiableList(list);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Collections.unmodifiableMap(map);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cabinet.dentaire.service.coalescing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ============== Single-Flight ==============
+// The first caller for a key runs the loader, callers arriving while it runs wait
+// for the same future, and callers arriving within the staleness window after it
+// completed reuse the result. Failures are never reused.
+public class SingleFlight {
+
+    public enum Outcome {
+        EXECUTED,   // this call ran the loader
+        COALESCED,  // joined an execution that was in flight
+        REUSED      // got a result completed less than the staleness window ago
+    }
+
+    public record Result(Object value, Outcome outcome) {
+    }
+
+    // Expired entries are only removed when their key is asked again, sweep past this size
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private final ConcurrentHashMap<Object, Flight> flights = new ConcurrentHashMap<>();
+    private final long stalenessNanos;
+
+    public SingleFlight(long stalenessNanos) {
+        this.stalenessNanos = stalenessNanos;
+    }
+
+    public Result execute(Object key, Callable<Object> loader) throws Throwable {
+        while (true) {
+            Flight existing = flights.get(key);
+            if (existing != null) {
+                if (!existing.future.isDone()) {
+                    return new Result(await(existing), Outcome.COALESCED);
+                }
+                if (isFresh(existing)) {
+                    return new Result(await(existing), Outcome.REUSED);
+                }
+                flights.remove(key, existing);
+            }
+
+            Flight mine = new Flight();
+            if (flights.putIfAbsent(key, mine) != null) {
+                continue;
+            }
+            if (flights.size() > SWEEP_THRESHOLD) {
+                flights.values().removeIf(flight -> flight.future.isDone() && !isFresh(flight));
+            }
+
+            Object value;
+            try {
+                value = loader.call();
+            } catch (Throwable failure) {
+                flights.remove(key, mine);
+                mine.future.completeExceptionally(failure);
+                throw failure;
+            }
+            mine.completedAt = System.nanoTime();
+            if (stalenessNanos <= 0) {
+                flights.remove(key, mine);
+            }
+            mine.future.complete(value);
+            return new Result(value, Outcome.EXECUTED);
+        }
+    }
+
+    // Forget every result: later callers run the loader again. Callers already
+    // waiting on an execution still get its result.
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    private boolean isFresh(Flight flight) {
+        return System.nanoTime() - flight.completedAt < stalenessNanos;
+    }
+
+    private Object await(Flight flight) throws Throwable {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile long completedAt;
+    }
+}
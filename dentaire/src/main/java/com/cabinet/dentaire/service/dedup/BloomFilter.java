@@ -0,0 +1,69 @@
+package com.cabinet.dentaire.service.dedup;
+
+import java.nio.charset.StandardCharsets;
+
+// ============== Bloom Filter (strings) ==============
+// m bits and k probes sized for the expected number of keys and false positive rate:
+//   m = -n ln(p) / (ln 2)^2,  k = m / n ln 2
+// Probes use double hashing over two 32-bit halves of a 64-bit FNV-1a / murmur mix,
+// bit i = h1 + i * h2 (mod m), h2 odd so the probes never collapse onto one bit.
+// "No" is exact, "maybe" has to be confirmed.
+// Keys cannot be removed. Not thread-safe, callers synchronize.
+public class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int probes;
+    private int insertions;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63L));
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new long[(bitCount + 63) >>> 6];
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int insertions() {
+        return insertions;
+    }
+
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        // murmur3 finalizer, spreads FNV's weak high bits into both halves
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a87e5L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
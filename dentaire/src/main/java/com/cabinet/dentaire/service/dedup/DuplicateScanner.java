@@ -0,0 +1,206 @@
+package com.cabinet.dentaire.service.dedup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.cabinet.dentaire.service.dedup.PatientMatching.Candidate;
+import com.cabinet.dentaire.service.dedup.PatientMatching.Match;
+
+// ============== Blocked Duplicate Scan (fork/join) ==============
+// Instead of all n^2 / 2 pairs, patients are grouped by blocking key (see
+// PatientMatching) and only compared inside a block. Blocks are independent and
+// are scored in parallel, split in ranges of blocks by a RecursiveTask.
+//
+// Blocks larger than maxBlockSize (a common name, a placeholder phone) are not
+// compared exhaustively: members are sorted by name and each one is compared with
+// the next `window` ones (sorted neighbourhood).
+//
+// A pair sharing several keys is scored in the first shared block that is compared
+// exhaustively; when the earlier ones are windowed it may be scored again, the
+// result is de-duplicated by pair at the end.
+public class DuplicateScanner {
+
+    public record Suggestion(Long patientId, Long duplicateId, double score, String reasons) {
+    }
+
+    public record Result(int blocks, int windowedBlocks, long comparisons, List<Suggestion> suggestions) {
+    }
+
+    // Blocks per fork/join leaf
+    private static final int LEAF_BLOCKS = 256;
+
+    private final double threshold;
+    private final int maxBlockSize;
+    private final int window;
+
+    public DuplicateScanner(double threshold, int maxBlockSize, int window) {
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.window = window;
+    }
+
+    public Result scan(List<Candidate> candidates, ForkJoinPool pool) {
+        Map<String, List<Member>> membersByKey = new HashMap<>();
+        for (Candidate candidate : candidates) {
+            Member member = new Member(candidate, candidate.blockKeys().toArray(String[]::new));
+            for (String key : member.keys) {
+                membersByKey.computeIfAbsent(key, k -> new ArrayList<>(2)).add(member);
+            }
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        Set<String> windowedKeys = new HashSet<>();
+        membersByKey.forEach((key, members) -> {
+            if (members.size() > 1) {
+                blocks.add(new Block(key, members));
+                if (members.size() > maxBlockSize) {
+                    windowedKeys.add(key);
+                }
+            }
+        });
+
+        Partial partial = pool.invoke(new ScoreBlocks(blocks, 0, blocks.size(), windowedKeys));
+
+        // Best score per pair, then best first
+        Map<Long, Map<Long, Suggestion>> byPair = new HashMap<>();
+        for (Suggestion suggestion : partial.suggestions) {
+            byPair.computeIfAbsent(suggestion.patientId(), id -> new LinkedHashMap<>())
+                .merge(suggestion.duplicateId(), suggestion, (a, b) -> a.score() >= b.score() ? a : b);
+        }
+        List<Suggestion> suggestions = new ArrayList<>();
+        byPair.values().forEach(pairs -> suggestions.addAll(pairs.values()));
+        suggestions.sort(Comparator.comparingDouble(Suggestion::score).reversed()
+            .thenComparing(Suggestion::patientId)
+            .thenComparing(Suggestion::duplicateId));
+        return new Result(blocks.size(), windowedKeys.size(), partial.comparisons, suggestions);
+    }
+
+    // Scores candidate against others directly (on-create check), no blocking
+    public List<Suggestion> scoreAgainst(Candidate candidate, List<Candidate> others) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Candidate other : others) {
+            if (!other.id().equals(candidate.id())) {
+                addIfMatch(candidate, other, suggestions);
+            }
+        }
+        return suggestions;
+    }
+
+    private void addIfMatch(Candidate a, Candidate b, List<Suggestion> suggestions) {
+        Match match = PatientMatching.match(a, b, threshold);
+        if (match != null) {
+            boolean ordered = a.id() < b.id();
+            suggestions.add(new Suggestion(ordered ? a.id() : b.id(), ordered ? b.id() : a.id(),
+                match.score(), match.reasons()));
+        }
+    }
+
+    private final class ScoreBlocks extends RecursiveTask<Partial> {
+
+        private final List<Block> blocks;
+        private final int from;
+        private final int to;
+        private final Set<String> windowedKeys;
+
+        ScoreBlocks(List<Block> blocks, int from, int to, Set<String> windowedKeys) {
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.windowedKeys = windowedKeys;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > LEAF_BLOCKS) {
+                int middle = (from + to) >>> 1;
+                ScoreBlocks left = new ScoreBlocks(blocks, from, middle, windowedKeys);
+                left.fork();
+                Partial right = new ScoreBlocks(blocks, middle, to, windowedKeys).compute();
+                return left.join().merge(right);
+            }
+            Partial partial = new Partial();
+            for (int i = from; i < to; i++) {
+                scoreBlock(blocks.get(i), partial);
+            }
+            return partial;
+        }
+
+        private void scoreBlock(Block block, Partial partial) {
+            List<Member> members = block.members;
+            boolean windowed = members.size() > maxBlockSize;
+            if (windowed) {
+                members = new ArrayList<>(members);
+                members.sort(Comparator.comparing((Member m) -> m.candidate.normalizedLastName())
+                    .thenComparing(m -> m.candidate.normalizedFirstName()));
+            }
+            for (int i = 0; i < members.size(); i++) {
+                int last = windowed ? Math.min(members.size() - 1, i + window) : members.size() - 1;
+                for (int j = i + 1; j <= last; j++) {
+                    Member a = members.get(i);
+                    Member b = members.get(j);
+                    if (scoredInEarlierBlock(a, b, block.key)) {
+                        continue;
+                    }
+                    partial.comparisons++;
+                    addIfMatch(a.candidate, b.candidate, partial.suggestions);
+                }
+            }
+        }
+
+        // True when a and b share a key sorting before this block's key, and that
+        // block was compared exhaustively (so the pair was scored there)
+        private boolean scoredInEarlierBlock(Member a, Member b, String blockKey) {
+            for (String key : a.keys) {
+                if (key.compareTo(blockKey) >= 0) {
+                    return false;
+                }
+                if (!windowedKeys.contains(key) && b.shares(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Partial {
+        long comparisons;
+        List<Suggestion> suggestions = new ArrayList<>();
+
+        Partial merge(Partial other) {
+            comparisons += other.comparisons;
+            suggestions.addAll(other.suggestions);
+            return this;
+        }
+    }
+
+    private record Block(String key, List<Member> members) {
+    }
+
+    private static final class Member {
+        final Candidate candidate;
+        // Sorted (b:, n:, p:), at most 3
+        final String[] keys;
+
+        Member(Candidate candidate, String[] keys) {
+            this.candidate = candidate;
+            this.keys = keys;
+        }
+
+        boolean shares(String key) {
+            for (String own : keys) {
+                if (own.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.cabinet.dentaire.service.dedup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cabinet.dentaire.repository.PatientRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Known Patient Contacts (Bloom filter) ==============
+// Pre-screen for bulk creates: an email / phone the filter has never seen is
+// certainly free, only the "maybe" ones are checked against the database (one IN
+// query per column). Saved patients are added once their transaction commits, and
+// adds that land while a rebuild is reading the table are replayed into the new
+// filters, so a committed contact is never missed. A deleted or changed contact only
+// leaves a false positive (an exact check), and the filter is rebuilt from the table
+// every few hours anyway.
+// Until the first build everything is a "maybe". The unique constraints stay the
+// source of truth. One pair of filters per clinic, all rebuilt by the same job.
+@Slf4j
+@Component
+public class PatientContactFilter {
+
+    private final PatientRepository patientRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final double falsePositiveRate;
+    private final TenantScoped<Filters> filters = new TenantScoped<>(Filters::new);
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "contact-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PatientContactFilter(
+            PatientRepository patientRepository,
+            TenantRegistry tenantRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${dentaire.patients.contact-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.patientRepository = patientRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // Adds the contacts once the current transaction commits (right away without one)
+    public void addOnCommit(String email, String phone) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(email, phone);
+                }
+            });
+        } else {
+            add(email, phone);
+        }
+    }
+
+    public void add(String email, String phone) {
+        filters.get().add(email, phone);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return filters.get().mightContainEmail(email);
+    }
+
+    public boolean mightContainPhone(String phone) {
+        return filters.get().mightContainPhone(phone);
+    }
+
+    // Past its sizing the false positive rate climbs, the next rebuild resizes
+    public boolean isSaturated() {
+        return filters.get().isSaturated();
+    }
+
+    // A saturated filter still answers correctly (only more "maybe"s): the current
+    // clinic's filters are rebuilt on a background thread, the caller does not wait
+    // for the table scan. No-op while a rebuild of this clinic is running.
+    public void rebuildInBackground() {
+        String tenant = TenantContext.current();
+        Filters current = filters.get();
+        if (!current.startRebuild()) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> TenantContext.runAs(tenant, () -> {
+                try {
+                    readOnlyTransactionTemplate.executeWithoutResult(status -> rebuildFromTable(current));
+                } catch (RuntimeException e) {
+                    log.error("Patient contact filter rebuild of {} failed", tenant, e);
+                } finally {
+                    current.endRebuild();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            current.endRebuild();
+        }
+    }
+
+    // Every clinic's filters are queued on the rebuild thread, one clinic's contacts in
+    // memory at a time: neither the startup nor the scheduler waits for the table scans
+    // (until a clinic is built its filters answer "maybe")
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dentaire.patients.contact-filter.rebuild-interval-ms:21600000}",
+        initialDelayString = "${dentaire.patients.contact-filter.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        tenantRegistry.forEachTenant(this::rebuildInBackground);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void rebuildFromTable(Filters current) {
+        List<Object[]> contacts = patientRepository.findAllContacts();
+        // Room to grow until the next rebuild
+        int expected = Math.max(1024, contacts.size() * 2);
+        BloomFilter rebuiltEmails = new BloomFilter(expected, falsePositiveRate);
+        BloomFilter rebuiltPhones = new BloomFilter(expected, falsePositiveRate);
+        for (Object[] contact : contacts) {
+            putIfPresent(rebuiltEmails, (String) contact[0]);
+            putIfPresent(rebuiltPhones, (String) contact[1]);
+        }
+        current.install(rebuiltEmails, rebuiltPhones, expected);
+        log.info("Patient contact filter of {} rebuilt from {} patients", TenantContext.current(), contacts.size());
+    }
+
+    private static void putIfPresent(BloomFilter filter, String key) {
+        if (key != null) {
+            filter.put(key);
+        }
+    }
+
+    // Filters of one clinic
+    private static final class Filters {
+
+        private BloomFilter emails;
+        private BloomFilter phones;
+        private int capacity;
+        private boolean built;
+        // Non-null while a rebuild is running
+        private List<String[]> addedDuringRebuild;
+
+        synchronized void add(String email, String phone) {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(new String[] {email, phone});
+            }
+            if (!built) {
+                return;
+            }
+            putIfPresent(emails, email);
+            putIfPresent(phones, phone);
+        }
+
+        synchronized boolean mightContainEmail(String email) {
+            return email != null && (!built || emails.mightContain(email));
+        }
+
+        synchronized boolean mightContainPhone(String phone) {
+            return phone != null && (!built || phones.mightContain(phone));
+        }
+
+        synchronized boolean isSaturated() {
+            return built && Math.max(emails.insertions(), phones.insertions()) > capacity;
+        }
+
+        // false when a rebuild is already running
+        synchronized boolean startRebuild() {
+            if (addedDuringRebuild != null) {
+                return false;
+            }
+            addedDuringRebuild = new ArrayList<>();
+            return true;
+        }
+
+        synchronized void endRebuild() {
+            addedDuringRebuild = null;
+        }
+
+        synchronized void install(BloomFilter rebuiltEmails, BloomFilter rebuiltPhones, int expected) {
+            for (String[] added : addedDuringRebuild) {
+                putIfPresent(rebuiltEmails, added[0]);
+                putIfPresent(rebuiltPhones, added[1]);
+            }
+            emails = rebuiltEmails;
+            phones = rebuiltPhones;
+            capacity = expected;
+            built = true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cabinet.dentaire.service.dedup;
+
+import com.cabinet.dentaire.entity.Patient;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+// JPA listener of Patient: keeps the stored blocking keys in line with the name and
+// phone, so the on-create duplicate check finds its candidates through indexes.
+// Rows written before the keys existed are filled in by the duplicate scan.
+public class PatientMatchKeyListener {
+
+    @PrePersist
+    @PreUpdate
+    public void computeKeys(Patient patient) {
+        patient.setPhoneKey(PatientMatching.phoneKey(patient.getPhone()));
+        patient.setNameKey(PatientMatching.nameKey(patient.getFirstName(), patient.getLastName()));
+    }
+}
@@ -0,0 +1,231 @@
+package com.cabinet.dentaire.service.dedup;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+// ============== Patient Matching (keys + similarity) ==============
+// Blocking keys: two patients are only compared when they share one of
+//   p:<phone key>                        same number, whatever the formatting
+//   n:<phonetic last name><first letter> "Alaoui Mohamed" / "Alaui Mohammed"
+//   b:<birth date>
+// Inside a block, pairs are scored with Jaro-Winkler on the normalized names plus
+// exact phone / birth date / email agreement:
+//   0.55 name + 0.20 phone + 0.20 birth date + 0.05 email
+// A near-identical name plus the same phone or birth date clears the default 0.70
+// threshold, a family sharing a phone (same last name only) stays around 0.6.
+public final class PatientMatching {
+
+    // Weights of the score, they add up to 1
+    static final double NAME_WEIGHT = 0.55;
+    static final double PHONE_WEIGHT = 0.20;
+    static final double BIRTH_DATE_WEIGHT = 0.20;
+    static final double EMAIL_WEIGHT = 0.05;
+
+    // Significant digits of a phone number: "+212 6 12-34-56-78", "0612345678" -> "612345678"
+    private static final int PHONE_DIGITS = 9;
+
+    private PatientMatching() {
+    }
+
+    // What the matcher needs of a patient, keys computed once
+    public record Candidate(
+            Long id,
+            String firstName,
+            String lastName,
+            String phoneKey,
+            String email,
+            LocalDate birthDate,
+            String nameKey,
+            String normalizedFirstName,
+            String normalizedLastName) {
+
+        public static Candidate of(Long id, String firstName, String lastName, String phone, String email, LocalDate birthDate) {
+            return new Candidate(id, firstName, lastName, PatientMatching.phoneKey(phone), email, birthDate,
+                PatientMatching.nameKey(firstName, lastName), normalizeName(firstName), normalizeName(lastName));
+        }
+
+        // Sorted, so the first key two candidates share is the same from both sides
+        public List<String> blockKeys() {
+            List<String> keys = new ArrayList<>(3);
+            if (birthDate != null) {
+                keys.add("b:" + birthDate);
+            }
+            if (nameKey != null) {
+                keys.add("n:" + nameKey);
+            }
+            if (phoneKey != null) {
+                keys.add("p:" + phoneKey);
+            }
+            return keys;
+        }
+    }
+
+    public record Match(double score, String reasons) {
+    }
+
+    // null when the pair scores below the threshold
+    public static Match match(Candidate a, Candidate b, double threshold) {
+        double nameSimilarity = nameSimilarity(a, b);
+        boolean samePhone = a.phoneKey() != null && a.phoneKey().equals(b.phoneKey());
+        boolean sameBirthDate = a.birthDate() != null && a.birthDate().equals(b.birthDate());
+        boolean sameEmail = a.email() != null && a.email().equalsIgnoreCase(Objects.toString(b.email(), ""));
+
+        double score = NAME_WEIGHT * nameSimilarity
+            + (samePhone ? PHONE_WEIGHT : 0)
+            + (sameBirthDate ? BIRTH_DATE_WEIGHT : 0)
+            + (sameEmail ? EMAIL_WEIGHT : 0);
+        if (score < threshold) {
+            return null;
+        }
+
+        StringBuilder reasons = new StringBuilder(String.format(Locale.ROOT, "name %.2f", nameSimilarity));
+        if (samePhone) {
+            reasons.append(", phone");
+        }
+        if (sameBirthDate) {
+            reasons.append(", birth date");
+        }
+        if (sameEmail) {
+            reasons.append(", email");
+        }
+        return new Match(Math.round(score * 1000) / 1000.0, reasons.toString());
+    }
+
+    // Average of first and last name similarity, also tried with the names swapped
+    static double nameSimilarity(Candidate a, Candidate b) {
+        double direct = (jaroWinkler(a.normalizedFirstName(), b.normalizedFirstName())
+            + jaroWinkler(a.normalizedLastName(), b.normalizedLastName())) / 2;
+        double swapped = (jaroWinkler(a.normalizedFirstName(), b.normalizedLastName())
+            + jaroWinkler(a.normalizedLastName(), b.normalizedFirstName())) / 2;
+        return Math.max(direct, swapped);
+    }
+
+    // ============== Keys ==============
+
+    public static String phoneKey(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.length() < PHONE_DIGITS) {
+            return digits.isEmpty() ? null : digits;
+        }
+        return digits.substring(digits.length() - PHONE_DIGITS);
+    }
+
+    public static String nameKey(String firstName, String lastName) {
+        String last = phonetic(lastName);
+        if (last.isEmpty()) {
+            return null;
+        }
+        String first = phonetic(firstName);
+        return first.isEmpty() ? last : last + first.charAt(0);
+    }
+
+    // Lower case ASCII letters only: accents dropped, "El-Idrissi" -> "elidrissi"
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder letters = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            }
+        }
+        return letters.toString();
+    }
+
+    // Soundex-like key tuned for French transliterations of Arabic names: digraphs and
+    // interchangeable letters folded, h dropped, vowels after the first letter
+    // dropped, repeats collapsed. Mohamed / Mohammed / Muhammad -> "md"
+    static String phonetic(String name) {
+        String s = normalizeName(name)
+            .replace("ph", "f")
+            .replace("kh", "k")
+            .replace("gh", "g")
+            .replace("dh", "d")
+            .replace("th", "t")
+            .replace("sh", "x")
+            .replace("ch", "x")
+            .replace("ou", "u")
+            .replace("ck", "k")
+            .replace('q', 'k')
+            .replace('c', 'k')
+            .replace('z', 's')
+            .replace('y', 'i')
+            .replace('w', 'u')
+            .replace("h", "");
+        if (s.isEmpty()) {
+            return s;
+        }
+        StringBuilder key = new StringBuilder(s.length());
+        key.append(s.charAt(0));
+        for (int i = 1; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ("aeiou".indexOf(c) >= 0 || c == key.charAt(key.length() - 1)) {
+                continue;
+            }
+            key.append(c);
+        }
+        return key.toString();
+    }
+
+    // ============== Jaro-Winkler ==============
+
+    static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return a.equals(b) ? 1 : 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (!matchedA[i]) {
+                continue;
+            }
+            while (!matchedB[j]) {
+                j++;
+            }
+            if (a.charAt(i) != b.charAt(j)) {
+                transpositions++;
+            }
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
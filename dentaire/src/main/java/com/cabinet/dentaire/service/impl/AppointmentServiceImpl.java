@@ -1,30 +1,111 @@
 package com.cabinet.dentaire.service.impl;
 
+import com.cabinet.dentaire.dto.AppointmentCommand;
+import com.cabinet.dentaire.dto.AppointmentLine;
+import com.cabinet.dentaire.dto.AppointmentLineRequest;
+import com.cabinet.dentaire.dto.AppointmentLines;
+import com.cabinet.dentaire.dto.AppointmentView;
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkStatusReport;
+import com.cabinet.dentaire.dto.BulkStatusRequest;
 import com.cabinet.dentaire.entity.Appointment;
 import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.cabinet.dentaire.enums.OutboxEventType;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.event.AppointmentChangedEvent;
+import com.cabinet.dentaire.repository.AppointmentBulkRepository;
+import com.cabinet.dentaire.repository.AppointmentLineJdbcRepository;
 import com.cabinet.dentaire.repository.AppointmentRepository;
+import com.cabinet.dentaire.repository.AppointmentTreatmentRepository;
+import com.cabinet.dentaire.repository.FieldProjectionRepository;
+import com.cabinet.dentaire.repository.PatientRepository;
+import com.cabinet.dentaire.service.audit.AuditTrail;
+import com.cabinet.dentaire.service.audit.FieldChange;
+import com.cabinet.dentaire.service.cache.AppointmentJsonCache;
+import com.cabinet.dentaire.service.coalescing.Coalesced;
 import com.cabinet.dentaire.service.interfaces.IAppointmentService;
-
+import com.cabinet.dentaire.service.interfaces.IAppointmentTreatmentService;
+import com.cabinet.dentaire.service.interfaces.IOutboxService;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
+import com.cabinet.dentaire.service.pricing.TreatmentPriceSnapshot;
+import com.cabinet.dentaire.service.projection.FieldSelection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Transactional
 public class AppointmentServiceImpl implements IAppointmentService {
 
-    private final AppointmentRepository appointmentRepository;
+    // appointments.patient_id -> patients, named on Appointment.patient (V8 renamed the generated one)
+    private static final String PATIENT_FOREIGN_KEY = "fk_appointments_patient";
 
-    public AppointmentServiceImpl(AppointmentRepository appointmentRepository) {
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final ISyncService syncService;
+    private final IOutboxService outboxService;
+    // In-process listeners (reminders) are notified after commit, see AppointmentChangedEvent
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkChunkSize;
+    private final PatientRepository patientRepository;
+    private final TreatmentPriceSnapshot treatmentCatalog;
+    private final IAppointmentTreatmentService appointmentTreatmentService;
+    private final FieldProjectionRepository projectionRepository;
+    private final AppointmentLineJdbcRepository lineRepository;
+    private final AppointmentJsonCache appointmentJsonCache;
+    private final AuditTrail auditTrail;
+
+    public AppointmentServiceImpl(
+            AppointmentRepository appointmentRepository,
+            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            ISyncService syncService,
+            IOutboxService outboxService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${dentaire.appointments.bulk.chunk-size:500}") int bulkChunkSize,
+            PatientRepository patientRepository,
+            TreatmentPriceSnapshot treatmentCatalog,
+            IAppointmentTreatmentService appointmentTreatmentService,
+            FieldProjectionRepository projectionRepository,
+            AppointmentLineJdbcRepository lineRepository,
+            AppointmentJsonCache appointmentJsonCache,
+            AuditTrail auditTrail) {
         this.appointmentRepository = appointmentRepository;
+        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.syncService = syncService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkChunkSize = bulkChunkSize;
+        this.patientRepository = patientRepository;
+        this.treatmentCatalog = treatmentCatalog;
+        this.appointmentTreatmentService = appointmentTreatmentService;
+        this.projectionRepository = projectionRepository;
+        this.lineRepository = lineRepository;
+        this.appointmentJsonCache = appointmentJsonCache;
+        this.auditTrail = auditTrail;
     }
 
 
@@ -33,7 +114,112 @@ public class AppointmentServiceImpl implements IAppointmentService {
         if (appointment.getStatus() == null) {
             appointment.setStatus(AppointmentEnums.SCHEDULED);
         }
-        return appointmentRepository.save(appointment);
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        outboxService.recordAppointmentEvent(OutboxEventType.APPOINTMENT_CREATED, savedAppointment, null);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(savedAppointment.getId()));
+        return savedAppointment;
+    }
+
+    // ============== Commands ==============
+    // The patient is attached with getReferenceById (no SELECT, never merged from the
+    // request); an unknown patient shows up as a foreign key violation on insert.
+    // Lines go through the line service (catalog prices, one JDBC batch).
+
+    @Override
+    public AppointmentView create(AppointmentCommand command) {
+        List<AppointmentLineRequest> lines = command.getTreatments() != null ? toLineRequests(command.getTreatments()) : List.of();
+        Appointment appointment = Appointment.builder()
+            .patient(patientRepository.getReferenceById(command.getPatientId()))
+            .dateTime(command.getDateTime())
+            .status(command.getStatus() != null ? command.getStatus() : AppointmentEnums.SCHEDULED)
+            .notes(command.getNotes())
+            .build();
+
+        Appointment savedAppointment;
+        try {
+            savedAppointment = save(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw patientNotFoundOr(e, command.getPatientId());
+        }
+
+        AppointmentLines savedLines = lines.isEmpty()
+            ? new AppointmentLines(savedAppointment.getId(), List.of(), BigDecimal.ZERO)
+            : appointmentTreatmentService.addLines(savedAppointment.getId(), lines);
+        return toView(savedAppointment, savedLines, currentVersion(savedAppointment.getId()));
+    }
+
+    @Override
+    public AppointmentView update(Long id, AppointmentCommand command) {
+        Appointment existingAppointment = appointmentRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
+        List<AppointmentLineRequest> lines = command.getTreatments() != null ? toLineRequests(command.getTreatments()) : null;
+
+        AppointmentEnums previousStatus = existingAppointment.getStatus();
+        if (!existingAppointment.getPatient().getId().equals(command.getPatientId())) {
+            existingAppointment.setPatient(patientRepository.getReferenceById(command.getPatientId()));
+        }
+        existingAppointment.setDateTime(command.getDateTime());
+        if (command.getStatus() != null) {
+            existingAppointment.setStatus(command.getStatus());
+        }
+        existingAppointment.setNotes(command.getNotes());
+
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.saveAndFlush(existingAppointment);
+        } catch (DataIntegrityViolationException e) {
+            throw patientNotFoundOr(e, command.getPatientId());
+        }
+        outboxService.recordAppointmentEvent(OutboxEventType.APPOINTMENT_UPDATED, savedAppointment, previousStatus);
+        if (previousStatus != savedAppointment.getStatus()) {
+            outboxService.recordAppointmentEvent(OutboxEventType.APPOINTMENT_STATUS_CHANGED, savedAppointment, previousStatus);
+        }
+        eventPublisher.publishEvent(new AppointmentChangedEvent(savedAppointment.getId()));
+
+        AppointmentLines savedLines = lines != null
+            ? appointmentTreatmentService.replaceLines(id, lines)
+            : appointmentTreatmentService.findLines(id);
+        return toView(savedAppointment, savedLines, currentVersion(id));
+    }
+
+    private List<AppointmentLineRequest> toLineRequests(List<AppointmentCommand.Line> lines) {
+        List<AppointmentLineRequest> requests = new ArrayList<>(lines.size());
+        for (AppointmentCommand.Line line : lines) {
+            Long treatmentId = treatmentCatalog.idOfCode(line.getCode());
+            if (treatmentId == null) {
+                throw new RuntimeException("Treatment not found with code: " + line.getCode());
+            }
+            requests.add(new AppointmentLineRequest(treatmentId, line.getQuantity(), line.getPriceCharged(), line.getNotes()));
+        }
+        return requests;
+    }
+
+    // Unknown patient: the insert / update hit the patient foreign key. Anything else
+    // (another constraint) is not about the patient and is rethrown as is
+    private RuntimeException patientNotFoundOr(DataIntegrityViolationException e, Long patientId) {
+        if (UniqueViolations.isForeignKeyViolation(e, PATIENT_FOREIGN_KEY)) {
+            return new RuntimeException("Patient not found with id: " + patientId);
+        }
+        return e;
+    }
+
+    // updated_at as stored: line changes bump it through JDBC after the entity was saved,
+    // the view must carry the version ETags and sync will report
+    private LocalDateTime currentVersion(Long appointmentId) {
+        return lineRepository.findUpdatedAt(appointmentId)
+            .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + appointmentId));
+    }
+
+    private AppointmentView toView(Appointment appointment, AppointmentLines lines, LocalDateTime updatedAt) {
+        return new AppointmentView(
+            appointment.getId(),
+            appointment.getPatient().getId(),
+            appointment.getDateTime(),
+            appointment.getStatus(),
+            appointment.getNotes(),
+            lines.getLines(),
+            lines.getTotal(),
+            updatedAt);
     }
 
     @Override
@@ -50,15 +236,9 @@ public class AppointmentServiceImpl implements IAppointmentService {
     }
 
     @Override
-    public Appointment update(Long id, Appointment appointmentDetails) {
-        Appointment existingAppointment = appointmentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
-
-        existingAppointment.setDateTime(appointmentDetails.getDateTime());
-        existingAppointment.setStatus(appointmentDetails.getStatus());
-        existingAppointment.setNotes(appointmentDetails.getNotes());
-
-        return appointmentRepository.save(existingAppointment);
+    @Transactional(readOnly = true)
+    public BatchResult<Appointment> findAllByIds(List<Long> ids) {
+        return BatchLookups.lookup(ids, appointmentRepository::findAllById);
     }
 
     @Override
@@ -66,17 +246,80 @@ public class AppointmentServiceImpl implements IAppointmentService {
         if (!appointmentRepository.existsById(id)) {
             throw new RuntimeException("Appointment not found with id: " + id);
         }
+        // The lines go with the appointment (cascade), sync clients must drop them too
+        List<Long> lineIds = appointmentTreatmentRepository.findIdsByAppointmentId(id);
         appointmentRepository.deleteById(id);
+        for (Long lineId : lineIds) {
+            syncService.recordDeletion(SyncEntityType.APPOINTMENT_TREATMENT, lineId);
+        }
+        syncService.recordDeletion(SyncEntityType.APPOINTMENT, id);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(id));
     }
 
 
     @Override
     public Appointment updateStatus(Long id, AppointmentEnums status) {
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
         
+        AppointmentEnums previousStatus = appointment.getStatus();
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        outboxService.recordAppointmentEvent(OutboxEventType.APPOINTMENT_STATUS_CHANGED, savedAppointment, previousStatus);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(savedAppointment.getId()));
+        return savedAppointment;
+    }
+
+    // One UPDATE ... RETURNING per chunk, each chunk in its own short transaction
+    // together with its outbox events; listeners hear about each chunk after its commit
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkStatusReport bulkUpdateStatus(BulkStatusRequest request) {
+        long startedAt = System.nanoTime();
+        AppointmentEnums targetStatus = request.getTargetStatus();
+        List<AppointmentEnums> fromStatuses = request.getFromStatuses() == null || request.getFromStatuses().isEmpty()
+            ? List.of(AppointmentEnums.values())
+            : request.getFromStatuses();
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : bulkChunkSize;
+
+        List<Long> changedIds = new ArrayList<>();
+        Map<AppointmentEnums, Integer> changedByPreviousStatus = new EnumMap<>(AppointmentEnums.class);
+        int chunks = 0;
+        while (true) {
+            List<AppointmentBulkRepository.StatusTransition> transitions = transactionTemplate.execute(status -> {
+                List<AppointmentBulkRepository.StatusTransition> chunk = appointmentRepository.transitionStatus(
+                    request.getStart(), request.getEnd(), fromStatuses, request.getPatientId(),
+                    targetStatus, LocalDateTime.now(), chunkSize);
+                if (!chunk.isEmpty()) {
+                    outboxService.recordStatusTransitions(chunk, targetStatus);
+                    List<Long> ids = new ArrayList<>(chunk.size());
+                    for (AppointmentBulkRepository.StatusTransition transition : chunk) {
+                        ids.add(transition.appointmentId());
+                        // Native UPDATE: the entity listener does not see it
+                        auditTrail.recordOnCommit(AuditEntityType.APPOINTMENT, transition.appointmentId(),
+                            AuditAction.UPDATED, Map.of("status",
+                                new FieldChange(transition.previousStatus().name(), targetStatus.name())));
+                    }
+                    eventPublisher.publishEvent(new AppointmentChangedEvent(ids));
+                }
+                return chunk;
+            });
+            if (transitions == null || transitions.isEmpty()) {
+                break;
+            }
+            chunks++;
+            for (AppointmentBulkRepository.StatusTransition transition : transitions) {
+                changedIds.add(transition.appointmentId());
+                changedByPreviousStatus.merge(transition.previousStatus(), 1, Integer::sum);
+            }
+            // Changed rows no longer match (status <> target), a short chunk means done
+            if (transitions.size() < chunkSize) {
+                break;
+            }
+        }
+
+        return new BulkStatusReport(targetStatus, changedIds.size(), changedByPreviousStatus, changedIds, chunks,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
     }
 
     @Override
@@ -100,6 +343,12 @@ public class AppointmentServiceImpl implements IAppointmentService {
         return appointments;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] findByPatientIdAsJson(Long patientId) {
+        return appointmentJsonCache.writeList(appointmentRepository.findByPatientId(patientId));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Appointment> findUpcomingByPatientId(Long patientId) {
@@ -113,24 +362,26 @@ public class AppointmentServiceImpl implements IAppointmentService {
     // ============== Date-based Queries ==============
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public List<Appointment> findByDate(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
         
-        // Fixed: removed semicolon inside parentheses
+        // Coalesced: fetch the lines too, the list may be serialized by other requests
         ArrayList<Appointment> appointments = new ArrayList<>(
-            appointmentRepository.findByDateTimeBetween(startOfDay, endOfDay)
+            appointmentRepository.findWithTreatmentsByDateTimeBetween(startOfDay, endOfDay)
         );
         return appointments;
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public List<Appointment> findTodaysAppointments() {
-        // Fixed: removed semicolon inside parentheses
+        LocalDate today = LocalDate.now();
         ArrayList<Appointment> appointments = new ArrayList<>(
-            appointmentRepository.findTodaysAppointments()
+            appointmentRepository.findWithTreatmentsByDateTimeBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX))
         );
         return appointments;
     }
@@ -145,6 +396,64 @@ public class AppointmentServiceImpl implements IAppointmentService {
         return appointments;
     }
 
+    // ============== Sparse Reads ==============
+    // Selected columns only, ordered by date; "treatments" (the lines) is one extra
+    // query for the whole page instead of the lazy collection of each appointment.
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(Long id, FieldSelection selection) {
+        return project(selection, (root, query, cb) -> cb.equal(root.get("id"), id)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(FieldSelection selection) {
+        return project(selection, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByStatus(AppointmentEnums status, FieldSelection selection) {
+        return project(selection, (root, query, cb) -> cb.equal(root.get("status"), status));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByPatientId(Long patientId, FieldSelection selection) {
+        return project(selection, (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findUpcomingByPatientId(Long patientId, FieldSelection selection) {
+        LocalDateTime now = LocalDateTime.now();
+        return project(selection, (root, query, cb) -> cb.and(
+            cb.equal(root.get("patient").get("id"), patientId),
+            cb.greaterThan(root.get("dateTime"), now)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByDateRange(LocalDateTime start, LocalDateTime end, FieldSelection selection) {
+        return project(selection, (root, query, cb) -> cb.between(root.get("dateTime"), start, end));
+    }
+
+    private List<Map<String, Object>> project(FieldSelection selection, Specification<Appointment> filter) {
+        List<Map<String, Object>> rows = projectionRepository.find(selection, filter, "dateTime");
+        if (selection.includes("treatments") && !rows.isEmpty()) {
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                ids.add((Long) row.get("id"));
+            }
+            Map<Long, List<AppointmentLine>> lines = lineRepository.findLinesByAppointmentIds(ids);
+            for (Map<String, Object> row : rows) {
+                row.put("treatments", lines.getOrDefault((Long) row.get("id"), List.of()));
+            }
+        }
+        return rows;
+    }
+
     // ============== HashMap Operations (Academic Requirement) ==============
 
     @Override
@@ -167,6 +476,7 @@ public class AppointmentServiceImpl implements IAppointmentService {
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public Map<Integer, List<Appointment>> getTodaysAppointmentsByHour() {
         HashMap<Integer, List<Appointment>> scheduleByHour = new HashMap<>();
@@ -177,7 +487,9 @@ public class AppointmentServiceImpl implements IAppointmentService {
         }
         
         // Group today's appointments by hour
-        List<Appointment> todaysAppointments = appointmentRepository.findTodaysAppointments();
+        LocalDate today = LocalDate.now();
+        List<Appointment> todaysAppointments =
+            appointmentRepository.findWithTreatmentsByDateTimeBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX));
         for (Appointment appointment : todaysAppointments) {
             int hour = appointment.getDateTime().getHour();
             if (scheduleByHour.containsKey(hour)) {
@@ -0,0 +1,91 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cabinet.dentaire.dto.AppointmentHistogram;
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.HistogramBucket;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.AppointmentRepository;
+import com.cabinet.dentaire.service.interfaces.IAppointmentService;
+import com.cabinet.dentaire.service.interfaces.IAppointmentStatsService;
+
+@Service
+@Transactional(readOnly = true)
+public class AppointmentStatsServiceImpl implements IAppointmentStatsService {
+
+    // A year of 15 minute buckets
+    private static final int MAX_BUCKETS = 366 * 96;
+
+    private final AppointmentRepository appointmentRepository;
+    private final IAppointmentService appointmentService;
+
+    public AppointmentStatsServiceImpl(AppointmentRepository appointmentRepository, IAppointmentService appointmentService) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentService = appointmentService;
+    }
+
+    // ============== Histogram ==============
+    // Ranges within today are counted from the day board (coalesced, shared with the
+    // schedule screens), anything else by one grouped query on the date_time index.
+    // Either way the result is a plain int[] of counts, never entities.
+
+    // SUPPORTS: no transaction of its own, the board is only shared (coalesced) outside one
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AppointmentHistogram getHistogram(LocalDateTime start, LocalDateTime end,
+                                             HistogramBucket bucket, List<AppointmentEnums> statuses) {
+        if (!start.isBefore(end)) {
+            throw new InvalidRequestException("start must be before end");
+        }
+        LocalDateTime origin = bucket.floor(start);
+        long widthSeconds = bucket.getWidth().toSeconds();
+        long bucketCount = (Duration.between(origin, end).toSeconds() + widthSeconds - 1) / widthSeconds;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new InvalidRequestException("Too many buckets (" + bucketCount + "), max " + MAX_BUCKETS
+                + ": use a larger bucket or a shorter range");
+        }
+        Set<AppointmentEnums> statusFilter = statuses == null || statuses.isEmpty()
+            ? EnumSet.allOf(AppointmentEnums.class)
+            : EnumSet.copyOf(statuses);
+
+        int[] counts = new int[(int) bucketCount];
+        LocalDate today = LocalDate.now();
+        boolean withinToday = !origin.isBefore(today.atStartOfDay()) && !end.isAfter(today.plusDays(1).atStartOfDay());
+        if (withinToday) {
+            for (Appointment appointment : appointmentService.findTodaysAppointments()) {
+                LocalDateTime time = appointment.getDateTime();
+                if (time.isBefore(origin) || !time.isBefore(end) || !statusFilter.contains(appointment.getStatus())) {
+                    continue;
+                }
+                counts[(int) (Duration.between(origin, time).toSeconds() / widthSeconds)]++;
+            }
+        } else {
+            List<String> statusNames = new ArrayList<>(statusFilter.size());
+            for (AppointmentEnums status : statusFilter) {
+                statusNames.add(status.name());
+            }
+            for (Object[] row : appointmentRepository.countPerBucket(origin, end, widthSeconds, statusNames)) {
+                counts[((Number) row[0]).intValue()] = ((Number) row[1]).intValue();
+            }
+        }
+
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return new AppointmentHistogram(bucket, origin, end,
+            statuses == null ? List.of() : List.copyOf(statusFilter), counts, total);
+    }
+}
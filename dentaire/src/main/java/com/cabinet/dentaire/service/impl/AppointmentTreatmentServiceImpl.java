@@ -0,0 +1,165 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cabinet.dentaire.dto.AppointmentLineRequest;
+import com.cabinet.dentaire.dto.AppointmentLines;
+import com.cabinet.dentaire.enums.AuditAction;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.event.AppointmentChangedEvent;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.AppointmentLineJdbcRepository;
+import com.cabinet.dentaire.service.analytics.TreatmentUsageTracker;
+import com.cabinet.dentaire.service.audit.AuditTrail;
+import com.cabinet.dentaire.service.audit.FieldChange;
+import com.cabinet.dentaire.service.interfaces.IAppointmentTreatmentService;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
+import com.cabinet.dentaire.service.pricing.TreatmentPriceSnapshot;
+
+@Service
+@Transactional
+public class AppointmentTreatmentServiceImpl implements IAppointmentTreatmentService {
+
+    private static final int MAX_LINES = 1000;
+
+    private final AppointmentLineJdbcRepository lineRepository;
+    private final TreatmentPriceSnapshot priceSnapshot;
+    private final TreatmentUsageTracker usageTracker;
+    private final ISyncService syncService;
+    private final AuditTrail auditTrail;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AppointmentTreatmentServiceImpl(
+            AppointmentLineJdbcRepository lineRepository,
+            TreatmentPriceSnapshot priceSnapshot,
+            TreatmentUsageTracker usageTracker,
+            ISyncService syncService,
+            AuditTrail auditTrail,
+            ApplicationEventPublisher eventPublisher) {
+        this.lineRepository = lineRepository;
+        this.priceSnapshot = priceSnapshot;
+        this.usageTracker = usageTracker;
+        this.syncService = syncService;
+        this.auditTrail = auditTrail;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentLines findLines(Long appointmentId) {
+        AppointmentLines lines = lineRepository.findLines(appointmentId);
+        if (lines.getLines().isEmpty() && !lineRepository.appointmentExists(appointmentId)) {
+            throw new RuntimeException("Appointment not found with id: " + appointmentId);
+        }
+        return lines;
+    }
+
+    @Override
+    public AppointmentLines addLines(Long appointmentId, List<AppointmentLineRequest> lines) {
+        LocalDateTime appointmentTime = lockAppointment(appointmentId);
+        insert(appointmentId, appointmentTime, lines);
+        return changed(appointmentId);
+    }
+
+    @Override
+    public AppointmentLines replaceLines(Long appointmentId, List<AppointmentLineRequest> lines) {
+        LocalDateTime appointmentTime = lockAppointment(appointmentId);
+        recordDeletions(appointmentId, lineRepository.delete(appointmentId, null));
+        insert(appointmentId, appointmentTime, lines);
+        return changed(appointmentId);
+    }
+
+    @Override
+    public AppointmentLines removeLines(Long appointmentId, List<Long> lineIds) {
+        lockAppointment(appointmentId);
+        if (lineIds.size() > MAX_LINES) {
+            throw new InvalidRequestException("Too many lines: " + lineIds.size() + " (max " + MAX_LINES + ")");
+        }
+        if (!lineIds.isEmpty()) {
+            recordDeletions(appointmentId, lineRepository.delete(appointmentId, lineIds));
+        }
+        return changed(appointmentId);
+    }
+
+    private LocalDateTime lockAppointment(Long appointmentId) {
+        return lineRepository.lockAppointment(appointmentId)
+            .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + appointmentId));
+    }
+
+    // Prices every line from the snapshot first (no query per line), at the catalog price
+    // in effect at the appointment's time, then one JDBC batch
+    private void insert(Long appointmentId, LocalDateTime appointmentTime, List<AppointmentLineRequest> lines) {
+        if (lines.size() > MAX_LINES) {
+            throw new InvalidRequestException("Too many lines: " + lines.size() + " (max " + MAX_LINES + ")");
+        }
+        Map<Long, BigDecimal> prices = priceSnapshot.pricesAt(appointmentTime);
+        List<AppointmentLineJdbcRepository.NewLine> newLines = new ArrayList<>(lines.size());
+        for (AppointmentLineRequest line : lines) {
+            BigDecimal catalogPrice = prices.get(line.getTreatmentId());
+            if (catalogPrice == null) {
+                throw new RuntimeException("Treatment not found with id: " + line.getTreatmentId());
+            }
+            int quantity = line.getQuantity() != null ? line.getQuantity() : 1;
+            if (quantity < 1) {
+                throw new InvalidRequestException("Quantity must be at least 1");
+            }
+            newLines.add(new AppointmentLineJdbcRepository.NewLine(
+                line.getTreatmentId(),
+                quantity,
+                line.getPriceCharged() != null ? line.getPriceCharged() : catalogPrice,
+                line.getNotes()));
+        }
+        if (newLines.isEmpty()) {
+            return;
+        }
+        List<Long> lineIds = lineRepository.insertAll(appointmentId, newLines);
+        for (int i = 0; i < newLines.size(); i++) {
+            AppointmentLineJdbcRepository.NewLine line = newLines.get(i);
+            usageTracker.recordOnCommit(appointmentTime, line.treatmentId(), line.quantity());
+            auditTrail.recordOnCommit(AuditEntityType.APPOINTMENT_TREATMENT, lineIds.get(i), AuditAction.CREATED,
+                lineFields(appointmentId, line.treatmentId(), line.quantity(), line.priceCharged(), line.notes(), false));
+        }
+    }
+
+    private void recordDeletions(Long appointmentId, List<AppointmentLineJdbcRepository.RemovedLine> lines) {
+        for (AppointmentLineJdbcRepository.RemovedLine line : lines) {
+            syncService.recordDeletion(SyncEntityType.APPOINTMENT_TREATMENT, line.id());
+            auditTrail.recordOnCommit(AuditEntityType.APPOINTMENT_TREATMENT, line.id(), AuditAction.DELETED,
+                lineFields(appointmentId, line.treatmentId(), line.quantity(), line.priceCharged(), line.notes(), true));
+        }
+    }
+
+    // Same fields as the JPA listener records for a line (new values, or old ones for a deletion)
+    private static Map<String, FieldChange> lineFields(Long appointmentId, Long treatmentId, int quantity,
+                                                       BigDecimal priceCharged, String notes, boolean deleted) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("appointment", appointmentId);
+        values.put("treatment", treatmentId);
+        values.put("quantity", quantity);
+        values.put("priceCharged", priceCharged);
+        values.put("notes", notes);
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        values.forEach((field, value) -> {
+            if (value != null) {
+                changes.put(field, deleted ? new FieldChange(value, null) : new FieldChange(null, value));
+            }
+        });
+        return changes;
+    }
+
+    private AppointmentLines changed(Long appointmentId) {
+        // The day board (coalesced) carries the lines
+        eventPublisher.publishEvent(new AppointmentChangedEvent(appointmentId));
+        return lineRepository.findLines(appointmentId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.entity.AuditEntry;
+import com.cabinet.dentaire.enums.AuditEntityType;
+import com.cabinet.dentaire.repository.AuditEntryRepository;
+import com.cabinet.dentaire.service.interfaces.IAuditService;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class AuditServiceImpl implements IAuditService {
+
+    private final AuditEntryRepository auditEntryRepository;
+
+    public AuditServiceImpl(AuditEntryRepository auditEntryRepository) {
+        this.auditEntryRepository = auditEntryRepository;
+    }
+
+    @Override
+    public List<AuditEntry> findHistory(AuditEntityType entityType, Long entityId, int limit) {
+        return auditEntryRepository.findByEntityTypeAndEntityIdOrderByChangedAtAscIdAsc(
+            entityType, entityId, PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,54 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.dto.BatchEntry;
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.entity.BaseEntity;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+// Shared multi-get logic for the services: one IN query per chunk instead of one query per id
+final class BatchLookups {
+
+    // Keeps IN lists (and their bind parameters) at a size the database plans well
+    static final int CHUNK_SIZE = 500;
+
+    static final int MAX_IDS = 1000;
+
+    private BatchLookups() {
+    }
+
+    static <T extends BaseEntity> BatchResult<T> lookup(List<Long> ids, Function<List<Long>, List<T>> findAllById) {
+        if (ids.size() > MAX_IDS) {
+            throw new InvalidRequestException("Too many ids in one batch (max " + MAX_IDS + "): " + ids.size());
+        }
+
+        // Duplicates are only queried once
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.remove(null);
+
+        HashMap<Long, T> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + CHUNK_SIZE, distinctIds.size()));
+            for (T entity : findAllById.apply(chunk)) {
+                found.put(entity.getId(), entity);
+            }
+        }
+
+        // Answer in request order, with an explicit entry for every miss
+        ArrayList<BatchEntry<T>> results = new ArrayList<>(ids.size());
+        LinkedHashSet<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            T entity = found.get(id);
+            results.add(new BatchEntry<>(id, entity != null, entity));
+            if (entity == null) {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(results, new ArrayList<>(missing));
+    }
+}
@@ -0,0 +1,241 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.dto.DuplicateScanReport;
+import com.cabinet.dentaire.entity.DuplicateSuggestion;
+import com.cabinet.dentaire.enums.DuplicateStatus;
+import com.cabinet.dentaire.event.PatientChangedEvent;
+import com.cabinet.dentaire.repository.DuplicateSuggestionRepository;
+import com.cabinet.dentaire.repository.PatientMatchJdbcRepository;
+import com.cabinet.dentaire.repository.PatientMatchJdbcRepository.StoredCandidate;
+import com.cabinet.dentaire.service.dedup.DuplicateScanner;
+import com.cabinet.dentaire.service.dedup.PatientMatching.Candidate;
+import com.cabinet.dentaire.service.interfaces.IDuplicateService;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@Transactional
+public class DuplicateServiceImpl implements IDuplicateService {
+
+    // ============== Duplicate Patients ==============
+    // Full scan: stream the table as Candidates, block + score on a dedicated
+    // fork/join pool, then write suggestions (and missing blocking keys) in short
+    // chunked transactions. On-create check: after commit, the new / changed patients
+    // are scored against the rows sharing a key with them, found through indexes.
+
+    private static final int WRITE_CHUNK_SIZE = 1000;
+
+    private final PatientMatchJdbcRepository matchRepository;
+    private final DuplicateSuggestionRepository suggestionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final DuplicateScanner scanner;
+    private final ForkJoinPool pool;
+    private final boolean checkOnChange;
+    private final int maxCheckCandidates;
+    // Clinics with a scan running: one scan per clinic, clinics scan independently
+    private final Set<String> scansRunning = ConcurrentHashMap.newKeySet();
+
+    public DuplicateServiceImpl(
+            PatientMatchJdbcRepository matchRepository,
+            DuplicateSuggestionRepository suggestionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${dentaire.patients.duplicates.threshold:0.70}") double threshold,
+            @Value("${dentaire.patients.duplicates.max-block-size:500}") int maxBlockSize,
+            @Value("${dentaire.patients.duplicates.window:50}") int window,
+            @Value("${dentaire.patients.duplicates.parallelism:0}") int parallelism,
+            @Value("${dentaire.patients.duplicates.check-on-change:true}") boolean checkOnChange,
+            @Value("${dentaire.patients.duplicates.max-check-candidates:2000}") int maxCheckCandidates) {
+        this.matchRepository = matchRepository;
+        this.suggestionRepository = suggestionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.scanner = new DuplicateScanner(threshold, maxBlockSize, window);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.checkOnChange = checkOnChange;
+        this.maxCheckCandidates = maxCheckCandidates;
+    }
+
+    // ============== Detection ==============
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DuplicateScanReport scan() {
+        String tenant = TenantContext.current();
+        if (!scansRunning.add(tenant)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A duplicate scan is already running");
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<Candidate> candidates = new ArrayList<>();
+            List<Candidate> staleKeys = new ArrayList<>();
+            readOnlyTransactionTemplate.executeWithoutResult(status -> matchRepository.forEachCandidate(stored -> {
+                candidates.add(stored.candidate());
+                if (stored.keysStale()) {
+                    staleKeys.add(stored.candidate());
+                }
+            }));
+
+            DuplicateScanner.Result result = scanner.scan(candidates, pool);
+
+            for (int from = 0; from < staleKeys.size(); from += WRITE_CHUNK_SIZE) {
+                List<Candidate> chunk = staleKeys.subList(from, Math.min(staleKeys.size(), from + WRITE_CHUNK_SIZE));
+                transactionTemplate.executeWithoutResult(status -> matchRepository.updateKeys(chunk));
+            }
+            List<DuplicateScanner.Suggestion> suggestions = result.suggestions();
+            for (int from = 0; from < suggestions.size(); from += WRITE_CHUNK_SIZE) {
+                List<DuplicateScanner.Suggestion> chunk =
+                    suggestions.subList(from, Math.min(suggestions.size(), from + WRITE_CHUNK_SIZE));
+                transactionTemplate.executeWithoutResult(status -> matchRepository.upsertSuggestions(chunk));
+            }
+
+            DuplicateScanReport report = new DuplicateScanReport(candidates.size(), result.blocks(),
+                result.windowedBlocks(), result.comparisons(), suggestions.size(), staleKeys.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            log.info("Duplicate scan: {} patients, {} blocks ({} windowed), {} comparisons, {} suggestions in {} ms",
+                report.getPatients(), report.getBlocks(), report.getWindowedBlocks(), report.getComparisons(),
+                report.getSuggestions(), report.getDurationMs());
+            return report;
+        } finally {
+            scansRunning.remove(tenant);
+        }
+    }
+
+    @Override
+    public List<DuplicateSuggestion> check(List<Long> patientIds) {
+        List<StoredCandidate> checked = matchRepository.findByIds(patientIds);
+        if (checked.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> phoneKeys = new HashSet<>();
+        Set<String> nameKeys = new HashSet<>();
+        Set<LocalDate> birthDates = new HashSet<>();
+        for (StoredCandidate stored : checked) {
+            Candidate candidate = stored.candidate();
+            if (candidate.phoneKey() != null) {
+                phoneKeys.add(candidate.phoneKey());
+            }
+            if (candidate.nameKey() != null) {
+                nameKeys.add(candidate.nameKey());
+            }
+            if (candidate.birthDate() != null) {
+                birthDates.add(candidate.birthDate());
+            }
+        }
+        List<Candidate> others = new ArrayList<>();
+        for (StoredCandidate stored : matchRepository.findSharingKeys(phoneKeys, nameKeys, birthDates, maxCheckCandidates)) {
+            others.add(stored.candidate());
+        }
+
+        // A pair of two checked patients is found from both sides, keep it once
+        Map<List<Long>, DuplicateScanner.Suggestion> suggestions = new LinkedHashMap<>();
+        for (StoredCandidate stored : checked) {
+            List<Candidate> sharingKey = new ArrayList<>();
+            List<String> keys = stored.candidate().blockKeys();
+            for (Candidate other : others) {
+                if (other.blockKeys().stream().anyMatch(keys::contains)) {
+                    sharingKey.add(other);
+                }
+            }
+            for (DuplicateScanner.Suggestion suggestion : scanner.scoreAgainst(stored.candidate(), sharingKey)) {
+                suggestions.putIfAbsent(List.of(suggestion.patientId(), suggestion.duplicateId()), suggestion);
+            }
+        }
+        if (suggestions.isEmpty()) {
+            return List.of();
+        }
+        matchRepository.upsertSuggestions(new ArrayList<>(suggestions.values()));
+
+        Map<Long, DuplicateSuggestion> found = new LinkedHashMap<>();
+        for (StoredCandidate stored : checked) {
+            for (DuplicateSuggestion suggestion : suggestionRepository.findByPatient(stored.candidate().id(), DuplicateStatus.PENDING)) {
+                if (suggestions.containsKey(List.of(suggestion.getPatientId(), suggestion.getDuplicateId()))) {
+                    found.putIfAbsent(suggestion.getId(), suggestion);
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    // After the patient transaction commits; a failing check must not fail the write
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (!checkOnChange) {
+            return;
+        }
+        try {
+            List<Long> existing = new ArrayList<>();
+            for (StoredCandidate stored : matchRepository.findByIds(event.patientIds())) {
+                existing.add(stored.candidate().id());
+            }
+            List<Long> deleted = new ArrayList<>(event.patientIds());
+            deleted.removeAll(existing);
+            if (!deleted.isEmpty()) {
+                matchRepository.deleteSuggestionsOf(deleted);
+            }
+            if (!existing.isEmpty()) {
+                List<DuplicateSuggestion> found = check(existing);
+                if (!found.isEmpty()) {
+                    log.info("Possible duplicates for patients {}: {} suggestions", existing, found.size());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Duplicate check failed for patients {}", event.patientIds(), e);
+        }
+    }
+
+    // ============== Review ==============
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DuplicateSuggestion> findSuggestions(DuplicateStatus status, int limit) {
+        return suggestionRepository.findByStatusOrderByScoreDescIdAsc(status, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DuplicateSuggestion> findSuggestionsOf(Long patientId, DuplicateStatus status) {
+        return suggestionRepository.findByPatient(patientId, status);
+    }
+
+    @Override
+    public DuplicateSuggestion updateStatus(Long id, DuplicateStatus status) {
+        DuplicateSuggestion suggestion = suggestionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Duplicate suggestion not found with id: " + id));
+        suggestion.setStatus(status);
+        return suggestionRepository.save(suggestion);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,330 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.entity.Invoice;
+import com.cabinet.dentaire.entity.InvoiceRun;
+import com.cabinet.dentaire.enums.InvoiceRunStatus;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.InvoiceJdbcRepository;
+import com.cabinet.dentaire.repository.InvoiceJdbcRepository.BillableRow;
+import com.cabinet.dentaire.repository.InvoiceRepository;
+import com.cabinet.dentaire.repository.InvoiceRunRepository;
+import com.cabinet.dentaire.service.interfaces.IInvoiceService;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.BillableLine;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.PatientInvoice;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.PatientLines;
+import com.cabinet.dentaire.service.pricing.TreatmentPriceSnapshot;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@Transactional
+public class InvoiceServiceImpl implements IInvoiceService {
+
+    // ============== Invoice Runs ==============
+    // A run bills one period: one streaming query reads every billable line ordered by
+    // patient, patients are grouped in batches, each batch is built on a dedicated
+    // fork/join pool (InvoiceBuilder) and written in one short transaction together
+    // with the run's checkpoint (last patient billed) and progress. A run interrupted
+    // by a crash or a failure resumes after its checkpoint: on startup for RUNNING
+    // runs, or when the period is started again. Runs execute one at a time on a
+    // background thread, and on a single instance (advisory lock held by the read).
+
+    private static final long RUN_LOCK_KEY = 0x696e766f696365L;
+
+    private final InvoiceRunRepository runRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceJdbcRepository invoiceJdbcRepository;
+    private final TreatmentPriceSnapshot priceSnapshot;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate batchTransactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final InvoiceBuilder builder;
+    private final ForkJoinPool pool;
+    private final ExecutorService executor;
+    private final int batchSize;
+    // (tenant, run id) queued or executing here
+    private final Set<List<Object>> activeRuns = ConcurrentHashMap.newKeySet();
+
+    public InvoiceServiceImpl(
+            InvoiceRunRepository runRepository,
+            InvoiceRepository invoiceRepository,
+            InvoiceJdbcRepository invoiceJdbcRepository,
+            TreatmentPriceSnapshot priceSnapshot,
+            TenantRegistry tenantRegistry,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${dentaire.invoices.batch-size:2000}") int batchSize,
+            @Value("${dentaire.invoices.parallelism:0}") int parallelism) {
+        this.runRepository = runRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceJdbcRepository = invoiceJdbcRepository;
+        this.priceSnapshot = priceSnapshot;
+        this.tenantRegistry = tenantRegistry;
+        // Batches commit on their own while the streaming read stays open
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.builder = new InvoiceBuilder(objectMapper);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "invoice-runs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public InvoiceRun startRun(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodEnd.isBefore(periodStart)) {
+            throw new InvalidRequestException("Billing period ends before it starts: " + periodStart + " - " + periodEnd);
+        }
+        // Appointments of a period still going on may yet be completed, and a period is billed once
+        if (!periodEnd.isBefore(LocalDate.now())) {
+            throw new InvalidRequestException("A billing period can only be invoiced once it is over: " + periodEnd);
+        }
+        InvoiceRun run = runRepository.findByPeriodStartAndPeriodEnd(periodStart, periodEnd)
+            .orElseGet(() -> createRun(periodStart, periodEnd));
+        if (run.getStatus() == InvoiceRunStatus.COMPLETED || isActive(run.getId())) {
+            return run;
+        }
+        run.setStatus(InvoiceRunStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run.setFinishedAt(null);
+        run.setLastError(null);
+        InvoiceRun savedRun = runRepository.save(run);
+        submitOnCommit(savedRun.getId());
+        return savedRun;
+    }
+
+    // Period unique: two concurrent starts end up on the same run
+    private InvoiceRun createRun(LocalDate periodStart, LocalDate periodEnd) {
+        try {
+            return runRepository.saveAndFlush(InvoiceRun.builder()
+                .periodStart(periodStart)
+                .periodEnd(periodEnd)
+                .status(InvoiceRunStatus.RUNNING)
+                .build());
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueViolations.isUniqueViolation(e)) {
+                throw e;
+            }
+            throw new RuntimeException("An invoice run was just started for " + periodStart + " - " + periodEnd);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<InvoiceRun> findRun(Long id) {
+        return runRepository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvoiceRun> findRuns() {
+        return runRepository.findAllByOrderByPeriodStartDescIdDesc();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Invoice> findInvoices(Long runId, Long afterPatientId, int limit) {
+        return invoiceRepository.findByRunIdAndPatientIdGreaterThanOrderByPatientIdAsc(
+            runId, afterPatientId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Invoice> findInvoicesOfPatient(Long patientId) {
+        return invoiceRepository.findByPatientIdOrderByPeriodStartDesc(patientId);
+    }
+
+    // Runs left RUNNING by a stopped or crashed instance
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void resumeInterruptedRuns() {
+        tenantRegistry.forEachTenant(() -> {
+            for (InvoiceRun run : runRepository.findByStatus(InvoiceRunStatus.RUNNING)) {
+                log.info("Resuming invoice run {} [{}] of {} - {} after patient {}", run.getId(),
+                    TenantContext.current(), run.getPeriodStart(), run.getPeriodEnd(), run.getLastPatientId());
+                submit(run.getId());
+            }
+        });
+    }
+
+    // ============== Execution ==============
+
+    private void submitOnCommit(Long runId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(runId);
+                }
+            });
+        } else {
+            submit(runId);
+        }
+    }
+
+    private void submit(Long runId) {
+        String tenant = TenantContext.current();
+        List<Object> key = List.of(tenant, runId);
+        if (!activeRuns.add(key)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                TenantContext.runAs(tenant, () -> execute(runId));
+            } finally {
+                activeRuns.remove(key);
+            }
+        });
+    }
+
+    private boolean isActive(Long runId) {
+        return activeRuns.contains(List.of(TenantContext.current(), runId));
+    }
+
+    private void execute(Long runId) {
+        long startedAt = System.nanoTime();
+        try {
+            Boolean executed = readOnlyTransactionTemplate.execute(status -> {
+                if (!invoiceJdbcRepository.tryLock(lockKey(TenantContext.current(), runId))) {
+                    log.info("Invoice run {} [{}] is executing on another instance", runId, TenantContext.current());
+                    return false;
+                }
+                InvoiceRun run = runRepository.findById(runId)
+                    .orElseThrow(() -> new RuntimeException("Invoice run not found with id: " + runId));
+                if (run.getStatus() != InvoiceRunStatus.RUNNING) {
+                    return false;
+                }
+                bill(run);
+                return true;
+            });
+            if (Boolean.TRUE.equals(executed)) {
+                InvoiceRun run = finish(runId, InvoiceRunStatus.COMPLETED, null);
+                log.info("Invoice run {} [{}] of {} - {}: {} patients, total {} in {} ms", runId, TenantContext.current(),
+                    run.getPeriodStart(), run.getPeriodEnd(), run.getPatientsDone(), run.getTotalAmount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            }
+        } catch (RuntimeException e) {
+            log.error("Invoice run {} [{}] failed, it resumes from its checkpoint when started again",
+                runId, TenantContext.current(), e);
+            String message = String.valueOf(e.getMessage());
+            finish(runId, InvoiceRunStatus.FAILED, message.length() <= 500 ? message : message.substring(0, 500));
+        }
+    }
+
+    // Inside the streaming read: rows of a patient are adjacent, a patient is never split across batches
+    private void bill(InvoiceRun run) {
+        long checkpoint = run.getLastPatientId();
+        int remaining = invoiceJdbcRepository.countPatients(run.getPeriodStart(), run.getPeriodEnd(), checkpoint);
+        batchTransactionTemplate.executeWithoutResult(status ->
+            runRepository.findById(run.getId()).ifPresent(stored -> stored.setPatientsTotal(run.getPatientsDone() + remaining)));
+
+        List<PatientLines> batch = new ArrayList<>(batchSize);
+        List<BillableLine> lines = new ArrayList<>();
+        Long[] currentPatient = {null};
+        invoiceJdbcRepository.forEachBillableRow(run.getPeriodStart(), run.getPeriodEnd(), checkpoint, row -> {
+            if (!row.patientId().equals(currentPatient[0])) {
+                if (currentPatient[0] != null) {
+                    batch.add(new PatientLines(currentPatient[0], List.copyOf(lines)));
+                    lines.clear();
+                    if (batch.size() >= batchSize) {
+                        writeBatch(run, batch);
+                        batch.clear();
+                    }
+                }
+                currentPatient[0] = row.patientId();
+            }
+            lines.add(billable(row));
+        });
+        if (currentPatient[0] != null) {
+            batch.add(new PatientLines(currentPatient[0], List.copyOf(lines)));
+            writeBatch(run, batch);
+        }
+    }
+
+    // Price charged, else the catalog price in effect at the appointment (lines written before prices were recorded)
+    private BillableLine billable(BillableRow row) {
+        BigDecimal unitPrice = row.priceCharged() != null
+            ? row.priceCharged()
+            : priceSnapshot.priceAt(row.treatmentId(), row.dateTime());
+        if (unitPrice == null) {
+            throw new IllegalStateException("No price for line " + row.lineId() + " of appointment " + row.appointmentId());
+        }
+        return new BillableLine(row.appointmentId(), row.dateTime(), row.lineId(), row.treatmentId(), row.code(),
+            row.name(), row.quantity(), unitPrice);
+    }
+
+    private void writeBatch(InvoiceRun run, List<PatientLines> batch) {
+        List<PatientInvoice> invoices = builder.build(batch, pool);
+        BigDecimal amount = BigDecimal.ZERO;
+        for (PatientInvoice invoice : invoices) {
+            amount = amount.add(invoice.total());
+        }
+        BigDecimal batchAmount = amount;
+        Long lastPatientId = invoices.get(invoices.size() - 1).patientId();
+        batchTransactionTemplate.executeWithoutResult(status -> {
+            invoiceJdbcRepository.insertAll(run.getId(), run.getPeriodStart(), run.getPeriodEnd(), invoices);
+            invoiceJdbcRepository.advance(run.getId(), lastPatientId, invoices.size(), batchAmount);
+        });
+    }
+
+    private InvoiceRun finish(Long runId, InvoiceRunStatus status, String error) {
+        return batchTransactionTemplate.execute(transaction -> {
+            InvoiceRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Invoice run not found with id: " + runId));
+            run.setStatus(status);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setLastError(error);
+            return run;
+        });
+    }
+
+    // Advisory locks are database-wide, not per schema: one key per clinic and run
+    private static long lockKey(String tenant, Long runId) {
+        long key = RUN_LOCK_KEY + runId;
+        return TenantContext.DEFAULT_TENANT.equals(tenant) ? key : key ^ ((long) tenant.hashCode() << 32);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.OutboxEventType;
+import com.cabinet.dentaire.repository.AppointmentBulkRepository;
+import com.cabinet.dentaire.repository.OutboxEventRepository;
+import com.cabinet.dentaire.service.interfaces.IOutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements IOutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // The caller holds the appointment's row lock (findByIdForUpdate): event ids of one
+    // appointment then follow its commit order, which is the order the relay publishes
+    @Override
+    public void recordAppointmentEvent(OutboxEventType eventType, Appointment appointment, AppointmentEnums previousStatus) {
+        outboxEventRepository.save(appointmentEvent(eventType, appointment.getId(), appointment.getPatient().getId(),
+            appointment.getDateTime(), appointment.getStatus(), previousStatus));
+    }
+
+    @Override
+    public void recordStatusTransitions(List<AppointmentBulkRepository.StatusTransition> transitions, AppointmentEnums status) {
+        List<OutboxEvent> events = new ArrayList<>(transitions.size());
+        for (AppointmentBulkRepository.StatusTransition transition : transitions) {
+            events.add(appointmentEvent(OutboxEventType.APPOINTMENT_STATUS_CHANGED, transition.appointmentId(),
+                transition.patientId(), transition.dateTime(), status, transition.previousStatus()));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent appointmentEvent(OutboxEventType eventType, Long appointmentId, Long patientId,
+                                         LocalDateTime dateTime, AppointmentEnums status, AppointmentEnums previousStatus) {
+        LinkedHashMap<String, Object> payload = new LinkedHashMap<>();
+        payload.put("appointmentId", appointmentId);
+        payload.put("patientId", patientId);
+        payload.put("dateTime", dateTime);
+        payload.put("status", status);
+        payload.put("previousStatus", previousStatus);
+        payload.put("occurredAt", LocalDateTime.now());
+
+        try {
+            return OutboxEvent.builder()
+                .aggregateType("Appointment")
+                .aggregateId(appointmentId)
+                .eventType(eventType)
+                .payload(objectMapper.writeValueAsString(payload))
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event for appointment " + appointmentId, e);
+        }
+    }
+}
@@ -1,36 +1,147 @@
 package com.cabinet.dentaire.service.impl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkPatientReport;
 import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.event.PatientChangedEvent;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.FieldProjectionRepository;
 import com.cabinet.dentaire.repository.PatientRepository;
+import com.cabinet.dentaire.service.dedup.PatientContactFilter;
 import com.cabinet.dentaire.service.interfaces.IPatientService;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
+import com.cabinet.dentaire.service.projection.FieldSelection;
 
 @Service
 @Transactional
 public class PatientServiceImpl implements IPatientService {
  
+    static final int MAX_BULK_PATIENTS = 1000;
+
     private final PatientRepository patientRepository;
+    private final ISyncService syncService;
+    private final PatientContactFilter contactFilter;
+    // Duplicate check after commit, see PatientChangedEvent
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldProjectionRepository projectionRepository;
 
-    public PatientServiceImpl(PatientRepository patientRepository) {
+    public PatientServiceImpl(
+            PatientRepository patientRepository,
+            ISyncService syncService,
+            PatientContactFilter contactFilter,
+            ApplicationEventPublisher eventPublisher,
+            FieldProjectionRepository projectionRepository) {
         this.patientRepository = patientRepository;
+        this.syncService = syncService;
+        this.contactFilter = contactFilter;
+        this.eventPublisher = eventPublisher;
+        this.projectionRepository = projectionRepository;
     }
 
 
+    // Email and phone uniqueness is enforced by the unique constraints: one INSERT
+    // (IDENTITY ids are inserted on save), a duplicate comes back as a violation
     @Override
     public Patient save(Patient patient) {
-        if (patient.getEmail() != null && existsByEmail(patient.getEmail())) {
-            throw new RuntimeException("Email already exists: " + patient.getEmail());
+        Patient savedPatient;
+        try {
+            savedPatient = patientRepository.save(patient);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateContact(e, patient);
+        }
+        contactFilter.addOnCommit(savedPatient.getEmail(), savedPatient.getPhone());
+        eventPublisher.publishEvent(new PatientChangedEvent(savedPatient.getId()));
+        return savedPatient;
+    }
+
+    @Override
+    public BulkPatientReport saveAll(List<Patient> patients) {
+        if (patients.size() > MAX_BULK_PATIENTS) {
+            throw new InvalidRequestException("Too many patients in one batch (max " + MAX_BULK_PATIENTS + "): " + patients.size());
         }
-        if (existsByPhone(patient.getPhone())) {
-            throw new RuntimeException("Phone already exists: " + patient.getPhone());
+        if (contactFilter.isSaturated()) {
+            contactFilter.rebuildInBackground();
         }
-        return patientRepository.save(patient);
+
+        // Duplicates inside the batch, then the Bloom pre-screen: only the contacts the
+        // filter may have seen are checked, with one IN query per column
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchPhones = new HashSet<>();
+        Map<Integer, String> rejections = new TreeMap<>();
+        Set<String> suspectEmails = new HashSet<>();
+        Set<String> suspectPhones = new HashSet<>();
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            if (patient.getEmail() != null && !batchEmails.add(patient.getEmail())) {
+                rejections.put(i, "Email already exists: " + patient.getEmail());
+            } else if (!batchPhones.add(patient.getPhone())) {
+                rejections.put(i, "Phone already exists: " + patient.getPhone());
+            }
+            if (contactFilter.mightContainEmail(patient.getEmail())) {
+                suspectEmails.add(patient.getEmail());
+            }
+            if (contactFilter.mightContainPhone(patient.getPhone())) {
+                suspectPhones.add(patient.getPhone());
+            }
+        }
+        Set<String> takenEmails = suspectEmails.isEmpty()
+            ? Set.of()
+            : new HashSet<>(patientRepository.findExistingEmails(suspectEmails));
+        Set<String> takenPhones = suspectPhones.isEmpty()
+            ? Set.of()
+            : new HashSet<>(patientRepository.findExistingPhones(suspectPhones));
+
+        List<Patient> accepted = new ArrayList<>(patients.size());
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            if (rejections.containsKey(i)) {
+                continue;
+            }
+            if (patient.getEmail() != null && takenEmails.contains(patient.getEmail())) {
+                rejections.put(i, "Email already exists: " + patient.getEmail());
+            } else if (takenPhones.contains(patient.getPhone())) {
+                rejections.put(i, "Phone already exists: " + patient.getPhone());
+            } else {
+                accepted.add(patient);
+            }
+        }
+
+        // A concurrent create can still take a contact in between: the constraint
+        // rejects it and the whole batch rolls back
+        List<Patient> savedPatients;
+        try {
+            savedPatients = patientRepository.saveAll(accepted);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Contact taken concurrently, batch rolled back: "
+                + UniqueViolations.constraintName(e), e);
+        }
+        List<Long> savedIds = new ArrayList<>(savedPatients.size());
+        for (Patient savedPatient : savedPatients) {
+            contactFilter.addOnCommit(savedPatient.getEmail(), savedPatient.getPhone());
+            savedIds.add(savedPatient.getId());
+        }
+        if (!savedIds.isEmpty()) {
+            eventPublisher.publishEvent(new PatientChangedEvent(savedIds));
+        }
+
+        List<BulkPatientReport.Rejection> rejected = new ArrayList<>(rejections.size());
+        rejections.forEach((index, reason) -> rejected.add(new BulkPatientReport.Rejection(index, reason)));
+        return new BulkPatientReport(savedPatients, rejected, suspectEmails.size() + suspectPhones.size());
     }
 
     @Override
@@ -47,6 +158,12 @@ public class PatientServiceImpl implements IPatientService {
         return patients;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResult<Patient> findAllByIds(List<Long> ids) {
+        return BatchLookups.lookup(ids, patientRepository::findAllById);
+    }
+
     @Override
     public Patient update(Long id, Patient patientDetails) {
         Patient existingPatient = patientRepository.findById(id)
@@ -58,15 +175,31 @@ public class PatientServiceImpl implements IPatientService {
         existingPatient.setBirthDate(patientDetails.getBirthDate());
         existingPatient.setAddress(patientDetails.getAddress());
 
-        if (patientDetails.getEmail() != null 
-            && !patientDetails.getEmail().equals(existingPatient.getEmail())) {
-            if (existsByEmail(patientDetails.getEmail())) {
-                throw new RuntimeException("Email already exists: " + patientDetails.getEmail());
-            }
+        if (patientDetails.getEmail() != null) {
             existingPatient.setEmail(patientDetails.getEmail());
         }
 
-        return patientRepository.save(existingPatient);
+        // Flushed here so a taken email / phone is reported as such, not at commit
+        Patient savedPatient;
+        try {
+            savedPatient = patientRepository.saveAndFlush(existingPatient);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateContact(e, existingPatient);
+        }
+        contactFilter.addOnCommit(savedPatient.getEmail(), savedPatient.getPhone());
+        eventPublisher.publishEvent(new PatientChangedEvent(savedPatient.getId()));
+        return savedPatient;
+    }
+
+    // The patients table has two unique constraints: uk_patients_phone and the one on email
+    private RuntimeException duplicateContact(DataIntegrityViolationException e, Patient patient) {
+        if (!UniqueViolations.isUniqueViolation(e)) {
+            return e;
+        }
+        if (UniqueViolations.constraintName(e).contains("phone")) {
+            return new RuntimeException("Phone already exists: " + patient.getPhone());
+        }
+        return new RuntimeException("Email already exists: " + patient.getEmail());
     }
 
     @Override
@@ -75,6 +208,8 @@ public class PatientServiceImpl implements IPatientService {
             throw new RuntimeException("Patient not found with id: " + id);
         }
         patientRepository.deleteById(id);
+        syncService.recordDeletion(SyncEntityType.PATIENT, id);
+        eventPublisher.publishEvent(new PatientChangedEvent(id));
     }
 
 
@@ -100,6 +235,29 @@ public class PatientServiceImpl implements IPatientService {
         return results;
     }
 
+    // ============== Sparse Reads ==============
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(Long id, FieldSelection selection) {
+        Specification<Patient> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return projectionRepository.find(selection, byId, "id").stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(FieldSelection selection) {
+        return projectionRepository.find(selection, null, "id");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchByName(String name, FieldSelection selection) {
+        Specification<Patient> byName = FieldProjectionRepository.<Patient>containsIgnoreCase("firstName", name)
+            .or(FieldProjectionRepository.containsIgnoreCase("lastName", name));
+        return projectionRepository.find(selection, byName, "id");
+    }
+
 
     @Override
     @Transactional(readOnly = true)
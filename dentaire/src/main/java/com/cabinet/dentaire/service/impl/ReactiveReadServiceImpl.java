@@ -0,0 +1,52 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.repository.ReactiveReadRepository;
+import com.cabinet.dentaire.service.interfaces.IReactiveReadService;
+import com.cabinet.dentaire.service.interfaces.IWaitingQueueService;
+
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Service
+public class ReactiveReadServiceImpl implements IReactiveReadService {
+
+    private final ReactiveReadRepository reactiveRepository;
+    private final IWaitingQueueService waitingQueueService;
+
+    public ReactiveReadServiceImpl(ReactiveReadRepository reactiveRepository, IWaitingQueueService waitingQueueService) {
+        this.reactiveRepository = reactiveRepository;
+        this.waitingQueueService = waitingQueueService;
+    }
+
+    @Override
+    public Flux<Appointment> findTodaysAppointments() {
+        // Evaluated per subscription, not when the Flux is assembled
+        return Flux.defer(() -> {
+            LocalDate today = LocalDate.now();
+            return reactiveRepository.findAppointmentsBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX));
+        });
+    }
+
+    @Override
+    public Flux<Appointment> findByPatientId(Long patientId) {
+        return reactiveRepository.findAppointmentsByPatientId(patientId);
+    }
+
+    @Override
+    public Flux<Treatment> findAllTreatments() {
+        return reactiveRepository.findTreatments();
+    }
+
+    @Override
+    public Flux<Patient> getWaitingList() {
+        // In memory already: a snapshot of the queue, nothing blocks
+        return Flux.defer(() -> Flux.fromIterable(waitingQueueService.getWaitingList()));
+    }
+}
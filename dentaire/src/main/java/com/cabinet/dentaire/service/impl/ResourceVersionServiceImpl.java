@@ -0,0 +1,133 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.dto.ResourceVersion;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.repository.ResourceVersionJdbcRepository;
+import com.cabinet.dentaire.service.interfaces.IResourceVersionService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class ResourceVersionServiceImpl implements IResourceVersionService {
+
+    private final ResourceVersionJdbcRepository versionRepository;
+
+    public ResourceVersionServiceImpl(ResourceVersionJdbcRepository versionRepository) {
+        this.versionRepository = versionRepository;
+    }
+
+    // ============== Patients ==============
+
+    @Override
+    public ResourceVersion patients() {
+        return versionRepository.patients();
+    }
+
+    @Override
+    public ResourceVersion patient(Long id) {
+        return versionRepository.patient(id);
+    }
+
+    @Override
+    public ResourceVersion patientsByIds(List<Long> ids) {
+        return ids.isEmpty() ? new ResourceVersion(0, null) : versionRepository.patientsByIds(ids);
+    }
+
+    @Override
+    public ResourceVersion patientByEmail(String email) {
+        return versionRepository.patientByEmail(email);
+    }
+
+    @Override
+    public ResourceVersion patientByPhone(String phone) {
+        return versionRepository.patientByPhone(phone);
+    }
+
+    @Override
+    public ResourceVersion patientsByName(String name) {
+        return versionRepository.patientsByName(name);
+    }
+
+    // ============== Treatments ==============
+
+    @Override
+    public ResourceVersion treatments() {
+        return versionRepository.treatments();
+    }
+
+    @Override
+    public ResourceVersion treatment(Long id) {
+        return versionRepository.treatment(id);
+    }
+
+    @Override
+    public ResourceVersion treatmentsByIds(List<Long> ids) {
+        return ids.isEmpty() ? new ResourceVersion(0, null) : versionRepository.treatmentsByIds(ids);
+    }
+
+    @Override
+    public ResourceVersion treatmentByCode(String code) {
+        return versionRepository.treatmentByCode(code);
+    }
+
+    @Override
+    public ResourceVersion treatmentsByName(String name) {
+        return versionRepository.treatmentsByName(name);
+    }
+
+    @Override
+    public ResourceVersion treatmentsByPriceRange(BigDecimal min, BigDecimal max) {
+        return versionRepository.treatmentsByPriceRange(min, max);
+    }
+
+    // ============== Appointments ==============
+
+    @Override
+    public ResourceVersion appointments(boolean withTreatments) {
+        return versionRepository.appointments(withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointment(Long id, boolean withTreatments) {
+        return versionRepository.appointment(id, withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointmentsByIds(List<Long> ids, boolean withTreatments) {
+        return ids.isEmpty() ? new ResourceVersion(0, null) : versionRepository.appointmentsByIds(ids, withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointmentsByStatus(AppointmentEnums status, boolean withTreatments) {
+        return versionRepository.appointmentsByStatus(status, withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointmentsByPatient(Long patientId, boolean withTreatments) {
+        return versionRepository.appointmentsByPatient(patientId, null, withTreatments);
+    }
+
+    // Changes by itself as appointments pass (the count drops)
+    @Override
+    public ResourceVersion upcomingAppointmentsByPatient(Long patientId, boolean withTreatments) {
+        return versionRepository.appointmentsByPatient(patientId, LocalDateTime.now(), withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointmentsOn(LocalDate date, boolean withTreatments) {
+        return versionRepository.appointmentsBetween(date.atStartOfDay(), date.atTime(LocalTime.MAX), withTreatments);
+    }
+
+    @Override
+    public ResourceVersion appointmentsBetween(LocalDateTime start, LocalDateTime end, boolean withTreatments) {
+        return versionRepository.appointmentsBetween(start, end, withTreatments);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.cabinet.dentaire.dto.SearchHit;
+import com.cabinet.dentaire.enums.SearchHitType;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.NoteSearchJdbcRepository.Position;
+
+// Opaque search cursor: the (rank, type, id) of the last hit of a page, plus a
+// fingerprint of the query and filters so a cursor is not replayed on another search.
+// The rank travels as its float bits, keyset comparisons stay exact.
+final class SearchCursor {
+
+    private static final String VERSION = "v1";
+
+    private SearchCursor() {
+    }
+
+    static String encode(SearchHit last, int fingerprint) {
+        String raw = VERSION + ';' + Integer.toHexString(Float.floatToIntBits(last.getRank()))
+            + ';' + last.getType().ordinal() + ';' + last.getId() + ';' + Integer.toHexString(fingerprint);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null for the first page
+    static Position decode(String token, int fingerprint) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(";");
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported search cursor");
+            }
+            if (Integer.parseUnsignedInt(parts[4], 16) != fingerprint) {
+                throw new IllegalArgumentException("Search cursor belongs to another search");
+            }
+            return new Position(
+                Float.intBitsToFloat(Integer.parseUnsignedInt(parts[1], 16)),
+                SearchHitType.values()[Integer.parseInt(parts[2])],
+                Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid search cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.dto.SearchHit;
+import com.cabinet.dentaire.dto.SearchPage;
+import com.cabinet.dentaire.enums.SearchHitType;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.NoteSearchJdbcRepository;
+import com.cabinet.dentaire.service.interfaces.ISearchService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Transactional(readOnly = true)
+public class SearchServiceImpl implements ISearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+
+    static final int MAX_LIMIT = 100;
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final NoteSearchJdbcRepository searchRepository;
+
+    public SearchServiceImpl(NoteSearchJdbcRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    @Override
+    public SearchPage search(String query, Set<SearchHitType> types, Long patientId,
+                             LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidRequestException("Search query too long (max " + MAX_QUERY_LENGTH + " characters)");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Set<SearchHitType> searchedTypes = types == null || types.isEmpty()
+            ? EnumSet.allOf(SearchHitType.class)
+            : EnumSet.copyOf(types);
+
+        int fingerprint = Objects.hash(query.strip(), searchedTypes, patientId, from, to);
+        NoteSearchJdbcRepository.Position after = SearchCursor.decode(cursor, fingerprint);
+
+        // One extra row tells whether there is a next page
+        List<SearchHit> hits = searchRepository.search(query.strip(), searchedTypes, patientId, from, to, after, pageSize + 1);
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            nextCursor = SearchCursor.encode(hits.get(pageSize - 1), fingerprint);
+        }
+        return new SearchPage(hits, nextCursor);
+    }
+}
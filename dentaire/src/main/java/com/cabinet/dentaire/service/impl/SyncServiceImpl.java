@@ -0,0 +1,173 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cabinet.dentaire.dto.SyncAppointment;
+import com.cabinet.dentaire.dto.SyncAppointmentLine;
+import com.cabinet.dentaire.dto.SyncChanges;
+import com.cabinet.dentaire.dto.SyncDeletion;
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.AppointmentTreatment;
+import com.cabinet.dentaire.entity.BaseEntity;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.SyncTombstone;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.AppointmentRepository;
+import com.cabinet.dentaire.repository.AppointmentTreatmentRepository;
+import com.cabinet.dentaire.repository.PatientRepository;
+import com.cabinet.dentaire.repository.SyncTombstoneRepository;
+import com.cabinet.dentaire.repository.TreatmentRepository;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
+
+@Service
+@Transactional
+public class SyncServiceImpl implements ISyncService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final PatientRepository patientRepository;
+    private final TreatmentRepository treatmentRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+
+    // updatedAt is stamped by the writing JVM at flush / statement time, before commit:
+    // rows younger than this may still be invisible to us while committing, so they are
+    // left for the next sync. A heuristic, not a guarantee: a transaction that commits
+    // more than the lag after stamping its rows (a long lock wait, a slow commit) or an
+    // instance whose clock runs behind can land rows behind a watermark already handed
+    // out, and those rows are skipped until they change again. Size the lag above the
+    // longest write transaction plus the clock skew between instances.
+    private final Duration safetyLag;
+
+    public SyncServiceImpl(
+            PatientRepository patientRepository,
+            TreatmentRepository treatmentRepository,
+            AppointmentRepository appointmentRepository,
+            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            SyncTombstoneRepository syncTombstoneRepository,
+            @Value("${dentaire.sync.safety-lag-ms:2000}") long safetyLagMs) {
+        this.patientRepository = patientRepository;
+        this.treatmentRepository = treatmentRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.safetyLag = Duration.ofMillis(safetyLagMs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncChanges findChangesSince(String token, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        SyncWatermark watermark = SyncWatermark.decode(token);
+        LocalDateTime until = LocalDateTime.now().minus(safetyLag);
+        PageRequest page = PageRequest.of(0, limit);
+
+        int slot = SyncEntityType.PATIENT.ordinal();
+        List<Patient> patients = patientRepository.findChangedSince(
+            watermark.since(slot), watermark.afterId(slot), until, page);
+        advance(watermark, slot, patients);
+
+        slot = SyncEntityType.TREATMENT.ordinal();
+        List<Treatment> treatments = treatmentRepository.findChangedSince(
+            watermark.since(slot), watermark.afterId(slot), until, page);
+        advance(watermark, slot, treatments);
+
+        slot = SyncEntityType.APPOINTMENT.ordinal();
+        List<Appointment> appointments = appointmentRepository.findChangedSince(
+            watermark.since(slot), watermark.afterId(slot), until, page);
+        advance(watermark, slot, appointments);
+
+        slot = SyncEntityType.APPOINTMENT_TREATMENT.ordinal();
+        List<AppointmentTreatment> lines = appointmentTreatmentRepository.findChangedSince(
+            watermark.since(slot), watermark.afterId(slot), until, page);
+        advance(watermark, slot, lines);
+
+        slot = SyncWatermark.tombstoneSlot();
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findChangedSince(
+            watermark.since(slot), watermark.afterId(slot), until, page);
+        advance(watermark, slot, tombstones);
+
+        boolean hasMore = patients.size() == limit
+            || treatments.size() == limit
+            || appointments.size() == limit
+            || lines.size() == limit
+            || tombstones.size() == limit;
+
+        return new SyncChanges(
+            new ArrayList<>(patients),
+            new ArrayList<>(treatments),
+            toSyncAppointments(appointments),
+            toSyncLines(lines),
+            toDeletions(tombstones),
+            watermark.encode(),
+            hasMore
+        );
+    }
+
+    @Override
+    public void recordDeletion(SyncEntityType entityType, Long entityId) {
+        syncTombstoneRepository.save(SyncTombstone.builder()
+            .entityType(entityType)
+            .entityId(entityId)
+            .build());
+    }
+
+    private void advance(SyncWatermark watermark, int slot, List<? extends BaseEntity> page) {
+        if (!page.isEmpty()) {
+            watermark.advance(slot, page.get(page.size() - 1));
+        }
+    }
+
+    private List<SyncAppointment> toSyncAppointments(List<Appointment> appointments) {
+        ArrayList<SyncAppointment> result = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            result.add(new SyncAppointment(
+                appointment.getId(),
+                appointment.getPatient().getId(),
+                appointment.getDateTime(),
+                appointment.getStatus(),
+                appointment.getNotes(),
+                appointment.getUpdatedAt()
+            ));
+        }
+        return result;
+    }
+
+    private List<SyncAppointmentLine> toSyncLines(List<AppointmentTreatment> lines) {
+        ArrayList<SyncAppointmentLine> result = new ArrayList<>(lines.size());
+        for (AppointmentTreatment line : lines) {
+            // getId() on the lazy references does not load them
+            result.add(new SyncAppointmentLine(
+                line.getId(),
+                line.getAppointment().getId(),
+                line.getTreatment().getId(),
+                line.getQuantity(),
+                line.getPriceCharged(),
+                line.getNotes(),
+                line.getUpdatedAt()
+            ));
+        }
+        return result;
+    }
+
+    private List<SyncDeletion> toDeletions(List<SyncTombstone> tombstones) {
+        ArrayList<SyncDeletion> result = new ArrayList<>(tombstones.size());
+        for (SyncTombstone tombstone : tombstones) {
+            result.add(new SyncDeletion(tombstone.getEntityType(), tombstone.getEntityId(), tombstone.getUpdatedAt()));
+        }
+        return result;
+    }
+}
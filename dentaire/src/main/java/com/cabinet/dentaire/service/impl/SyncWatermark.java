@@ -0,0 +1,83 @@
+package com.cabinet.dentaire.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.cabinet.dentaire.entity.BaseEntity;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+
+// Opaque sync token: one (updatedAt, id) keyset cursor per entity kind plus one for deletions
+final class SyncWatermark {
+
+    private static final String VERSION = "v1";
+
+    // Oldest cursor, timestamp columns cannot hold LocalDateTime.MIN
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Indexed by SyncEntityType ordinal, the last slot is the tombstones cursor
+    private final LocalDateTime[] since;
+    private final long[] afterId;
+
+    private SyncWatermark(LocalDateTime[] since, long[] afterId) {
+        this.since = since;
+        this.afterId = afterId;
+    }
+
+    static SyncWatermark decode(String token) {
+        int slots = SyncEntityType.values().length + 1;
+        LocalDateTime[] since = new LocalDateTime[slots];
+        long[] afterId = new long[slots];
+        if (token == null || token.isBlank()) {
+            Arrays.fill(since, ORIGIN);
+            return new SyncWatermark(since, afterId);
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(";");
+            if (!VERSION.equals(parts[0]) || parts.length != slots + 1) {
+                throw new IllegalArgumentException("Unsupported sync token");
+            }
+            for (int i = 0; i < slots; i++) {
+                String[] cursor = parts[i + 1].split(",");
+                since[i] = ORIGIN.plus(Long.parseLong(cursor[0]), ChronoUnit.MICROS);
+                afterId[i] = Long.parseLong(cursor[1]);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid sync token: " + token, e);
+        }
+        return new SyncWatermark(since, afterId);
+    }
+
+    String encode() {
+        StringBuilder raw = new StringBuilder(VERSION);
+        for (int i = 0; i < since.length; i++) {
+            raw.append(';')
+                .append(ChronoUnit.MICROS.between(ORIGIN, since[i]))
+                .append(',')
+                .append(afterId[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime since(int slot) {
+        return since[slot];
+    }
+
+    long afterId(int slot) {
+        return afterId[slot];
+    }
+
+    // Move the cursor past the last row of a page
+    void advance(int slot, BaseEntity last) {
+        since[slot] = last.getUpdatedAt().truncatedTo(ChronoUnit.MICROS);
+        afterId[slot] = last.getId();
+    }
+
+    static int tombstoneSlot() {
+        return SyncEntityType.values().length;
+    }
+}
@@ -1,14 +1,37 @@
 package com.cabinet.dentaire.service.impl;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.TreatmentUsage;
+import com.cabinet.dentaire.dto.TreatmentUsageEstimate;
 import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.entity.TreatmentPrice;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.event.TreatmentChangedEvent;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+import com.cabinet.dentaire.repository.AppointmentTreatmentRepository;
+import com.cabinet.dentaire.repository.FieldProjectionRepository;
+import com.cabinet.dentaire.repository.TreatmentPriceRepository;
 import com.cabinet.dentaire.repository.TreatmentRepository;
+import com.cabinet.dentaire.service.analytics.SpaceSaving;
+import com.cabinet.dentaire.service.analytics.TreatmentUsageTracker;
+import com.cabinet.dentaire.service.coalescing.Coalesced;
+import com.cabinet.dentaire.service.interfaces.ISyncService;
 import com.cabinet.dentaire.service.interfaces.ITreatmentService;
+import com.cabinet.dentaire.service.pricing.TreatmentPriceSnapshot;
+import com.cabinet.dentaire.service.projection.FieldSelection;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,18 +42,47 @@ import java.util.Optional;
 public class TreatmentServiceImpl implements ITreatmentService {
 
     private final TreatmentRepository treatmentRepository;
+    private final TreatmentPriceRepository treatmentPriceRepository;
+    private final TreatmentPriceSnapshot priceSnapshot;
+    private final AppointmentTreatmentRepository appointmentTreatmentRepository;
+    private final ISyncService syncService;
+    private final TreatmentUsageTracker usageTracker;
+    // Price snapshot and catalog caches drop their copy after commit, see TreatmentChangedEvent
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldProjectionRepository projectionRepository;
 
-    public TreatmentServiceImpl(TreatmentRepository treatmentRepository) {
+    public TreatmentServiceImpl(
+            TreatmentRepository treatmentRepository,
+            TreatmentPriceRepository treatmentPriceRepository,
+            TreatmentPriceSnapshot priceSnapshot,
+            AppointmentTreatmentRepository appointmentTreatmentRepository,
+            ISyncService syncService,
+            TreatmentUsageTracker usageTracker,
+            ApplicationEventPublisher eventPublisher,
+            FieldProjectionRepository projectionRepository) {
         this.treatmentRepository = treatmentRepository;
+        this.treatmentPriceRepository = treatmentPriceRepository;
+        this.priceSnapshot = priceSnapshot;
+        this.appointmentTreatmentRepository = appointmentTreatmentRepository;
+        this.syncService = syncService;
+        this.usageTracker = usageTracker;
+        this.eventPublisher = eventPublisher;
+        this.projectionRepository = projectionRepository;
     }
 
 
+    // Code uniqueness is enforced by uk_treatments_code: one INSERT, no exists query
     @Override
     public Treatment save(Treatment treatment) {
-        if (treatment.getCode() != null && existsByCode(treatment.getCode())) {
-            throw new RuntimeException("Treatment code already exists: " + treatment.getCode());
+        Treatment savedTreatment;
+        try {
+            savedTreatment = treatmentRepository.save(treatment);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateCode(e, treatment);
         }
-        return treatmentRepository.save(treatment);
+        recordPrice(savedTreatment.getId(), savedTreatment.getPrice(), LocalDateTime.now());
+        eventPublisher.publishEvent(new TreatmentChangedEvent(savedTreatment.getId()));
+        return savedTreatment;
     }
 
     @Override
@@ -40,30 +92,71 @@ public class TreatmentServiceImpl implements ITreatmentService {
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public List<Treatment> findAll() {
         ArrayList<Treatment> treatments = new ArrayList<>(treatmentRepository.findAll());
         return treatments;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResult<Treatment> findAllByIds(List<Long> ids) {
+        return BatchLookups.lookup(ids, treatmentRepository::findAllById);
+    }
+
     @Override
     public Treatment update(Long id, Treatment treatmentDetails) {
         Treatment existingTreatment = treatmentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Treatment not found with id: " + id));
 
+        // A new price applies from now on, what was charged before keeps its price in the history
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal currentPrice = priceSnapshot.priceAt(id, now);
+        if (currentPrice == null || currentPrice.compareTo(treatmentDetails.getPrice()) != 0) {
+            ensureHistory(existingTreatment);
+            recordPrice(id, treatmentDetails.getPrice(), now);
+        }
+
         existingTreatment.setName(treatmentDetails.getName());
         existingTreatment.setDescription(treatmentDetails.getDescription());
         existingTreatment.setPrice(treatmentDetails.getPrice());
 
-        if (treatmentDetails.getCode() != null 
-            && !treatmentDetails.getCode().equals(existingTreatment.getCode())) {
-            if (existsByCode(treatmentDetails.getCode())) {
-                throw new RuntimeException("Treatment code already exists: " + treatmentDetails.getCode());
-            }
+        if (treatmentDetails.getCode() != null) {
             existingTreatment.setCode(treatmentDetails.getCode());
         }
 
-        return treatmentRepository.save(existingTreatment);
+        Treatment savedTreatment;
+        try {
+            savedTreatment = treatmentRepository.saveAndFlush(existingTreatment);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateCode(e, existingTreatment);
+        }
+        eventPublisher.publishEvent(new TreatmentChangedEvent(savedTreatment.getId()));
+        return savedTreatment;
+    }
+
+    // Treatments created before the history existed: their catalog price becomes the first entry
+    private void ensureHistory(Treatment treatment) {
+        if (!treatmentPriceRepository.existsByTreatmentId(treatment.getId())) {
+            LocalDateTime since = treatment.getCeatedAt() != null ? treatment.getCeatedAt() : LocalDateTime.now();
+            recordPrice(treatment.getId(), treatment.getPrice(), since);
+        }
+    }
+
+    private TreatmentPrice recordPrice(Long treatmentId, BigDecimal price, LocalDateTime effectiveFrom) {
+        return treatmentPriceRepository.save(TreatmentPrice.builder()
+            .treatmentId(treatmentId)
+            .price(price)
+            .effectiveFrom(effectiveFrom)
+            .build());
+    }
+
+    private RuntimeException duplicateCode(DataIntegrityViolationException e, Treatment treatment) {
+        if (!UniqueViolations.isUniqueViolation(e)) {
+            return e;
+        }
+        return new RuntimeException("Treatment code already exists: " + treatment.getCode());
     }
 
     @Override
@@ -71,7 +164,10 @@ public class TreatmentServiceImpl implements ITreatmentService {
         if (!treatmentRepository.existsById(id)) {
             throw new RuntimeException("Treatment not found with id: " + id);
         }
+        treatmentPriceRepository.deleteByTreatmentId(id);
         treatmentRepository.deleteById(id);
+        syncService.recordDeletion(SyncEntityType.TREATMENT, id);
+        eventPublisher.publishEvent(new TreatmentChangedEvent(id));
     }
 
 
@@ -90,6 +186,27 @@ public class TreatmentServiceImpl implements ITreatmentService {
         return results;
     }
 
+    // ============== Sparse Reads ==============
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(Long id, FieldSelection selection) {
+        Specification<Treatment> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return projectionRepository.find(selection, byId, "id").stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(FieldSelection selection) {
+        return projectionRepository.find(selection, null, "id");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchByName(String name, FieldSelection selection) {
+        return projectionRepository.find(selection, FieldProjectionRepository.containsIgnoreCase("name", name), "id");
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Treatment> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
@@ -101,6 +218,7 @@ public class TreatmentServiceImpl implements ITreatmentService {
 
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public Map<String, Treatment> getAllTreatmentsAsMap() {
         HashMap<String, Treatment> treatmentMap = new HashMap<>();
@@ -115,22 +233,124 @@ public class TreatmentServiceImpl implements ITreatmentService {
         return treatmentMap;
     }
 
+    // From the snapshot index: no query once the clinic's catalog is loaded
     @Override
     @Transactional(readOnly = true)
-    public Map<String, BigDecimal> getTreatmentPriceMap() {
+    public Map<String, BigDecimal> getTreatmentPriceMap(LocalDateTime asOf) {
+        return priceSnapshot.pricesOfCodesAt(asOf != null ? asOf : LocalDateTime.now());
+    }
 
-        HashMap<String, BigDecimal> priceMap = new HashMap<>();
-        
-        List<Treatment> treatments = treatmentRepository.findAll();
-        for (Treatment treatment : treatments) {
-            if (treatment.getCode() != null) {
-                priceMap.put(treatment.getCode(), treatment.getPrice());
+    // ============== Price History ==============
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TreatmentPrice> getPriceHistory(Long treatmentId) {
+        if (!treatmentRepository.existsById(treatmentId)) {
+            throw new RuntimeException("Treatment not found with id: " + treatmentId);
+        }
+        return treatmentPriceRepository.findByTreatmentIdOrderByEffectiveFromAsc(treatmentId);
+    }
+
+    // The past is not rewritten: only changes taking effect later can be scheduled
+    @Override
+    public TreatmentPrice schedulePrice(Long treatmentId, BigDecimal price, LocalDateTime effectiveFrom) {
+        Treatment treatment = treatmentRepository.findById(treatmentId)
+            .orElseThrow(() -> new RuntimeException("Treatment not found with id: " + treatmentId));
+        if (!effectiveFrom.isAfter(LocalDateTime.now())) {
+            throw new InvalidRequestException("A scheduled price must take effect in the future: " + effectiveFrom);
+        }
+        ensureHistory(treatment);
+        TreatmentPrice scheduled;
+        try {
+            scheduled = treatmentPriceRepository.saveAndFlush(TreatmentPrice.builder()
+                .treatmentId(treatmentId)
+                .price(price)
+                .effectiveFrom(effectiveFrom)
+                .build());
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueViolations.isUniqueViolation(e)) {
+                throw e;
             }
+            throw new RuntimeException("A price change already takes effect at " + effectiveFrom);
         }
-        
-        return priceMap;
+        eventPublisher.publishEvent(new TreatmentChangedEvent(treatmentId));
+        return scheduled;
+    }
+
+    @Override
+    public void cancelScheduledPrice(Long treatmentId, Long priceId) {
+        TreatmentPrice scheduled = treatmentPriceRepository.findById(priceId)
+            .filter(entry -> entry.getTreatmentId().equals(treatmentId))
+            .orElseThrow(() -> new RuntimeException("Price change not found with id: " + priceId));
+        if (!scheduled.getEffectiveFrom().isAfter(LocalDateTime.now())) {
+            throw new InvalidRequestException("Price change " + priceId + " is already in effect");
+        }
+        treatmentPriceRepository.delete(scheduled);
+        eventPublisher.publishEvent(new TreatmentChangedEvent(treatmentId));
     }
 
+    // Lines are priced from the history; this keeps the price column (searches, exports,
+    // sync) in step once a scheduled change comes into effect
+    @Override
+    public int activateDuePrices() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stale = priceSnapshot.staleCatalogPrices(now);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<Treatment> treatments = treatmentRepository.findAllById(stale);
+        for (Treatment treatment : treatments) {
+            treatment.setPrice(priceSnapshot.priceAt(treatment.getId(), now));
+            eventPublisher.publishEvent(new TreatmentChangedEvent(treatment.getId()));
+        }
+        return treatments.size();
+    }
+
+
+    // ============== Usage Analytics ==============
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TreatmentUsage> getUsage(LocalDate from, LocalDate to) {
+        ArrayList<TreatmentUsage> usage = new ArrayList<>(
+            appointmentTreatmentRepository.summarizeUsageBetween(from.atStartOfDay(), to.atTime(LocalTime.MAX))
+        );
+        usage.sort(Comparator.comparing(TreatmentUsage::getRevenue).reversed()
+            .thenComparing(Comparator.comparingLong(TreatmentUsage::getQuantity).reversed()));
+        return usage;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TreatmentUsageEstimate> getTopUsage(LocalDate day, int k) {
+        if (k < 1) {
+            throw new InvalidRequestException("k must be at least 1");
+        }
+        List<SpaceSaving.Estimate<Long>> top = usageTracker.top(day, k);
+        if (top == null) {
+            throw new InvalidRequestException("No live usage for the week of " + day + ", use /usage with a date range");
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        for (SpaceSaving.Estimate<Long> estimate : top) {
+            ids.add(estimate.key());
+        }
+        Map<Long, Treatment> treatmentsById = new HashMap<>();
+        for (Treatment treatment : treatmentRepository.findAllById(ids)) {
+            treatmentsById.put(treatment.getId(), treatment);
+        }
+
+        List<TreatmentUsageEstimate> estimates = new ArrayList<>(top.size());
+        for (SpaceSaving.Estimate<Long> estimate : top) {
+            Treatment treatment = treatmentsById.get(estimate.key());
+            if (treatment == null) {
+                continue;   // deleted since
+            }
+            estimates.add(new TreatmentUsageEstimate(treatment.getId(), treatment.getCode(), treatment.getName(),
+                estimate.count(), estimate.error()));
+        }
+        return estimates;
+    }
 
     @Override
     @Transactional(readOnly = true)
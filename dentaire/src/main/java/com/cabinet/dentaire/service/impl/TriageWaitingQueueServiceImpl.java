@@ -0,0 +1,193 @@
+package com.cabinet.dentaire.service.impl;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.QueuePriority;
+import com.cabinet.dentaire.repository.AppointmentRepository;
+import com.cabinet.dentaire.service.interfaces.IWaitingQueueService;
+import com.cabinet.dentaire.service.queue.TriageQueue;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "dentaire.queue.mode", havingValue = "triage")
+public class TriageWaitingQueueServiceImpl implements IWaitingQueueService {
+
+    // ============== Priority Queue (Triage Mode) ==============
+    // Emergencies first, then patients whose appointment is around now (by appointment
+    // time), then walk-ins by arrival. Walk-ins that waited too long are aged up.
+    // Every operation is O(log n), see TriageQueue. One queue per clinic.
+
+    private final AppointmentRepository appointmentRepository;
+    private final TenantScoped<TriageQueue> triageQueues;
+    private final Duration appointmentWindow;
+
+    public TriageWaitingQueueServiceImpl(
+            AppointmentRepository appointmentRepository,
+            @Value("${dentaire.queue.triage.walk-in-aging-minutes:30}") long walkInAgingMinutes,
+            @Value("${dentaire.queue.triage.appointment-window-minutes:60}") long appointmentWindowMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        Duration walkInAging = Duration.ofMinutes(walkInAgingMinutes);
+        this.triageQueues = new TenantScoped<>(() -> new TriageQueue(walkInAging));
+        this.appointmentWindow = Duration.ofMinutes(appointmentWindowMinutes);
+    }
+
+    @Override
+    public void addToQueue(Patient patient) {
+        addToQueue(patient, null);
+    }
+
+    @Override
+    public void addToQueue(Patient patient, QueuePriority priority) {
+        TriageQueue triageQueue = triageQueues.get();
+        LocalDateTime now = LocalDateTime.now();
+        // Look up the appointment before taking the lock, it is a database call
+        LocalDateTime appointmentTime = findCurrentAppointmentTime(patient.getId(), now);
+        if (priority == null) {
+            priority = appointmentTime != null ? QueuePriority.APPOINTMENT : QueuePriority.WALK_IN;
+        }
+
+        synchronized (triageQueue) {
+            triageQueue.age(now);
+            if (!triageQueue.offer(patient, priority, appointmentTime, now)) {
+                log.info("Patient already in queue: {} {}", patient.getFirstName(), patient.getLastName());
+                return;
+            }
+            log.info("Patient added to queue ({}): {} {}, queue size {}",
+                priority, patient.getFirstName(), patient.getLastName(), triageQueue.size());
+        }
+    }
+
+    @Override
+    public boolean updatePriority(Long patientId, QueuePriority priority) {
+        TriageQueue triageQueue = triageQueues.get();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime appointmentTime = priority == QueuePriority.APPOINTMENT
+            ? findCurrentAppointmentTime(patientId, now)
+            : null;
+
+        synchronized (triageQueue) {
+            triageQueue.age(now);
+            return triageQueue.reprioritize(patientId, priority, appointmentTime);
+        }
+    }
+
+    @Override
+    public Patient callNextPatient() {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            triageQueue.age(LocalDateTime.now());
+            Patient nextPatient = triageQueue.poll();
+            if (nextPatient == null) {
+                log.info("No patients in the waiting queue");
+                return null;
+            }
+            log.info("Calling patient: {} {}, remaining in queue {}",
+                nextPatient.getFirstName(), nextPatient.getLastName(), triageQueue.size());
+            return nextPatient;
+        }
+    }
+
+    @Override
+    public Patient peekNextPatient() {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            triageQueue.age(LocalDateTime.now());
+            return triageQueue.peek();
+        }
+    }
+
+    @Override
+    public List<Patient> getWaitingList() {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            triageQueue.age(LocalDateTime.now());
+            return triageQueue.snapshot();
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            return triageQueue.size();
+        }
+    }
+
+    @Override
+    public boolean isQueueEmpty() {
+        return getQueueSize() == 0;
+    }
+
+    @Override
+    public boolean removeFromQueue(Long patientId) {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            Patient patient = triageQueue.find(patientId);
+            if (patient == null) {
+                return false;
+            }
+            triageQueue.remove(patientId);
+            log.info("Patient removed from queue: {}", patient.getFirstName());
+            return true;
+        }
+    }
+
+    @Override
+    public int getPatientPosition(Long patientId) {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            triageQueue.age(LocalDateTime.now());
+            return triageQueue.rank(patientId);
+        }
+    }
+
+    @Override
+    public void clearQueue() {
+        TriageQueue triageQueue = triageQueues.get();
+        synchronized (triageQueue) {
+            int size = triageQueue.size();
+            triageQueue.clear();
+            log.info("Queue cleared, removed {} patients", size);
+        }
+    }
+
+    // Closest SCHEDULED / IN_PROGRESS appointment of today within the window around now
+    private LocalDateTime findCurrentAppointmentTime(Long patientId, LocalDateTime now) {
+        LocalDateTime start = now.minus(appointmentWindow);
+        LocalDateTime end = now.plus(appointmentWindow);
+        if (start.toLocalDate().isBefore(now.toLocalDate())) {
+            start = now.toLocalDate().atStartOfDay();
+        }
+        if (end.toLocalDate().isAfter(now.toLocalDate())) {
+            end = now.toLocalDate().atTime(LocalTime.MAX);
+        }
+
+        LocalDateTime closest = null;
+        List<Appointment> appointments = appointmentRepository.findByPatientIdAndDateTimeBetween(patientId, start, end);
+        for (Appointment appointment : appointments) {
+            if (appointment.getStatus() != AppointmentEnums.SCHEDULED
+                && appointment.getStatus() != AppointmentEnums.IN_PROGRESS) {
+                continue;
+            }
+            if (closest == null
+                || Duration.between(appointment.getDateTime(), now).abs()
+                    .compareTo(Duration.between(closest, now).abs()) < 0) {
+                closest = appointment.getDateTime();
+            }
+        }
+        return closest;
+    }
+}
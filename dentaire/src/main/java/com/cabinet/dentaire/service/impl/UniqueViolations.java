@@ -0,0 +1,45 @@
+package com.cabinet.dentaire.service.impl;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Shared translation of unique constraint violations: the writes insert / flush right
+// away and let the database reject duplicates, instead of an exists query before each
+// write (a round trip, and racy under concurrent creates)
+final class UniqueViolations {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private UniqueViolations() {
+    }
+
+    // Name of the violated constraint, lower case, or "" when the driver did not report one
+    static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase();
+            }
+        }
+        return "";
+    }
+
+    // SQLSTATE 23505 (unique_violation), not-null / foreign key violations are something else
+    static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return hasSqlState(e, UNIQUE_VIOLATION);
+    }
+
+    // SQLSTATE 23503 (foreign_key_violation) on the given constraint
+    static boolean isForeignKeyViolation(DataIntegrityViolationException e, String constraint) {
+        return hasSqlState(e, FOREIGN_KEY_VIOLATION) && constraint.equals(constraintName(e));
+    }
+
+    private static boolean hasSqlState(DataIntegrityViolationException e, String sqlState) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return sqlState.equals(violation.getSQLState());
+            }
+        }
+        return false;
+    }
+}
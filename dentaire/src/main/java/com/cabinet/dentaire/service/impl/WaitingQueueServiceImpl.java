@@ -1,8 +1,11 @@
 package com.cabinet.dentaire.service.impl;
 
 import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.QueuePriority;
 import com.cabinet.dentaire.service.interfaces.IWaitingQueueService;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -10,6 +13,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 @Service
+@ConditionalOnProperty(name = "dentaire.queue.mode", havingValue = "fifo", matchIfMissing = true)
 public class WaitingQueueServiceImpl implements IWaitingQueueService {
 
     // ============== LinkedList for Queue (Academic Requirement) ==============
@@ -17,11 +21,13 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
     // - addLast() is O(1) - add patient to end of queue
     // - removeFirst() is O(1) - call next patient from front
     // - Unlike ArrayList, no shifting of elements needed!
-    
-    private final LinkedList<Patient> waitingQueue = new LinkedList<>();
+    // One queue per clinic (TenantScoped), each method works on the current one.
+
+    private final TenantScoped<LinkedList<Patient>> queues = new TenantScoped<>(LinkedList::new);
 
     @Override
     public void addToQueue(Patient patient) {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Add to the END of the queue (FIFO - First In, First Out)
         // O(1) operation with LinkedList
         waitingQueue.addLast(patient);
@@ -29,8 +35,26 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
         System.out.println("Current queue size: " + waitingQueue.size());
     }
 
+    @Override
+    public void addToQueue(Patient patient, QueuePriority priority) {
+        // FIFO mode has no triage: everyone goes to the end of the queue
+        addToQueue(patient);
+    }
+
+    @Override
+    public boolean updatePriority(Long patientId, QueuePriority priority) {
+        // No priorities to change in FIFO mode, see supportsPriorities
+        return false;
+    }
+
+    @Override
+    public boolean supportsPriorities() {
+        return false;
+    }
+
     @Override
     public Patient callNextPatient() {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Remove and return from the FRONT of the queue
         // O(1) operation with LinkedList
         if (waitingQueue.isEmpty()) {
@@ -46,6 +70,7 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
 
     @Override
     public Patient peekNextPatient() {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Look at the front without removing
         // O(1) operation with LinkedList
         if (waitingQueue.isEmpty()) {
@@ -56,22 +81,26 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
 
     @Override
     public List<Patient> getWaitingList() {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Return a copy as ArrayList (don't expose internal LinkedList)
         return new ArrayList<>(waitingQueue);
     }
 
     @Override
     public int getQueueSize() {
+        LinkedList<Patient> waitingQueue = queues.get();
         return waitingQueue.size();
     }
 
     @Override
     public boolean isQueueEmpty() {
+        LinkedList<Patient> waitingQueue = queues.get();
         return waitingQueue.isEmpty();
     }
 
     @Override
     public boolean removeFromQueue(Long patientId) {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Remove a specific patient (if they decide to leave)
         // O(n) operation - must search through the list
         for (Patient patient : waitingQueue) {
@@ -86,6 +115,7 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
 
     @Override
     public int getPatientPosition(Long patientId) {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Find patient's position in queue (1-based for human readability)
         int position = 1;
         for (Patient patient : waitingQueue) {
@@ -99,6 +129,7 @@ public class WaitingQueueServiceImpl implements IWaitingQueueService {
 
     @Override
     public void clearQueue() {
+        LinkedList<Patient> waitingQueue = queues.get();
         // Clear at end of day
         int size = waitingQueue.size();
         waitingQueue.clear();
@@ -1,7 +1,13 @@
 package com.cabinet.dentaire.service.interfaces;
 
+import com.cabinet.dentaire.dto.AppointmentCommand;
+import com.cabinet.dentaire.dto.AppointmentView;
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkStatusReport;
+import com.cabinet.dentaire.dto.BulkStatusRequest;
 import com.cabinet.dentaire.entity.Appointment;
 import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.service.projection.FieldSelection;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,21 +19,32 @@ public interface IAppointmentService {
 
     
     Appointment save(Appointment appointment);
+
+    // Create / update from a command (patient and treatments by reference)
+    AppointmentView create(AppointmentCommand command);
+
+    AppointmentView update(Long id, AppointmentCommand command);
     
     Optional<Appointment> findById(Long id);
     
     List<Appointment> findAll();
     
-    Appointment update(Long id, Appointment appointment);
+    // Multi-get: results in request order, misses are explicit
+    BatchResult<Appointment> findAllByIds(List<Long> ids);
     
     void delete(Long id);
         
     Appointment updateStatus(Long id, AppointmentEnums status);
+
+    // Set-based status change of every appointment matching the request, in chunks
+    BulkStatusReport bulkUpdateStatus(BulkStatusRequest request);
     
     List<Appointment> findByStatus(AppointmentEnums status);
     
     
     List<Appointment> findByPatientId(Long patientId);    
+    // Same list as JSON, closed past appointments spliced from AppointmentJsonCache
+    byte[] findByPatientIdAsJson(Long patientId);
     List<Appointment> findUpcomingByPatientId(Long patientId);
     
     
@@ -35,6 +52,19 @@ public interface IAppointmentService {
     List<Appointment> findTodaysAppointments();
     List<Appointment> findByDateRange(LocalDateTime start, LocalDateTime end);
         
+    // Sparse reads: only the selected fields, read as columns (see FieldSelection)
+    Optional<Map<String, Object>> findById(Long id, FieldSelection selection);
+
+    List<Map<String, Object>> findAll(FieldSelection selection);
+
+    List<Map<String, Object>> findByStatus(AppointmentEnums status, FieldSelection selection);
+
+    List<Map<String, Object>> findByPatientId(Long patientId, FieldSelection selection);
+
+    List<Map<String, Object>> findUpcomingByPatientId(Long patientId, FieldSelection selection);
+
+    List<Map<String, Object>> findByDateRange(LocalDateTime start, LocalDateTime end, FieldSelection selection);
+
     Map<AppointmentEnums, List<Appointment>> getAppointmentsGroupedByStatus();
     
     // Group today's appointments by hour for schedule view
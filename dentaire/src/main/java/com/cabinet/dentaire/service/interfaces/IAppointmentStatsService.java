@@ -0,0 +1,15 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.dto.AppointmentHistogram;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.HistogramBucket;
+
+public interface IAppointmentStatsService {
+
+    // Appointment counts per bucket over [start, end), statuses empty or null = all
+    AppointmentHistogram getHistogram(LocalDateTime start, LocalDateTime end,
+                                      HistogramBucket bucket, List<AppointmentEnums> statuses);
+}
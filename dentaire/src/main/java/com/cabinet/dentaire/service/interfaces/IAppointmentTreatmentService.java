@@ -0,0 +1,20 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.util.List;
+
+import com.cabinet.dentaire.dto.AppointmentLineRequest;
+import com.cabinet.dentaire.dto.AppointmentLines;
+
+// Treatment lines of an appointment. Every change runs in one transaction and
+// returns all lines of the appointment with its total.
+public interface IAppointmentTreatmentService {
+
+    AppointmentLines findLines(Long appointmentId);
+
+    AppointmentLines addLines(Long appointmentId, List<AppointmentLineRequest> lines);
+
+    // Removes every current line, then adds the given ones
+    AppointmentLines replaceLines(Long appointmentId, List<AppointmentLineRequest> lines);
+
+    AppointmentLines removeLines(Long appointmentId, List<Long> lineIds);
+}
@@ -0,0 +1,13 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.util.List;
+
+import com.cabinet.dentaire.entity.AuditEntry;
+import com.cabinet.dentaire.enums.AuditEntityType;
+
+public interface IAuditService {
+
+    // Oldest first, at most limit entries. Changes committed within the last flush
+    // interval may not be written yet
+    List<AuditEntry> findHistory(AuditEntityType entityType, Long entityId, int limit);
+}
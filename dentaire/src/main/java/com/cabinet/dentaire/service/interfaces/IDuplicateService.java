@@ -0,0 +1,26 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.util.List;
+
+import com.cabinet.dentaire.dto.DuplicateScanReport;
+import com.cabinet.dentaire.entity.DuplicateSuggestion;
+import com.cabinet.dentaire.enums.DuplicateStatus;
+
+public interface IDuplicateService {
+
+    // ============== Detection ==============
+
+    // Whole table, blocked and scored in parallel
+    DuplicateScanReport scan();
+
+    // The given patients against the ones sharing a blocking key with them
+    List<DuplicateSuggestion> check(List<Long> patientIds);
+
+    // ============== Review ==============
+
+    List<DuplicateSuggestion> findSuggestions(DuplicateStatus status, int limit);
+
+    List<DuplicateSuggestion> findSuggestionsOf(Long patientId, DuplicateStatus status);
+
+    DuplicateSuggestion updateStatus(Long id, DuplicateStatus status);
+}
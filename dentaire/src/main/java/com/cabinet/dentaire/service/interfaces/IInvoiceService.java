@@ -0,0 +1,29 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import com.cabinet.dentaire.entity.Invoice;
+import com.cabinet.dentaire.entity.InvoiceRun;
+
+public interface IInvoiceService {
+
+    // ============== Runs ==============
+
+    // Starts the run of the period in the background (resumes it when it was interrupted),
+    // returns it right away; a completed run is returned as it is
+    InvoiceRun startRun(LocalDate periodStart, LocalDate periodEnd);
+
+    Optional<InvoiceRun> findRun(Long id);
+
+    // Latest periods first
+    List<InvoiceRun> findRuns();
+
+    // ============== Invoices ==============
+
+    // Invoices of a run by patient id, after the given patient (keyset paging)
+    List<Invoice> findInvoices(Long runId, Long afterPatientId, int limit);
+
+    List<Invoice> findInvoicesOfPatient(Long patientId);
+}
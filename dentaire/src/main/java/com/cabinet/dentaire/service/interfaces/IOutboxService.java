@@ -0,0 +1,17 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.util.List;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.OutboxEventType;
+import com.cabinet.dentaire.repository.AppointmentBulkRepository;
+
+public interface IOutboxService {
+
+    // Must run inside the transaction of the change (the event commits or rolls back with it)
+    void recordAppointmentEvent(OutboxEventType eventType, Appointment appointment, AppointmentEnums previousStatus);
+
+    // One APPOINTMENT_STATUS_CHANGED per row of a bulk transition to status
+    void recordStatusTransitions(List<AppointmentBulkRepository.StatusTransition> transitions, AppointmentEnums status);
+}
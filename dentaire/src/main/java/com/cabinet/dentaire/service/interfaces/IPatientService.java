@@ -1,20 +1,30 @@
 package com.cabinet.dentaire.service.interfaces;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.BulkPatientReport;
 import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.service.projection.FieldSelection;
 
 public interface IPatientService {
 
     // ============== CRUD Operations ==============
     
     Patient save(Patient patient);
+
+    // Bulk create: duplicates are reported per row, the rest is inserted
+    BulkPatientReport saveAll(List<Patient> patients);
     
     Optional<Patient> findById(Long patientId);
     
     List<Patient> findAll();
     
+    // Multi-get: results in request order, misses are explicit
+    BatchResult<Patient> findAllByIds(List<Long> ids);
+    
     Patient update(Long id, Patient patient);
 
     void delete(Long patientId);
@@ -30,6 +40,15 @@ public interface IPatientService {
     // Note: findByFirstNameContaining... is NOT here!
     // It's a Repository method used internally by searchByName()
 
+    // ============== Sparse Reads ==============
+    // Only the selected fields, read as columns (see FieldSelection)
+
+    Optional<Map<String, Object>> findById(Long patientId, FieldSelection selection);
+
+    List<Map<String, Object>> findAll(FieldSelection selection);
+
+    List<Map<String, Object>> searchByName(String name, FieldSelection selection);
+
     // ============== Validation ==============
     
     boolean existsByEmail(String email);
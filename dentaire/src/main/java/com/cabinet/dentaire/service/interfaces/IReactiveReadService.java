@@ -0,0 +1,20 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+
+import reactor.core.publisher.Flux;
+
+// Non-blocking variants of the heaviest reads (see ReactiveReadRepository).
+// Same JSON as the MVC endpoints, emitted as rows arrive
+public interface IReactiveReadService {
+
+    Flux<Appointment> findTodaysAppointments();
+
+    Flux<Appointment> findByPatientId(Long patientId);
+
+    Flux<Treatment> findAllTreatments();
+
+    Flux<Patient> getWaitingList();
+}
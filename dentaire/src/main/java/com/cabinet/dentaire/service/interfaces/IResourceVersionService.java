@@ -0,0 +1,62 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.cabinet.dentaire.dto.ResourceVersion;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+
+// Versions (count + newest updated_at) of what the GET endpoints return, checked
+// before the read itself to answer conditional requests with a 304
+public interface IResourceVersionService {
+
+    // ============== Patients ==============
+
+    ResourceVersion patients();
+
+    ResourceVersion patient(Long id);
+
+    ResourceVersion patientsByIds(List<Long> ids);
+
+    ResourceVersion patientByEmail(String email);
+
+    ResourceVersion patientByPhone(String phone);
+
+    ResourceVersion patientsByName(String name);
+
+    // ============== Treatments ==============
+
+    ResourceVersion treatments();
+
+    ResourceVersion treatment(Long id);
+
+    ResourceVersion treatmentsByIds(List<Long> ids);
+
+    ResourceVersion treatmentByCode(String code);
+
+    ResourceVersion treatmentsByName(String name);
+
+    ResourceVersion treatmentsByPriceRange(BigDecimal min, BigDecimal max);
+
+    // ============== Appointments ==============
+    // withTreatments: the response embeds the lines' treatments (full entities or the
+    // "treatments" field), whose catalog changes then count too
+
+    ResourceVersion appointments(boolean withTreatments);
+
+    ResourceVersion appointment(Long id, boolean withTreatments);
+
+    ResourceVersion appointmentsByIds(List<Long> ids, boolean withTreatments);
+
+    ResourceVersion appointmentsByStatus(AppointmentEnums status, boolean withTreatments);
+
+    ResourceVersion appointmentsByPatient(Long patientId, boolean withTreatments);
+
+    ResourceVersion upcomingAppointmentsByPatient(Long patientId, boolean withTreatments);
+
+    ResourceVersion appointmentsOn(LocalDate date, boolean withTreatments);
+
+    ResourceVersion appointmentsBetween(LocalDateTime start, LocalDateTime end, boolean withTreatments);
+}
@@ -0,0 +1,15 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.cabinet.dentaire.dto.SearchPage;
+import com.cabinet.dentaire.enums.SearchHitType;
+
+public interface ISearchService {
+
+    // Ranked full-text search over appointment notes, line notes and treatments.
+    // types null = all; patientId / from / to restrict to appointments (and their lines)
+    SearchPage search(String query, Set<SearchHitType> types, Long patientId,
+                      LocalDateTime from, LocalDateTime to, String cursor, Integer limit);
+}
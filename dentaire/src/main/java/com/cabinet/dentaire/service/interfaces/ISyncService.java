@@ -0,0 +1,13 @@
+package com.cabinet.dentaire.service.interfaces;
+
+import com.cabinet.dentaire.dto.SyncChanges;
+import com.cabinet.dentaire.enums.SyncEntityType;
+
+public interface ISyncService {
+
+    // Changes since the watermark token (null = everything), at most limit rows per entity kind
+    SyncChanges findChangesSince(String token, int limit);
+
+    // Called by the services when they delete a row
+    void recordDeletion(SyncEntityType entityType, Long entityId);
+}
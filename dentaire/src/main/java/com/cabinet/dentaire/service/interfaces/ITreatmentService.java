@@ -1,11 +1,18 @@
 package com.cabinet.dentaire.service.interfaces;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import com.cabinet.dentaire.dto.BatchResult;
+import com.cabinet.dentaire.dto.TreatmentUsage;
+import com.cabinet.dentaire.dto.TreatmentUsageEstimate;
 import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.entity.TreatmentPrice;
+import com.cabinet.dentaire.service.projection.FieldSelection;
 
 public interface ITreatmentService {
 
@@ -16,6 +23,9 @@ public interface ITreatmentService {
     
     List<Treatment> findAll();
     
+    // Multi-get: results in request order, misses are explicit
+    BatchResult<Treatment> findAllByIds(List<Long> ids);
+    
     Treatment update(Long id, Treatment treatment);
     
     void delete(Long id);
@@ -30,7 +40,32 @@ public interface ITreatmentService {
     
     Map<String, Treatment> getAllTreatmentsAsMap();
     
-    Map<String, BigDecimal> getTreatmentPriceMap();
+    // Price of every coded treatment in effect at asOf (now when null)
+    Map<String, BigDecimal> getTreatmentPriceMap(LocalDateTime asOf);
+
+    // Price history, oldest first, scheduled changes included
+    List<TreatmentPrice> getPriceHistory(Long treatmentId);
+
+    TreatmentPrice schedulePrice(Long treatmentId, BigDecimal price, LocalDateTime effectiveFrom);
+
+    // Only changes not yet in effect
+    void cancelScheduledPrice(Long treatmentId, Long priceId);
+
+    // Brings the price column up to the history, returns the number of treatments changed
+    int activateDuePrices();
+
+    // Sparse reads: only the selected fields, read as columns (see FieldSelection)
+    Optional<Map<String, Object>> findById(Long id, FieldSelection selection);
+
+    List<Map<String, Object>> findAll(FieldSelection selection);
+
+    List<Map<String, Object>> searchByName(String name, FieldSelection selection);
+
+    // Usage of every treatment between two dates (inclusive), highest revenue first
+    List<TreatmentUsage> getUsage(LocalDate from, LocalDate to);
+
+    // Live top-K by quantity for the week containing day (approximate, see TreatmentUsageTracker)
+    List<TreatmentUsageEstimate> getTopUsage(LocalDate day, int k);
     
     
     
@@ -1,6 +1,7 @@
 package com.cabinet.dentaire.service.interfaces;
 
 import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.QueuePriority;
 
 import java.util.List;
 
@@ -10,6 +11,17 @@ public interface IWaitingQueueService {
     // Add patient to the end of the queue
     void addToQueue(Patient patient);
     
+    // Add patient with an explicit triage priority (null = detect from today's appointments)
+    void addToQueue(Patient patient, QueuePriority priority);
+    
+    // Change the triage priority of a queued patient (false when not queued)
+    boolean updatePriority(Long patientId, QueuePriority priority);
+    
+    // False when the queue ignores priorities (FIFO mode)
+    default boolean supportsPriorities() {
+        return true;
+    }
+    
     // Remove and return the next patient (from the front)
     Patient callNextPatient();
     
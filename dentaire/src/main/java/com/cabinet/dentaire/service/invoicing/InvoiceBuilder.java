@@ -0,0 +1,106 @@
+package com.cabinet.dentaire.service.invoicing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// ============== Invoice Building (fork/join) ==============
+// Turns the billable lines of a batch of patients into their invoices: line totals
+// (quantity x unit price) and the invoice total in BigDecimal, exact to the cent, and
+// the billed lines as JSON. Patients are independent: the batch is split in ranges of
+// patients by a RecursiveTask, results keep the batch order (patient id).
+public class InvoiceBuilder {
+
+    // One line of a completed appointment, unit price resolved (price charged, else catalog price then)
+    public record BillableLine(Long appointmentId, LocalDateTime dateTime, Long lineId, Long treatmentId,
+                               String code, String name, int quantity, BigDecimal unitPrice) {
+    }
+
+    // Every billable line of a patient in the period, in appointment order
+    public record PatientLines(Long patientId, List<BillableLine> lines) {
+    }
+
+    public record PatientInvoice(Long patientId, int appointmentCount, int lineCount, BigDecimal total, String lines) {
+    }
+
+    // As stored in Invoice.lines
+    private record InvoiceLine(Long appointmentId, LocalDateTime dateTime, Long treatmentId, String code, String name,
+                               int quantity, BigDecimal unitPrice, BigDecimal lineTotal) {
+    }
+
+    // Patients per fork/join leaf
+    private static final int LEAF_PATIENTS = 256;
+
+    private final ObjectMapper objectMapper;
+
+    public InvoiceBuilder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<PatientInvoice> build(List<PatientLines> patients, ForkJoinPool pool) {
+        return pool.invoke(new BuildInvoices(patients, 0, patients.size()));
+    }
+
+    PatientInvoice invoice(PatientLines patient) {
+        List<InvoiceLine> lines = new ArrayList<>(patient.lines().size());
+        BigDecimal total = BigDecimal.ZERO;
+        int appointments = 0;
+        Long lastAppointmentId = null;
+        for (BillableLine line : patient.lines()) {
+            BigDecimal lineTotal = line.unitPrice().multiply(BigDecimal.valueOf(line.quantity()))
+                .setScale(2, RoundingMode.HALF_UP);
+            total = total.add(lineTotal);
+            // Lines of an appointment are adjacent
+            if (!line.appointmentId().equals(lastAppointmentId)) {
+                appointments++;
+                lastAppointmentId = line.appointmentId();
+            }
+            lines.add(new InvoiceLine(line.appointmentId(), line.dateTime(), line.treatmentId(), line.code(),
+                line.name(), line.quantity(), line.unitPrice(), lineTotal));
+        }
+        try {
+            return new PatientInvoice(patient.patientId(), appointments, lines.size(), total,
+                objectMapper.writeValueAsString(lines));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize invoice lines of patient " + patient.patientId(), e);
+        }
+    }
+
+    private final class BuildInvoices extends RecursiveTask<List<PatientInvoice>> {
+
+        private final List<PatientLines> patients;
+        private final int from;
+        private final int to;
+
+        BuildInvoices(List<PatientLines> patients, int from, int to) {
+            this.patients = patients;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<PatientInvoice> compute() {
+            if (to - from > LEAF_PATIENTS) {
+                int middle = (from + to) >>> 1;
+                BuildInvoices left = new BuildInvoices(patients, from, middle);
+                left.fork();
+                List<PatientInvoice> right = new BuildInvoices(patients, middle, to).compute();
+                List<PatientInvoice> invoices = left.join();
+                invoices.addAll(right);
+                return invoices;
+            }
+            List<PatientInvoice> invoices = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                invoices.add(invoice(patients.get(i)));
+            }
+            return invoices;
+        }
+    }
+}
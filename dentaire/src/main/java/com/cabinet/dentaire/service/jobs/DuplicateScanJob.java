@@ -0,0 +1,29 @@
+package com.cabinet.dentaire.service.jobs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.service.interfaces.IDuplicateService;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+// Weekly full duplicate scan; between runs new and changed patients are checked on
+// commit, the scan catches what that misses (edits of the other patient, old rows).
+@Component
+@ConditionalOnProperty(name = "dentaire.patients.duplicates.scan.enabled", havingValue = "true", matchIfMissing = true)
+public class DuplicateScanJob {
+
+    private final IDuplicateService duplicateService;
+    private final TenantRegistry tenantRegistry;
+
+    public DuplicateScanJob(IDuplicateService duplicateService, TenantRegistry tenantRegistry) {
+        this.duplicateService = duplicateService;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    // The service logs the report, one per clinic
+    @Scheduled(cron = "${dentaire.patients.duplicates.scan.cron:0 0 3 * * SUN}")
+    public void scan() {
+        tenantRegistry.forEachTenant(duplicateService::scan);
+    }
+}
@@ -0,0 +1,57 @@
+package com.cabinet.dentaire.service.jobs;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.dto.BulkStatusReport;
+import com.cabinet.dentaire.dto.BulkStatusRequest;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.service.interfaces.IAppointmentService;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Nightly close of the day: appointments still SCHEDULED once their time has passed
+// become NO_SHOW. Looks back a few days so a missed night is caught up. Each clinic
+// is closed on its own, one failing does not keep the others open.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dentaire.appointments.end-of-day.enabled", havingValue = "true", matchIfMissing = true)
+public class EndOfDayStatusJob {
+
+    private final IAppointmentService appointmentService;
+    private final TenantRegistry tenantRegistry;
+    private final int lookbackDays;
+
+    public EndOfDayStatusJob(
+            IAppointmentService appointmentService,
+            TenantRegistry tenantRegistry,
+            @Value("${dentaire.appointments.end-of-day.lookback-days:7}") int lookbackDays) {
+        this.appointmentService = appointmentService;
+        this.tenantRegistry = tenantRegistry;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Scheduled(cron = "${dentaire.appointments.end-of-day.cron:0 30 23 * * *}")
+    public void markNoShows() {
+        tenantRegistry.forEachTenant(this::markNoShowsOfTenant);
+    }
+
+    private void markNoShowsOfTenant() {
+        BulkStatusReport report = appointmentService.bulkUpdateStatus(BulkStatusRequest.builder()
+            .start(LocalDate.now().minusDays(lookbackDays).atStartOfDay())
+            .end(LocalDateTime.now())
+            .fromStatuses(List.of(AppointmentEnums.SCHEDULED))
+            .targetStatus(AppointmentEnums.NO_SHOW)
+            .build());
+        log.info("End of day [{}]: {} appointments marked NO_SHOW in {} chunks ({} ms)",
+            TenantContext.current(), report.getChanged(), report.getChunks(), report.getDurationMs());
+    }
+}
@@ -0,0 +1,41 @@
+package com.cabinet.dentaire.service.jobs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.service.interfaces.ITreatmentService;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Scheduled price changes: lines are priced from the history as soon as a change takes
+// effect, this job then updates the treatments' price column (one catalog comparison
+// in memory per clinic, a write only when a change came into effect).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dentaire.treatments.prices.activation.enabled", havingValue = "true", matchIfMissing = true)
+public class PriceActivationJob {
+
+    private final ITreatmentService treatmentService;
+    private final TenantRegistry tenantRegistry;
+
+    public PriceActivationJob(ITreatmentService treatmentService, TenantRegistry tenantRegistry) {
+        this.treatmentService = treatmentService;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${dentaire.treatments.prices.activation.interval-ms:60000}")
+    public void activate() {
+        tenantRegistry.forEachTenant(this::activateOfTenant);
+    }
+
+    private void activateOfTenant() {
+        int activated = treatmentService.activateDuePrices();
+        if (activated > 0) {
+            log.info("Price activation [{}]: {} treatments now at their scheduled price",
+                TenantContext.current(), activated);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cabinet.dentaire.service.outbox;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.dto.OutboxMessage;
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Local stand-in for a message broker: appends one JSON line per event
+@Component
+@ConditionalOnProperty(name = "dentaire.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxEventSink(
+            @Value("${dentaire.outbox.file.path:outbox-events.jsonl}") String path,
+            ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(OutboxMessage.from(event, objectMapper))).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Only report success once the batch is on disk
+            channel.force(false);
+        }
+    }
+}
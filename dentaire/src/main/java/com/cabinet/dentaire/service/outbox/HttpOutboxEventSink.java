@@ -0,0 +1,45 @@
+package com.cabinet.dentaire.service.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.cabinet.dentaire.dto.OutboxMessage;
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// POSTs each batch as a JSON array; any non-2xx answer fails the batch
+@Component
+@ConditionalOnProperty(name = "dentaire.outbox.sink", havingValue = "http")
+public class HttpOutboxEventSink implements OutboxEventSink {
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+
+    public HttpOutboxEventSink(
+            @Value("${dentaire.outbox.http.url}") String url,
+            RestClient.Builder restClientBuilder,
+            ObjectMapper objectMapper) {
+        this.restClient = restClientBuilder.baseUrl(url).build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws Exception {
+        ArrayList<OutboxMessage> messages = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            messages.add(OutboxMessage.from(event, objectMapper));
+        }
+
+        restClient.post()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(messages)
+            .retrieve()
+            .toBodilessEntity();
+    }
+}
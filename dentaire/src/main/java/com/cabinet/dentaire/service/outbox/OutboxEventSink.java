@@ -0,0 +1,12 @@
+package com.cabinet.dentaire.service.outbox;
+
+import java.util.List;
+
+import com.cabinet.dentaire.entity.OutboxEvent;
+
+// Destination of the outbox relay. A batch is delivered completely or the call throws,
+// in which case the same batch (same order) is offered again on the next run.
+public interface OutboxEventSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,148 @@
+package com.cabinet.dentaire.service.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.cabinet.dentaire.repository.OutboxEventRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Outbox Relay ==============
+// Drains outbox_events in id order, batch by batch. A batch is marked published only
+// after the sink accepted it (at-least-once). On failure nothing is marked and the
+// same batch is retried on the next run, so events of an appointment never overtake
+// each other. The advisory lock makes sure a single relay runs across instances.
+// Clinics are drained one after the other, each with its own lock and backoff: a
+// clinic whose batch keeps failing does not hold back the others.
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TenantRegistry tenantRegistry;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int retentionDays;
+
+    // Back off while the sink keeps failing (1s, 2s, 4s ... 60s)
+    private static final class Backoff {
+        private int consecutiveFailures;
+        private long nextAttemptAtMillis;
+    }
+
+    private final TenantScoped<Backoff> backoffs = new TenantScoped<>(Backoff::new);
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            TenantRegistry tenantRegistry,
+            OutboxEventSink sink,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.outbox.relay.batch-size:100}") int batchSize,
+            @Value("${dentaire.outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${dentaire.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${dentaire.outbox.relay.interval-ms:1000}")
+    public void relay() {
+        tenantRegistry.forEachTenant(this::relayTenant);
+    }
+
+    private void relayTenant() {
+        Backoff backoff = backoffs.get();
+        if (System.currentTimeMillis() < backoff.nextAttemptAtMillis) {
+            return;
+        }
+        long lockKey = lockKey(TenantContext.current());
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer delivered = transactionTemplate.execute(status -> drainBatch(lockKey, backoff));
+            if (delivered == null || delivered < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // Runs in one transaction: lock, read, publish, mark
+    private int drainBatch(long lockKey, Backoff backoff) {
+        if (!outboxEventRepository.tryRelayLock(lockKey)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.publish(batch);
+        } catch (Exception e) {
+            for (OutboxEvent event : batch) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(e.toString()));
+            }
+            meterRegistry.counter("dentaire.outbox.failures").increment();
+            backoff.consecutiveFailures++;
+            long backoffMillis = Math.min(60_000L, 1000L << Math.min(backoff.consecutiveFailures - 1, 6));
+            backoff.nextAttemptAtMillis = System.currentTimeMillis() + backoffMillis;
+            log.warn("Outbox batch of {} starting at event {} failed for {}, retrying in {} ms: {}",
+                batch.size(), batch.get(0).getId(), TenantContext.current(), backoffMillis, e.toString());
+            return 0;
+        }
+        backoff.consecutiveFailures = 0;
+
+        LocalDateTime publishedAt = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            event.setPublishedAt(publishedAt);
+        }
+        meterRegistry.counter("dentaire.outbox.published").increment(batch.size());
+        return batch.size();
+    }
+
+    @Scheduled(cron = "${dentaire.outbox.cleanup-cron:0 0 * * * *}")
+    public void deletePublishedEvents() {
+        tenantRegistry.forEachTenant(this::deletePublishedEventsOfTenant);
+    }
+
+    private void deletePublishedEventsOfTenant() {
+        Integer deleted = transactionTemplate.execute(status ->
+            outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} published outbox events of {} older than {} days",
+                deleted, TenantContext.current(), retentionDays);
+        }
+    }
+
+    // Advisory locks are database-wide, not per schema: one key per clinic
+    private static long lockKey(String tenant) {
+        return TenantContext.DEFAULT_TENANT.equals(tenant)
+            ? RELAY_LOCK_KEY
+            : RELAY_LOCK_KEY ^ ((long) tenant.hashCode() << 16);
+    }
+
+    private String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,172 @@
+package com.cabinet.dentaire.service.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.entity.TreatmentPrice;
+import com.cabinet.dentaire.event.TreatmentChangedEvent;
+import com.cabinet.dentaire.repository.TreatmentPriceRepository;
+import com.cabinet.dentaire.repository.TreatmentRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+
+// Catalog price per treatment id at any point in time (and id per code), loaded with
+// two queries and kept until a treatment change commits. Pricing or resolving a batch
+// of lines costs map lookups, not a findById / findByCode per line. One catalog per clinic.
+// Each treatment's history is a pair of sorted arrays (effective instants, prices):
+// the price at T is a binary search for the last entry at or before T, so a scheduled
+// change applies at its time without any reload. The earliest entry also prices
+// anything before it (nothing older is known); a treatment without history (created
+// before it existed, schema not migrated) has its catalog price at all times.
+@Component
+public class TreatmentPriceSnapshot {
+
+    private final TreatmentRepository treatmentRepository;
+    private final TreatmentPriceRepository treatmentPriceRepository;
+
+    private final Map<String, Catalog> catalogs = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, under the catalogs entry of the clinic: a load that
+    // started before an invalidation must not install what it read
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public TreatmentPriceSnapshot(TreatmentRepository treatmentRepository,
+                                  TreatmentPriceRepository treatmentPriceRepository) {
+        this.treatmentRepository = treatmentRepository;
+        this.treatmentPriceRepository = treatmentPriceRepository;
+    }
+
+    // Current price, null when the treatment does not exist
+    public BigDecimal priceOf(Long treatmentId) {
+        return priceAt(treatmentId, LocalDateTime.now());
+    }
+
+    // null when the treatment does not exist
+    public BigDecimal priceAt(Long treatmentId, LocalDateTime time) {
+        PriceHistory history = catalog().historyById().get(treatmentId);
+        return history != null ? history.at(instant(time)) : null;
+    }
+
+    // Price of every treatment at time, by id
+    public Map<Long, BigDecimal> pricesAt(LocalDateTime time) {
+        long at = instant(time);
+        Map<Long, PriceHistory> histories = catalog().historyById();
+        Map<Long, BigDecimal> prices = new HashMap<>(histories.size() * 2);
+        histories.forEach((id, history) -> prices.put(id, history.at(at)));
+        return prices;
+    }
+
+    // Price of every coded treatment at time, by code
+    public Map<String, BigDecimal> pricesOfCodesAt(LocalDateTime time) {
+        long at = instant(time);
+        Catalog catalog = catalog();
+        Map<String, BigDecimal> prices = new HashMap<>(catalog.idsByCode().size() * 2);
+        catalog.idsByCode().forEach((code, id) -> prices.put(code, catalog.historyById().get(id).at(at)));
+        return prices;
+    }
+
+    // null when no treatment has this code
+    public Long idOfCode(String code) {
+        return catalog().idsByCode().get(code);
+    }
+
+    // Treatments whose price column differs from their history at time: a scheduled
+    // change came into effect (see TreatmentServiceImpl.activateDuePrices)
+    public List<Long> staleCatalogPrices(LocalDateTime time) {
+        long at = instant(time);
+        Catalog catalog = catalog();
+        List<Long> stale = new ArrayList<>();
+        catalog.catalogPriceById().forEach((id, price) -> {
+            if (price.compareTo(catalog.historyById().get(id).at(at)) != 0) {
+                stale.add(id);
+            }
+        });
+        return stale;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTreatmentChanged(TreatmentChangedEvent event) {
+        catalogs.compute(TenantContext.current(), (tenant, stale) -> {
+            generations.merge(tenant, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    private Catalog catalog() {
+        String tenant = TenantContext.current();
+        Catalog current = catalogs.get(tenant);
+        return current != null ? current : load(tenant);
+    }
+
+    private synchronized Catalog load(String tenant) {
+        Catalog catalog = catalogs.get(tenant);
+        if (catalog == null) {
+            long generation = generations.getOrDefault(tenant, 0L);
+            Map<Long, List<TreatmentPrice>> entries = new HashMap<>();
+            for (TreatmentPrice entry : treatmentPriceRepository.findAllByOrderByTreatmentIdAscEffectiveFromAsc()) {
+                entries.computeIfAbsent(entry.getTreatmentId(), id -> new ArrayList<>()).add(entry);
+            }
+            Map<Long, PriceHistory> histories = new HashMap<>();
+            Map<Long, BigDecimal> catalogPrices = new HashMap<>();
+            Map<String, Long> ids = new HashMap<>();
+            for (Treatment treatment : treatmentRepository.findAll()) {
+                PriceHistory history = PriceHistory.of(entries.get(treatment.getId()), treatment.getPrice());
+                histories.put(treatment.getId(), history);
+                catalogPrices.put(treatment.getId(), treatment.getPrice());
+                if (treatment.getCode() != null) {
+                    ids.put(treatment.getCode(), treatment.getId());
+                }
+            }
+            catalog = new Catalog(Map.copyOf(histories), Map.copyOf(catalogPrices), Map.copyOf(ids));
+            // Invalidated while reading (a change committed after our queries started):
+            // this caller still gets what it read, the next one loads again
+            Catalog loaded = catalog;
+            catalogs.compute(tenant, (key, current) ->
+                generations.getOrDefault(key, 0L) == generation ? loaded : current);
+        }
+        return catalog;
+    }
+
+    // Microseconds (the column precision) on a fixed offset: only the order matters
+    static long instant(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    // catalogPriceById: the price column as loaded
+    private record Catalog(Map<Long, PriceHistory> historyById, Map<Long, BigDecimal> catalogPriceById,
+                           Map<String, Long> idsByCode) {
+    }
+
+    // effectiveFrom ascending, prices[i] applies from effectiveFrom[i] to effectiveFrom[i + 1]
+    record PriceHistory(long[] effectiveFrom, BigDecimal[] prices) {
+
+        static PriceHistory of(List<TreatmentPrice> entries, BigDecimal catalogPrice) {
+            if (entries == null || entries.isEmpty()) {
+                return new PriceHistory(new long[] {Long.MIN_VALUE}, new BigDecimal[] {catalogPrice});
+            }
+            long[] effectiveFrom = new long[entries.size()];
+            BigDecimal[] prices = new BigDecimal[entries.size()];
+            for (int i = 0; i < effectiveFrom.length; i++) {
+                effectiveFrom[i] = instant(entries.get(i).getEffectiveFrom());
+                prices[i] = entries.get(i).getPrice();
+            }
+            return new PriceHistory(effectiveFrom, prices);
+        }
+
+        BigDecimal at(long instant) {
+            int i = Arrays.binarySearch(effectiveFrom, instant);
+            // Not found: -(insertion point) - 1, the entry before the insertion point applies
+            int index = i >= 0 ? i : -i - 2;
+            return prices[Math.max(index, 0)];
+        }
+    }
+}
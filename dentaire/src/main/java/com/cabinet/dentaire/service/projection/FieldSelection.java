@@ -0,0 +1,85 @@
+package com.cabinet.dentaire.service.projection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.cabinet.dentaire.exception.InvalidRequestException;
+
+// The fields a read endpoint returns, from ?fields=a,b,patient.c or ?view=summary.
+// null (neither parameter) keeps the full entity response. "id" is always included;
+// a prefix such as "patient" stands for all of its fields.
+public record FieldSelection(ProjectedResource resource, List<String> fields) {
+
+    public static FieldSelection parse(ProjectedResource resource, String fields, String view) {
+        boolean hasFields = fields != null && !fields.isBlank();
+        boolean hasView = view != null && !view.isBlank();
+        if (!hasFields && !hasView) {
+            return null;
+        }
+        if (hasFields && hasView) {
+            throw new InvalidRequestException("Use either fields or view, not both");
+        }
+
+        List<String> requested;
+        if (hasView) {
+            requested = resource.view(view.strip().toLowerCase());
+            if (requested == null) {
+                throw new InvalidRequestException("Unknown view for " + resource.label() + ": " + view);
+            }
+        } else {
+            requested = List.of(fields.split(","));
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : requested) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (resource.isColumn(name) || resource.isComputed(name)) {
+                selected.add(name);
+                continue;
+            }
+            boolean expanded = false;
+            for (String column : resource.getColumnFields()) {
+                if (column.startsWith(name + ".")) {
+                    selected.add(column);
+                    expanded = true;
+                }
+            }
+            if (!expanded) {
+                throw new InvalidRequestException("Unknown field for " + resource.label() + ": " + name);
+            }
+        }
+        return new FieldSelection(resource, List.copyOf(selected));
+    }
+
+    // Whether an appointment response carries the lines' treatments (catalog data):
+    // the full entity, or a selection with "treatments"
+    public static boolean includesTreatments(FieldSelection selection) {
+        return selection == null || selection.includes("treatments");
+    }
+
+    // What the response looks like (part of its ETag): the selected fields, "full" without a selection
+    public static String variant(FieldSelection selection) {
+        return selection != null ? String.join(",", selection.fields()) : "full";
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    // Fields read from the entity's table (and joins), in request order
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            if (resource.isColumn(field)) {
+                columns.add(field);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,77 @@
+package com.cabinet.dentaire.service.projection;
+
+import java.util.List;
+import java.util.Map;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.BaseEntity;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+
+// Fields a client can ask for with ?fields=, named like the full entity JSON
+// ("patient.firstName" is nested under "patient"), and the named ?view= sets.
+// Every field is a column path of the entity except the computed ones
+// (appointment "treatments": the lines, loaded with one extra query).
+public enum ProjectedResource {
+
+    PATIENT(Patient.class,
+        List.of("id", "firstName", "lastName", "email", "phone", "birthDate", "address", "ceatedAt", "updatedAt"),
+        List.of(),
+        Map.of(
+            "summary", List.of("id", "firstName", "lastName", "phone"),
+            "detail", List.of("id", "firstName", "lastName", "email", "phone", "birthDate", "address", "updatedAt"))),
+
+    TREATMENT(Treatment.class,
+        List.of("id", "code", "name", "description", "price", "ceatedAt", "updatedAt"),
+        List.of(),
+        Map.of(
+            "summary", List.of("id", "code", "name", "price"),
+            "detail", List.of("id", "code", "name", "description", "price", "updatedAt"))),
+
+    APPOINTMENT(Appointment.class,
+        List.of("id", "dateTime", "status", "notes", "ceatedAt", "updatedAt",
+            "patient.id", "patient.firstName", "patient.lastName", "patient.email", "patient.phone",
+            "patient.birthDate", "patient.address"),
+        List.of("treatments"),
+        Map.of(
+            "summary", List.of("id", "dateTime", "status", "patient.id", "patient.firstName", "patient.lastName"),
+            "detail", List.of("id", "dateTime", "status", "notes", "updatedAt",
+                "patient.id", "patient.firstName", "patient.lastName", "patient.phone", "treatments")));
+
+    private final Class<? extends BaseEntity> entityClass;
+    private final List<String> columnFields;
+    private final List<String> computedFields;
+    private final Map<String, List<String>> views;
+
+    ProjectedResource(Class<? extends BaseEntity> entityClass, List<String> columnFields,
+                      List<String> computedFields, Map<String, List<String>> views) {
+        this.entityClass = entityClass;
+        this.columnFields = columnFields;
+        this.computedFields = computedFields;
+        this.views = views;
+    }
+
+    public Class<? extends BaseEntity> getEntityClass() {
+        return entityClass;
+    }
+
+    public List<String> getColumnFields() {
+        return columnFields;
+    }
+
+    public boolean isColumn(String field) {
+        return columnFields.contains(field);
+    }
+
+    public boolean isComputed(String field) {
+        return computedFields.contains(field);
+    }
+
+    public List<String> view(String name) {
+        return views.get(name);
+    }
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
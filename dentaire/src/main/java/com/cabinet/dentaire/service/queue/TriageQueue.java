@@ -0,0 +1,381 @@
+package com.cabinet.dentaire.service.queue;
+
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.QueuePriority;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// ============== Indexed Binary Heap + Order-Statistic Treap ==============
+// Patients are ordered by the key (priority level, reference time, arrival ticket):
+// - level: EMERGENCY < APPOINTMENT < WALK_IN
+// - reference time: the appointment time for APPOINTMENT, the arrival time otherwise
+// - ticket: arrival counter, breaks ties so every key is unique
+//
+// The heap keeps the next patient at index 0 (O(1) peek, O(log n) poll/offer) and
+// each entry remembers its heap index, so remove and re-prioritize are O(log n) too.
+// The treap mirrors the same keys with subtree sizes, which gives O(log n) rank
+// queries for getPatientPosition and an O(n) ordered snapshot for getWaitingList.
+//
+// Aging: a walk-in waiting longer than walkInAging is promoted to the APPOINTMENT
+// level with its arrival time as reference time, so it competes with appointment
+// patients by time instead of being starved by them.
+//
+// Not thread-safe, callers synchronize.
+public class TriageQueue {
+
+    private static final Comparator<Entry> KEY_ORDER = Comparator
+        .comparingInt((Entry e) -> e.level.ordinal())
+        .thenComparing(e -> e.reference)
+        .thenComparingLong(e -> e.ticket);
+
+    private final Duration walkInAging;
+    private final Random treapPriorities = new Random();
+
+    private Entry[] heap = new Entry[16];
+    private int size;
+    private Node root;
+    private long nextTicket;
+
+    private final Map<Long, Entry> entriesByPatientId = new HashMap<>();
+    // Walk-ins by arrival, drained lazily by age() (stale entries are skipped)
+    private final PriorityQueue<Entry> agingCandidates =
+        new PriorityQueue<>(Comparator.comparingLong((Entry e) -> e.ticket));
+
+    public TriageQueue(Duration walkInAging) {
+        this.walkInAging = walkInAging;
+    }
+
+    // ============== Queue Operations ==============
+
+    public boolean offer(Patient patient, QueuePriority priority,
+                         LocalDateTime appointmentTime, LocalDateTime arrival) {
+        if (entriesByPatientId.containsKey(patient.getId())) {
+            return false;
+        }
+        Entry entry = new Entry(patient, arrival, nextTicket++);
+        assignKey(entry, priority, appointmentTime);
+
+        entriesByPatientId.put(patient.getId(), entry);
+        heapInsert(entry);
+        root = treapInsert(root, new Node(entry, treapPriorities.nextInt()));
+        if (priority == QueuePriority.WALK_IN) {
+            agingCandidates.add(entry);
+        }
+        return true;
+    }
+
+    public Patient peek() {
+        return size == 0 ? null : heap[0].patient;
+    }
+
+    public Patient poll() {
+        if (size == 0) {
+            return null;
+        }
+        Entry next = heap[0];
+        detach(next);
+        return next.patient;
+    }
+
+    public boolean remove(Long patientId) {
+        Entry entry = entriesByPatientId.get(patientId);
+        if (entry == null) {
+            return false;
+        }
+        detach(entry);
+        return true;
+    }
+
+    public boolean reprioritize(Long patientId, QueuePriority priority, LocalDateTime appointmentTime) {
+        Entry entry = entriesByPatientId.get(patientId);
+        if (entry == null) {
+            return false;
+        }
+        root = treapDelete(root, entry);
+        assignKey(entry, priority, appointmentTime);
+        heapFix(entry.heapIndex);
+        root = treapInsert(root, new Node(entry, treapPriorities.nextInt()));
+        if (priority == QueuePriority.WALK_IN) {
+            agingCandidates.add(entry);
+        }
+        return true;
+    }
+
+    // Promote every walk-in that has waited at least walkInAging by now
+    public void age(LocalDateTime now) {
+        LocalDateTime threshold = now.minus(walkInAging);
+        while (!agingCandidates.isEmpty()) {
+            Entry oldest = agingCandidates.peek();
+            boolean stale = oldest.heapIndex < 0
+                || oldest.priority != QueuePriority.WALK_IN
+                || oldest.level != QueuePriority.WALK_IN;
+            if (stale) {
+                agingCandidates.poll();
+                continue;
+            }
+            if (oldest.arrival.isAfter(threshold)) {
+                break;
+            }
+            agingCandidates.poll();
+            root = treapDelete(root, oldest);
+            oldest.level = QueuePriority.APPOINTMENT;
+            oldest.reference = oldest.arrival;
+            heapFix(oldest.heapIndex);
+            root = treapInsert(root, new Node(oldest, treapPriorities.nextInt()));
+        }
+    }
+
+    // ============== Queue Info ==============
+
+    // 1-based position, -1 if the patient is not queued
+    public int rank(Long patientId) {
+        Entry entry = entriesByPatientId.get(patientId);
+        if (entry == null) {
+            return -1;
+        }
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = KEY_ORDER.compare(entry, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + sizeOf(node.left) + 1;
+            }
+        }
+        return -1;
+    }
+
+    public QueuePriority priorityOf(Long patientId) {
+        Entry entry = entriesByPatientId.get(patientId);
+        return entry == null ? null : entry.priority;
+    }
+
+    public Patient find(Long patientId) {
+        Entry entry = entriesByPatientId.get(patientId);
+        return entry == null ? null : entry.patient;
+    }
+
+    public List<Patient> snapshot() {
+        List<Patient> ordered = new ArrayList<>(size);
+        collectInOrder(root, ordered);
+        return ordered;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        root = null;
+        entriesByPatientId.clear();
+        agingCandidates.clear();
+    }
+
+    // ============== Internals ==============
+
+    private void assignKey(Entry entry, QueuePriority priority, LocalDateTime appointmentTime) {
+        entry.priority = priority;
+        entry.level = priority;
+        entry.reference = priority == QueuePriority.APPOINTMENT && appointmentTime != null
+            ? appointmentTime
+            : entry.arrival;
+    }
+
+    private void detach(Entry entry) {
+        entriesByPatientId.remove(entry.patient.getId());
+        root = treapDelete(root, entry);
+        heapRemoveAt(entry.heapIndex);
+        entry.heapIndex = -1;
+    }
+
+    private void heapInsert(Entry entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = entry;
+        entry.heapIndex = size;
+        size++;
+        siftUp(entry.heapIndex);
+    }
+
+    private void heapRemoveAt(int index) {
+        int last = --size;
+        if (index != last) {
+            move(heap[last], index);
+            heap[last] = null;
+            heapFix(index);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    private void heapFix(int index) {
+        if (!siftUp(index)) {
+            siftDown(index);
+        }
+    }
+
+    private boolean siftUp(int index) {
+        Entry entry = heap[index];
+        int start = index;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (KEY_ORDER.compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(entry, index);
+        return index != start;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && KEY_ORDER.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (KEY_ORDER.compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            move(heap[child], index);
+            index = child;
+        }
+        move(entry, index);
+    }
+
+    private void move(Entry entry, int index) {
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+
+    private Node treapInsert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.entry);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return update(inserted);
+        }
+        if (KEY_ORDER.compare(inserted.entry, node.entry) < 0) {
+            node.left = treapInsert(node.left, inserted);
+        } else {
+            node.right = treapInsert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private Node treapDelete(Node node, Entry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = KEY_ORDER.compare(entry, node.entry);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = treapDelete(node.left, entry);
+        } else {
+            node.right = treapDelete(node.right, entry);
+        }
+        return update(node);
+    }
+
+    // Split into keys lower than / greater than the given entry
+    private Node[] split(Node node, Entry entry) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (KEY_ORDER.compare(node.entry, entry) < 0) {
+            Node[] parts = split(node.right, entry);
+            node.right = parts[0];
+            return new Node[] {update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, entry);
+        node.left = parts[1];
+        return new Node[] {parts[0], update(node)};
+    }
+
+    private Node merge(Node lower, Node upper) {
+        if (lower == null) {
+            return upper;
+        }
+        if (upper == null) {
+            return lower;
+        }
+        if (lower.priority > upper.priority) {
+            lower.right = merge(lower.right, upper);
+            return update(lower);
+        }
+        upper.left = merge(lower, upper.left);
+        return update(upper);
+    }
+
+    private Node update(Node node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        return node;
+    }
+
+    private int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private void collectInOrder(Node node, List<Patient> ordered) {
+        if (node == null) {
+            return;
+        }
+        collectInOrder(node.left, ordered);
+        ordered.add(node.entry.patient);
+        collectInOrder(node.right, ordered);
+    }
+
+    private static final class Entry {
+        final Patient patient;
+        final LocalDateTime arrival;
+        final long ticket;
+        QueuePriority priority;   // what was assigned
+        QueuePriority level;      // what is used for ordering (after aging)
+        LocalDateTime reference;
+        int heapIndex = -1;
+
+        Entry(Patient patient, LocalDateTime arrival, long ticket) {
+            this.patient = patient;
+            this.arrival = arrival;
+            this.ticket = ticket;
+        }
+    }
+
+    private static final class Node {
+        final Entry entry;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+}
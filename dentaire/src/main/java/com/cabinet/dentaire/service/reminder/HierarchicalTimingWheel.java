@@ -0,0 +1,159 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// ============== Hierarchical Timing Wheel ==============
+// Level 0 has wheelSize buckets of tickMs each. Deadlines beyond its range go to an
+// overflow level whose tick is the whole range of the level below, and so on, so a
+// timeout days away costs the same O(1) insert as one due in a second. When a level
+// reaches the start of an overflow bucket, that bucket cascades down a level.
+//
+// Timeouts never fire early and fire at most one tick late. Cancellation is lazy:
+// cancelled timeouts stay in their bucket and are dropped when they expire.
+// Not thread-safe, callers synchronize.
+public class HierarchicalTimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadline;
+        private final long slotTime;   // deadline rounded up to a level-0 tick
+        private boolean cancelled;
+
+        private Timeout(T payload, long deadline, long slotTime) {
+            this.payload = payload;
+            this.deadline = deadline;
+            this.slotTime = slotTime;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private Level<T> root;
+    private final List<Timeout<T>> alreadyDue = new ArrayList<>();
+    private int pending;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.root = new Level<>(tickMs, wheelSize, startMs);
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMs) {
+        long slotTime = Math.floorDiv(deadlineMs + tickMs - 1, tickMs) * tickMs;
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMs, slotTime);
+        if (!root.add(timeout)) {
+            alreadyDue.add(timeout);
+        }
+        pending++;
+        return timeout;
+    }
+
+    // Moves the wheel to nowMs and returns the timeouts that expired, in deadline order per tick
+    public List<Timeout<T>> advanceTo(long nowMs) {
+        List<Timeout<T>> due = new ArrayList<>(alreadyDue);
+        alreadyDue.clear();
+
+        if (pending == due.size()) {
+            // Nothing left in the buckets: jump instead of walking every tick
+            root = new Level<>(tickMs, wheelSize, nowMs);
+        } else {
+            while (root.currentTime + tickMs <= nowMs) {
+                root.advance(root.currentTime + tickMs, due);
+            }
+        }
+        pending -= due.size();
+
+        List<Timeout<T>> expired = new ArrayList<>(due.size());
+        for (Timeout<T> timeout : due) {
+            if (!timeout.cancelled) {
+                expired.add(timeout);
+            }
+        }
+        return expired;
+    }
+
+    public long currentTime() {
+        return root.currentTime;
+    }
+
+    // Timeouts not expired yet, cancelled ones included until their deadline passes
+    public int pendingCount() {
+        return pending;
+    }
+
+    private static final class Level<T> {
+        final long tick;
+        final int wheelSize;
+        final long interval;
+        final ArrayDeque<Timeout<T>>[] buckets;
+        long currentTime;
+        Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tick, int wheelSize, long startMs) {
+            this.tick = tick;
+            this.wheelSize = wheelSize;
+            this.interval = tick * wheelSize;
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            this.currentTime = Math.floorDiv(startMs, tick) * tick;
+        }
+
+        // false when the timeout is already due at this level
+        boolean add(Timeout<T> timeout) {
+            long slot = Math.floorDiv(timeout.slotTime, tick) * tick;
+            if (slot <= currentTime) {
+                return false;
+            }
+            if (slot < currentTime + interval) {
+                buckets[bucketIndex(slot)].add(timeout);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime);
+            }
+            return overflow.add(timeout);
+        }
+
+        // time is the next multiple of tick; collects what expires at that time
+        void advance(long time, List<Timeout<T>> due) {
+            currentTime = time;
+            if (overflow != null && time % overflow.tick == 0) {
+                List<Timeout<T>> cascaded = new ArrayList<>();
+                overflow.advance(time, cascaded);
+                for (Timeout<T> timeout : cascaded) {
+                    if (!add(timeout)) {
+                        due.add(timeout);
+                    }
+                }
+            }
+            ArrayDeque<Timeout<T>> bucket = buckets[bucketIndex(time)];
+            due.addAll(bucket);
+            bucket.clear();
+        }
+
+        int bucketIndex(long slot) {
+            return (int) Math.floorMod(slot / tick, (long) wheelSize);
+        }
+    }
+}
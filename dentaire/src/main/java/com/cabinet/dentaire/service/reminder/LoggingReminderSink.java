@@ -0,0 +1,30 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cabinet.dentaire.enums.ReminderChannel;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Local stand-in until an SMS / email provider is plugged in: logs what would be sent
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dentaire.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void send(ReminderChannel channel, List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            Reminder.Target target = reminder.target();
+            log.info("[{}] Reminder to {} ({}): appointment #{} at {}",
+                channel,
+                target.patientName(),
+                channel == ReminderChannel.SMS ? target.phone() : target.email(),
+                target.appointmentId(),
+                target.appointmentTime());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// One reminder to send: the appointment (as it was when scheduled) and how long before it
+public record Reminder(Target target, Duration leadTime) {
+
+    // What a reminder needs from the appointment and its patient
+    public record Target(
+            Long appointmentId,
+            Long patientId,
+            String patientName,
+            String phone,
+            String email,
+            LocalDateTime appointmentTime) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.cabinet.dentaire.enums.ReminderChannel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Reminder Scheduler ==============
+// Keeps one timeout per (appointment, lead time) in a timing wheel driven by the
+// given clock. tick() collects the reminders that are due, groups them by channel
+// and hands batches to the executor, so a slow provider never blocks the wheel.
+// Scheduling the same target twice is a no-op; a changed target replaces the
+// pending timeouts (reschedule), cancel() drops them.
+@Slf4j
+public class ReminderScheduler {
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 60;
+
+    private final Clock clock;
+    private final List<Duration> leadTimes;
+    private final Set<ReminderChannel> channels;
+    private final int batchSize;
+    private final ReminderSink sink;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    private final HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<Long, Scheduled> scheduledByAppointment = new HashMap<>();
+
+    public ReminderScheduler(Clock clock, List<Duration> leadTimes, Set<ReminderChannel> channels,
+                             int batchSize, ReminderSink sink, Executor executor, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.leadTimes = List.copyOf(leadTimes);
+        this.channels = Set.copyOf(channels);
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, clock.millis());
+    }
+
+    // Schedules the reminders of target still ahead of now, replacing different pending ones
+    public synchronized void schedule(Reminder.Target target) {
+        Scheduled existing = scheduledByAppointment.get(target.appointmentId());
+        if (existing != null) {
+            if (existing.target.equals(target)) {
+                return;
+            }
+            existing.cancel();
+            scheduledByAppointment.remove(target.appointmentId());
+        }
+
+        long now = clock.millis();
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = new ArrayList<>(leadTimes.size());
+        for (Duration leadTime : leadTimes) {
+            long fireAt = toMillis(target.appointmentTime().minus(leadTime));
+            if (fireAt > now) {
+                timeouts.add(wheel.schedule(new Reminder(target, leadTime), fireAt));
+            }
+        }
+        if (!timeouts.isEmpty()) {
+            scheduledByAppointment.put(target.appointmentId(), new Scheduled(target, timeouts));
+        }
+    }
+
+    public synchronized void cancel(Long appointmentId) {
+        Scheduled existing = scheduledByAppointment.remove(appointmentId);
+        if (existing != null) {
+            existing.cancel();
+        }
+    }
+
+    public void tick() {
+        List<Reminder> due = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            for (HierarchicalTimingWheel.Timeout<Reminder> timeout : wheel.advanceTo(now)) {
+                due.add(timeout.payload());
+                Long appointmentId = timeout.payload().target().appointmentId();
+                Scheduled scheduled = scheduledByAppointment.get(appointmentId);
+                if (scheduled != null && scheduled.allDueBy(now)) {
+                    scheduledByAppointment.remove(appointmentId);
+                }
+            }
+        }
+        if (!due.isEmpty()) {
+            dispatch(due);
+        }
+    }
+
+    public synchronized boolean isScheduled(Long appointmentId) {
+        return scheduledByAppointment.containsKey(appointmentId);
+    }
+
+    public synchronized int scheduledAppointmentCount() {
+        return scheduledByAppointment.size();
+    }
+
+    // ============== Dispatch ==============
+
+    private void dispatch(List<Reminder> due) {
+        Map<ReminderChannel, List<Reminder>> byChannel = new EnumMap<>(ReminderChannel.class);
+        for (Reminder reminder : due) {
+            Reminder.Target target = reminder.target();
+            if (channels.contains(ReminderChannel.SMS) && hasText(target.phone())) {
+                byChannel.computeIfAbsent(ReminderChannel.SMS, c -> new ArrayList<>()).add(reminder);
+            }
+            if (channels.contains(ReminderChannel.EMAIL) && hasText(target.email())) {
+                byChannel.computeIfAbsent(ReminderChannel.EMAIL, c -> new ArrayList<>()).add(reminder);
+            }
+        }
+
+        for (Map.Entry<ReminderChannel, List<Reminder>> entry : byChannel.entrySet()) {
+            List<Reminder> reminders = entry.getValue();
+            for (int from = 0; from < reminders.size(); from += batchSize) {
+                List<Reminder> batch = List.copyOf(reminders.subList(from, Math.min(from + batchSize, reminders.size())));
+                try {
+                    executor.execute(() -> send(entry.getKey(), batch));
+                } catch (RejectedExecutionException e) {
+                    // Only when shutting down, the pool itself pushes back on the caller
+                    log.warn("Dropped {} {} reminders: {}", batch.size(), entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void send(ReminderChannel channel, List<Reminder> batch) {
+        try {
+            sink.send(channel, batch);
+            meterRegistry.counter("dentaire.reminders.sent", "channel", channel.name()).increment(batch.size());
+        } catch (Exception e) {
+            meterRegistry.counter("dentaire.reminders.failures", "channel", channel.name()).increment(batch.size());
+            log.warn("Sending {} {} reminders failed: {}", batch.size(), channel, e.toString());
+        }
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private record Scheduled(Reminder.Target target, List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts) {
+
+        void cancel() {
+            timeouts.forEach(HierarchicalTimingWheel.Timeout::cancel);
+        }
+
+        boolean allDueBy(long now) {
+            for (HierarchicalTimingWheel.Timeout<Reminder> timeout : timeouts) {
+                if (timeout.deadline() > now) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
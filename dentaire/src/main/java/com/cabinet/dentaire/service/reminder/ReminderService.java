@@ -0,0 +1,155 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.cabinet.dentaire.enums.ReminderChannel;
+import com.cabinet.dentaire.event.AppointmentChangedEvent;
+import com.cabinet.dentaire.repository.AppointmentRepository;
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+import com.cabinet.dentaire.service.tenant.TenantScoped;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Appointment Reminders ==============
+// Every reload interval, one query loads the SCHEDULED appointments whose reminders
+// fall before the next reload; they are kept in the ReminderScheduler timing wheel
+// until due. Changes made through the appointment service arrive as
+// AppointmentChangedEvent after commit and reschedule or cancel that appointment.
+// Each clinic has its own wheel; the workers and the sink are shared.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dentaire.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Clock clock;
+    private final Duration horizon;
+    private final ThreadPoolExecutor workers;
+    private final TenantScoped<ReminderScheduler> schedulers;
+
+    public ReminderService(
+            AppointmentRepository appointmentRepository,
+            TenantRegistry tenantRegistry,
+            PlatformTransactionManager transactionManager,
+            ReminderSink sink,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${dentaire.reminders.lead-times:24h,2h}") List<Duration> leadTimes,
+            @Value("${dentaire.reminders.channels:SMS,EMAIL}") Set<ReminderChannel> channels,
+            @Value("${dentaire.reminders.batch-size:50}") int batchSize,
+            @Value("${dentaire.reminders.workers:2}") int workerCount,
+            @Value("${dentaire.reminders.queue-capacity:100}") int queueCapacity,
+            @Value("${dentaire.reminders.reload-interval-ms:3600000}") long reloadIntervalMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.clock = clock;
+        // Reminders firing before the next reload must be loaded by this one (+ a margin)
+        this.horizon = Collections.max(leadTimes).plusMillis(2 * reloadIntervalMs);
+
+        // Bounded: when the provider falls behind, the tick thread sends the batch itself
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> new Thread(runnable, "reminder-" + threadNumber.incrementAndGet()),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.schedulers = new TenantScoped<>(
+            () -> new ReminderScheduler(clock, leadTimes, channels, batchSize, sink, workers, meterRegistry));
+    }
+
+    @Scheduled(fixedDelayString = "${dentaire.reminders.reload-interval-ms:3600000}")
+    public void reload() {
+        tenantRegistry.forEachTenant(() -> readOnlyTransactionTemplate.executeWithoutResult(status -> reloadTenant()));
+    }
+
+    private void reloadTenant() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Appointment> upcoming = appointmentRepository.findWithPatientByStatusAndDateTimeBetween(
+            AppointmentEnums.SCHEDULED, now, now.plus(horizon));
+        ReminderScheduler scheduler = schedulers.get();
+        for (Appointment appointment : upcoming) {
+            scheduler.schedule(toTarget(appointment));
+        }
+        log.info("Reminders of {} loaded for {} upcoming appointments", TenantContext.current(), upcoming.size());
+    }
+
+    @Scheduled(fixedRateString = "${dentaire.reminders.tick-ms:1000}")
+    public void tick() {
+        schedulers.forEach((tenant, scheduler) -> TenantContext.runAs(tenant, scheduler::tick));
+    }
+
+    // New transaction = fresh persistence context: the request's one (open-in-view)
+    // still holds the appointment as posted, possibly with a bare patient reference
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        ReminderScheduler scheduler = schedulers.get();
+        LocalDateTime now = LocalDateTime.now(clock);
+        Set<Long> reminded = new HashSet<>();
+        for (Appointment appointment : appointmentRepository.findWithPatientByIdIn(event.appointmentIds())) {
+            boolean remind = appointment.getStatus() == AppointmentEnums.SCHEDULED
+                && appointment.getDateTime().isAfter(now)
+                && !appointment.getDateTime().isAfter(now.plus(horizon));
+            if (remind) {
+                scheduler.schedule(toTarget(appointment));
+                reminded.add(appointment.getId());
+            }
+        }
+        // Cancelled, done, deleted or out of the window (the next reload picks it up)
+        for (Long appointmentId : event.appointmentIds()) {
+            if (!reminded.contains(appointmentId)) {
+                scheduler.cancel(appointmentId);
+            }
+        }
+    }
+
+    public boolean isScheduled(Long appointmentId) {
+        return schedulers.get().isScheduled(appointmentId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private Reminder.Target toTarget(Appointment appointment) {
+        Patient patient = appointment.getPatient();
+        return new Reminder.Target(
+            appointment.getId(),
+            patient.getId(),
+            patient.getFirstName() + " " + patient.getLastName(),
+            patient.getPhone(),
+            patient.getEmail(),
+            appointment.getDateTime());
+    }
+}
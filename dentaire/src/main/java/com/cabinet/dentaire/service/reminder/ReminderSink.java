@@ -0,0 +1,12 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.util.List;
+
+import com.cabinet.dentaire.enums.ReminderChannel;
+
+// SMS / email provider. Receives batches of up to dentaire.reminders.batch-size
+// reminders of one channel, from the reminder worker threads.
+public interface ReminderSink {
+
+    void send(ReminderChannel channel, List<Reminder> reminders) throws Exception;
+}
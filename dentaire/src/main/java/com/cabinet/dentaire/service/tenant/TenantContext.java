@@ -0,0 +1,44 @@
+package com.cabinet.dentaire.service.tenant;
+
+import java.util.function.Supplier;
+
+// Clinic of the current thread: set by TenantFilter for a request and by
+// TenantRegistry.forEachTenant for background work. Unset means DEFAULT_TENANT,
+// the single clinic of a deployment without tenancy (public schema).
+// Thread-bound: work handed to another thread must carry the tenant itself.
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void runAs(String tenant, Runnable task) {
+        callAs(tenant, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    // Restores the previous tenant, calls can nest
+    public static <T> T callAs(String tenant, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
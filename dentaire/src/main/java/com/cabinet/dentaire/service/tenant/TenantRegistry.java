@@ -0,0 +1,112 @@
+package com.cabinet.dentaire.service.tenant;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// ============== Clinics (schema per tenant) ==============
+// With dentaire.tenancy.enabled, one instance serves the configured clinics, each in
+// its own PostgreSQL schema (prefix + id), created and migrated at startup by
+// TenantSchemaProvisioner. Requests name their clinic in a header (TenantFilter);
+// connections are routed to the schema and capped per clinic (TenantRoutingDataSource).
+// Disabled, the only tenant is DEFAULT_TENANT on the public schema, as before.
+@Slf4j
+@Component
+public class TenantRegistry {
+
+    private static final String TENANT_ID_PATTERN = "[a-z0-9_]{1,40}";
+
+    private final boolean enabled;
+    private final List<String> tenants;
+    private final Set<String> known;
+    private final String schemaPrefix;
+    private final String header;
+    private final int reservedConnectionsPerTenant;
+    private final int maxConnectionsPerTenant;
+    private final Duration connectionWait;
+
+    public TenantRegistry(
+            @Value("${dentaire.tenancy.enabled:false}") boolean enabled,
+            @Value("${dentaire.tenancy.tenants:}") List<String> tenants,
+            @Value("${dentaire.tenancy.schema-prefix:clinic_}") String schemaPrefix,
+            @Value("${dentaire.tenancy.header:X-Tenant-Id}") String header,
+            @Value("${dentaire.tenancy.reserved-connections-per-tenant:1}") int reservedConnectionsPerTenant,
+            @Value("${dentaire.tenancy.max-connections-per-tenant:4}") int maxConnectionsPerTenant,
+            @Value("${dentaire.tenancy.connection-wait-ms:5000}") long connectionWaitMs) {
+        List<String> ids = tenants.stream().map(String::trim).filter(id -> !id.isEmpty()).distinct().toList();
+        for (String id : ids) {
+            if (!id.matches(TENANT_ID_PATTERN) || id.equals(TenantContext.DEFAULT_TENANT)) {
+                throw new IllegalArgumentException("Invalid tenant id: " + id);
+            }
+        }
+        if (!schemaPrefix.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid tenant schema prefix: " + schemaPrefix);
+        }
+        if (enabled && ids.isEmpty()) {
+            throw new IllegalArgumentException("dentaire.tenancy.tenants is empty");
+        }
+        this.enabled = enabled;
+        this.tenants = enabled ? ids : List.of(TenantContext.DEFAULT_TENANT);
+        this.known = Set.copyOf(this.tenants);
+        this.schemaPrefix = schemaPrefix;
+        this.header = header;
+        this.reservedConnectionsPerTenant = Math.max(1, reservedConnectionsPerTenant);
+        this.maxConnectionsPerTenant = Math.max(1, maxConnectionsPerTenant);
+        this.connectionWait = Duration.ofMillis(connectionWaitMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> tenants() {
+        return tenants;
+    }
+
+    public boolean isKnown(String tenant) {
+        return tenant != null && known.contains(tenant);
+    }
+
+    public String schemaOf(String tenant) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenant)) {
+            return "public";
+        }
+        if (!isKnown(tenant)) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        return schemaPrefix + tenant;
+    }
+
+    public String header() {
+        return header;
+    }
+
+    public int reservedConnectionsPerTenant() {
+        return reservedConnectionsPerTenant;
+    }
+
+    public int maxConnectionsPerTenant() {
+        return maxConnectionsPerTenant;
+    }
+
+    public Duration connectionWait() {
+        return connectionWait;
+    }
+
+    // Background work: runs the task once per clinic with its tenant set. A clinic
+    // that fails is logged and skipped, the others still run
+    public void forEachTenant(Runnable task) {
+        for (String tenant : tenants) {
+            try {
+                TenantContext.runAs(tenant, task);
+            } catch (RuntimeException e) {
+                log.error("Task failed for tenant {}", tenant, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.cabinet.dentaire.service.tenant;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// Creates each clinic's schema and applies db/migration to it at startup (a new
+// clinic in dentaire.tenancy.tenants gets its tables on the next start, existing
+// ones only the missing migrations). Every schema has its own Flyway history.
+// The public schema is left to the usual setup (ddl-auto / Flyway in prod).
+@Slf4j
+@Component
+public class TenantSchemaProvisioner {
+
+    private final TenantRegistry tenantRegistry;
+    private final DataSource dataSource;
+    private final String textSearchConfig;
+
+    public TenantSchemaProvisioner(
+            TenantRegistry tenantRegistry,
+            DataSource dataSource,
+            @Value("${dentaire.search.text-config:french}") String textSearchConfig) {
+        // Inlined in V6__full_text_search
+        if (!textSearchConfig.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Invalid text search config: " + textSearchConfig);
+        }
+        this.tenantRegistry = tenantRegistry;
+        this.dataSource = dataSource;
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    @PostConstruct
+    public void migrateTenantSchemas() {
+        if (!tenantRegistry.isEnabled()) {
+            return;
+        }
+        for (String tenant : tenantRegistry.tenants()) {
+            String schema = tenantRegistry.schemaOf(tenant);
+            int applied = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .createSchemas(true)
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("text_search_config", textSearchConfig))
+                .load()
+                .migrate()
+                .migrationsExecuted;
+            if (applied > 0) {
+                log.info("Tenant {}: {} migrations applied to schema {}", tenant, applied, schema);
+            }
+        }
+        log.info("Tenant schemas ready for {} clinics", tenantRegistry.tenants().size());
+    }
+}
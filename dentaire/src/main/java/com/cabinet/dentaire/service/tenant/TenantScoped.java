@@ -0,0 +1,32 @@
+package com.cabinet.dentaire.service.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// One instance of some in-memory state per clinic (queue, cache, summary), created
+// on the first access of that clinic, so idle clinics cost nothing.
+public class TenantScoped<T> {
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    public TenantScoped(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    // State of the current tenant
+    public T get() {
+        return values.computeIfAbsent(TenantContext.current(), tenant -> factory.get());
+    }
+
+    public void set(T value) {
+        values.put(TenantContext.current(), value);
+    }
+
+    // Tenants that have state, in no particular order
+    public void forEach(BiConsumer<String, T> action) {
+        values.forEach(action);
+    }
+}
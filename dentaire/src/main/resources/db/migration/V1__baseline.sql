@@ -0,0 +1,69 @@
+-- ============== Baseline schema ==============
+-- The tables as the first release mapped them (its ddl-auto=update created the
+-- same). Databases that already have them are baselined at this version and skip
+-- this script (spring.flyway.baseline-on-migrate), so it must stay exactly that
+-- schema: everything added since is a V<n>__*.sql script (V7 for the columns,
+-- tables and indexes that came before migrations), checked at startup by
+-- ddl-auto=validate.
+
+create table appointment_treatments (
+    price_charged numeric(10,2),
+    quantity integer not null,
+    appointment_id bigint not null,
+    ceated_at timestamp(6),
+    id bigint generated by default as identity,
+    treatment_id bigint not null,
+    updated_at timestamp(6),
+    notes varchar(500),
+    primary key (id)
+);
+
+create table appointments (
+    ceated_at timestamp(6),
+    date_time timestamp(6) not null,
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    updated_at timestamp(6),
+    status varchar(20) not null check (status in ('SCHEDULED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW')),
+    notes varchar(1000),
+    primary key (id)
+);
+
+create table patients (
+    birth_date date,
+    ceated_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    phone varchar(20) not null,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    address varchar(255),
+    email varchar(255) unique,
+    primary key (id)
+);
+
+create table treatments (
+    price numeric(10,2) not null,
+    ceated_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    code varchar(20),
+    name varchar(100) not null,
+    description varchar(1000),
+    primary key (id)
+);
+
+alter table if exists appointment_treatments
+   add constraint FK5qeekp1thx25adqphu66llwpe
+   foreign key (appointment_id)
+   references appointments;
+
+alter table if exists appointment_treatments
+   add constraint FKhv1oekjuu93x7i9ywjt2innkm
+   foreign key (treatment_id)
+   references treatments;
+
+alter table if exists appointments
+   add constraint FK8exap5wmg8kmb1g1rx3by21yt
+   foreign key (patient_id)
+   references patients;
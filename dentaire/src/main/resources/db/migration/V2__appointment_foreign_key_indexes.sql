@@ -0,0 +1,7 @@
+-- Per-patient appointment reads (and their conditional-GET version check) and the
+-- lines of an appointment. IF NOT EXISTS: ddl-auto=update may have created them.
+create index if not exists idx_appointments_patient_id_date_time
+   on appointments (patient_id, date_time);
+
+create index if not exists idx_appointment_treatments_appointment_id
+   on appointment_treatments (appointment_id);
@@ -0,0 +1,19 @@
+-- Audit trail (AuditTrail writes it in batches). IF NOT EXISTS: ddl-auto=update
+-- may have created it.
+create table if not exists audit_log (
+    changed_at timestamp(6) not null,
+    ceated_at timestamp(6),
+    entity_id bigint not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    action varchar(10) not null check (action in ('CREATED','UPDATED','DELETED')),
+    actor varchar(100) not null,
+    entity_type varchar(30) not null check (entity_type in ('PATIENT','APPOINTMENT','APPOINTMENT_TREATMENT')),
+    event_id varchar(36) not null,
+    changes text not null,
+    primary key (id),
+    constraint uk_audit_log_event_id unique (event_id)
+);
+
+create index if not exists idx_audit_log_entity
+   on audit_log (entity_type, entity_id, changed_at);
@@ -0,0 +1,19 @@
+-- Effective-dated price history of the treatments. IF NOT EXISTS: ddl-auto=update
+-- may have created it.
+create table if not exists treatment_prices (
+    price numeric(10,2) not null,
+    ceated_at timestamp(6),
+    effective_from timestamp(6) not null,
+    id bigint generated by default as identity,
+    treatment_id bigint not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_treatment_prices_treatment_effective unique (treatment_id, effective_from)
+);
+
+-- Current prices become the first entry of every treatment (the earliest entry also
+-- prices anything before it, see TreatmentPriceSnapshot)
+insert into treatment_prices (treatment_id, price, effective_from, ceated_at, updated_at)
+select t.id, t.price, coalesce(t.ceated_at, now()), now(), now()
+  from treatments t
+ where not exists (select 1 from treatment_prices p where p.treatment_id = t.id);
@@ -0,0 +1,38 @@
+-- Invoice runs and the invoices they issue. IF NOT EXISTS: ddl-auto=update may have
+-- created them.
+create table if not exists invoice_runs (
+    patients_done integer not null,
+    patients_total integer not null,
+    period_end date not null,
+    period_start date not null,
+    total_amount numeric(14,2) not null,
+    ceated_at timestamp(6),
+    finished_at timestamp(6),
+    id bigint generated by default as identity,
+    last_patient_id bigint not null,
+    started_at timestamp(6),
+    updated_at timestamp(6),
+    status varchar(20) not null check (status in ('RUNNING','COMPLETED','FAILED')),
+    last_error varchar(500),
+    primary key (id),
+    constraint uk_invoice_runs_period unique (period_start, period_end)
+);
+
+create table if not exists invoices (
+    appointment_count integer not null,
+    line_count integer not null,
+    period_end date not null,
+    period_start date not null,
+    total numeric(12,2) not null,
+    ceated_at timestamp(6),
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    run_id bigint not null,
+    updated_at timestamp(6),
+    lines text not null,
+    primary key (id),
+    constraint uk_invoices_patient_period unique (patient_id, period_start, period_end)
+);
+
+create index if not exists idx_invoices_run_id_patient_id
+   on invoices (run_id, patient_id);
@@ -0,0 +1,23 @@
+-- Note search: stored generated tsvector columns + GIN indexes, maintained by
+-- PostgreSQL on every write (see NoteSearchJdbcRepository). ${text_search_config} is
+-- dentaire.search.text-config. IF NOT EXISTS: FullTextSearchSchema creates the same
+-- columns on a schema left to ddl-auto=update.
+alter table appointments add column if not exists notes_tsv tsvector
+   generated always as (to_tsvector('${text_search_config}'::regconfig, coalesce(notes, ''))) stored;
+
+create index if not exists idx_appointments_notes_tsv
+   on appointments using gin (notes_tsv);
+
+alter table appointment_treatments add column if not exists notes_tsv tsvector
+   generated always as (to_tsvector('${text_search_config}'::regconfig, coalesce(notes, ''))) stored;
+
+create index if not exists idx_appointment_treatments_notes_tsv
+   on appointment_treatments using gin (notes_tsv);
+
+-- Name weighs more than the description in the ranking
+alter table treatments add column if not exists search_tsv tsvector
+   generated always as (setweight(to_tsvector('${text_search_config}'::regconfig, coalesce(name, '')), 'A')
+      || setweight(to_tsvector('${text_search_config}'::regconfig, coalesce(description, '')), 'B')) stored;
+
+create index if not exists idx_treatments_search_tsv
+   on treatments using gin (search_tsv);
@@ -0,0 +1,98 @@
+-- ============== Schema added before migrations ==============
+-- Columns, constraints, tables and indexes that ddl-auto=update created between the
+-- first release (V1) and the switch to Flyway: delta sync (updated_at keysets,
+-- sync_tombstones), outbox, duplicate detection, unique phone and treatment code.
+-- A database baselined at V1 gets them here; one that ddl-auto=update already
+-- brought up to date keeps what it has (IF NOT EXISTS everywhere).
+-- uk_patients_phone fails on a database holding two patients with the same phone,
+-- merge them first (select phone from patients group by phone having count(*) > 1).
+
+alter table patients add column if not exists phone_key varchar(20);
+alter table patients add column if not exists name_key varchar(60);
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint
+                   where conname = 'uk_patients_phone' and conrelid = 'patients'::regclass) then
+        alter table patients add constraint uk_patients_phone unique (phone);
+    end if;
+    if not exists (select 1 from pg_constraint
+                   where conname = 'uk_treatments_code' and conrelid = 'treatments'::regclass) then
+        alter table treatments add constraint uk_treatments_code unique (code);
+    end if;
+end $$;
+
+create table if not exists duplicate_suggestions (
+    score float(53) not null,
+    ceated_at timestamp(6),
+    duplicate_id bigint not null,
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    updated_at timestamp(6),
+    status varchar(20) not null check (status in ('PENDING','DISMISSED','MERGED')),
+    reasons varchar(200),
+    primary key (id),
+    constraint uk_duplicate_suggestions_pair unique (patient_id, duplicate_id)
+);
+
+create table if not exists outbox_events (
+    attempts integer not null,
+    aggregate_id bigint not null,
+    ceated_at timestamp(6),
+    id bigint generated by default as identity,
+    published_at timestamp(6),
+    updated_at timestamp(6),
+    aggregate_type varchar(50) not null,
+    event_type varchar(50) not null check (event_type in ('APPOINTMENT_CREATED','APPOINTMENT_UPDATED','APPOINTMENT_STATUS_CHANGED')),
+    last_error varchar(500),
+    payload text not null,
+    primary key (id)
+);
+
+create table if not exists sync_tombstones (
+    ceated_at timestamp(6),
+    entity_id bigint not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    entity_type varchar(30) not null check (entity_type in ('PATIENT','TREATMENT','APPOINTMENT','APPOINTMENT_TREATMENT')),
+    primary key (id)
+);
+
+create index if not exists idx_appointment_treatments_updated_at
+   on appointment_treatments (updated_at, id);
+
+create index if not exists idx_appointments_updated_at
+   on appointments (updated_at, id);
+
+create index if not exists idx_appointments_status_date_time
+   on appointments (status, date_time);
+
+create index if not exists idx_appointments_date_time
+   on appointments (date_time);
+
+create index if not exists idx_duplicate_suggestions_duplicate_id
+   on duplicate_suggestions (duplicate_id);
+
+create index if not exists idx_duplicate_suggestions_status_score
+   on duplicate_suggestions (status, score);
+
+create index if not exists idx_outbox_events_published_at
+   on outbox_events (published_at, id);
+
+create index if not exists idx_patients_updated_at
+   on patients (updated_at, id);
+
+create index if not exists idx_patients_phone_key
+   on patients (phone_key);
+
+create index if not exists idx_patients_name_key
+   on patients (name_key);
+
+create index if not exists idx_patients_birth_date
+   on patients (birth_date);
+
+create index if not exists idx_sync_tombstones_updated_at
+   on sync_tombstones (updated_at, id);
+
+create index if not exists idx_treatments_updated_at
+   on treatments (updated_at, id);
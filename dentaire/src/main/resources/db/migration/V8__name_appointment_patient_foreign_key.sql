@@ -0,0 +1,11 @@
+-- The appointments -> patients foreign key had the name Hibernate derives from the
+-- entity, table and column names; the service recognises its violations by name
+-- ("Patient not found"), so it is now named explicitly on Appointment.patient.
+-- A database created by ddl-auto=update after that change already has the new name.
+do $$
+begin
+    if exists (select 1 from pg_constraint
+               where conname = 'fk8exap5wmg8kmb1g1rx3by21yt' and conrelid = 'appointments'::regclass) then
+        alter table appointments rename constraint fk8exap5wmg8kmb1g1rx3by21yt to fk_appointments_patient;
+    end if;
+end $$;
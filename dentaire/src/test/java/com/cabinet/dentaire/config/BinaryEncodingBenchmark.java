@@ -0,0 +1,164 @@
+package com.cabinet.dentaire.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.cabinet.dentaire.entity.Appointment;
+import com.cabinet.dentaire.entity.AppointmentTreatment;
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.enums.AppointmentEnums;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Payload size and encode / decode time of JSON, CBOR and Smile for the Appointment
+// (with patient and lines) and Patient shapes, mappers configured like the converters.
+// Not part of the build: mvn test -Dtest=BinaryEncodingBenchmark -DexcludedGroups=none
+@Tag("benchmark")
+class BinaryEncodingBenchmark {
+
+	private static final int WARMUP_ROUNDS = 200;
+	private static final int MEASURED_ROUNDS = 300;
+
+	@Test
+	void appointments() throws IOException {
+		compare("Appointment x500", appointments(500), new TypeReference<List<Appointment>>() { });
+	}
+
+	@Test
+	void patients() throws IOException {
+		compare("Patient x500", patients(500), new TypeReference<List<Patient>>() { });
+	}
+
+	private <T> void compare(String shape, List<T> values, TypeReference<List<T>> type) throws IOException {
+		System.out.printf("%n%s%n%-6s %10s %10s %12s %12s%n", shape, "format", "bytes", "gzip", "encode us", "decode us");
+		int jsonBytes = 0;
+		for (String format : List.of("json", "cbor", "smile")) {
+			ObjectMapper mapper = mapper(format);
+			byte[] encoded = mapper.writeValueAsBytes(values);
+			assertEquals(values.size(), mapper.readValue(encoded, type).size());
+
+			for (int i = 0; i < WARMUP_ROUNDS; i++) {
+				mapper.readValue(mapper.writeValueAsBytes(values), type);
+			}
+			long encodeNanos = 0;
+			long decodeNanos = 0;
+			for (int i = 0; i < MEASURED_ROUNDS; i++) {
+				long start = System.nanoTime();
+				byte[] bytes = mapper.writeValueAsBytes(values);
+				long encodedAt = System.nanoTime();
+				mapper.readValue(bytes, type);
+				decodeNanos += System.nanoTime() - encodedAt;
+				encodeNanos += encodedAt - start;
+			}
+			System.out.printf("%-6s %10d %10d %12d %12d%n", format, encoded.length, gzip(encoded).length,
+				encodeNanos / MEASURED_ROUNDS / 1000, decodeNanos / MEASURED_ROUNDS / 1000);
+
+			if (format.equals("json")) {
+				jsonBytes = encoded.length;
+			} else {
+				assertTrue(encoded.length < jsonBytes, format + " should be smaller than JSON");
+			}
+		}
+	}
+
+	private static ObjectMapper mapper(String format) {
+		JsonFactory factory = switch (format) {
+			case "cbor" -> BinaryContentConfig.cborFactory();
+			case "smile" -> BinaryContentConfig.smileFactory();
+			default -> new JsonFactory();
+		};
+		return Jackson2ObjectMapperBuilder.json().factory(factory).build();
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static List<Patient> patients(int count) {
+		Random random = new Random(7);
+		List<Patient> patients = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Patient patient = Patient.builder()
+				.firstName("Prenom" + random.nextInt(200))
+				.lastName("Nom" + random.nextInt(2000))
+				.email("patient" + i + "@example.ma")
+				.phone(String.format("06%08d", random.nextInt(100_000_000)))
+				.birthDate(LocalDate.of(1950 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28)))
+				.address(random.nextInt(200) + " rue des Orangers, Casablanca")
+				.build();
+			patient.setId((long) i + 1);
+			patient.setCeatedAt(LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(i * 37L));
+			patient.setUpdatedAt(patient.getCeatedAt().plusDays(random.nextInt(300)));
+			patients.add(patient);
+		}
+		return patients;
+	}
+
+	// Appointments of 20 patients, 1 to 3 lines each from a small catalog
+	private static List<Appointment> appointments(int count) {
+		Random random = new Random(11);
+		List<Patient> patients = patients(20);
+		List<Treatment> catalog = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Treatment treatment = Treatment.builder()
+				.name("Soin " + i)
+				.description(i % 2 == 0 ? "Description du soin " + i : null)
+				.price(BigDecimal.valueOf(150 + 50L * i))
+				.code("T" + i)
+				.build();
+			treatment.setId((long) i + 1);
+			treatment.setCeatedAt(LocalDateTime.of(2024, 6, 1, 8, 0));
+			treatment.setUpdatedAt(LocalDateTime.of(2025, 3, 1, 8, 0));
+			catalog.add(treatment);
+		}
+		AppointmentEnums[] statuses = AppointmentEnums.values();
+		List<Appointment> appointments = new ArrayList<>();
+		long lineId = 1;
+		for (int i = 0; i < count; i++) {
+			Appointment appointment = Appointment.builder()
+				.patient(patients.get(random.nextInt(patients.size())))
+				.dateTime(LocalDateTime.of(2025, 1, 2, 9, 0).plusMinutes(30L * i))
+				.status(statuses[random.nextInt(statuses.length)])
+				.notes(random.nextInt(3) == 0 ? "Controle apres detartrage" : null)
+				.build();
+			appointment.setId((long) i + 1);
+			appointment.setCeatedAt(appointment.getDateTime().minusDays(10));
+			appointment.setUpdatedAt(appointment.getDateTime().plusHours(1));
+			for (int l = 0, lines = 1 + random.nextInt(3); l < lines; l++) {
+				Treatment treatment = catalog.get(random.nextInt(catalog.size()));
+				AppointmentTreatment line = AppointmentTreatment.builder()
+					.appointment(appointment)
+					.treatment(treatment)
+					.quantity(1 + random.nextInt(2))
+					.priceCharged(treatment.getPrice())
+					.build();
+				line.setId(lineId++);
+				line.setCeatedAt(appointment.getCeatedAt());
+				line.setUpdatedAt(appointment.getUpdatedAt());
+				appointment.getAppointmentTreatments().add(line);
+			}
+			appointments.add(appointment);
+		}
+		return appointments;
+	}
+}
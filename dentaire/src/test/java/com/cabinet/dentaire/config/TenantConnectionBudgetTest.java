@@ -0,0 +1,83 @@
+package com.cabinet.dentaire.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TenantConnectionBudgetTest {
+
+	private static final Duration NO_WAIT = Duration.ZERO;
+
+	@Test
+	void sharesAreDerivedFromThePoolSize() throws InterruptedException {
+		// 10 connections: 1 kept for nested transactions, 3 reserved, 6 in common
+		TenantConnectionBudget budget = new TenantConnectionBudget(10, List.of("a", "b", "c"), 1, 4);
+		assertEquals(6, budget.common());
+		assertEquals(4, budget.cap());
+
+		// A busy clinic stops at its cap
+		for (int i = 0; i < 4; i++) {
+			assertTrue(budget.tryAcquire("a", NO_WAIT));
+		}
+		assertFalse(budget.tryAcquire("a", NO_WAIT));
+		assertEquals(4, budget.inUse("a"));
+
+		// Two clinics drain the common share, the third still has its reserved one
+		for (int i = 0; i < 4; i++) {
+			assertTrue(budget.tryAcquire("b", NO_WAIT));
+		}
+		assertFalse(budget.tryAcquire("b", NO_WAIT));
+		assertTrue(budget.tryAcquire("c", NO_WAIT));
+		assertFalse(budget.tryAcquire("c", NO_WAIT));
+
+		// What goes back to the common share is free for anyone
+		budget.release("a");
+		assertTrue(budget.tryAcquire("c", NO_WAIT));
+		assertEquals(3, budget.inUse("a"));
+		assertEquals(2, budget.inUse("c"));
+	}
+
+	@Test
+	void capNeverExceedsWhatThePoolCanGive() {
+		TenantConnectionBudget budget = new TenantConnectionBudget(4, List.of("a", "b"), 1, 10);
+		assertEquals(1, budget.common());
+		assertEquals(2, budget.cap());
+	}
+
+	@Test
+	void aPoolTooSmallForTheReservationsFailsTheStartup() {
+		// 4 clinics with 1 reserved each need 5 connections with the nested one
+		assertThrows(IllegalArgumentException.class,
+			() -> new TenantConnectionBudget(4, List.of("a", "b", "c", "d"), 1, 4));
+		new TenantConnectionBudget(5, List.of("a", "b", "c", "d"), 1, 4);
+	}
+
+	@Test
+	void aWaitingClinicGetsTheReleasedPermit() throws Exception {
+		TenantConnectionBudget budget = new TenantConnectionBudget(2, List.of("a"), 1, 4);
+		assertTrue(budget.tryAcquire("a", NO_WAIT));
+
+		Thread releaser = new Thread(() -> {
+			sleep(100);
+			budget.release("a");
+		});
+		releaser.start();
+		assertTrue(budget.tryAcquire("a", Duration.ofSeconds(5)));
+		releaser.join();
+		assertFalse(budget.tryAcquire("a", Duration.ofMillis(50)));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.cabinet.dentaire.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.service.tenant.TenantContext;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+class TenantRoutingDataSourceTest {
+
+	// 1 reserved and at most 1 per clinic: a second permit would have to wait
+	private final TenantRegistry tenantRegistry =
+		new TenantRegistry(true, List.of("nord", "sud"), "clinic_", "X-Tenant-Id", 1, 1, 200);
+	private final DataSource pool = mock(DataSource.class);
+	// What the pool handed out, behind the routing proxies
+	private final List<Connection> handedOut = new ArrayList<>();
+	private TenantRoutingDataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		when(pool.getConnection()).thenAnswer(invocation -> {
+			Connection connection = mock(Connection.class);
+			handedOut.add(connection);
+			return connection;
+		});
+		dataSource = new TenantRoutingDataSource(pool, tenantRegistry, 10);
+	}
+
+	@Test
+	void connectionsAreSwitchedToTheSchemaOfTheClinic() throws SQLException {
+		Connection nord = TenantContext.callAs("nord", this::connection);
+		dataSource.getConnection();
+
+		verify(handedOut.get(0)).setSchema("clinic_nord");
+		// Outside of a clinic, the default tenant
+		verify(handedOut.get(1)).setSchema("public");
+		assertEquals(1, dataSource.inUse("nord"));
+		nord.close();
+		verify(handedOut.get(0)).close();
+		// Closing twice gives back a single permit
+		nord.close();
+		assertEquals(0, dataSource.inUse("nord"));
+		assertThrows(IllegalArgumentException.class, () -> dataSource.getConnection("ouest"));
+	}
+
+	@Test
+	void nestedConnectionsOfAThreadReuseItsPermit() throws SQLException {
+		Connection outer = dataSource.getConnection("nord");
+		// A REQUIRES_NEW listener under the request's connection does not wait
+		Connection nested = dataSource.getConnection("nord");
+		assertEquals(1, dataSource.inUse("nord"));
+
+		nested.close();
+		assertEquals(1, dataSource.inUse("nord"));
+		outer.close();
+		assertEquals(0, dataSource.inUse("nord"));
+	}
+
+	@Test
+	void anotherThreadWaitsOnTheClinicBudgetThenFails() throws Exception {
+		Connection held = dataSource.getConnection("nord");
+
+		CompletableFuture<Throwable> other = CompletableFuture.supplyAsync(() -> {
+			try {
+				dataSource.getConnection("nord").close();
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+		assertEquals(SQLTransientConnectionException.class, other.get(5, TimeUnit.SECONDS).getClass());
+		// The other clinic is not affected
+		dataSource.getConnection("sud").close();
+
+		held.close();
+		CompletableFuture.runAsync(() -> {
+			try {
+				dataSource.getConnection("nord").close();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		}).get(5, TimeUnit.SECONDS);
+		assertEquals(0, dataSource.inUse("nord"));
+	}
+
+	@Test
+	void aFailedSchemaSwitchGivesThePermitBack() throws SQLException {
+		Connection broken = mock(Connection.class);
+		doThrow(new SQLException("down")).when(broken).setSchema("clinic_nord");
+		when(pool.getConnection()).thenReturn(broken);
+
+		assertThrows(SQLException.class, () -> dataSource.getConnection("nord"));
+		verify(broken).close();
+		assertEquals(0, dataSource.inUse("nord"));
+	}
+
+	private Connection connection() {
+		try {
+			return dataSource.getConnection();
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
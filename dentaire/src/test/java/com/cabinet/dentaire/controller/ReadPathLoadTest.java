@@ -0,0 +1,137 @@
+package com.cabinet.dentaire.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+// Closed-loop load against a running instance: at each concurrency level, that many
+// clients send the same GET back to back for a fixed time, to the blocking MVC
+// endpoint and to its /api/reactive twin. Prints throughput, latency percentiles and
+// errors (non-200, timeouts); the ceiling is where throughput stops growing and
+// latency / errors take off. Also sampled from /actuator/metrics: the peak number of
+// busy Tomcat threads and of requests waiting for a JDBC connection, i.e. what each
+// path holds while waiting on the database. Not part of the build:
+//   mvn test -Dtest=ReadPathLoadTest -DexcludedGroups=none -Dloadtest.baseUrl=http://localhost:8081
+// Optional: -Dloadtest.paths=appointments/today,appointments/patient/1
+//           -Dloadtest.levels=25,100,400,800 -Dloadtest.seconds=10
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "loadtest.baseUrl", matches = ".+")
+class ReadPathLoadTest {
+
+	private record Result(int requests, int errors, double perSecond, long p50Ms, long p99Ms,
+						  int busyThreads, int pendingConnections) {
+	}
+
+	private static final Pattern METRIC_VALUE = Pattern.compile("\"value\":([0-9.eE+-]+)");
+
+	private final String baseUrl = System.getProperty("loadtest.baseUrl");
+	private final List<String> paths = List.of(System.getProperty("loadtest.paths", "appointments/today,appointments/patient/1").split(","));
+	private final List<Integer> levels = List.of(System.getProperty("loadtest.levels", "25,100,400,800").split(","))
+		.stream().map(String::trim).map(Integer::valueOf).toList();
+	private final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 10));
+	private final Duration timeout = Duration.ofSeconds(Long.getLong("loadtest.timeout-seconds", 10));
+
+	private final HttpClient client = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_1_1)
+		.connectTimeout(Duration.ofSeconds(5))
+		.build();
+
+	@Test
+	void blockingVersusReactive() {
+		for (String path : paths) {
+			System.out.printf("%n/%s%n%-9s %6s %9s %8s %8s %8s %8s %8s%n", path,
+				"endpoint", "level", "req/s", "p50 ms", "p99 ms", "errors", "threads", "pending");
+			for (int level : levels) {
+				for (String prefix : List.of("/api/", "/api/reactive/")) {
+					Result result = run(URI.create(baseUrl + prefix + path), level);
+					System.out.printf("%-9s %6d %9.1f %8d %8d %8d %8d %8d%n", prefix.contains("reactive") ? "reactive" : "mvc",
+						level, result.perSecond(), result.p50Ms(), result.p99Ms(), result.errors(),
+						result.busyThreads(), result.pendingConnections());
+					assertTrue(result.requests() > 0, "no request completed");
+				}
+			}
+		}
+	}
+
+	private Result run(URI uri, int concurrency) {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+		ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+		AtomicInteger errors = new AtomicInteger();
+		AtomicInteger busyThreads = new AtomicInteger();
+		AtomicInteger pendingConnections = new AtomicInteger();
+		long deadline = System.nanoTime() + duration.toNanos();
+
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		sampler.scheduleWithFixedDelay(() -> {
+			busyThreads.accumulateAndGet(metric("tomcat.threads.busy"), Math::max);
+			pendingConnections.accumulateAndGet(metric("hikaricp.connections.pending"), Math::max);
+		}, 0, 250, TimeUnit.MILLISECONDS);
+		List<CompletableFuture<Void>> clients = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			clients.add(loop(request, deadline, latencies, errors));
+		}
+		CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new)).join();
+		sampler.shutdownNow();
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		int completed = sorted.size() + errors.get();
+		return new Result(completed, errors.get(), completed / (double) duration.toSeconds(),
+			percentile(sorted, 0.50), percentile(sorted, 0.99), busyThreads.get(), pendingConnections.get());
+	}
+
+	// Current value of a gauge, 0 when unavailable (the sample is skipped, not the run)
+	private int metric(String name) {
+		try {
+			HttpResponse<String> response = client.send(
+				HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).timeout(timeout).build(),
+				HttpResponse.BodyHandlers.ofString());
+			Matcher value = METRIC_VALUE.matcher(response.body());
+			return response.statusCode() == 200 && value.find() ? (int) Double.parseDouble(value.group(1)) : 0;
+		} catch (Exception e) {
+			return 0;
+		}
+	}
+
+	// One client: the next request leaves when the previous one is answered
+	private CompletableFuture<Void> loop(HttpRequest request, long deadline,
+										 ConcurrentLinkedQueue<Long> latencies, AtomicInteger errors) {
+		if (System.nanoTime() >= deadline) {
+			return CompletableFuture.completedFuture(null);
+		}
+		long start = System.nanoTime();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+			.handle((response, failure) -> {
+				if (failure == null && response.statusCode() == 200) {
+					latencies.add((System.nanoTime() - start) / 1_000_000);
+				} else {
+					errors.incrementAndGet();
+				}
+				return null;
+			})
+			.thenCompose(ignored -> loop(request, deadline, latencies, errors));
+	}
+
+	private static long percentile(List<Long> sorted, double quantile) {
+		return sorted.isEmpty() ? -1 : sorted.get((int) Math.min(sorted.size() - 1, Math.floor(quantile * sorted.size())));
+	}
+}
@@ -0,0 +1,35 @@
+package com.cabinet.dentaire.service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void burstIsAdmittedThenRefusedWithTheWaitUntilRefilled() {
+		TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+		assertEquals(0, bucket.tryTake(1, 0));
+		assertEquals(0, bucket.tryTake(2, 0));
+		// Empty, 2 tokens per second: one token in half a second
+		assertEquals(SECOND / 2, bucket.tryTake(1, 0));
+		assertEquals(0, bucket.tryTake(1, SECOND / 2));
+	}
+
+	@Test
+	void refillStopsAtCapacity() {
+		TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+		assertEquals(0, bucket.tryTake(10, 0));
+		assertFalse(bucket.isFull(SECOND));
+		assertTrue(bucket.isFull(10 * SECOND));
+		assertEquals(0, bucket.tryTake(10, 10 * SECOND));
+		// Ten idle seconds did not bank more than the capacity
+		assertTrue(bucket.tryTake(1, 10 * SECOND) > 0);
+	}
+}
@@ -0,0 +1,82 @@
+package com.cabinet.dentaire.service.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+	@Test
+	void countsAreExactWhileEveryKeyHasACounter() {
+		SpaceSaving<String> sketch = new SpaceSaving<>(4);
+		sketch.offer("a", 3);
+		sketch.offer("b", 5);
+		sketch.offer("a", 4);
+		sketch.offer("c", 1);
+
+		assertEquals(List.of(
+			new SpaceSaving.Estimate<>("a", 7, 0),
+			new SpaceSaving.Estimate<>("b", 5, 0),
+			new SpaceSaving.Estimate<>("c", 1, 0)), sketch.top(10));
+		assertEquals(13, sketch.totalWeight());
+		assertEquals(List.of(new SpaceSaving.Estimate<>("a", 7, 0)), sketch.top(1));
+		assertEquals(List.of(), sketch.top(0));
+		assertEquals(List.of(), sketch.top(-1));
+	}
+
+	@Test
+	void newKeyTakesOverTheSmallestCounterAndInheritsItsCountAsError() {
+		SpaceSaving<String> sketch = new SpaceSaving<>(2);
+		sketch.offer("a", 10);
+		sketch.offer("b", 2);
+		sketch.offer("c", 1);
+
+		// "b" (2) evicted, "c" counted 2 + 1 with error 2
+		assertEquals(List.of(
+			new SpaceSaving.Estimate<>("a", 10, 0),
+			new SpaceSaving.Estimate<>("c", 3, 2)), sketch.top(2));
+
+		sketch.offer("b", 1);
+		// "c" (3) evicted this time: the heap follows the counts
+		assertEquals(List.of(
+			new SpaceSaving.Estimate<>("a", 10, 0),
+			new SpaceSaving.Estimate<>("b", 4, 3)), sketch.top(2));
+	}
+
+	@Test
+	void estimatesStayWithinTheirErrorAndHeavyHittersAreMonitored() {
+		int capacity = 20;
+		SpaceSaving<Integer> sketch = new SpaceSaving<>(capacity);
+		Map<Integer, Long> truth = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 50_000; i++) {
+			// Skewed: a few keys carry most of the weight, a long tail of 500 keys
+			int key = random.nextInt(4) == 0 ? random.nextInt(500) : random.nextInt(5);
+			long weight = 1 + random.nextInt(3);
+			sketch.offer(key, weight);
+			truth.merge(key, weight, Long::sum);
+		}
+
+		List<SpaceSaving.Estimate<Integer>> top = sketch.top(capacity);
+		assertEquals(capacity, top.size());
+		for (SpaceSaving.Estimate<Integer> estimate : top) {
+			long actual = truth.getOrDefault(estimate.key(), 0L);
+			assertTrue(actual <= estimate.count(), "count below true weight for " + estimate.key());
+			assertTrue(estimate.count() <= actual + estimate.error(), "error bound broken for " + estimate.key());
+		}
+		long threshold = sketch.totalWeight() / capacity;
+		List<Integer> monitored = top.stream().map(SpaceSaving.Estimate::key).toList();
+		truth.forEach((key, weight) -> {
+			if (weight > threshold) {
+				assertTrue(monitored.contains(key), "heavy hitter " + key + " not monitored");
+			}
+		});
+		assertEquals(List.of(0, 1, 2, 3, 4), monitored.subList(0, 5).stream().sorted().toList());
+	}
+}
@@ -0,0 +1,91 @@
+package com.cabinet.dentaire.service.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditJournalTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void survivesReopenAndLeavesOutATornLastLine() throws Exception {
+		Path file = dir.resolve("audit.journal");
+		try (AuditJournal journal = new AuditJournal(file)) {
+			journal.append(line("{\"a\":1}"));
+			journal.append(line("{\"a\":2}"));
+			// Crash in the middle of a write
+			journal.append("{\"a\":".getBytes(StandardCharsets.UTF_8));
+			journal.force();
+		}
+		try (AuditJournal reopened = new AuditJournal(file)) {
+			assertEquals(List.of("{\"a\":1}", "{\"a\":2}"), reopened.readLines(reopened.size()));
+		}
+	}
+
+	@Test
+	void appendsAfterTruncateStartFromTheBeginning() throws Exception {
+		try (AuditJournal journal = new AuditJournal(dir.resolve("audit.journal"))) {
+			journal.append(line("first"));
+			journal.truncate();
+			assertEquals(0, journal.size());
+			journal.append(line("second"));
+			assertEquals(List.of("second"), journal.readLines(journal.size()));
+		}
+	}
+
+	@Test
+	void appendReturnsThePositionToSyncUpTo() throws Exception {
+		try (AuditJournal journal = new AuditJournal(dir.resolve("audit.journal"))) {
+			long first = journal.append(line("first"));
+			long second = journal.append(line("second"));
+			assertEquals(6, first);
+			assertEquals(13, second);
+			// One sync covers both, the second call finds its position already there
+			journal.forceUpTo(first);
+			journal.forceUpTo(second);
+			journal.truncate();
+			// Positions restart after a truncate, and so does what is known to be synced
+			assertEquals(6, journal.append(line("third")));
+			journal.forceUpTo(6);
+			assertEquals(List.of("third"), journal.readLines(journal.size()));
+		}
+	}
+
+	@Test
+	void isLockedAgainstASecondWriter() throws Exception {
+		Path file = dir.resolve("audit.journal");
+		try (AuditJournal journal = new AuditJournal(file)) {
+			assertThrows(IllegalStateException.class, () -> new AuditJournal(file));
+		}
+	}
+
+	@Test
+	void ringBufferRefusesWhenFullAndDrainsInOrder() {
+		AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(true, ring.offer(i));
+		}
+		assertEquals(false, ring.offer(4));
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(3, ring.drainTo(drained, 3));
+		ring.offer(5);
+		ring.offer(6);
+		assertEquals(3, ring.drainTo(drained, 10));
+		assertEquals(List.of(0, 1, 2, 3, 5, 6), drained);
+		assertEquals(0, ring.size());
+	}
+
+	private static byte[] line(String json) {
+		return (json + "\n").getBytes(StandardCharsets.UTF_8);
+	}
+}
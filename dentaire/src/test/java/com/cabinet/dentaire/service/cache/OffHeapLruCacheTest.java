@@ -0,0 +1,96 @@
+package com.cabinet.dentaire.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapLruCacheTest {
+
+	// 8 chunks of 16 bytes: an entry may take at most 2 chunks
+	private final OffHeapLruCache<String> cache = new OffHeapLruCache<>(128, 16);
+
+	@Test
+	void valuesAreSplitIntoWholeChunksAndReadBack() {
+		byte[] twoChunks = bytes(30, 1);
+		assertTrue(cache.put("a", 1, twoChunks));
+		assertTrue(cache.put("empty", 1, new byte[0]));
+
+		assertArrayEquals(twoChunks, cache.get("a", 1));
+		assertArrayEquals(new byte[0], cache.get("empty", 1));
+		// 30 bytes round up to 2 chunks, an empty value still takes one
+		assertEquals(48, cache.usedBytes());
+		assertEquals(128, cache.capacityBytes());
+
+		// Replacing a value gives its chunks back first
+		byte[] oneChunk = bytes(10, 2);
+		assertTrue(cache.put("a", 2, oneChunk));
+		assertArrayEquals(oneChunk, cache.get("a", 2));
+		assertEquals(32, cache.usedBytes());
+
+		cache.remove("a");
+		cache.remove("empty");
+		assertEquals(0, cache.usedBytes());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvictedToMakeRoom() {
+		for (String key : new String[] {"a", "b", "c", "d"}) {
+			assertTrue(cache.put(key, 1, bytes(32, key.charAt(0))));
+		}
+		assertEquals(128, cache.usedBytes());
+
+		// "a" becomes the most recently used, "b" is now the eldest
+		cache.get("a", 1);
+		byte[] value = bytes(20, 'e');
+		assertTrue(cache.put("e", 1, value));
+
+		assertEquals(1, cache.evictions());
+		assertNull(cache.get("b", 1));
+		assertArrayEquals(bytes(32, 'a'), cache.get("a", 1));
+		assertArrayEquals(bytes(32, 'c'), cache.get("c", 1));
+		assertArrayEquals(bytes(32, 'd'), cache.get("d", 1));
+		assertArrayEquals(value, cache.get("e", 1));
+		assertEquals(4, cache.size());
+	}
+
+	@Test
+	void anotherVersionIsAMissAndDropsTheStaleEntry() {
+		cache.put("a", 1, bytes(16, 1));
+
+		assertNull(cache.get("a", 2));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.usedBytes());
+		// Dropped, so the old version is gone too
+		assertNull(cache.get("a", 1));
+		assertEquals(0, cache.hits());
+		assertEquals(2, cache.misses());
+	}
+
+	@Test
+	void valuesOverAQuarterOfTheSlabAreNotCached() {
+		cache.put("a", 1, bytes(32, 1));
+
+		assertFalse(cache.put("large", 1, bytes(33, 2)));
+		assertNull(cache.get("large", 1));
+		// Rejected before anything is evicted
+		assertEquals(0, cache.evictions());
+		assertArrayEquals(bytes(32, 1), cache.get("a", 1));
+
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapLruCache<String>(128, 8));
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapLruCache<String>(48, 16));
+	}
+
+	private static byte[] bytes(int length, int seed) {
+		byte[] value = new byte[length];
+		for (int i = 0; i < length; i++) {
+			value[i] = (byte) (seed * 31 + i);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,102 @@
+package com.cabinet.dentaire.service.coalescing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+	private static final long ONE_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+	@Test
+	void callerArrivingDuringAnExecutionWaitsForItsResult() throws Throwable {
+		SingleFlight singleFlight = new SingleFlight(ONE_MINUTE);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Object value = new Object();
+
+		AtomicReference<SingleFlight.Result> first = new AtomicReference<>();
+		Thread leader = new Thread(() -> {
+			try {
+				first.set(singleFlight.execute("key", () -> {
+					loads.incrementAndGet();
+					started.countDown();
+					release.await();
+					return value;
+				}));
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		leader.start();
+		started.await();
+
+		AtomicReference<SingleFlight.Result> second = new AtomicReference<>();
+		Thread follower = new Thread(() -> {
+			try {
+				second.set(singleFlight.execute("key", () -> {
+					loads.incrementAndGet();
+					return new Object();
+				}));
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		follower.start();
+		// Parked on the leader's future
+		while (follower.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		release.countDown();
+		leader.join();
+		follower.join();
+
+		assertEquals(1, loads.get());
+		assertEquals(SingleFlight.Outcome.EXECUTED, first.get().outcome());
+		assertEquals(SingleFlight.Outcome.COALESCED, second.get().outcome());
+		assertSame(value, second.get().value());
+	}
+
+	@Test
+	void resultIsReusedWithinTheStalenessWindowOnly() throws Throwable {
+		SingleFlight fresh = new SingleFlight(ONE_MINUTE);
+		assertEquals(SingleFlight.Outcome.EXECUTED, fresh.execute("key", () -> 1).outcome());
+		SingleFlight.Result reused = fresh.execute("key", () -> 2);
+		assertEquals(SingleFlight.Outcome.REUSED, reused.outcome());
+		assertEquals(1, reused.value());
+		// Other arguments are another read
+		assertEquals(SingleFlight.Outcome.EXECUTED, fresh.execute("other", () -> 3).outcome());
+
+		fresh.invalidateAll();
+		assertEquals(SingleFlight.Outcome.EXECUTED, fresh.execute("key", () -> 4).outcome());
+
+		SingleFlight noReuse = new SingleFlight(0);
+		noReuse.execute("key", () -> 1);
+		SingleFlight.Result again = noReuse.execute("key", () -> 2);
+		assertEquals(SingleFlight.Outcome.EXECUTED, again.outcome());
+		assertEquals(2, again.value());
+	}
+
+	@Test
+	void failureIsThrownAsIsAndNeverReused() throws Throwable {
+		SingleFlight singleFlight = new SingleFlight(ONE_MINUTE);
+		IllegalStateException failure = new IllegalStateException("database down");
+
+		assertSame(failure, assertThrows(IllegalStateException.class,
+			() -> singleFlight.execute("key", () -> {
+				throw failure;
+			})));
+
+		SingleFlight.Result retried = singleFlight.execute("key", () -> "ok");
+		assertEquals(SingleFlight.Outcome.EXECUTED, retried.outcome());
+		assertEquals("ok", retried.value());
+	}
+}
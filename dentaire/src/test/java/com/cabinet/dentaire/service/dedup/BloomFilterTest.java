@@ -0,0 +1,51 @@
+package com.cabinet.dentaire.service.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void everyInsertedKeyIsReported() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("patient" + i + "@example.com");
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("patient" + i + "@example.com"));
+		}
+		assertEquals(10_000, filter.insertions());
+	}
+
+	@Test
+	void falsePositiveRateStaysNearItsTargetAtTheExpectedSize() {
+		BloomFilter filter = new BloomFilter(20_000, 0.01);
+		for (int i = 0; i < 20_000; i++) {
+			filter.put("+3361234" + i);
+		}
+
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("+3379876" + i)) {
+				falsePositives++;
+			}
+		}
+		// 1% target, some slack for the hash
+		assertTrue(falsePositives < probes * 0.02, falsePositives + " false positives");
+	}
+
+	@Test
+	void emptyAndTinyFiltersAnswer() {
+		BloomFilter empty = new BloomFilter(0, 0.01);
+		assertFalse(empty.mightContain("anyone@example.com"));
+		assertFalse(empty.mightContain(""));
+
+		empty.put("");
+		assertTrue(empty.mightContain(""));
+	}
+}
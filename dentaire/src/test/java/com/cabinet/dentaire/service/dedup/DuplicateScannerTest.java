@@ -0,0 +1,80 @@
+package com.cabinet.dentaire.service.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.service.dedup.PatientMatching.Candidate;
+
+class DuplicateScannerTest {
+
+	private static final LocalDate BIRTH_DATE = LocalDate.of(1985, 4, 12);
+
+	private final ForkJoinPool pool = new ForkJoinPool(2);
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void pairSharingEveryKeyIsComparedOnce() {
+		DuplicateScanner scanner = new DuplicateScanner(0.70, 500, 50);
+		List<Candidate> candidates = List.of(
+			Candidate.of(1L, "Mohamed", "Alaoui", "0612345678", null, BIRTH_DATE),
+			Candidate.of(2L, "Mohammed", "Alaoui", "+212612345678", null, BIRTH_DATE),
+			Candidate.of(3L, "Nadia", "Bennani", "0698765432", null, LocalDate.of(1970, 1, 1)));
+
+		DuplicateScanner.Result result = scanner.scan(candidates, pool);
+
+		// Birth date, name and phone blocks of 1 + 2; patient 3 shares nothing
+		assertEquals(3, result.blocks());
+		assertEquals(0, result.windowedBlocks());
+		assertEquals(1, result.comparisons());
+		assertEquals(1, result.suggestions().size());
+		DuplicateScanner.Suggestion suggestion = result.suggestions().get(0);
+		assertEquals(1L, suggestion.patientId());
+		assertEquals(2L, suggestion.duplicateId());
+	}
+
+	@Test
+	void oversizedBlockIsWindowedAndItsPairsAreStillReportedOnce() {
+		// Blocks above 2 members are windowed, each member compared with the next one
+		DuplicateScanner scanner = new DuplicateScanner(0.70, 2, 1);
+		List<Candidate> candidates = List.of(
+			Candidate.of(1L, "Mohamed", "Alaoui", "0612345678", null, BIRTH_DATE),
+			Candidate.of(2L, "Mohammed", "Alaoui", "0612345678", null, BIRTH_DATE),
+			Candidate.of(3L, "Youssef", "Tazi", "0655555555", null, BIRTH_DATE),
+			Candidate.of(4L, "Karim", "Zeroual", "0644444444", null, BIRTH_DATE));
+
+		DuplicateScanner.Result result = scanner.scan(candidates, pool);
+
+		// b: (4 members, windowed), n:alm and p:612345678 (1 + 2)
+		assertEquals(3, result.blocks());
+		assertEquals(1, result.windowedBlocks());
+		// Windowed: 3 neighbour pairs by name; 1 + 2 again in n:, not in p: (n: was exhaustive)
+		assertEquals(4, result.comparisons());
+		assertEquals(1, result.suggestions().size());
+		assertEquals(1L, result.suggestions().get(0).patientId());
+		assertEquals(2L, result.suggestions().get(0).duplicateId());
+	}
+
+	@Test
+	void onCreateCheckSkipsThePatientItself() {
+		DuplicateScanner scanner = new DuplicateScanner(0.70, 500, 50);
+		Candidate created = Candidate.of(5L, "Mohamed", "Alaoui", "0612345678", null, BIRTH_DATE);
+
+		List<DuplicateScanner.Suggestion> suggestions = scanner.scoreAgainst(created, List.of(
+			created,
+			Candidate.of(2L, "Mohammed", "Alaoui", "0612345678", null, null)));
+
+		assertEquals(1, suggestions.size());
+		assertEquals(2L, suggestions.get(0).patientId());
+		assertEquals(5L, suggestions.get(0).duplicateId());
+	}
+}
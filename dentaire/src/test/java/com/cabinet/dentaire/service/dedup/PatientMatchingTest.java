@@ -0,0 +1,73 @@
+package com.cabinet.dentaire.service.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.service.dedup.PatientMatching.Candidate;
+
+class PatientMatchingTest {
+
+	private static final LocalDate BIRTH_DATE = LocalDate.of(1985, 4, 12);
+
+	@Test
+	void phoneKeyKeepsTheSignificantDigitsWhateverTheFormatting() {
+		assertEquals("612345678", PatientMatching.phoneKey("+212 6 12-34-56-78"));
+		assertEquals("612345678", PatientMatching.phoneKey("0612345678"));
+		assertEquals("612345678", PatientMatching.phoneKey("00212.612.345.678"));
+		assertEquals("1234", PatientMatching.phoneKey("12-34"));
+		assertNull(PatientMatching.phoneKey("n/a"));
+		assertNull(PatientMatching.phoneKey(null));
+	}
+
+	@Test
+	void nameKeyFoldsTransliterations() {
+		assertEquals("md", PatientMatching.phonetic("Mohamed"));
+		assertEquals("md", PatientMatching.phonetic("Mohammed"));
+		assertEquals("md", PatientMatching.phonetic("Muhammad"));
+		assertEquals(PatientMatching.nameKey("Mohamed", "Alaoui"), PatientMatching.nameKey("Mohammed", "Alaui"));
+		assertEquals(PatientMatching.nameKey("Fatima", "Chraibi"), PatientMatching.nameKey("Fatima", "Shraibi"));
+		assertEquals("elidrissi", PatientMatching.normalizeName("El-Idrissi"));
+		assertEquals("helene", PatientMatching.normalizeName("Hélène"));
+		assertNull(PatientMatching.nameKey("Mohamed", "--"));
+	}
+
+	@Test
+	void jaroWinklerMatchesTheReferenceValues() {
+		assertEquals(0.961, PatientMatching.jaroWinkler("martha", "marhta"), 0.001);
+		assertEquals(0.840, PatientMatching.jaroWinkler("dwayne", "duane"), 0.001);
+		assertEquals(0.813, PatientMatching.jaroWinkler("dixon", "dicksonx"), 0.001);
+		assertEquals(1, PatientMatching.jaroWinkler("alaoui", "alaoui"));
+		assertEquals(0, PatientMatching.jaroWinkler("abc", "xyz"));
+		assertEquals(0, PatientMatching.jaroWinkler("", "abc"));
+	}
+
+	@Test
+	void nearIdenticalNameWithSamePhoneMatchesButRelativesSharingAPhoneDoNot() {
+		Candidate patient = Candidate.of(1L, "Mohamed", "Alaoui", "0612345678", null, BIRTH_DATE);
+		Candidate retyped = Candidate.of(2L, "Mohammed", "Alaoui", "+212 612 345 678", null, null);
+		Candidate swapped = Candidate.of(3L, "Alaoui", "Mohamed", null, null, BIRTH_DATE);
+		Candidate sister = Candidate.of(4L, "Salma", "Alaoui", "0612345678", null, LocalDate.of(1990, 1, 3));
+
+		PatientMatching.Match match = PatientMatching.match(patient, retyped, 0.70);
+		assertNotNull(match);
+		assertTrue(match.reasons().contains("phone"), match.reasons());
+		assertNotNull(PatientMatching.match(patient, swapped, 0.70));
+		assertNull(PatientMatching.match(patient, sister, 0.70));
+	}
+
+	@Test
+	void blockKeysAreSortedSoBothSidesSeeTheSameFirstSharedKey() {
+		Candidate candidate = Candidate.of(1L, "Mohamed", "Alaoui", "0612345678", null, BIRTH_DATE);
+
+		List<String> keys = candidate.blockKeys();
+		assertEquals(List.of("b:1985-04-12", "n:alm", "p:612345678"), keys);
+		assertEquals(keys.stream().sorted().toList(), keys);
+	}
+}
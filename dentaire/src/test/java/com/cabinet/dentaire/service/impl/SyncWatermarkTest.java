@@ -0,0 +1,70 @@
+package com.cabinet.dentaire.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.enums.SyncEntityType;
+import com.cabinet.dentaire.exception.InvalidRequestException;
+
+class SyncWatermarkTest {
+
+	private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	@Test
+	void noTokenStartsEveryCursorAtTheOrigin() {
+		SyncWatermark watermark = SyncWatermark.decode(null);
+		for (int slot = 0; slot <= SyncWatermark.tombstoneSlot(); slot++) {
+			assertEquals(ORIGIN, watermark.since(slot));
+			assertEquals(0, watermark.afterId(slot));
+		}
+		assertEquals(watermark.encode(), SyncWatermark.decode(" ").encode());
+	}
+
+	@Test
+	void cursorsSurviveARoundTripAtMicrosecondPrecision() {
+		Patient patient = new Patient();
+		patient.setId(42L);
+		patient.setUpdatedAt(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_456_789));
+		Treatment treatment = new Treatment();
+		treatment.setId(7L);
+		treatment.setUpdatedAt(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_999_000));
+
+		SyncWatermark watermark = SyncWatermark.decode(null);
+		watermark.advance(SyncEntityType.PATIENT.ordinal(), patient);
+		watermark.advance(SyncEntityType.TREATMENT.ordinal(), treatment);
+		SyncWatermark decoded = SyncWatermark.decode(watermark.encode());
+
+		// Nanoseconds are cut to what the timestamp columns store
+		assertEquals(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_456_000), decoded.since(SyncEntityType.PATIENT.ordinal()));
+		assertEquals(42, decoded.afterId(SyncEntityType.PATIENT.ordinal()));
+		assertEquals(treatment.getUpdatedAt(), decoded.since(SyncEntityType.TREATMENT.ordinal()));
+		assertEquals(7, decoded.afterId(SyncEntityType.TREATMENT.ordinal()));
+		assertEquals(ORIGIN, decoded.since(SyncWatermark.tombstoneSlot()));
+		assertEquals(watermark.encode(), decoded.encode());
+	}
+
+	@Test
+	void tamperedTokensAreRejectedAsInvalidRequests() {
+		String valid = SyncWatermark.decode(null).encode();
+		String raw = new String(Base64.getUrlDecoder().decode(valid), StandardCharsets.UTF_8);
+
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode("not a token!"));
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode(encode(raw.replace("v1", "v2"))));
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode(encode(raw + ";0,0")));
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode(encode(raw.replaceFirst(";0,0", ";x,0"))));
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode(encode(raw.replaceFirst(";0,0", ";0"))));
+		assertThrows(InvalidRequestException.class, () -> SyncWatermark.decode(valid.substring(0, valid.length() - 3)));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
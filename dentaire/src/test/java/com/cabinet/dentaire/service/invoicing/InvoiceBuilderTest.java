@@ -0,0 +1,62 @@
+package com.cabinet.dentaire.service.invoicing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.BillableLine;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.PatientInvoice;
+import com.cabinet.dentaire.service.invoicing.InvoiceBuilder.PatientLines;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class InvoiceBuilderTest {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2026, 9, 14, 9, 0);
+
+	private final InvoiceBuilder builder = new InvoiceBuilder(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+	@Test
+	void totalIsQuantityTimesPriceExactToTheCent() {
+		PatientInvoice invoice = builder.invoice(new PatientLines(7L, List.of(
+			line(1L, 3, "0.10"),
+			line(1L, 1, "0.20"),
+			line(2L, 2, "149.99"))));
+
+		assertEquals(new BigDecimal("300.48"), invoice.total());
+		assertEquals(2, invoice.appointmentCount());
+		assertEquals(3, invoice.lineCount());
+		assertTrue(invoice.lines().contains("\"lineTotal\":0.30"), invoice.lines());
+	}
+
+	@Test
+	void parallelBuildKeepsThePatientOrder() {
+		List<PatientLines> patients = new ArrayList<>();
+		for (long id = 1; id <= 5000; id++) {
+			patients.add(new PatientLines(id, List.of(line(id, 1, "10.00"))));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<PatientInvoice> invoices = builder.build(patients, pool);
+			assertEquals(5000, invoices.size());
+			for (int i = 0; i < invoices.size(); i++) {
+				assertEquals(i + 1L, invoices.get(i).patientId());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static BillableLine line(Long appointmentId, int quantity, String unitPrice) {
+		return new BillableLine(appointmentId, MORNING, appointmentId * 10, 1L, "DET", "Detartrage", quantity,
+			new BigDecimal(unitPrice));
+	}
+}
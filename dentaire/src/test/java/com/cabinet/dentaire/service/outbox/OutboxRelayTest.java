@@ -0,0 +1,107 @@
+package com.cabinet.dentaire.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cabinet.dentaire.entity.OutboxEvent;
+import com.cabinet.dentaire.enums.OutboxEventType;
+import com.cabinet.dentaire.repository.OutboxEventRepository;
+import com.cabinet.dentaire.service.tenant.TenantRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxRelayTest {
+
+	private static final int BATCH_SIZE = 3;
+
+	// Outbox table: unpublished events are read in id order, BATCH_SIZE at a time
+	private final List<OutboxEvent> table = new ArrayList<>();
+	private final List<Long> delivered = new ArrayList<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private int failuresLeft;
+
+	private final OutboxRelay relay = relay();
+
+	@Test
+	void eventsAreDeliveredInIdOrderBatchByBatch() {
+		for (long id = 1; id <= 7; id++) {
+			table.add(event(id, id % 2 == 0 ? 20L : 10L));
+		}
+
+		relay.relay();
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), delivered);
+		table.forEach(event -> assertNotNull(event.getPublishedAt()));
+		assertEquals(7, meterRegistry.counter("dentaire.outbox.published").count());
+	}
+
+	@Test
+	void failedBatchIsRetriedWholeBeforeAnyLaterEvent() throws InterruptedException {
+		for (long id = 1; id <= 5; id++) {
+			table.add(event(id, 10L));
+		}
+		failuresLeft = 1;
+
+		relay.relay();
+		assertEquals(List.of(), delivered);
+		for (OutboxEvent event : table) {
+			assertNull(event.getPublishedAt());
+		}
+		assertEquals(1, table.get(0).getAttempts());
+		assertEquals("java.io.IOException: sink down", table.get(0).getLastError());
+		assertEquals(0, table.get(3).getAttempts());
+
+		// Backing off: the next run does not try yet
+		relay.relay();
+		assertEquals(List.of(), delivered);
+		assertEquals(1, table.get(0).getAttempts());
+
+		Thread.sleep(1100);
+		relay.relay();
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), delivered);
+		assertEquals(1, meterRegistry.counter("dentaire.outbox.failures").count());
+	}
+
+	private OutboxRelay relay() {
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		when(repository.tryRelayLock(anyLong())).thenReturn(true);
+		when(repository.findNextBatch(anyInt())).thenAnswer(invocation -> table.stream()
+			.filter(event -> event.getPublishedAt() == null)
+			.sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+			.limit(invocation.<Integer>getArgument(0))
+			.toList());
+		OutboxEventSink sink = events -> {
+			if (failuresLeft > 0) {
+				failuresLeft--;
+				throw new IOException("sink down");
+			}
+			events.forEach(event -> delivered.add(event.getId()));
+		};
+		TenantRegistry tenantRegistry = new TenantRegistry(false, List.of(), "clinic_", "X-Tenant-Id", 1, 4, 5000);
+		return new OutboxRelay(repository, tenantRegistry, sink, mock(PlatformTransactionManager.class),
+			meterRegistry, BATCH_SIZE, 50, 7);
+	}
+
+	private static OutboxEvent event(long id, long appointmentId) {
+		OutboxEvent event = OutboxEvent.builder()
+			.aggregateType("Appointment")
+			.aggregateId(appointmentId)
+			.eventType(OutboxEventType.APPOINTMENT_STATUS_CHANGED)
+			.payload("{}")
+			.build();
+		event.setId(id);
+		return event;
+	}
+}
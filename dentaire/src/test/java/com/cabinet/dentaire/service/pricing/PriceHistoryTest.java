@@ -0,0 +1,57 @@
+package com.cabinet.dentaire.service.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.entity.TreatmentPrice;
+
+class PriceHistoryTest {
+
+	private static final LocalDateTime JANUARY = LocalDateTime.of(2026, 1, 1, 0, 0);
+	private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 1, 9, 30);
+
+	@Test
+	void priceInEffectIsTheLastEntryAtOrBeforeTheTime() {
+		TreatmentPriceSnapshot.PriceHistory history = TreatmentPriceSnapshot.PriceHistory.of(List.of(
+			entry("300.00", JANUARY),
+			entry("350.00", MARCH)), new BigDecimal("350.00"));
+
+		assertEquals(new BigDecimal("300.00"), at(history, JANUARY));
+		assertEquals(new BigDecimal("300.00"), at(history, MARCH.minusNanos(1_000)));
+		assertEquals(new BigDecimal("350.00"), at(history, MARCH));
+		assertEquals(new BigDecimal("350.00"), at(history, MARCH.plusYears(5)));
+	}
+
+	@Test
+	void earliestEntryAlsoPricesWhatCameBefore() {
+		TreatmentPriceSnapshot.PriceHistory history = TreatmentPriceSnapshot.PriceHistory.of(List.of(
+			entry("300.00", MARCH)), new BigDecimal("300.00"));
+
+		assertEquals(new BigDecimal("300.00"), at(history, JANUARY));
+	}
+
+	@Test
+	void withoutHistoryTheCatalogPriceAppliesAtAllTimes() {
+		TreatmentPriceSnapshot.PriceHistory history = TreatmentPriceSnapshot.PriceHistory.of(List.of(), new BigDecimal("120.00"));
+
+		assertEquals(new BigDecimal("120.00"), at(history, LocalDateTime.of(1990, 6, 1, 12, 0)));
+		assertEquals(new BigDecimal("120.00"), at(history, MARCH));
+	}
+
+	private static BigDecimal at(TreatmentPriceSnapshot.PriceHistory history, LocalDateTime time) {
+		return history.at(TreatmentPriceSnapshot.instant(time));
+	}
+
+	private static TreatmentPrice entry(String price, LocalDateTime effectiveFrom) {
+		return TreatmentPrice.builder()
+			.treatmentId(1L)
+			.price(new BigDecimal(price))
+			.effectiveFrom(effectiveFrom)
+			.build();
+	}
+}
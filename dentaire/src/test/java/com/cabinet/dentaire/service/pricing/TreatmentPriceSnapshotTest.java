@@ -0,0 +1,69 @@
+package com.cabinet.dentaire.service.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.entity.Treatment;
+import com.cabinet.dentaire.event.TreatmentChangedEvent;
+import com.cabinet.dentaire.repository.TreatmentPriceRepository;
+import com.cabinet.dentaire.repository.TreatmentRepository;
+
+class TreatmentPriceSnapshotTest {
+
+	private final TreatmentRepository treatmentRepository = mock(TreatmentRepository.class);
+	private final TreatmentPriceRepository treatmentPriceRepository = mock(TreatmentPriceRepository.class);
+	private final TreatmentPriceSnapshot snapshot = new TreatmentPriceSnapshot(treatmentRepository, treatmentPriceRepository);
+	// The treatments table, as the next query sees it
+	private final AtomicReference<BigDecimal> price = new AtomicReference<>(new BigDecimal("50.00"));
+
+	@Test
+	void catalogIsLoadedOnceAndReloadedAfterAChange() {
+		when(treatmentPriceRepository.findAllByOrderByTreatmentIdAscEffectiveFromAsc()).thenReturn(List.of());
+		when(treatmentRepository.findAll()).thenAnswer(invocation -> List.of(treatment()));
+
+		assertEquals(new BigDecimal("50.00"), snapshot.priceOf(1L));
+		assertEquals(1L, snapshot.idOfCode("DET"));
+		verify(treatmentRepository, times(1)).findAll();
+
+		price.set(new BigDecimal("60.00"));
+		snapshot.onTreatmentChanged(new TreatmentChangedEvent(1L));
+		assertEquals(new BigDecimal("60.00"), snapshot.priceOf(1L));
+		verify(treatmentRepository, times(2)).findAll();
+	}
+
+	@Test
+	void loadInvalidatedWhileReadingIsNotKept() {
+		// The price history is read, then a change commits (and invalidates) before
+		// the treatments are read: what this load built must not stay installed
+		when(treatmentPriceRepository.findAllByOrderByTreatmentIdAscEffectiveFromAsc()).thenAnswer(invocation -> {
+			if (price.get().compareTo(new BigDecimal("50.00")) == 0) {
+				price.set(new BigDecimal("60.00"));
+				snapshot.onTreatmentChanged(new TreatmentChangedEvent(1L));
+			}
+			return List.of();
+		});
+		when(treatmentRepository.findAll()).thenAnswer(invocation -> List.of(treatment()));
+
+		snapshot.priceOf(1L);
+		assertEquals(new BigDecimal("60.00"), snapshot.priceOf(1L));
+		verify(treatmentRepository, times(2)).findAll();
+		// Installed by the second load, not invalidated since
+		snapshot.priceOf(1L);
+		verify(treatmentRepository, times(2)).findAll();
+	}
+
+	private Treatment treatment() {
+		Treatment treatment = Treatment.builder().name("Detartrage").code("DET").price(price.get()).build();
+		treatment.setId(1L);
+		return treatment;
+	}
+}
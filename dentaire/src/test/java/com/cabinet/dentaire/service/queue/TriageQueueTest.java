@@ -0,0 +1,109 @@
+package com.cabinet.dentaire.service.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.entity.Patient;
+import com.cabinet.dentaire.enums.QueuePriority;
+
+class TriageQueueTest {
+
+	private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+	private final TriageQueue queue = new TriageQueue(Duration.ofMinutes(30));
+
+	@Test
+	void emergenciesThenAppointmentsByTimeThenWalkInsByArrival() {
+		queue.offer(patient(1), QueuePriority.WALK_IN, null, NINE);
+		queue.offer(patient(2), QueuePriority.APPOINTMENT, NINE.plusMinutes(30), NINE.plusMinutes(1));
+		queue.offer(patient(3), QueuePriority.APPOINTMENT, NINE.plusMinutes(15), NINE.plusMinutes(2));
+		queue.offer(patient(4), QueuePriority.EMERGENCY, null, NINE.plusMinutes(3));
+		queue.offer(patient(5), QueuePriority.WALK_IN, null, NINE.plusMinutes(4));
+
+		assertEquals(List.of(4L, 3L, 2L, 1L, 5L), ids(queue.snapshot()));
+		assertEquals(4L, queue.peek().getId());
+		for (long expected : new long[] {4, 3, 2, 1, 5}) {
+			assertEquals(expected, queue.poll().getId());
+		}
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	void walkInWaitingLongerThanTheAgingDelayCompetesWithAppointmentsByArrival() {
+		queue.offer(patient(1), QueuePriority.WALK_IN, null, NINE);
+		queue.offer(patient(2), QueuePriority.APPOINTMENT, NINE.plusMinutes(20), NINE.plusMinutes(10));
+
+		queue.age(NINE.plusMinutes(29));
+		assertEquals(List.of(2L, 1L), ids(queue.snapshot()));
+
+		// Aged up with its arrival (9:00) as reference, ahead of the 9:20 appointment
+		queue.age(NINE.plusMinutes(30));
+		assertEquals(List.of(1L, 2L), ids(queue.snapshot()));
+		assertEquals(1, queue.rank(1L));
+		assertEquals(QueuePriority.WALK_IN, queue.priorityOf(1L));
+		assertEquals(1L, queue.poll().getId());
+	}
+
+	@Test
+	void rankFollowsRemoveAndReprioritize() {
+		for (long id = 1; id <= 6; id++) {
+			queue.offer(patient(id), QueuePriority.WALK_IN, null, NINE.plusMinutes(id));
+		}
+		assertEquals(3, queue.rank(3L));
+
+		assertTrue(queue.remove(2L));
+		assertFalse(queue.remove(2L));
+		assertEquals(-1, queue.rank(2L));
+		assertEquals(2, queue.rank(3L));
+		assertEquals(5, queue.rank(6L));
+
+		assertTrue(queue.reprioritize(6L, QueuePriority.EMERGENCY, null));
+		assertEquals(1, queue.rank(6L));
+		assertEquals(2, queue.rank(1L));
+		assertEquals(List.of(6L, 1L, 3L, 4L, 5L), ids(queue.snapshot()));
+
+		assertTrue(queue.reprioritize(6L, QueuePriority.WALK_IN, null));
+		assertEquals(5, queue.rank(6L));
+		assertFalse(queue.reprioritize(42L, QueuePriority.EMERGENCY, null));
+		assertEquals(List.of(1L, 3L, 4L, 5L, 6L), ids(drain()));
+	}
+
+	@Test
+	void offeringAQueuedPatientAgainIsIgnored() {
+		assertTrue(queue.offer(patient(1), QueuePriority.WALK_IN, null, NINE));
+		assertFalse(queue.offer(patient(1), QueuePriority.EMERGENCY, null, NINE.plusMinutes(1)));
+
+		assertEquals(1, queue.size());
+		assertEquals(QueuePriority.WALK_IN, queue.priorityOf(1L));
+		assertEquals(1L, queue.poll().getId());
+		assertTrue(queue.offer(patient(1), QueuePriority.EMERGENCY, null, NINE.plusMinutes(2)));
+	}
+
+	private List<Patient> drain() {
+		List<Patient> polled = new ArrayList<>();
+		for (Patient next = queue.poll(); next != null; next = queue.poll()) {
+			polled.add(next);
+		}
+		return polled;
+	}
+
+	private static List<Long> ids(List<Patient> patients) {
+		return patients.stream().map(Patient::getId).toList();
+	}
+
+	private static Patient patient(long id) {
+		Patient patient = Patient.builder().firstName("P" + id).lastName("Test").build();
+		patient.setId(id);
+		return patient;
+	}
+}
@@ -0,0 +1,67 @@
+package com.cabinet.dentaire.service.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+	@Test
+	void firesEveryTimeoutOnceNeverEarlyAndWithinOneTick() {
+		Random random = new Random(42);
+		long start = 1_000_000_123L;
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 8, start);
+
+		List<Long> deadlines = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			// From already due up to several overflow levels away
+			long deadline = start - 50 + (long) (random.nextDouble() * random.nextDouble() * 200_000);
+			deadlines.add(deadline);
+			wheel.schedule(i, deadline);
+		}
+
+		Set<Integer> fired = new HashSet<>();
+		long now = start;
+		while (fired.size() < deadlines.size()) {
+			now += 1 + random.nextInt(300);
+			for (HierarchicalTimingWheel.Timeout<Integer> timeout : wheel.advanceTo(now)) {
+				long deadline = deadlines.get(timeout.payload());
+				assertTrue(fired.add(timeout.payload()), "fired twice: " + timeout.payload());
+				assertTrue(deadline <= now, "fired early: " + timeout.payload());
+				assertTrue(wheel.currentTime() - deadline < 10 + 300, "fired late: " + timeout.payload());
+			}
+		}
+		assertEquals(0, wheel.pendingCount());
+	}
+
+	@Test
+	void firesInTheTickOfTheDeadline() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 0);
+		wheel.schedule("in 2h", 7_200_000);
+
+		assertTrue(wheel.advanceTo(7_199_999).isEmpty());
+		assertEquals(List.of("in 2h"), payloads(wheel.advanceTo(7_200_000)));
+	}
+
+	@Test
+	void cancelledTimeoutsDoNotFire() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 0);
+		HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 90_000_000);
+		wheel.schedule("kept", 90_000_000);
+		cancelled.cancel();
+
+		assertEquals(List.of("kept"), payloads(wheel.advanceTo(90_000_000)));
+		assertEquals(0, wheel.pendingCount());
+	}
+
+	private static <T> List<T> payloads(List<HierarchicalTimingWheel.Timeout<T>> timeouts) {
+		return timeouts.stream().map(HierarchicalTimingWheel.Timeout::payload).toList();
+	}
+}
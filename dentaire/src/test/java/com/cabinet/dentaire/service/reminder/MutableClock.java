@@ -0,0 +1,37 @@
+package com.cabinet.dentaire.service.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+// Virtual clock: time only moves when the test says so
+class MutableClock extends Clock {
+
+	private Instant now;
+	private final ZoneId zone;
+
+	MutableClock(Instant start, ZoneId zone) {
+		this.now = start;
+		this.zone = zone;
+	}
+
+	void advance(Duration duration) {
+		now = now.plus(duration);
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return new MutableClock(now, zone);
+	}
+
+	@Override
+	public Instant instant() {
+		return now;
+	}
+}
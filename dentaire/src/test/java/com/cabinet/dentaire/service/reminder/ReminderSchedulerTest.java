@@ -0,0 +1,135 @@
+package com.cabinet.dentaire.service.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cabinet.dentaire.enums.ReminderChannel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReminderSchedulerTest {
+
+	private static final ZoneId ZONE = ZoneId.of("Africa/Casablanca");
+
+	private MutableClock clock;
+	private RecordingSink sink;
+	private ReminderScheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(Instant.parse("2026-03-02T08:00:00Z"), ZONE);
+		sink = new RecordingSink();
+		scheduler = new ReminderScheduler(clock, List.of(Duration.ofHours(24), Duration.ofHours(2)),
+			Set.of(ReminderChannel.SMS, ReminderChannel.EMAIL), 2, sink, Runnable::run, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void sendsTheDayBeforeAndTwoHoursBefore() {
+		scheduler.schedule(target(1L, now().plusHours(30), "a@example.com"));
+
+		advance(Duration.ofHours(6).minusSeconds(1));
+		assertTrue(sink.sent.isEmpty());
+
+		advance(Duration.ofSeconds(1));
+		assertEquals(List.of("SMS:1:PT24H", "EMAIL:1:PT24H"), sink.sent);
+
+		advance(Duration.ofHours(22));
+		assertEquals(List.of("SMS:1:PT24H", "EMAIL:1:PT24H", "SMS:1:PT2H", "EMAIL:1:PT2H"), sink.sent);
+		assertFalse(scheduler.isScheduled(1L));
+	}
+
+	@Test
+	void onlySchedulesRemindersStillAhead() {
+		scheduler.schedule(target(1L, now().plusHours(3), null));
+
+		advance(Duration.ofHours(1));
+		assertEquals(List.of("SMS:1:PT2H"), sink.sent);
+	}
+
+	@Test
+	void rescheduleReplacesThePendingReminders() {
+		scheduler.schedule(target(1L, now().plusHours(30), null));
+		scheduler.schedule(target(1L, now().plusHours(50), null));
+
+		advance(Duration.ofHours(6));
+		assertTrue(sink.sent.isEmpty());
+
+		advance(Duration.ofHours(20));
+		assertEquals(List.of("SMS:1:PT24H"), sink.sent);
+	}
+
+	@Test
+	void schedulingTheSameTargetTwiceSendsOnce() {
+		Reminder.Target target = target(1L, now().plusHours(3), null);
+		scheduler.schedule(target);
+		scheduler.schedule(target);
+
+		advance(Duration.ofHours(1));
+		assertEquals(List.of("SMS:1:PT2H"), sink.sent);
+	}
+
+	@Test
+	void cancelledAppointmentsAreNotReminded() {
+		scheduler.schedule(target(1L, now().plusHours(30), null));
+		scheduler.cancel(1L);
+
+		advance(Duration.ofHours(30));
+		assertTrue(sink.sent.isEmpty());
+	}
+
+	@Test
+	void batchesPerChannel() {
+		for (long id = 1; id <= 5; id++) {
+			scheduler.schedule(target(id, now().plusHours(3), id == 1 ? "a@example.com" : null));
+		}
+
+		advance(Duration.ofHours(1));
+		assertEquals(List.of(2, 2, 1, 1), sink.batchSizes);
+	}
+
+	private LocalDateTime now() {
+		return LocalDateTime.now(clock);
+	}
+
+	// Moves the virtual clock minute by minute, like the real tick would
+	private void advance(Duration duration) {
+		Duration step = Duration.ofMinutes(1);
+		while (duration.compareTo(step) > 0) {
+			clock.advance(step);
+			scheduler.tick();
+			duration = duration.minus(step);
+		}
+		clock.advance(duration);
+		scheduler.tick();
+	}
+
+	private Reminder.Target target(Long appointmentId, LocalDateTime time, String email) {
+		return new Reminder.Target(appointmentId, 10L, "Amine Alaoui", "0600000000", email, time);
+	}
+
+	private static class RecordingSink implements ReminderSink {
+
+		final List<String> sent = new ArrayList<>();
+		final List<Integer> batchSizes = new ArrayList<>();
+
+		@Override
+		public void send(ReminderChannel channel, List<Reminder> reminders) {
+			batchSizes.add(reminders.size());
+			for (Reminder reminder : reminders) {
+				sent.add(channel + ":" + reminder.target().appointmentId() + ":" + reminder.leadTime());
+			}
+		}
+	}
+}